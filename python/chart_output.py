@@ -0,0 +1,34 @@
+# -*- coding: utf-8 -*-
+"""
+chart_output.py
+--------------------------------------------------------
+차트 PNG 결과 출력 공용 헬퍼.
+
+- --image_out 경로가 주어지면 PNG 원본 바이트를 그 파일에 쓰고
+  {"image_path": 경로, "image_size": 바이트 수} 만 결과로 돌려줍니다.
+  (Java 가 파일을 byte[] 로 바로 읽으므로 base64 인코딩/디코딩이 없음)
+- 경로가 없으면 기존과 같이 {"image_data": base64} 를 돌려줍니다.
+--------------------------------------------------------
+"""
+import base64
+import os
+from io import BytesIO
+
+
+def figure_to_png(fig_or_plt, **savefig_kwargs):
+    """현재 figure 를 PNG 바이트로 저장합니다."""
+    buffer = BytesIO()
+    fig_or_plt.savefig(buffer, format='png', **savefig_kwargs)
+    return buffer.getvalue()
+
+
+def png_result(png_bytes, image_out=None):
+    """PNG 바이트를 결과 dict 로 만듭니다. image_out 이 있으면 파일로 씁니다."""
+    if image_out:
+        # Java 가 반쯤 쓰인 파일을 읽지 않도록 임시 파일에 쓴 뒤 이름을 바꾼다
+        tmp_path = image_out + ".part"
+        with open(tmp_path, 'wb') as f:
+            f.write(png_bytes)
+        os.replace(tmp_path, image_out)
+        return {"image_path": image_out, "image_size": len(png_bytes)}
+    return {"image_data": base64.b64encode(png_bytes).decode('ascii')}
@@ -12,8 +12,8 @@ import requests
 from http.client import RemoteDisconnected
 from urllib3.exceptions import MaxRetryError, SSLError as Urllib3SSLError
 from requests.exceptions import ConnectionError, SSLError as RequestsSSLError
-import base64
-from io import BytesIO
+from chart_output import figure_to_png, png_result
+from script_result import emit
 import pandas as pd
 import FinanceDataReader as fdr
 import matplotlib.pyplot as plt
@@ -164,14 +164,13 @@ def set_korean_font():
     plt.rcParams['axes.unicode_minus'] = False
 
 def generate_chart_with_cache(symbol, stock_name, df, start_date, end_date):
-    """주식 차트를 생성하고 캐시합니다."""
+    """주식 차트를 생성하고 캐시합니다. PNG 바이트를 반환합니다."""
     cache_key = f"{symbol}_{start_date}_{end_date}"
     cache_filename = f"{hashlib.md5(cache_key.encode()).hexdigest()}.png"
     cache_path = os.path.join(chart_cache_dir, cache_filename)
     if os.path.exists(cache_path):
         with open(cache_path, 'rb') as f:
-            img_base64 = base64.b64encode(f.read()).decode()
-        return img_base64
+            return f.read()
     try:
         set_korean_font()
         plt.figure(figsize=(10, 5))
@@ -181,13 +180,11 @@ def generate_chart_with_cache(symbol, stock_name, df, start_date, end_date):
         plt.ylabel("종가")
         plt.grid(True)
         plt.tight_layout()
-        buffer = BytesIO()
-        plt.savefig(buffer, format='png')
-        plt.savefig(cache_path, format='png')
+        png_bytes = figure_to_png(plt)
         plt.close()
-        buffer.seek(0)
-        img_base64 = base64.b64encode(buffer.read()).decode()
-        return img_base64
+        with open(cache_path, 'wb') as f:
+            f.write(png_bytes)
+        return png_bytes
     except Exception as e:
         error_msg = f"차트 생성 중 오류 발생: {e}"
         print(json.dumps({"error": error_msg}), file=sys.stderr)
@@ -281,6 +278,7 @@ def main():
     parser.add_argument('--parallel', action='store_true', help='Use multiprocessing for parallel pattern search')
     parser.add_argument('--base_symbol', type=str, help='Base symbol for chart generation')
     parser.add_argument('--chart', action='store_true', help='Generate chart image')
+    parser.add_argument('--image_out', type=str, help='Write chart PNG to this path instead of base64 JSON')
     
     args = parser.parse_args()
     
@@ -302,11 +300,11 @@ def main():
             print(json.dumps({"error": f"데이터를 가져오는 데 실패했습니다: {args.base_symbol}"}), file=sys.stderr)
             sys.exit(1)
         
-        img_base64 = generate_chart_with_cache(args.base_symbol, stock_name, df, args.start_date, args.end_date)
+        png_bytes = generate_chart_with_cache(args.base_symbol, stock_name, df, args.start_date, args.end_date)
         
-        if img_base64:
-            result = {"image_data": img_base64}
-            print(json.dumps(result, ensure_ascii=False))
+        if png_bytes:
+            result = png_result(png_bytes, args.image_out)
+            emit(result, ensure_ascii=False)
         else:
             print(json.dumps({"error": "차트 이미지 생성 실패"}), file=sys.stderr)
             
@@ -339,7 +337,7 @@ def main():
         if len(results) > args.topN:
             results = results[:args.topN]
             
-        print(json.dumps(results, ensure_ascii=False))
+        emit(results, ensure_ascii=False)
         
     else:
         parser.print_help()
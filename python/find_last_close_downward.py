@@ -16,8 +16,8 @@ import threading
 import backoff
 from http.client import RemoteDisconnected
 import matplotlib.pyplot as plt
-import base64
-from io import BytesIO
+from chart_output import figure_to_png, png_result
+from script_result import emit
 import ssl
 import urllib3
 
@@ -168,11 +168,11 @@ def save_all_data():
     logger.info("모든 종목 데이터 업데이트 완료.")
 
 # ========================================================================
-# 차트 그리기 및 Base64 변환
+# 차트 그리기 및 PNG 변환
 # ========================================================================
-def plot_and_get_base64(chart_data_list, start_date, end_date, title):
+def plot_and_get_png(chart_data_list, start_date, end_date, title):
     """
-    차트 데이터를 받아 matplotlib로 차트 그린 후 Base64 문자열 반환
+    차트 데이터를 받아 matplotlib로 차트 그린 후 PNG 바이트 반환
     """
     plt.rc('font', family='Malgun Gothic')
     plt.rcParams['axes.unicode_minus'] = False
@@ -187,12 +187,9 @@ def plot_and_get_base64(chart_data_list, start_date, end_date, title):
     plt.legend()
     plt.grid(True)
 
-    buffer = BytesIO()
-    plt.savefig(buffer, format='png')
-    buffer.seek(0)
-    base64_image = base64.b64encode(buffer.read()).decode('utf-8')
+    png_bytes = figure_to_png(plt)
     plt.close()
-    return base64_image
+    return png_bytes
 
 # ========================================================================
 # 유사 종목 분석 (상위 N)
@@ -270,7 +267,7 @@ def find_similar_chart(base_symbol, start_date, end_date, n_similar_stocks=5):
 # ========================================================================
 def plot_single_chart(base_symbol, compare_symbol, start_date, end_date):
     """
-    기준 종목과 비교 종목 차트를 그리고 Base64 반환
+    기준 종목과 비교 종목 차트를 그리고 PNG 바이트 반환
     """
     logger.info(f"개별 차트 그리기: 기준={base_symbol}, 비교={compare_symbol}")
     chart_data_list = []
@@ -291,7 +288,7 @@ def plot_single_chart(base_symbol, compare_symbol, start_date, end_date):
     except Exception as e:
         raise RuntimeError(f"{compare_symbol} 차트 로드 실패: {e}") from e
 
-    return plot_and_get_base64(chart_data_list, start_date, end_date, f"{base_symbol} vs {compare_symbol}")
+    return plot_and_get_png(chart_data_list, start_date, end_date, f"{base_symbol} vs {compare_symbol}")
 
 # ========================================================================
 # 메인 실행
@@ -302,19 +299,20 @@ def main():
     parser.add_argument("--start_date", type=str, default="2023-01-01", help="시작일")
     parser.add_argument("--end_date", type=str, default=datetime.now().strftime('%Y-%m-%d'), help="종료일")
     parser.add_argument("--compare_symbol", type=str, help="단일 비교 종목 코드")
+    parser.add_argument("--image_out", type=str, help="차트 PNG 를 base64 대신 이 파일 경로에 저장")
     parser.add_argument("--n_similar", type=int, default=5, help="유사 종목 수")
     args = parser.parse_args()
 
     try:
         if args.compare_symbol:
-            image_data = plot_single_chart(args.base_symbol, args.compare_symbol, args.start_date, args.end_date)
-            print(json.dumps({"image_data": image_data}))
+            png_bytes = plot_single_chart(args.base_symbol, args.compare_symbol, args.start_date, args.end_date)
+            emit(png_result(png_bytes, args.image_out))
         else:
             results = find_similar_chart(args.base_symbol, args.start_date, args.end_date, args.n_similar)
-            print(json.dumps({"base_symbol": args.base_symbol, "similar_stocks": results}, ensure_ascii=False, indent=2))
+            emit({"base_symbol": args.base_symbol, "similar_stocks": results}, ensure_ascii=False, indent=2)
     except Exception as e:
         logger.error(f"스크립트 실행 중 오류 발생: {e}")
-        print(json.dumps({"error": str(e)}, ensure_ascii=False))
+        emit({"error": str(e)}, ensure_ascii=False)
         sys.exit(1)  # 치명적 오류 시 즉시 종료
 
 if __name__ == "__main__":
@@ -73,8 +73,8 @@ import sys
 import backoff
 from http.client import RemoteDisconnected
 import matplotlib.pyplot as plt
-import base64
-from io import BytesIO
+from chart_output import figure_to_png, png_result
+from script_result import emit
 
 # 스크립트 파일의 디렉토리 경로를 기준으로 경로 설정
 script_dir = os.path.dirname(os.path.abspath(__file__))
@@ -158,9 +158,9 @@ def save_all_data():
             future.result()
     logger.info("모든 종목 데이터 업데이트 완료.")
 
-def plot_and_get_base64(chart_data_list, start_date, end_date, title):
+def plot_and_get_png(chart_data_list, start_date, end_date, title):
     """
-    차트 데이터를 받아 차트를 그리고 Base64 문자열로 반환하는 헬퍼 함수
+    차트 데이터를 받아 차트를 그리고 PNG 바이트로 반환하는 헬퍼 함수
     """
     # matplotlib 한글 폰트 설정
     plt.rc('font', family='Malgun Gothic')
@@ -177,13 +177,10 @@ def plot_and_get_base64(chart_data_list, start_date, end_date, title):
     plt.legend()
     plt.grid(True)
 
-    buffer = BytesIO()
-    plt.savefig(buffer, format='png')
-    buffer.seek(0)
-    base64_image = base64.b64encode(buffer.read()).decode('utf-8')
+    png_bytes = figure_to_png(plt)
     plt.close()
 
-    return base64_image
+    return png_bytes
 
 def find_similar_chart(base_symbol, start_date, end_date, n_similar_stocks=5):
     save_all_data()
@@ -259,7 +256,7 @@ def find_similar_chart(base_symbol, start_date, end_date, n_similar_stocks=5):
 
 def plot_single_chart(base_symbol, compare_symbol, start_date, end_date):
     """
-    기준 종목과 개별 비교 종목의 차트를 그리고 Base64 문자열로 반환하는 함수
+    기준 종목과 개별 비교 종목의 차트를 그리고 PNG 바이트로 반환하는 함수
     """
     logger.info(f"개별 차트 그리기 시작: 기준 종목={base_symbol}, 비교 종목={compare_symbol}")
 
@@ -286,7 +283,7 @@ def plot_single_chart(base_symbol, compare_symbol, start_date, end_date):
         return None
 
     title = f"{base_symbol} vs {compare_symbol}"
-    return plot_and_get_base64(chart_data_list, start_date, end_date, title)
+    return plot_and_get_png(chart_data_list, start_date, end_date, title)
 
 def main():
     parser = argparse.ArgumentParser(description="주가 차트 유사성 분석 및 시각화")
@@ -294,6 +291,7 @@ def main():
     parser.add_argument("--start_date", type=str, default="2023-01-01", help="분석 시작일 (YYYY-MM-DD)")
     parser.add_argument("--end_date", type=str, default=datetime.now().strftime('%Y-%m-%d'), help="분석 종료일 (YYYY-MM-DD)")
     parser.add_argument("--compare_symbol", type=str, help="개별 비교할 종목 코드 (find_similar_chart와 함께 사용할 수 없음)")
+    parser.add_argument("--image_out", type=str, help="차트 PNG 를 base64 대신 이 파일 경로에 저장")
     parser.add_argument("--n_similar", type=int, default=5, help="유사한 차트 패턴을 찾을 종목 수 (plot_single_chart와 함께 사용할 수 없음)")
     args = parser.parse_args()
 
@@ -303,23 +301,21 @@ def main():
 
     try:
         if args.compare_symbol:
-            base64_image = plot_single_chart(args.base_symbol, args.compare_symbol, args.start_date, args.end_date)
-            if base64_image:
-                json_result = json.dumps({"image_data": base64_image})
-                print(json_result)
+            png_bytes = plot_single_chart(args.base_symbol, args.compare_symbol, args.start_date, args.end_date)
+            if png_bytes:
+                emit(png_result(png_bytes, args.image_out))
             else:
-                print(json.dumps({"error": "차트 이미지를 생성할 수 없습니다."}, ensure_ascii=False))
+                emit({"error": "차트 이미지를 생성할 수 없습니다."}, ensure_ascii=False)
         else:
             similar_stocks = find_similar_chart(args.base_symbol, args.start_date, args.end_date, args.n_similar)
             if similar_stocks:
                 result = {"base_symbol": args.base_symbol, "similar_stocks": similar_stocks}
-                json_result = json.dumps(result, ensure_ascii=False, indent=2)
-                print(json_result)
+                emit(result, ensure_ascii=False, indent=2)
             else:
-                print(json.dumps({"error": "유사한 종목을 찾을 수 없습니다."}, ensure_ascii=False))
+                emit({"error": "유사한 종목을 찾을 수 없습니다."}, ensure_ascii=False)
     except Exception as e:
         logger.error(f"스크립트 실행 중 치명적 오류 발생: {e}")
-        print(json.dumps({"error": f"스크립트 실행 중 오류 발생: {str(e)}"}, ensure_ascii=False))
+        emit({"error": f"스크립트 실행 중 오류 발생: {str(e)}"}, ensure_ascii=False)
 
 if __name__ == "__main__":
     main()
\ No newline at end of file
@@ -11,8 +11,9 @@ import argparse
 from datetime import datetime
 import os
 import matplotlib.pyplot as plt
-from io import BytesIO
 import base64
+from chart_output import figure_to_png, png_result
+from script_result import emit
 from sklearn.metrics.pairwise import cosine_similarity
 import requests
 import ssl
@@ -178,15 +179,34 @@ def generate_base64_chart(df, title):
         plt.xlabel('Date')
         plt.ylabel('Close')
         plt.legend()
-        buf = BytesIO()
-        plt.savefig(buf, format='png', dpi=150, bbox_inches='tight')
+        png_bytes = figure_to_png(plt, dpi=150, bbox_inches='tight')
         plt.close()
-        buf.seek(0)
-        return base64.b64encode(buf.read()).decode('utf-8')
+        return base64.b64encode(png_bytes).decode('utf-8')
     except Exception as e:
         logger.error(f"{title} 차트 생성 실패: {e}")
         sys.exit(1)
 
+def generate_compare_chart(base_symbol, compare_symbol, start_date, end_date):
+    """기준 종목과 비교 종목 종가를 한 차트에 그려 PNG 바이트로 반환"""
+    try:
+        base_data = pd.read_parquet(os.path.join(data_dir, f"{base_symbol}.parquet")).loc[start_date:end_date]
+        compare_data = pd.read_parquet(os.path.join(data_dir, f"{compare_symbol}.parquet")).loc[start_date:end_date]
+    except Exception as e:
+        logger.error(f"차트용 데이터 로드 실패: {e}")
+        sys.exit(1)
+
+    plt.figure(figsize=(12,6))
+    plt.plot(base_data.index, base_data['Close'], label=f"{base_symbol} (base)", linewidth=2.5)
+    plt.plot(compare_data.index, compare_data['Close'], label=f"{compare_symbol} (compare)", linewidth=1.5)
+    plt.title(f"{base_symbol} vs {compare_symbol} ({start_date} ~ {end_date})")
+    plt.xlabel('Date')
+    plt.ylabel('Close')
+    plt.legend()
+    plt.grid(True)
+    png_bytes = figure_to_png(plt, dpi=150, bbox_inches='tight')
+    plt.close()
+    return png_bytes
+
 def find_similar_chart_parallel(base_symbol, start_date, end_date, method="cosine", n_similar_stocks=5, max_workers=6):
     save_all_data()
     try:
@@ -244,15 +264,22 @@ def main():
     parser.add_argument("--method", type=str, default="cosine", help="cosine, dtw, pearson, euclidean, slope")
     parser.add_argument("--n_similar", type=int, default=5)
     parser.add_argument("--threads", type=int, default=6)
+    parser.add_argument("--compare_symbol", type=str, help="단일 비교 종목 코드 (차트 생성)")
+    parser.add_argument("--image_out", type=str, help="차트 PNG 를 base64 대신 이 파일 경로에 저장")
     args = parser.parse_args()
 
+    if args.compare_symbol:
+        png_bytes = generate_compare_chart(args.base_symbol, args.compare_symbol, args.start_date, args.end_date)
+        emit(png_result(png_bytes, args.image_out))
+        return
+
     results = find_similar_chart_parallel(
         args.base_symbol, args.start_date, args.end_date,
         method=args.method, n_similar_stocks=args.n_similar,
         max_workers=args.threads
     )
     if results:
-        print(json.dumps({"base_symbol": args.base_symbol, "similar_stocks": results}, ensure_ascii=False, indent=2))
+        emit({"base_symbol": args.base_symbol, "similar_stocks": results}, ensure_ascii=False, indent=2)
     else:
         logger.error("유사 종목 없음")
         sys.exit(1)
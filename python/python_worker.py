@@ -0,0 +1,175 @@
+# -*- coding: utf-8 -*-
+"""
+python_worker.py
+--------------------------------------------------------
+Java PythonWorkerPool 이 띄워두는 상주 파이썬 워커.
+
+- stdin 으로 JSON 한 줄 요청을 받아 대상 스크립트의 main() 을
+  같은 인터프리터 안에서 실행하고, stdout 으로 프레임 단위 응답을 돌려줍니다.
+- pandas / matplotlib / sklearn 등 무거운 라이브러리는 워커 기동 시 1회만 import 됩니다.
+- 스크립트 로그는 stderr 로 나가며, Java 쪽에서 별도로 수집합니다.
+
+요청 예)  {"id": 1, "op": "run", "script": ".../find_similar_full.py", "args": ["--base_symbol", "005930"]}
+          {"id": 2, "op": "ping"}
+
+응답 프레임)
+  헤더: JSON 한 줄 + "\n"   예) {"id": 1, "exit_code": 0, "length": 52311}
+  본문: 헤더의 length 바이트만큼의 UTF-8 결과 JSON
+  - 결과는 스크립트가 script_result.emit() 으로 넘긴 문자열입니다 (워커가 작업마다 받이를 걸어 둠).
+    stdout 에 print 된 나머지 출력은 모두 로그로 보고 stderr 로 보냅니다.
+  - emit 을 쓰지 않는 스크립트는 단독 실행과 같이 stdout 전체를 결과로 봅니다.
+  - ping / ready 처럼 length 가 없는 헤더는 본문이 없습니다.
+          {"id": 2, "op": "pong", "pid": 1234, "jobs": 10}
+--------------------------------------------------------
+"""
+import argparse
+import contextlib
+import importlib
+import importlib.util
+import io
+import json
+import os
+import sys
+import traceback
+
+import script_result
+
+# 프로토콜 전용 채널 (바이너리). 스크립트 print 는 작업 중 StringIO 로 돌려진다
+_protocol_out = sys.stdout.buffer
+
+# 스크립트 경로 → (수정시각, 모듈) 캐시
+_modules = {}
+_jobs = 0
+
+DEFAULT_PRELOAD = "numpy,pandas,matplotlib,FinanceDataReader,sklearn,scipy"
+
+
+def _send(obj, payload=None):
+    """헤더 한 줄과 (있으면) 본문 바이트를 씁니다."""
+    if payload is not None:
+        obj["length"] = len(payload)
+    _protocol_out.write(json.dumps(obj, ensure_ascii=False).encode("utf-8") + b"\n")
+    if payload:
+        _protocol_out.write(payload)
+    _protocol_out.flush()
+
+
+def _take_result(emitted, output):
+    """
+    작업 결과 본문을 고릅니다.
+    emit 된 결과가 있으면 마지막 것을 쓰고 stdout 출력은 로그로 stderr 에 넘깁니다.
+    없으면 stdout 전체가 결과입니다.
+    """
+    if not emitted:
+        return output.strip()
+    if output.strip():
+        print(output.rstrip("\n"), file=sys.stderr)
+    return emitted[-1]
+
+
+def _preload(names):
+    """무거운 라이브러리를 미리 import 해 둡니다. 설치되지 않은 것은 건너뜁니다."""
+    for name in filter(None, (n.strip() for n in names.split(","))):
+        try:
+            importlib.import_module(name)
+            if name == "matplotlib":
+                import matplotlib
+                matplotlib.use("Agg")  # 헤드리스 렌더링
+        except Exception as e:
+            print(f"[python_worker] preload 실패: {name} ({e})", file=sys.stderr)
+
+
+def _load(script_path):
+    """스크립트를 모듈로 로드합니다. 파일이 바뀌지 않았다면 캐시된 모듈을 재사용합니다."""
+    path = os.path.abspath(script_path)
+    mtime = os.path.getmtime(path)
+    cached = _modules.get(path)
+    if cached and cached[0] == mtime:
+        return cached[1]
+
+    # 멀티프로세싱(spawn) 자식이 같은 이름으로 다시 import 할 수 있도록 파일명 그대로 등록
+    name = os.path.splitext(os.path.basename(path))[0]
+    script_dir = os.path.dirname(path)
+    if script_dir not in sys.path:
+        sys.path.insert(0, script_dir)
+
+    spec = importlib.util.spec_from_file_location(name, path)
+    module = importlib.util.module_from_spec(spec)
+    sys.modules[name] = module
+    spec.loader.exec_module(module)
+    _modules[path] = (mtime, module)
+    return module
+
+
+def _run(req):
+    global _jobs
+    script = req["script"]
+    args = [str(a) for a in req.get("args", [])]
+    buf = io.StringIO()
+    emitted = []
+    exit_code = 0
+    saved_argv = sys.argv
+    try:
+        # import 시점의 sys.stdout.reconfigure() 호출을 고려해 로드 중에는 stderr 로 돌린다
+        with contextlib.redirect_stdout(sys.stderr):
+            module = _load(script)
+        sys.argv = [script] + args
+        script_result.set_sink(emitted.append)
+        with contextlib.redirect_stdout(buf):
+            try:
+                module.main()
+            except SystemExit as e:
+                if e.code is None:
+                    exit_code = 0
+                elif isinstance(e.code, int):
+                    exit_code = e.code
+                else:
+                    print(e.code, file=sys.stderr)
+                    exit_code = 1
+    except Exception:
+        traceback.print_exc(file=sys.stderr)
+        exit_code = 1
+    finally:
+        script_result.set_sink(None)
+        sys.argv = saved_argv
+        _jobs += 1
+    # 실패 시에도 같은 규칙 (emit 한 오류 JSON, 없으면 출력 전체가 오류 메시지)
+    result = _take_result(emitted, buf.getvalue())
+    sys.stderr.flush()
+    return {"id": req.get("id"), "exit_code": exit_code}, result.encode("utf-8")
+
+
+def main():
+    parser = argparse.ArgumentParser(description="MyBaseLink 상주 파이썬 워커")
+    parser.add_argument("--preload", type=str, default=DEFAULT_PRELOAD, help="미리 import 할 모듈 목록 (쉼표 구분)")
+    args = parser.parse_args()
+
+    sys.stdin.reconfigure(encoding="utf-8")
+    sys.stderr.reconfigure(encoding="utf-8")
+
+    with contextlib.redirect_stdout(sys.stderr):
+        _preload(args.preload)
+    _send({"op": "ready", "pid": os.getpid()})
+
+    for line in sys.stdin:
+        line = line.strip()
+        if not line:
+            continue
+        try:
+            req = json.loads(line)
+        except ValueError as e:
+            _send({"id": None, "exit_code": 1}, f"잘못된 요청: {e}".encode("utf-8"))
+            continue
+
+        op = req.get("op", "run")
+        if op == "ping":
+            _send({"id": req.get("id"), "op": "pong", "pid": os.getpid(), "jobs": _jobs})
+        elif op == "shutdown":
+            break
+        else:
+            header, payload = _run(req)
+            _send(header, payload)
+
+
+if __name__ == "__main__":
+    main()
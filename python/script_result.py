@@ -0,0 +1,29 @@
+# -*- coding: utf-8 -*-
+"""
+script_result.py
+--------------------------------------------------------
+스크립트 결과 JSON 출력 공용 헬퍼.
+
+- 단독 실행: 결과 JSON 을 stdout 에 한 번 print 합니다 (예전과 같음).
+- python_worker 안에서 실행: 워커가 set_sink() 로 걸어 둔 받이로 결과 문자열만 넘깁니다.
+  스크립트의 다른 print 출력과 섞이지 않으므로, 워커는 stdout 에서 결과를 짐작해 떼어낼 필요가 없습니다.
+--------------------------------------------------------
+"""
+import json
+
+_sink = None
+
+
+def set_sink(sink):
+    """결과 문자열을 받을 함수를 겁니다 (None 이면 stdout 으로 print)."""
+    global _sink
+    _sink = sink
+
+
+def emit(obj, **dumps_kwargs):
+    """결과 객체를 JSON 으로 내보냅니다. dumps_kwargs 는 json.dumps 에 그대로 넘깁니다."""
+    text = json.dumps(obj, **dumps_kwargs)
+    if _sink is not None:
+        _sink(text)
+    else:
+        print(text)
@@ -0,0 +1,57 @@
+package com.mybaselink.app.config;
+
+import com.mybaselink.app.stock.pattern.ChartPatternDetector;
+import com.mybaselink.app.stock.pattern.CupAndHandleDetector;
+import com.mybaselink.app.stock.pattern.DoubleTopDetector;
+import com.mybaselink.app.stock.pattern.HeadAndShouldersDetector;
+import com.mybaselink.app.stock.pattern.TriangleDetector;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 기본 차트 패턴 판정기 등록.
+ * 새 패턴은 {@link ChartPatternDetector} 구현을 빈으로 추가하면 /chart/patterns/start 에서 바로 쓸 수 있습니다.
+ */
+@Configuration
+public class ChartPatternConfig {
+
+    @Bean
+    public ChartPatternDetector headAndShouldersDetector() {
+        return new HeadAndShouldersDetector(false);
+    }
+
+    @Bean
+    public ChartPatternDetector inverseHeadAndShouldersDetector() {
+        return new HeadAndShouldersDetector(true);
+    }
+
+    @Bean
+    public ChartPatternDetector doubleTopDetector() {
+        return new DoubleTopDetector(false);
+    }
+
+    @Bean
+    public ChartPatternDetector doubleBottomDetector() {
+        return new DoubleTopDetector(true);
+    }
+
+    @Bean
+    public ChartPatternDetector ascendingTriangleDetector() {
+        return new TriangleDetector(TriangleDetector.Kind.ASCENDING);
+    }
+
+    @Bean
+    public ChartPatternDetector descendingTriangleDetector() {
+        return new TriangleDetector(TriangleDetector.Kind.DESCENDING);
+    }
+
+    @Bean
+    public ChartPatternDetector symmetricalTriangleDetector() {
+        return new TriangleDetector(TriangleDetector.Kind.SYMMETRICAL);
+    }
+
+    @Bean
+    public ChartPatternDetector cupAndHandleDetector() {
+        return new CupAndHandleDetector();
+    }
+}
@@ -1,15 +1,24 @@
 // C:\LocBootProject\workspace\MyBaseLink\src\main\java\com\mybaselink\app\controller\ChartPatternController.java
 package com.mybaselink.app.controller;
 
+import com.mybaselink.app.service.ChartDataService;
+import com.mybaselink.app.service.ChartImageService;
 import com.mybaselink.app.service.ChartPatternService;
 import com.mybaselink.app.service.TaskStatusService;
+import com.mybaselink.app.stock.chart.ChartRenderer;
+import com.mybaselink.app.stock.pattern.ChartPatternScanner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import java.time.Duration;
 import java.util.UUID;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Controller
@@ -20,21 +29,42 @@ public class ChartPatternController {
 
     private final ChartPatternService chartPatternService;
     private final TaskStatusService taskStatusService;
+    private final ChartDataService chartDataService;
+    private final ChartPatternScanner chartPatternScanner;
+    private final ChartImageService chartImageService;
+    private final ChartRenderer chartRenderer;
 
-    public ChartPatternController(ChartPatternService chartPatternService, TaskStatusService taskStatusService) {
+    public ChartPatternController(ChartPatternService chartPatternService, TaskStatusService taskStatusService,
+                                  ChartDataService chartDataService, ChartPatternScanner chartPatternScanner,
+                                  ChartImageService chartImageService, ChartRenderer chartRenderer) {
         this.chartPatternService = chartPatternService;
         this.taskStatusService = taskStatusService;
+        this.chartDataService = chartDataService;
+        this.chartPatternScanner = chartPatternScanner;
+        this.chartImageService = chartImageService;
+        this.chartRenderer = chartRenderer;
     }
 
+    /**
+     * 차트 패턴 분석 시작. pattern 은 여러 개 가능 (pattern=a&pattern=b 또는 pattern=a,b)
+     */
     @PostMapping("/patterns/start")
     public ResponseEntity<Map<String, Object>> startPatternTask(@RequestParam String start,
                                                                  @RequestParam String end,
-                                                                 @RequestParam String pattern,
+                                                                 @RequestParam("pattern") List<String> patterns,
                                                                  @RequestParam(defaultValue = "100") int topN) {
         String taskId = UUID.randomUUID().toString();
-        logger.info("차트 패턴 분석 요청 접수. taskId={}", taskId);
+        logger.info("차트 패턴 분석 요청 접수. taskId={}, patterns={}", taskId, patterns);
+        List<String> names;
         try {
-            chartPatternService.startChartPatternTask(taskId, start, end, pattern, topN);
+            names = ChartPatternService.normalizePatterns(patterns);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        try {
+            chartPatternService.startChartPatternTask(taskId, start, end, names, topN);
             Map<String, Object> response = new HashMap<>();
             response.put("taskId", taskId);
             response.put("message", "차트 패턴 분석 작업을 시작했습니다.");
@@ -56,14 +86,24 @@ public class ChartPatternController {
         return ResponseEntity.ok(status);
     }
 
+    /**
+     * 차트 생성 시작. format=data 이면 이미지 대신 클라이언트 차트용 시세 배열 (width 로 점 수 제한, ohlc 선택)
+     */
     @PostMapping("/chart/fetch/start")
     public ResponseEntity<Map<String, Object>> startChartTask(@RequestParam String baseSymbol,
                                                               @RequestParam String start,
-                                                              @RequestParam String end) {
+                                                              @RequestParam String end,
+                                                              @RequestParam(defaultValue = "image") String format,
+                                                              @RequestParam(required = false) Integer width,
+                                                              @RequestParam(defaultValue = "false") boolean ohlc) {
         String taskId = UUID.randomUUID().toString();
-        logger.info("차트 생성 요청 접수. taskId={}, symbol={}", taskId, baseSymbol);
+        logger.info("차트 생성 요청 접수. taskId={}, symbol={}, format={}", taskId, baseSymbol, format);
         try {
-            chartPatternService.startFetchChartTask(taskId, baseSymbol, start, end);
+            if ("data".equalsIgnoreCase(format)) {
+                chartPatternService.startFetchChartDataTask(taskId, baseSymbol, start, end, width, ohlc);
+            } else {
+                chartPatternService.startFetchChartTask(taskId, baseSymbol, start, end);
+            }
             Map<String, Object> response = new HashMap<>();
             response.put("taskId", taskId);
             response.put("message", "차트 생성 작업을 시작했습니다.");
@@ -76,6 +116,46 @@ public class ChartPatternController {
         }
     }
 
+    /**
+     * 차트 이미지 PNG 직접 조회 (작업 결과의 image_url). style=candle 이면 캔들 차트
+     */
+    @GetMapping(value = "/chart/image", produces = MediaType.IMAGE_PNG_VALUE)
+    public ResponseEntity<byte[]> getChartImage(@RequestParam String baseSymbol,
+                                                @RequestParam String start,
+                                                @RequestParam String end,
+                                                @RequestParam(defaultValue = "line") String style) {
+        try {
+            byte[] png = chartPatternService.fetchChartPng(baseSymbol, start, end, "candle".equalsIgnoreCase(style));
+            return ResponseEntity.ok()
+                    .contentType(MediaType.IMAGE_PNG)
+                    .contentLength(png.length)
+                    .cacheControl(CacheControl.maxAge(Duration.ofMinutes(10)).cachePrivate())
+                    .body(png);
+        } catch (Exception e) {
+            logger.error("차트 이미지 조회 실패: symbol={}", baseSymbol, e);
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    /**
+     * 클라이언트 차트용 시세 배열 직접 조회 (days: epoch day 차이, 가격: float 배열)
+     */
+    @GetMapping("/chart/data")
+    public ResponseEntity<Map<String, Object>> getChartData(@RequestParam String baseSymbol,
+                                                            @RequestParam String start,
+                                                            @RequestParam String end,
+                                                            @RequestParam(required = false) Integer width,
+                                                            @RequestParam(defaultValue = "false") boolean ohlc) {
+        try {
+            return ResponseEntity.ok(Map.of("chart", chartDataService.fetchChartData(baseSymbol, start, end, width, ohlc)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        } catch (Exception e) {
+            logger.error("차트 데이터 조회 실패: symbol={}", baseSymbol, e);
+            return ResponseEntity.status(500).body(Map.of("error", "차트 데이터 조회 실패: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/combined/fetch/start")
     public ResponseEntity<Map<String, Object>> startCombinedFetchTask(@RequestParam String baseSymbol,
                                                                       @RequestParam String start,
@@ -95,4 +175,16 @@ public class ChartPatternController {
             return ResponseEntity.status(500).body(errorResponse);
         }
     }
+
+    /**
+     * 차트 패턴 스캐너·차트 이미지 캐시·JVM 차트 렌더러 상태 (모니터링용)
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("chartPatterns", chartPatternScanner.getStats());
+        body.put("chartImages", chartImageService.getStats());
+        body.put("chartRenderer", chartRenderer.getStats());
+        return ResponseEntity.ok(body);
+    }
 }
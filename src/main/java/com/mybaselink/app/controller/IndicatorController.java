@@ -0,0 +1,80 @@
+package com.mybaselink.app.controller;
+
+import com.mybaselink.app.dto.IndicatorValueDto;
+import com.mybaselink.app.service.IndicatorService;
+import com.mybaselink.app.stock.indicator.IndicatorEngine;
+import com.mybaselink.app.stock.indicator.IndicatorSpec;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 전 종목 기술적 지표 조회 컨트롤러 (스크리닝용)
+ */
+@RestController
+@RequestMapping("/api/krx")
+public class IndicatorController {
+
+    private final IndicatorService service;
+    private final IndicatorEngine indicatorEngine;
+
+    public IndicatorController(IndicatorService service, IndicatorEngine indicatorEngine) {
+        this.service = service;
+        this.indicatorEngine = indicatorEngine;
+    }
+
+    /**
+     * 지표 하나를 전 종목에 대해 조회
+     * 예) /api/krx/indicators?indicator=rsi&period=14&date=2024-05-02&order=asc&limit=50
+     * - indicator: sma, ema, rsi, macd, bb (period 없으면 기본 기간, macd 는 12/26/9 고정)
+     * - date 없으면 최근 거래일 (yyyy-MM-dd 가 아니면 400)
+     */
+    @GetMapping("/indicators")
+    public ResponseEntity<Map<String, Object>> getIndicator(
+            @RequestParam String indicator,
+            @RequestParam(required = false) Integer period,
+            @RequestParam(required = false) String date,
+            @RequestParam(required = false) String order,
+            @RequestParam(defaultValue = "0") int limit
+    ) {
+        IndicatorSpec spec;
+        LocalDate at;
+        try {
+            spec = IndicatorSpec.of(indicator, period);
+            at = date == null || date.isBlank() ? null : LocalDate.parse(date.trim());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "날짜 형식이 올바르지 않습니다 (yyyy-MM-dd): " + date));
+        }
+        try {
+            List<IndicatorValueDto> results = service.fetchIndicator(spec, at, order, limit);
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("indicator", spec.key());
+            body.put("fields", spec.type().fields());
+            body.put("count", results.size());
+            body.put("results", results);
+            return ResponseEntity.ok(body);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "지표 조회 실패: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 지표 엔진 상태 (모니터링용)
+     */
+    @GetMapping("/indicators/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("indicators", indicatorEngine.getStats());
+        return ResponseEntity.ok(body);
+    }
+}
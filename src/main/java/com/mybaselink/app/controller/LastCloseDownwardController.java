@@ -1,10 +1,17 @@
 package com.mybaselink.app.controller;
 
+import com.mybaselink.app.dto.DownwardStockDto;
+import com.mybaselink.app.service.ChartDataService;
 import com.mybaselink.app.service.LastCloseDownwardService;
+import com.mybaselink.app.stock.DeclineStreakIndex;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -16,9 +23,14 @@ import java.util.Map;
 public class LastCloseDownwardController {
 
     private final LastCloseDownwardService service;
+    private final ChartDataService chartDataService;
+    private final DeclineStreakIndex declineStreakIndex;
 
-    public LastCloseDownwardController(LastCloseDownwardService service) {
+    public LastCloseDownwardController(LastCloseDownwardService service, ChartDataService chartDataService,
+                                       DeclineStreakIndex declineStreakIndex) {
         this.service = service;
+        this.chartDataService = chartDataService;
+        this.declineStreakIndex = declineStreakIndex;
     }
 
     /**
@@ -31,7 +43,7 @@ public class LastCloseDownwardController {
             @RequestParam(defaultValue = "10") int topN
     ) {
         try {
-            List<Map<String,Object>> results = service.fetchLastCloseDownward(start, end, topN);
+            List<DownwardStockDto> results = service.fetchLastCloseDownward(start, end, topN);
             return ResponseEntity.ok(Map.of("results", results));
         } catch (Exception e) {
             e.printStackTrace();
@@ -63,4 +75,64 @@ public class LastCloseDownwardController {
                     .body(Map.of("error", "차트 조회 중 오류 발생: " + e.getMessage()));
         }
     }
+
+    /**
+     * 개별 종목 차트 PNG (image/png)
+     */
+    @GetMapping(value = "/last-close-downward/chart/image", produces = MediaType.IMAGE_PNG_VALUE)
+    public ResponseEntity<byte[]> getChartImage(
+            @RequestParam String baseSymbol,
+            @RequestParam String start,
+            @RequestParam String end
+    ) {
+        try {
+            byte[] png = service.fetchChartPng(baseSymbol, start, end);
+            if (png == null) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.IMAGE_PNG)
+                    .contentLength(png.length)
+                    .cacheControl(CacheControl.maxAge(Duration.ofMinutes(10)).cachePrivate())
+                    .body(png);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 개별 종목 차트 데이터. 클라이언트 차트 라이브러리용
+     * - days: 첫 값은 epoch day, 이후는 앞 거래일과의 차이 / 가격: float 배열
+     * - width: 화면 픽셀 폭 (거래일이 더 많으면 LTTB 로 줄임), ohlc: 시가/고가/저가 포함
+     */
+    @GetMapping("/last-close-downward/chart/data")
+    public ResponseEntity<Map<String, Object>> getChartData(
+            @RequestParam String baseSymbol,
+            @RequestParam String start,
+            @RequestParam String end,
+            @RequestParam(required = false) Integer width,
+            @RequestParam(defaultValue = "false") boolean ohlc
+    ) {
+        try {
+            return ResponseEntity.ok(Map.of("series",
+                    chartDataService.fetchChartData(List.of(baseSymbol), start, end, width, ohlc)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "차트 데이터 조회 중 오류 발생: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 연속 하락 색인 상태 (모니터링용)
+     */
+    @GetMapping("/last-close-downward/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("declineStreaks", declineStreakIndex.getStats());
+        return ResponseEntity.ok(body);
+    }
 }
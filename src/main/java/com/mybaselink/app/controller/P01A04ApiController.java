@@ -1,7 +1,5 @@
 package com.mybaselink.app.controller;
 
-import java.io.ByteArrayOutputStream;
-import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -11,15 +9,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.ss.usermodel.FillPatternType;
-import org.apache.poi.ss.usermodel.Font;
-import org.apache.poi.ss.usermodel.HorizontalAlignment;
-import org.apache.poi.ss.usermodel.IndexedColors;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import com.mybaselink.app.util.ExcelExportUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -134,28 +124,8 @@ public class P01A04ApiController {
     }
 
     @GetMapping("/excel")
-    public ResponseEntity<byte[]> downloadExcel(@RequestParam(required = false) String search) {
-        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("리스트");
-
-            // 헤더 스타일
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // 헤더 작성
-            String[] headers = {"ID", "제목", "작성자", "등록일"};
-            Row headerRow = sheet.createRow(0);
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
-
+    public ResponseEntity<?> downloadExcel(@RequestParam(required = false) String search) {
+        try {
             // 데이터 필터링
             List<Map<String, Object>> filtered = mockList.stream()
                     .filter(item -> search == null || search.isBlank()
@@ -163,39 +133,12 @@ public class P01A04ApiController {
                             || item.get("owner").toString().contains(search))
                     .collect(Collectors.toList());
 
-            // 데이터 작성
-            int rowIdx = 1;
-            for (Map<String, Object> item : filtered) {
-                Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(item.get("id").toString());
-                row.createCell(1).setCellValue(item.get("title").toString());
-                row.createCell(2).setCellValue(item.get("owner").toString());
-                row.createCell(3).setCellValue(item.get("regDate").toString());
-            }
-
-            // 자동 열 너비 조정
-            for (int i = 0; i < headers.length; i++) sheet.autoSizeColumn(i);
-
-            // 워크북 → 바이트 변환
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            workbook.write(out);
-            byte[] bytes = out.toByteArray();
-
-            // 파일명 인코딩
+            // 헤더 + 데이터 행을 SXSSF 로 응답 스트림에 바로 씀 (필터링한 사본이라 스트리밍 중에 안 바뀜)
+            String[] headers = {"ID", "제목", "작성자", "등록일"};
             String filename = "리스트_" + LocalDate.now() + ".xlsx";
-            String encodedFilename = URLEncoder.encode(filename, StandardCharsets.UTF_8).replaceAll("\\+", "%20");
-
-            String contentDisposition = "attachment; filename=\"" + filename + "\"";
-            contentDisposition += "; filename*=UTF-8''" + encodedFilename;
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
-                    .header(HttpHeaders.CONTENT_TYPE,
-                            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet; charset=UTF-8")
-                    .header(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate")
-                    .header(HttpHeaders.PRAGMA, "no-cache")
-                    .header(HttpHeaders.EXPIRES, "0")
-                    .body(bytes);
+            return ExcelExportUtils.download(filename, "리스트", headers, filtered, item -> new Object[]{
+                    item.get("id").toString(), item.get("title").toString(), item.get("owner").toString(), item.get("regDate").toString()
+            });
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -1,14 +1,11 @@
 package com.mybaselink.app.controller;
 
-import java.io.ByteArrayOutputStream;
-import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import com.mybaselink.app.util.ExcelExportUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -159,28 +156,8 @@ public class P01A05ApiController {
     // 📊 엑셀(XLSX) 다운로드
     // ===============================
     @GetMapping("/excel")
-    public ResponseEntity<byte[]> downloadExcel(@RequestParam(required = false) String search) {
-        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("리스트");
-
-            // 헤더 스타일
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // 헤더 작성
-            String[] headers = {"ID", "제목", "작성자", "등록일"};
-            Row headerRow = sheet.createRow(0);
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
-
+    public ResponseEntity<?> downloadExcel(@RequestParam(required = false) String search) {
+        try {
             // 검색 필터링
             List<Map<String, Object>> filtered = mockList.stream()
                     .filter(item -> search == null || search.isBlank()
@@ -188,37 +165,12 @@ public class P01A05ApiController {
                             || safeStr(item.get("owner")).contains(search))
                     .collect(Collectors.toList());
 
-            // 데이터 행 작성
-            int rowIdx = 1;
-            for (Map<String, Object> item : filtered) {
-                Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(safeStr(item.get("id")));
-                row.createCell(1).setCellValue(safeStr(item.get("title")));
-                row.createCell(2).setCellValue(safeStr(item.get("owner")));
-                row.createCell(3).setCellValue(safeStr(item.get("regDate")));
-            }
-
-            // 자동 열 너비 조정
-            for (int i = 0; i < headers.length; i++) sheet.autoSizeColumn(i);
-
-            // 워크북 → 바이트 변환
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            workbook.write(out);
-            byte[] bytes = out.toByteArray();
-
-            // 파일명 인코딩
+            // 헤더 + 데이터 행을 SXSSF 로 응답 스트림에 바로 씀 (필터링한 사본이라 스트리밍 중에 안 바뀜)
+            String[] headers = {"ID", "제목", "작성자", "등록일"};
             String filename = "리스트_" + LocalDate.now() + ".xlsx";
-            String encodedFilename = URLEncoder.encode(filename, StandardCharsets.UTF_8).replaceAll("\\+", "%20");
-            String contentDisposition = "attachment; filename=\"" + filename + "\"; filename*=UTF-8''" + encodedFilename;
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
-                    .header(HttpHeaders.CONTENT_TYPE,
-                            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet; charset=UTF-8")
-                    .header(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate")
-                    .header(HttpHeaders.PRAGMA, "no-cache")
-                    .header(HttpHeaders.EXPIRES, "0")
-                    .body(bytes);
+            return ExcelExportUtils.download(filename, "리스트", headers, filtered, item -> new Object[]{
+                    safeStr(item.get("id")), safeStr(item.get("title")), safeStr(item.get("owner")), safeStr(item.get("regDate"))
+            });
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -0,0 +1,40 @@
+package com.mybaselink.app.controller;
+
+import com.mybaselink.app.python.PythonExecutionGate;
+import com.mybaselink.app.python.PythonWorkerPool;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 파이썬 워커 풀 상태 조회 (모니터링용)
+ * - 파이썬 실행 관문·워커 풀·같은 호출 합치기만 다룸. 시세 저장소·유사도 엔진 등은 각 도메인 컨트롤러의 stats
+ */
+@RestController
+@RequestMapping("/api/python")
+public class PythonWorkerController {
+
+    private final PythonWorkerPool pythonWorkerPool;
+    private final PythonExecutionGate pythonExecutionGate;
+
+    public PythonWorkerController(PythonWorkerPool pythonWorkerPool, PythonExecutionGate pythonExecutionGate) {
+        this.pythonWorkerPool = pythonWorkerPool;
+        this.pythonExecutionGate = pythonExecutionGate;
+    }
+
+    /**
+     * 상태: GET /api/python/stats
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("gate", pythonExecutionGate.getStats());
+        body.put("pool", pythonWorkerPool.getStats());
+        body.put("coalescing", pythonWorkerPool.getCoalescingStats());
+        return ResponseEntity.ok(body);
+    }
+}
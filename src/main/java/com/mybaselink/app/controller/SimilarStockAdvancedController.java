@@ -1,10 +1,20 @@
 package com.mybaselink.app.controller;
 
+import com.mybaselink.app.dto.SimilarBatchRequestDto;
+import com.mybaselink.app.dto.SimilarStockDto;
+import com.mybaselink.app.service.ChartDataService;
 import com.mybaselink.app.service.SimilarStockAdvancedService;
+import com.mybaselink.app.stock.similarity.SaxIndex;
+import com.mybaselink.app.stock.similarity.SimilarityEngine;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -13,9 +23,16 @@ import java.util.Map;
 public class SimilarStockAdvancedController {
 
     private final SimilarStockAdvancedService service;
+    private final ChartDataService chartDataService;
+    private final SimilarityEngine similarityEngine;
+    private final SaxIndex saxIndex;
 
-    public SimilarStockAdvancedController(SimilarStockAdvancedService service) {
+    public SimilarStockAdvancedController(SimilarStockAdvancedService service, ChartDataService chartDataService,
+                                          SimilarityEngine similarityEngine, SaxIndex saxIndex) {
         this.service = service;
+        this.chartDataService = chartDataService;
+        this.similarityEngine = similarityEngine;
+        this.saxIndex = saxIndex;
     }
 
     /**
@@ -27,11 +44,14 @@ public class SimilarStockAdvancedController {
             @RequestParam String start,
             @RequestParam String end,
             @RequestParam(defaultValue = "10") int nSimilarStocks,
-            @RequestParam(defaultValue = "cosine") String method // ⭐ JS 선택값 전달
+            @RequestParam(defaultValue = "cosine") String method, // ⭐ JS 선택값 전달
+            @RequestParam(defaultValue = "exact") String mode, // ⭐ exact | fast (근사 인덱스 후보 + 정확한 재정렬)
+            @RequestParam(required = false) Integer candidates // ⭐ fast 모드 후보 수
     ) {
         try {
             // ⭐ 선택한 유사도 계산 방식(method)을 서비스로 전달
-            List<Map<String,Object>> results = service.fetchSimilar(companyCode, start, end, nSimilarStocks, method);
+            List<SimilarStockDto> results = service.fetchSimilar(companyCode, start, end, nSimilarStocks, method,
+                    mode, candidates);
 
             Map<String, Object> responseBody = Map.of(
                 "base_symbol", companyCode,
@@ -49,6 +69,25 @@ public class SimilarStockAdvancedController {
         }
     }
 
+    /**
+     * 여러 기준 종목 유사 종목 일괄 조회 (같은 구간)
+     * ⭐ 기준 종목 결과가 나올 때마다 NDJSON 한 줄씩 내려보냄
+     */
+    @PostMapping("/similar-advanced/batch")
+    public ResponseEntity<?> getSimilarStocksBatch(@RequestBody SimilarBatchRequestDto request) {
+        try {
+            service.validateBatch(request);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+        StreamingResponseBody body = out -> service.streamSimilarBatch(request, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     /**
      * 유사 종목 차트
      */
@@ -73,4 +112,67 @@ public class SimilarStockAdvancedController {
                     .body(Map.of("error", "차트 조회 중 오류 발생: " + e.getMessage()));
         }
     }
+
+    /**
+     * 유사 종목 차트 PNG (image/png)
+     */
+    @GetMapping(value = "/similar-advanced/chart/image", produces = MediaType.IMAGE_PNG_VALUE)
+    public ResponseEntity<byte[]> getChartImage(
+            @RequestParam String baseSymbol,
+            @RequestParam String compareSymbol,
+            @RequestParam String start,
+            @RequestParam String end
+    ) {
+        try {
+            byte[] png = service.fetchChartPng(baseSymbol, compareSymbol, start, end);
+            if (png == null) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.IMAGE_PNG)
+                    .contentLength(png.length)
+                    .cacheControl(CacheControl.maxAge(Duration.ofMinutes(10)).cachePrivate())
+                    .body(png);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 유사 종목 차트 데이터 (기준, 비교 순서). 클라이언트 차트 라이브러리용
+     * - days: 첫 값은 epoch day, 이후는 앞 거래일과의 차이 / 가격: float 배열
+     * - width: 화면 픽셀 폭 (거래일이 더 많으면 LTTB 로 줄임), ohlc: 시가/고가/저가 포함
+     */
+    @GetMapping("/similar-advanced/chart/data")
+    public ResponseEntity<Map<String, Object>> getChartData(
+            @RequestParam String baseSymbol,
+            @RequestParam String compareSymbol,
+            @RequestParam String start,
+            @RequestParam String end,
+            @RequestParam(required = false) Integer width,
+            @RequestParam(defaultValue = "false") boolean ohlc
+    ) {
+        try {
+            return ResponseEntity.ok(Map.of("series",
+                    chartDataService.fetchChartData(List.of(baseSymbol, compareSymbol), start, end, width, ohlc)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "차트 데이터 조회 중 오류 발생: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 유사도 엔진·근사(SAX) 인덱스 상태 (모니터링용)
+     */
+    @GetMapping("/similar-advanced/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("similarity", similarityEngine.getStats());
+        body.put("ann", saxIndex.getStats());
+        return ResponseEntity.ok(body);
+    }
 }
@@ -1,22 +1,36 @@
 package com.mybaselink.app.controller;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.mybaselink.app.dto.SimilarStockDto;
+import com.mybaselink.app.dto.SubsequenceMatchDto;
 import com.mybaselink.app.service.SimilarStockAdvancedNewService;
+import com.mybaselink.app.service.SimilarSubsequenceService;
+import com.mybaselink.app.stock.similarity.SubsequenceSearchEngine;
 
 @RestController
 @RequestMapping("/api/krx")
 public class SimilarStockAdvancedNewController {
 
     private final SimilarStockAdvancedNewService service;
+    private final SimilarSubsequenceService subsequenceService;
+    private final SubsequenceSearchEngine subsequenceSearchEngine;
 
-    public SimilarStockAdvancedNewController(SimilarStockAdvancedNewService service) {
+    public SimilarStockAdvancedNewController(SimilarStockAdvancedNewService service,
+                                             SimilarSubsequenceService subsequenceService,
+                                             SubsequenceSearchEngine subsequenceSearchEngine) {
         this.service = service;
+        this.subsequenceService = subsequenceService;
+        this.subsequenceSearchEngine = subsequenceSearchEngine;
     }
 
     // 유사 종목 분석
@@ -29,7 +43,7 @@ public class SimilarStockAdvancedNewController {
             @RequestParam(defaultValue = "cosine") String method
     ) {
         try {
-            List<Map<String,Object>> results = service.fetchSimilar(companyCode, start, end, nSimilarStocks, method);
+            List<SimilarStockDto> results = service.fetchSimilar(companyCode, start, end, nSimilarStocks, method);
             return ResponseEntity.ok(Map.of(
                     "base_symbol", companyCode,
                     "similar_stocks", results
@@ -41,6 +55,31 @@ public class SimilarStockAdvancedNewController {
         }
     }
 
+    // 기준 구간과 닮은 과거 구간 (전 종목 전체 기간)
+    @GetMapping("/similar-advanced-new/subsequence")
+    public ResponseEntity<Map<String, Object>> getSimilarSubsequences(
+            @RequestParam String companyCode,
+            @RequestParam String start,
+            @RequestParam String end,
+            @RequestParam(defaultValue = "10") int topN,
+            @RequestParam(required = false) Integer perSymbol
+    ) {
+        try {
+            List<SubsequenceMatchDto> results = subsequenceService.fetchMatches(companyCode, start, end, topN, perSymbol);
+            return ResponseEntity.ok(Map.of(
+                    "base_symbol", companyCode,
+                    "matches", results
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // 개별 종목 차트
     @GetMapping("/similar-advanced-new/chart")
     public ResponseEntity<Map<String, Object>> getChart(
@@ -63,4 +102,40 @@ public class SimilarStockAdvancedNewController {
                     .body(Map.of("error", "차트 조회 중 오류 발생: " + e.getMessage()));
         }
     }
+
+    /**
+     * 개별 종목 차트 PNG (image/png)
+     */
+    @GetMapping(value = "/similar-advanced-new/chart/image", produces = MediaType.IMAGE_PNG_VALUE)
+    public ResponseEntity<byte[]> getChartImage(
+            @RequestParam String baseSymbol,
+            @RequestParam String compareSymbol,
+            @RequestParam String start,
+            @RequestParam String end
+    ) {
+        try {
+            byte[] png = service.fetchChartPng(baseSymbol, compareSymbol, start, end);
+            if (png == null) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.IMAGE_PNG)
+                    .contentLength(png.length)
+                    .cacheControl(CacheControl.maxAge(Duration.ofMinutes(10)).cachePrivate())
+                    .body(png);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 구간 검색(MASS) 엔진 상태 (모니터링용)
+     */
+    @GetMapping("/similar-advanced-new/subsequence/stats")
+    public ResponseEntity<Map<String, Object>> getSubsequenceStats() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("subsequence", subsequenceSearchEngine.getStats());
+        return ResponseEntity.ok(body);
+    }
 }
@@ -1,11 +1,13 @@
 package com.mybaselink.app.controller;
 
 import com.mybaselink.app.service.StockBatchService;
+import com.mybaselink.app.stock.MarketPriceStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
 
@@ -15,9 +17,11 @@ public class StockBatchController {
 
     private static final Logger log = LoggerFactory.getLogger(StockBatchController.class);
     private final StockBatchService stockBatchService;
+    private final MarketPriceStore marketPriceStore;
 
-    public StockBatchController(StockBatchService stockBatchService) {
+    public StockBatchController(StockBatchService stockBatchService, MarketPriceStore marketPriceStore) {
         this.stockBatchService = stockBatchService;
+        this.marketPriceStore = marketPriceStore;
     }
 
     /**
@@ -51,6 +55,16 @@ public class StockBatchController {
         return ResponseEntity.ok(stockBatchService.getStatusWithLogs(taskId));
     }
 
+    /**
+     * 시세 저장소 상태 (배치가 쓴 parquet 적재 결과): GET /api/stock/batch/stats
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("priceStore", marketPriceStore.getStats());
+        return ResponseEntity.ok(body);
+    }
+
     /**
      * 취소: POST /api/stock/batch/cancel/{taskId}
      */
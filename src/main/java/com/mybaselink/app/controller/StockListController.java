@@ -1,18 +1,16 @@
 package com.mybaselink.app.controller;
 
 import com.mybaselink.app.service.StockListService;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import com.mybaselink.app.stock.StockListTable;
+import com.mybaselink.app.stock.StockListing;
+import com.mybaselink.app.util.ExcelExportUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.io.ByteArrayOutputStream;
-import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/stock")
@@ -25,7 +23,9 @@ public class StockListController {
     }
 
     // =====================================
-    // 🔍 리스트 조회 (검색 + 페이징)
+    // 🔍 리스트 조회 (검색 + 정렬 + 범위 조건 + 페이징)
+    //   sort=Marcap:desc,Volume  (쉼표로 여러 컬럼, 방향 생략 시 asc)
+    //   marcapMin=1000000000000&volumeMin=100000&ratioBetween=-3,3  ({컬럼}Min / Max / Between)
     // =====================================
     @GetMapping("/list")
     public Map<String, Object> getStockList(
@@ -34,44 +34,33 @@ public class StockListController {
             @RequestParam(required = false) String search,
             @RequestParam(defaultValue = "server") String mode,
             @RequestParam(defaultValue = "true") boolean pagination,
-            @RequestParam(defaultValue = "web") String env
+            @RequestParam(defaultValue = "web") String env,
+            @RequestParam(required = false) List<String> sort,
+            @RequestParam Map<String, String> params
     ) {
         try {
-            List<Map<String, Object>> all = service.getStockList();
-            List<Map<String, Object>> filtered = new ArrayList<>(all);
-
-            // 검색어 필터: 환경 구분 없이 모든 필드 검색
-            if (search != null && !search.isBlank()) {
-                String s = search.toLowerCase(Locale.ROOT);
-                filtered = filtered.stream()
-                        .filter(item ->
-                                safeStr(item.get("Code")).toLowerCase().contains(s) ||
-                                safeStr(item.get("Name")).toLowerCase().contains(s) ||
-                                safeStr(item.get("Dept")).toLowerCase().contains(s) ||
-                                safeStr(item.get("Market")).toLowerCase().contains(s)
-                        )
-                        .collect(Collectors.toList());
-            }
+            List<StockListTable.SortKey> sortKeys = StockListTable.parseSort(sort);
+            List<StockListTable.Range> ranges = StockListTable.parseRanges(params);
 
             Map<String, Object> result = new HashMap<>();
 
             // ✅ 클라이언트 모드 or 페이징 비활성화
             if (!pagination || "client".equalsIgnoreCase(mode)) {
-                result.put("content", filtered);
+                // 검색어 필터: 환경 구분 없이 모든 필드 + 회사명 초성 검색 (검색 색인 사용)
+                StockListTable.Page all = service.list(search, sortKeys, ranges, 0, Integer.MAX_VALUE);
+                result.put("content", all.content());
                 result.put("page", 0);
                 result.put("totalPages", 1);
-                result.put("totalElements", filtered.size());
+                result.put("totalElements", all.total());
                 return result;
             }
 
-            // ✅ 서버모드 페이징
-            int totalElements = filtered.size();
+            // ✅ 서버모드 페이징 (정렬 순서를 걸으며 이 페이지만 담음)
+            StockListTable.Page paged = service.list(search, sortKeys, ranges, page * size, size);
+            int totalElements = paged.total();
             int totalPages = (int) Math.ceil((double) totalElements / size);
-            int start = page * size;
-            int end = Math.min(start + size, totalElements);
-            List<Map<String, Object>> paged = filtered.subList(Math.min(start, end), end);
 
-            result.put("content", paged);
+            result.put("content", paged.content());
             result.put("page", page);
             result.put("totalPages", totalPages);
             result.put("totalElements", totalElements);
@@ -84,74 +73,44 @@ public class StockListController {
         }
     }
 
+    // =====================================
+    // 🔎 자동완성 (종목코드·회사명·초성 접두사, 시가총액 순)
+    // =====================================
+    @GetMapping("/suggest")
+    public Map<String, Object> suggest(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        try {
+            Map<String, Object> result = new HashMap<>();
+            result.put("query", q);
+            result.put("content", service.suggest(q, limit));
+            return result;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Map.of("error", "자동완성 조회 실패: " + e.getMessage());
+        }
+    }
+
     // =====================================
     // 📊 엑셀(XLSX) 다운로드
     // =====================================
     @GetMapping("/excel")
-    public ResponseEntity<byte[]> downloadExcel(@RequestParam(required = false) String search) {
-        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("주식리스트");
-
-            // 헤더 스타일
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // 헤더 작성
-            String[] headers = {"종목코드", "회사명", "시장", "업종", "종가", "시가", "고가", "저가", "거래량", "기준일"};
-            Row headerRow = sheet.createRow(0);
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
-
-            // 데이터 필터링
-            List<Map<String, Object>> filtered = service.getStockList().stream()
-                    .filter(item -> search == null || search.isBlank()
-                            || safeStr(item.get("Name")).contains(search)
-                            || safeStr(item.get("Code")).contains(search)
-                            || safeStr(item.get("Dept")).contains(search))
-                    .collect(Collectors.toList());
-
-            // 데이터 행 작성
-            int rowIdx = 1;
-            for (Map<String, Object> item : filtered) {
-                Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(safeStr(item.get("Code")));
-                row.createCell(1).setCellValue(safeStr(item.get("Name")));
-                row.createCell(2).setCellValue(safeStr(item.get("Market")));
-                row.createCell(3).setCellValue(safeStr(item.get("Dept")));
-                row.createCell(4).setCellValue(safeStr(item.get("Close")));
-                row.createCell(5).setCellValue(safeStr(item.get("Open")));
-                row.createCell(6).setCellValue(safeStr(item.get("High")));
-                row.createCell(7).setCellValue(safeStr(item.get("Low")));
-                row.createCell(8).setCellValue(safeStr(item.get("Volume")));
-                row.createCell(9).setCellValue(safeStr(item.get("Date")));
-            }
-
-            // 자동 열 너비 조정
-            for (int i = 0; i < headers.length; i++) sheet.autoSizeColumn(i);
-
-            // 워크북 → 바이트 변환
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            workbook.write(out);
-            byte[] bytes = out.toByteArray();
+    public ResponseEntity<?> downloadExcel(@RequestParam(required = false) String search,
+                                           @RequestParam(required = false) List<String> sort,
+                                           @RequestParam Map<String, String> params) {
+        try {
+            // 데이터 필터링 (목록 화면과 같은 검색 색인·정렬·범위 조건, 스냅샷 목록이라 스트리밍 중에도 안 바뀜)
+            List<StockListing> filtered = service.list(search, StockListTable.parseSort(sort),
+                    StockListTable.parseRanges(params), 0, Integer.MAX_VALUE).content();
 
-            // 파일명 인코딩
+            // SXSSF 로 응답 스트림에 바로 씀 (숫자 칸은 숫자 셀 → 엑셀에서 바로 정렬 가능)
+            String[] headers = {"종목코드", "회사명", "시장", "업종", "종가", "시가", "고가", "저가", "거래량", "기준일"};
             String filename = "주식리스트_" + LocalDate.now() + ".xlsx";
-            String encodedFilename = URLEncoder.encode(filename, StandardCharsets.UTF_8).replaceAll("\\+", "%20");
-            String contentDisposition = "attachment; filename=\"" + filename + "\"; filename*=UTF-8''" + encodedFilename;
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
-                    .header(HttpHeaders.CONTENT_TYPE,
-                            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet; charset=UTF-8")
-                    .body(bytes);
+            return ExcelExportUtils.download(filename, "주식리스트", headers, filtered, item -> new Object[]{
+                    item.code(), item.name(), item.market(), item.dept(), numberOrText(item.close()),
+                    item.open(), item.high(), item.low(), item.volume(), item.date()
+            });
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -162,9 +121,22 @@ public class StockListController {
     }
 
     // =====================================
-    // 🔹 유틸: null 안전 문자열 변환
+    // 📈 상태 (목록 스냅샷·파일 감시, 모니터링용)
     // =====================================
-    private String safeStr(Object obj) {
-        return obj != null ? obj.toString() : "";
+    @GetMapping("/list/stats")
+    public Map<String, Object> getStats() {
+        return service.getStats();
+    }
+
+    // =====================================
+    // 🔹 유틸: 숫자로 읽히면 숫자, 아니면 문자열 (종가는 JSON 에 문자열로 들어 있음)
+    // =====================================
+    private Object numberOrText(String value) {
+        if (value == null) return "";
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return value;
+        }
     }
 }
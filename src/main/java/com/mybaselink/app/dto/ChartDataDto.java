@@ -0,0 +1,54 @@
+package com.mybaselink.app.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 클라이언트 차트용 종목 시세 (열 단위 배열)
+ * - days: 첫 값은 epoch day(1970-01-01 기준 일수), 이후는 앞 거래일과의 차이 (누적 합 = epoch day)
+ * - open/high/low 는 ohlc 요청일 때만
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChartDataDto {
+    private String ticker;
+    private String name;
+    @JsonProperty("start_date")
+    private String startDate;
+    @JsonProperty("end_date")
+    private String endDate;
+    // 다운샘플링 전 거래일 수
+    private int total;
+    // 다운샘플링 여부
+    private boolean sampled;
+    private int[] days;
+    private float[] open;
+    private float[] high;
+    private float[] low;
+    private float[] close;
+
+    // Getter & Setter
+    public String getTicker() { return ticker; }
+    public void setTicker(String ticker) { this.ticker = ticker; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getStartDate() { return startDate; }
+    public void setStartDate(String startDate) { this.startDate = startDate; }
+    public String getEndDate() { return endDate; }
+    public void setEndDate(String endDate) { this.endDate = endDate; }
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+    public boolean isSampled() { return sampled; }
+    public void setSampled(boolean sampled) { this.sampled = sampled; }
+    public int[] getDays() { return days; }
+    public void setDays(int[] days) { this.days = days; }
+    public float[] getOpen() { return open; }
+    public void setOpen(float[] open) { this.open = open; }
+    public float[] getHigh() { return high; }
+    public void setHigh(float[] high) { this.high = high; }
+    public float[] getLow() { return low; }
+    public void setLow(float[] low) { this.low = low; }
+    public float[] getClose() { return close; }
+    public void setClose(float[] close) { this.close = close; }
+}
@@ -0,0 +1,29 @@
+package com.mybaselink.app.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 차트 이미지 스크립트 결과
+ * ({"image_path", "image_size"} : --image_out 으로 PNG 파일을 쓴 경우, {"image_data": base64} 또는 {"error"})
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ChartImageDto {
+    @JsonProperty("image_data")
+    private String imageData;
+    @JsonProperty("image_path")
+    private String imagePath;
+    @JsonProperty("image_size")
+    private long imageSize;
+    private String error;
+
+    // Getter & Setter
+    public String getImageData() { return imageData; }
+    public void setImageData(String imageData) { this.imageData = imageData; }
+    public String getImagePath() { return imagePath; }
+    public void setImagePath(String imagePath) { this.imagePath = imagePath; }
+    public long getImageSize() { return imageSize; }
+    public void setImageSize(long imageSize) { this.imageSize = imageSize; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
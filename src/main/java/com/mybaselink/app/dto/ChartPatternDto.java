@@ -0,0 +1,30 @@
+package com.mybaselink.app.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 차트 패턴 검색 결과 한 건 (find_chart_patterns.py 출력)
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ChartPatternDto {
+    private String symbol;
+    private String name;
+    private String pattern;
+    @JsonProperty("start_date")
+    private String startDate;
+    @JsonProperty("end_date")
+    private String endDate;
+
+    // Getter & Setter
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getPattern() { return pattern; }
+    public void setPattern(String pattern) { this.pattern = pattern; }
+    public String getStartDate() { return startDate; }
+    public void setStartDate(String startDate) { this.startDate = startDate; }
+    public String getEndDate() { return endDate; }
+    public void setEndDate(String endDate) { this.endDate = endDate; }
+}
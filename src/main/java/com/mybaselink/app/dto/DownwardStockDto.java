@@ -0,0 +1,39 @@
+package com.mybaselink.app.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 연속 하락 종목 한 건 (조회 구간 마지막 거래일 기준)
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DownwardStockDto {
+    private String ticker;
+    private String name;
+    @JsonProperty("down_days")
+    private int downDays;
+    @JsonProperty("drop_rate")
+    private double dropRate;
+    @JsonProperty("start_date")
+    private String startDate;
+    @JsonProperty("end_date")
+    private String endDate;
+    @JsonProperty("last_close")
+    private double lastClose;
+
+    // Getter & Setter
+    public String getTicker() { return ticker; }
+    public void setTicker(String ticker) { this.ticker = ticker; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public int getDownDays() { return downDays; }
+    public void setDownDays(int downDays) { this.downDays = downDays; }
+    public double getDropRate() { return dropRate; }
+    public void setDropRate(double dropRate) { this.dropRate = dropRate; }
+    public String getStartDate() { return startDate; }
+    public void setStartDate(String startDate) { this.startDate = startDate; }
+    public String getEndDate() { return endDate; }
+    public void setEndDate(String endDate) { this.endDate = endDate; }
+    public double getLastClose() { return lastClose; }
+    public void setLastClose(double lastClose) { this.lastClose = lastClose; }
+}
@@ -0,0 +1,30 @@
+package com.mybaselink.app.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.Map;
+
+/**
+ * 종목 하나의 기술적 지표 값 (조회 날짜 이전 마지막 거래일 기준)
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class IndicatorValueDto {
+    private String ticker;
+    private String name;
+    private String date;
+    private double close;
+    // 지표 값 (예: rsi, 또는 macd/signal/histogram)
+    private Map<String, Double> values;
+
+    // Getter & Setter
+    public String getTicker() { return ticker; }
+    public void setTicker(String ticker) { this.ticker = ticker; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getDate() { return date; }
+    public void setDate(String date) { this.date = date; }
+    public double getClose() { return close; }
+    public void setClose(double close) { this.close = close; }
+    public Map<String, Double> getValues() { return values; }
+    public void setValues(Map<String, Double> values) { this.values = values; }
+}
@@ -0,0 +1,28 @@
+package com.mybaselink.app.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * 여러 기준 종목 유사 종목 일괄 조회 요청 (같은 구간)
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SimilarBatchRequestDto {
+    private List<String> symbols;
+    private String start;
+    private String end;
+    @JsonProperty("nSimilarStocks")
+    private int nSimilarStocks = 10;
+
+    // Getter & Setter
+    public List<String> getSymbols() { return symbols; }
+    public void setSymbols(List<String> symbols) { this.symbols = symbols; }
+    public String getStart() { return start; }
+    public void setStart(String start) { this.start = start; }
+    public String getEnd() { return end; }
+    public void setEnd(String end) { this.end = end; }
+    public int getnSimilarStocks() { return nSimilarStocks; }
+    public void setnSimilarStocks(int nSimilarStocks) { this.nSimilarStocks = nSimilarStocks; }
+}
@@ -0,0 +1,32 @@
+package com.mybaselink.app.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 유사 종목 한 건.
+ * 스크립트마다 유사도 필드 이름이 달라(cosine_similarity / similarity) 값이 있는 쪽만 내려줍니다.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SimilarStockDto {
+    private String ticker;
+    private String name;
+    @JsonProperty("cosine_similarity")
+    private Double cosineSimilarity;
+    private Double similarity;
+    private String chart;
+
+    // Getter & Setter
+    public String getTicker() { return ticker; }
+    public void setTicker(String ticker) { this.ticker = ticker; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public Double getCosineSimilarity() { return cosineSimilarity; }
+    public void setCosineSimilarity(Double cosineSimilarity) { this.cosineSimilarity = cosineSimilarity; }
+    public Double getSimilarity() { return similarity; }
+    public void setSimilarity(Double similarity) { this.similarity = similarity; }
+    public String getChart() { return chart; }
+    public void setChart(String chart) { this.chart = chart; }
+}
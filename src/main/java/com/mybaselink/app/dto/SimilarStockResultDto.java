@@ -0,0 +1,28 @@
+package com.mybaselink.app.dto;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * 유사 종목 검색 스크립트 결과 ({"base_symbol", "similar_stocks"} 또는 {"error"})
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SimilarStockResultDto {
+    @JsonProperty("base_symbol")
+    private String baseSymbol;
+    @JsonProperty("similar_stocks")
+    @JsonAlias("results")
+    private List<SimilarStockDto> similarStocks;
+    private String error;
+
+    // Getter & Setter
+    public String getBaseSymbol() { return baseSymbol; }
+    public void setBaseSymbol(String baseSymbol) { this.baseSymbol = baseSymbol; }
+    public List<SimilarStockDto> getSimilarStocks() { return similarStocks; }
+    public void setSimilarStocks(List<SimilarStockDto> similarStocks) { this.similarStocks = similarStocks; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,39 @@
+package com.mybaselink.app.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 과거 구간 모양 검색 결과 한 건 (어느 종목의 어느 구간이 기준 구간과 닮았는지)
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SubsequenceMatchDto {
+    private String ticker;
+    private String name;
+    @JsonProperty("start_date")
+    private String startDate;
+    @JsonProperty("end_date")
+    private String endDate;
+    // 종목 전체 시세에서 구간 시작 위치 (거래일 인덱스)
+    private int offset;
+    // z-정규화 유클리드 거리 (0 ~ 2√m)
+    private double distance;
+    // 피어슨 상관계수 (= 1 - distance² / 2m)
+    private double correlation;
+
+    // Getter & Setter
+    public String getTicker() { return ticker; }
+    public void setTicker(String ticker) { this.ticker = ticker; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getStartDate() { return startDate; }
+    public void setStartDate(String startDate) { this.startDate = startDate; }
+    public String getEndDate() { return endDate; }
+    public void setEndDate(String endDate) { this.endDate = endDate; }
+    public int getOffset() { return offset; }
+    public void setOffset(int offset) { this.offset = offset; }
+    public double getDistance() { return distance; }
+    public void setDistance(double distance) { this.distance = distance; }
+    public double getCorrelation() { return correlation; }
+    public void setCorrelation(double correlation) { this.correlation = correlation; }
+}
@@ -0,0 +1,498 @@
+package com.mybaselink.app.parquet;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * ✅ ParquetFileReader
+ * --------------------------------------------------------
+ * 숫자 컬럼만 있는 flat Parquet 파일을 primitive 배열로 읽는 경량 리더.
+ * (pandas/pyarrow 가 쓰는 기본 형태: PLAIN / 사전(RLE_DICTIONARY) 인코딩, SNAPPY / GZIP / 무압축, data page v1·v2)
+ *
+ * - projection: 요청한 컬럼의 column chunk 만 파일에서 읽음
+ * - 행 범위(from, to): 범위 앞쪽 page 는 압축 해제 없이 건너뛰고, to 이후 page 는 읽지 않음
+ * - row group 통계(min/max)로 날짜 범위 밖의 row group 은 통째로 건너뛸 수 있음
+ * - 파일을 매핑하지 않고 필요한 구간만 읽어 오므로, 읽는 동안에도 파이썬이 파일을 교체할 수 있음 (Windows)
+ * --------------------------------------------------------
+ */
+public final class ParquetFileReader implements Closeable {
+
+    private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+
+    // CompressionCodec
+    private static final int CODEC_UNCOMPRESSED = 0;
+    private static final int CODEC_SNAPPY = 1;
+    private static final int CODEC_GZIP = 2;
+
+    // PageType
+    private static final int DATA_PAGE = 0;
+    private static final int DICTIONARY_PAGE = 2;
+    private static final int DATA_PAGE_V2 = 3;
+
+    // Encoding
+    private static final int ENC_PLAIN = 0;
+    private static final int ENC_PLAIN_DICTIONARY = 2;
+    private static final int ENC_RLE = 3;
+    private static final int ENC_RLE_DICTIONARY = 8;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final long MICROS_PER_DAY = 86_400_000_000L;
+    private static final long NANOS_PER_DAY = 86_400_000_000_000L;
+    private static final int JULIAN_EPOCH_DAY = 2_440_588;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ParquetFooter footer;
+
+    private ParquetFileReader(Path path, FileChannel channel, ParquetFooter footer) {
+        this.path = path;
+        this.channel = channel;
+        this.footer = footer;
+    }
+
+    public static ParquetFileReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < 12) throw new IOException("Parquet 파일이 너무 작습니다: " + path);
+
+            ByteBuffer tail = readFully(channel, size - 8, 8);
+            int footerLength = tail.getInt(0);
+            if (!hasMagic(tail, 4)) throw new IOException("Parquet 파일이 아닙니다 (magic 불일치): " + path);
+            if (footerLength <= 0 || footerLength > size - 12) {
+                throw new IOException("Parquet footer 길이 오류: " + footerLength + " (" + path + ")");
+            }
+            ByteBuffer footerBuf = readFully(channel, size - 8 - footerLength, footerLength);
+            return new ParquetFileReader(path, channel, ParquetFooter.parse(footerBuf));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e instanceof IOException io ? io : new IOException("Parquet footer 해석 실패: " + path + " (" + e + ")", e);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getNumRows() {
+        return footer.numRows;
+    }
+
+    public int getRowGroupCount() {
+        return footer.rowGroups.size();
+    }
+
+    public long getRowGroupNumRows(int rowGroup) {
+        return footer.rowGroups.get(rowGroup).numRows();
+    }
+
+    public Set<String> getColumnNames() {
+        return footer.columns.keySet();
+    }
+
+    public boolean hasColumn(String name) {
+        return footer.columns.containsKey(name);
+    }
+
+    /**
+     * 날짜/시각 타입 컬럼인지 (DATE, TIMESTAMP, INT96)
+     */
+    public boolean isTimeColumn(String name) {
+        ParquetFooter.Column col = footer.columns.get(name);
+        return col != null && col.timeKind() != ParquetFooter.TimeKind.NONE;
+    }
+
+    /**
+     * row group 통계의 날짜 범위 {minEpochDay, maxEpochDay}. 통계가 없으면 null.
+     */
+    public int[] getEpochDayRange(int rowGroup, String column) {
+        ParquetFooter.Column col = footer.columns.get(column);
+        ParquetFooter.ColumnChunk chunk = footer.rowGroups.get(rowGroup).columns().get(column);
+        if (col == null || chunk == null || chunk.statsMin() == null || chunk.statsMax() == null) return null;
+        if (col.timeKind() == ParquetFooter.TimeKind.NONE || col.timeKind() == ParquetFooter.TimeKind.INT96) return null;
+        long min = statLong(chunk.statsMin(), col.physicalType());
+        long max = statLong(chunk.statsMax(), col.physicalType());
+        return new int[]{toEpochDay(min, col.timeKind()), toEpochDay(max, col.timeKind())};
+    }
+
+    /**
+     * 날짜/시각 컬럼을 epoch day 배열로 읽습니다. null 은 Integer.MIN_VALUE.
+     */
+    public int[] readEpochDays(int rowGroup, String column, int from, int to) throws IOException {
+        ParquetFooter.Column col = requireColumn(column);
+        if (col.timeKind() == ParquetFooter.TimeKind.NONE) {
+            throw new IOException("날짜 타입 컬럼이 아닙니다: " + column);
+        }
+        long[] raw = new long[to - from];
+        decode(rowGroup, col, from, to, raw, null, Long.MIN_VALUE);
+        int[] days = new int[raw.length];
+        for (int i = 0; i < raw.length; i++) {
+            days[i] = raw[i] == Long.MIN_VALUE ? Integer.MIN_VALUE : toEpochDay(raw[i], col.timeKind());
+        }
+        return days;
+    }
+
+    /**
+     * 숫자 컬럼을 double 배열로 읽습니다. (정수 컬럼은 변환, null 은 NaN)
+     */
+    public double[] readDoubles(int rowGroup, String column, int from, int to) throws IOException {
+        double[] out = new double[to - from];
+        decode(rowGroup, requireColumn(column), from, to, null, out, 0);
+        return out;
+    }
+
+    /**
+     * 숫자 컬럼을 long 배열로 읽습니다. (실수 컬럼은 소수점 버림, null 은 nullValue)
+     */
+    public long[] readLongs(int rowGroup, String column, int from, int to, long nullValue) throws IOException {
+        long[] out = new long[to - from];
+        decode(rowGroup, requireColumn(column), from, to, out, null, nullValue);
+        return out;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // ------------------------------------------------------------------
+    // column chunk / page 디코딩
+    // ------------------------------------------------------------------
+
+    private ParquetFooter.Column requireColumn(String column) throws IOException {
+        ParquetFooter.Column col = footer.columns.get(column);
+        if (col == null) throw new IOException("컬럼이 없습니다: " + column + " (" + path + ")");
+        return col;
+    }
+
+    /**
+     * [from, to) 행을 outLongs 또는 outDoubles 에 채웁니다.
+     */
+    private void decode(int rowGroup, ParquetFooter.Column col, int from, int to,
+                        long[] outLongs, double[] outDoubles, long nullLong) throws IOException {
+        ParquetFooter.RowGroup rg = footer.rowGroups.get(rowGroup);
+        if (from < 0 || to > rg.numRows() || from > to) {
+            throw new IndexOutOfBoundsException("행 범위 오류: [" + from + ", " + to + ") / " + rg.numRows());
+        }
+        if (from == to) return;
+        ParquetFooter.ColumnChunk chunk = rg.columns().get(col.name());
+        if (chunk == null) throw new IOException("row group " + rowGroup + " 에 컬럼이 없습니다: " + col.name());
+
+        ByteBuffer buf = readFully(channel, chunk.startOffset(), (int) chunk.totalCompressedSize());
+        ThriftCompactReader thrift = new ThriftCompactReader(buf);
+        PageValues values = new PageValues(isFloating(col.physicalType()));
+        long row = 0;
+
+        while (buf.hasRemaining() && row < to) {
+            PageHeader header = PageHeader.read(thrift);
+            int bodyStart = buf.position();
+            int bodyEnd = bodyStart + header.compressedSize;
+
+            if (header.type == DICTIONARY_PAGE) {
+                ByteBuffer page = decompress(chunk.codec(), buf, bodyStart, header.compressedSize, header.uncompressedSize);
+                values.dictionary = decodePlain(page, header.numValues, col.physicalType(), new PageValues(values.floating));
+            } else if (header.type == DATA_PAGE || header.type == DATA_PAGE_V2) {
+                long pageEndRow = row + header.numValues;
+                if (pageEndRow > from) {
+                    decodeDataPage(chunk.codec(), col, header, buf, bodyStart, values);
+                    scatter(values, col.optional(), row, header.numValues, from, to, outLongs, outDoubles, nullLong);
+                }
+                // 범위 앞쪽 page 는 압축 해제 없이 건너뜀
+                row = pageEndRow;
+            }
+            buf.position(bodyEnd);
+        }
+        if (row < to) {
+            throw new IOException("컬럼 데이터가 부족합니다: " + col.name() + " (" + row + " < " + to + ")");
+        }
+    }
+
+    private void decodeDataPage(int codec, ParquetFooter.Column col, PageHeader header,
+                                ByteBuffer buf, int bodyStart, PageValues values) throws IOException {
+        int n = header.numValues;
+        ByteBuffer page;
+        values.ensureDefs(n);
+
+        if (header.type == DATA_PAGE) {
+            page = decompress(codec, buf, bodyStart, header.compressedSize, header.uncompressedSize);
+            if (col.optional()) {
+                if (header.definitionLevelEncoding != ENC_RLE) {
+                    throw new IOException("지원하지 않는 definition level 인코딩: " + header.definitionLevelEncoding);
+                }
+                int len = page.getInt();
+                int start = page.position();
+                RleBitPackedDecoder.decode(page, start + len, 1, values.defs, n);
+                page.position(start + len);
+            }
+        } else {
+            // v2: level 은 압축되지 않은 채로 앞에 있고 값 부분만 압축됨
+            int levelsLength = header.repetitionLevelsByteLength + header.definitionLevelsByteLength;
+            if (header.repetitionLevelsByteLength != 0) throw new IOException("반복 컬럼은 지원하지 않습니다: " + col.name());
+            if (col.optional()) {
+                ByteBuffer levels = buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+                levels.position(bodyStart);
+                RleBitPackedDecoder.decode(levels, bodyStart + header.definitionLevelsByteLength, 1, values.defs, n);
+            }
+            int valuesStart = bodyStart + levelsLength;
+            int valuesCompressed = header.compressedSize - levelsLength;
+            int valuesUncompressed = header.uncompressedSize - levelsLength;
+            page = header.isCompressed
+                    ? decompress(codec, buf, valuesStart, valuesCompressed, valuesUncompressed)
+                    : decompress(CODEC_UNCOMPRESSED, buf, valuesStart, valuesCompressed, valuesUncompressed);
+        }
+
+        int nonNull = n;
+        if (col.optional()) {
+            nonNull = 0;
+            for (int i = 0; i < n; i++) nonNull += values.defs[i];
+        }
+
+        switch (header.encoding) {
+            case ENC_PLAIN -> decodePlain(page, nonNull, col.physicalType(), values);
+            case ENC_PLAIN_DICTIONARY, ENC_RLE_DICTIONARY -> {
+                if (values.dictionary == null) throw new IOException("사전 page 없이 사전 인코딩이 사용되었습니다: " + col.name());
+                int bitWidth = page.get() & 0xFF;
+                values.ensureIndices(nonNull);
+                RleBitPackedDecoder.decode(page, page.limit(), bitWidth, values.indices, nonNull);
+                values.fromDictionary(nonNull);
+            }
+            default -> throw new IOException("지원하지 않는 값 인코딩: " + header.encoding + " (" + col.name() + ")");
+        }
+    }
+
+    /**
+     * page 의 값을 출력 배열의 [from, to) 구간에 맞춰 옮깁니다. (null 위치 반영)
+     */
+    private static void scatter(PageValues values, boolean optional, long pageStartRow, int n, int from, int to,
+                                long[] outLongs, double[] outDoubles, long nullLong) {
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            long row = pageStartRow + i;
+            boolean present = !optional || values.defs[i] != 0;
+            if (row >= to) break;
+            if (row >= from) {
+                int o = (int) (row - from);
+                if (!present) {
+                    if (outLongs != null) outLongs[o] = nullLong;
+                    else outDoubles[o] = Double.NaN;
+                } else if (values.floating) {
+                    double v = values.doubles[k];
+                    if (outLongs != null) outLongs[o] = (long) v;
+                    else outDoubles[o] = v;
+                } else {
+                    long v = values.longs[k];
+                    if (outLongs != null) outLongs[o] = v;
+                    else outDoubles[o] = v;
+                }
+            }
+            if (present) k++;
+        }
+    }
+
+    private static PageValues decodePlain(ByteBuffer page, int count, int physicalType, PageValues values) throws IOException {
+        values.ensureValues(count);
+        switch (physicalType) {
+            case ParquetFooter.TYPE_INT32 -> { for (int i = 0; i < count; i++) values.longs[i] = page.getInt(); }
+            case ParquetFooter.TYPE_INT64 -> { for (int i = 0; i < count; i++) values.longs[i] = page.getLong(); }
+            case ParquetFooter.TYPE_FLOAT -> { for (int i = 0; i < count; i++) values.doubles[i] = page.getFloat(); }
+            case ParquetFooter.TYPE_DOUBLE -> { for (int i = 0; i < count; i++) values.doubles[i] = page.getDouble(); }
+            case ParquetFooter.TYPE_INT96 -> {
+                for (int i = 0; i < count; i++) {
+                    long nanosOfDay = page.getLong();
+                    int julianDay = page.getInt();
+                    values.longs[i] = (julianDay - JULIAN_EPOCH_DAY) * NANOS_PER_DAY + nanosOfDay;
+                }
+            }
+            default -> throw new IOException("숫자 컬럼이 아닙니다 (physical type " + physicalType + ")");
+        }
+        values.size = count;
+        return values;
+    }
+
+    private static ByteBuffer decompress(int codec, ByteBuffer buf, int offset, int compressedSize, int uncompressedSize)
+            throws IOException {
+        ByteBuffer src = buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        src.position(offset).limit(offset + compressedSize);
+        switch (codec) {
+            case CODEC_UNCOMPRESSED -> {
+                return src.slice().order(ByteOrder.LITTLE_ENDIAN);
+            }
+            case CODEC_SNAPPY -> {
+                return ByteBuffer.wrap(Snappy.decompress(src, uncompressedSize)).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            case CODEC_GZIP -> {
+                byte[] compressed = new byte[compressedSize];
+                src.get(compressed);
+                try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+                    byte[] out = in.readNBytes(uncompressedSize);
+                    return ByteBuffer.wrap(out).order(ByteOrder.LITTLE_ENDIAN);
+                }
+            }
+            default -> throw new IOException("지원하지 않는 압축 코덱: " + codec + " (UNCOMPRESSED/SNAPPY/GZIP 만 지원)");
+        }
+    }
+
+    private static boolean isFloating(int physicalType) {
+        return physicalType == ParquetFooter.TYPE_FLOAT || physicalType == ParquetFooter.TYPE_DOUBLE;
+    }
+
+    private static long statLong(byte[] bytes, int physicalType) {
+        ByteBuffer b = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        return physicalType == ParquetFooter.TYPE_INT32 ? b.getInt() : b.getLong();
+    }
+
+    private static int toEpochDay(long raw, ParquetFooter.TimeKind kind) {
+        return switch (kind) {
+            case DATE -> (int) raw;
+            case MILLIS -> (int) Math.floorDiv(raw, MILLIS_PER_DAY);
+            case MICROS -> (int) Math.floorDiv(raw, MICROS_PER_DAY);
+            case NANOS, INT96 -> (int) Math.floorDiv(raw, NANOS_PER_DAY);
+            case NONE -> throw new IllegalArgumentException("날짜 타입이 아닙니다.");
+        };
+    }
+
+    private static boolean hasMagic(ByteBuffer buf, int offset) {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buf.get(offset + i) != MAGIC[i]) return false;
+        }
+        return true;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buf.hasRemaining()) {
+            int n = channel.read(buf, position + buf.position());
+            if (n < 0) throw new IOException("파일이 예상보다 짧습니다.");
+        }
+        return buf.flip();
+    }
+
+    // ------------------------------------------------------------------
+
+    /**
+     * page 하나의 디코딩 결과 (배열은 page 간에 재사용)
+     */
+    private static final class PageValues {
+        final boolean floating;
+        long[] longs = new long[0];
+        double[] doubles = new double[0];
+        int[] defs = new int[0];
+        int[] indices = new int[0];
+        int size;
+        PageValues dictionary;
+
+        PageValues(boolean floating) {
+            this.floating = floating;
+        }
+
+        void ensureValues(int n) {
+            if (floating) {
+                if (doubles.length < n) doubles = new double[n];
+            } else if (longs.length < n) {
+                longs = new long[n];
+            }
+        }
+
+        void ensureDefs(int n) {
+            if (defs.length < n) defs = new int[n];
+        }
+
+        void ensureIndices(int n) {
+            if (indices.length < n) indices = new int[n];
+        }
+
+        void fromDictionary(int n) throws IOException {
+            ensureValues(n);
+            int dictSize = dictionary.size;
+            for (int i = 0; i < n; i++) {
+                int idx = indices[i];
+                if (idx < 0 || idx >= dictSize) throw new IOException("사전 인덱스 범위 오류: " + idx);
+                if (floating) doubles[i] = dictionary.doubles[idx];
+                else longs[i] = dictionary.longs[idx];
+            }
+            size = n;
+        }
+    }
+
+    /**
+     * PageHeader (parquet.thrift) 중 필요한 필드
+     */
+    private static final class PageHeader {
+        int type;
+        int uncompressedSize;
+        int compressedSize;
+        int numValues;
+        int encoding;
+        int definitionLevelEncoding = ENC_RLE;
+        int definitionLevelsByteLength;
+        int repetitionLevelsByteLength;
+        boolean isCompressed = true;
+
+        static PageHeader read(ThriftCompactReader in) throws IOException {
+            PageHeader h = new PageHeader();
+            in.beginStruct();
+            while (in.nextField()) {
+                switch (in.fieldId()) {
+                    case 1 -> h.type = in.readI32();
+                    case 2 -> h.uncompressedSize = in.readI32();
+                    case 3 -> h.compressedSize = in.readI32();
+                    case 5 -> readDataPageHeader(in, h);
+                    case 7 -> readDictionaryPageHeader(in, h);
+                    case 8 -> readDataPageHeaderV2(in, h);
+                    default -> in.skip(in.fieldType());
+                }
+            }
+            in.endStruct();
+            return h;
+        }
+
+        private static void readDataPageHeader(ThriftCompactReader in, PageHeader h) throws IOException {
+            in.beginStruct();
+            while (in.nextField()) {
+                switch (in.fieldId()) {
+                    case 1 -> h.numValues = in.readI32();
+                    case 2 -> h.encoding = in.readI32();
+                    case 3 -> h.definitionLevelEncoding = in.readI32();
+                    default -> in.skip(in.fieldType());
+                }
+            }
+            in.endStruct();
+        }
+
+        private static void readDictionaryPageHeader(ThriftCompactReader in, PageHeader h) throws IOException {
+            in.beginStruct();
+            while (in.nextField()) {
+                switch (in.fieldId()) {
+                    case 1 -> h.numValues = in.readI32();
+                    case 2 -> h.encoding = in.readI32();
+                    default -> in.skip(in.fieldType());
+                }
+            }
+            in.endStruct();
+        }
+
+        private static void readDataPageHeaderV2(ThriftCompactReader in, PageHeader h) throws IOException {
+            in.beginStruct();
+            while (in.nextField()) {
+                switch (in.fieldId()) {
+                    case 1 -> h.numValues = in.readI32();
+                    case 4 -> h.encoding = in.readI32();
+                    case 5 -> h.definitionLevelsByteLength = in.readI32();
+                    case 6 -> h.repetitionLevelsByteLength = in.readI32();
+                    case 7 -> h.isCompressed = in.readFieldBool();
+                    default -> in.skip(in.fieldType());
+                }
+            }
+            in.endStruct();
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.mybaselink.app.parquet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Parquet 파일 메타데이터(FileMetaData) 중 읽기에 필요한 부분.
+ * <p>
+ * 중첩 없는(flat) 스키마만 다룹니다. pandas.DataFrame.to_parquet 로 만든 가격 파일이 이 형태입니다.
+ */
+final class ParquetFooter {
+
+    // parquet.thrift Type
+    static final int TYPE_BOOLEAN = 0;
+    static final int TYPE_INT32 = 1;
+    static final int TYPE_INT64 = 2;
+    static final int TYPE_INT96 = 3;
+    static final int TYPE_FLOAT = 4;
+    static final int TYPE_DOUBLE = 5;
+    static final int TYPE_BYTE_ARRAY = 6;
+    static final int TYPE_FIXED_LEN_BYTE_ARRAY = 7;
+
+    // FieldRepetitionType
+    static final int REQUIRED = 0;
+    static final int OPTIONAL = 1;
+    static final int REPEATED = 2;
+
+    // ConvertedType (구버전 writer 의 시간 타입 표기)
+    static final int CONVERTED_DATE = 6;
+    static final int CONVERTED_TIMESTAMP_MILLIS = 9;
+    static final int CONVERTED_TIMESTAMP_MICROS = 10;
+
+    /** 시간 컬럼 단위 */
+    enum TimeKind { NONE, DATE, MILLIS, MICROS, NANOS, INT96 }
+
+    record Column(String name, int physicalType, int repetition, TimeKind timeKind) {
+        boolean optional() {
+            return repetition == OPTIONAL;
+        }
+    }
+
+    record ColumnChunk(String path, int physicalType, int codec, long numValues,
+                       long dataPageOffset, long dictionaryPageOffset, long totalCompressedSize,
+                       byte[] statsMin, byte[] statsMax) {
+        long startOffset() {
+            return dictionaryPageOffset > 0 && dictionaryPageOffset < dataPageOffset ? dictionaryPageOffset : dataPageOffset;
+        }
+    }
+
+    record RowGroup(long numRows, Map<String, ColumnChunk> columns) { }
+
+    final long numRows;
+    final Map<String, Column> columns;
+    final List<RowGroup> rowGroups;
+    final String createdBy;
+
+    private ParquetFooter(long numRows, Map<String, Column> columns, List<RowGroup> rowGroups, String createdBy) {
+        this.numRows = numRows;
+        this.columns = columns;
+        this.rowGroups = rowGroups;
+        this.createdBy = createdBy;
+    }
+
+    static ParquetFooter parse(ByteBuffer buf) throws IOException {
+        ThriftCompactReader in = new ThriftCompactReader(buf);
+        long numRows = 0;
+        Map<String, Column> columns = new LinkedHashMap<>();
+        List<RowGroup> rowGroups = new ArrayList<>();
+        String createdBy = null;
+
+        in.beginStruct();
+        while (in.nextField()) {
+            switch (in.fieldId()) {
+                case 2 -> readSchema(in, columns);
+                case 3 -> numRows = in.readI64();
+                case 4 -> {
+                    int n = in.readListHeader();
+                    for (int i = 0; i < n; i++) rowGroups.add(readRowGroup(in));
+                }
+                case 6 -> createdBy = in.readString();
+                default -> in.skip(in.fieldType());
+            }
+        }
+        in.endStruct();
+        return new ParquetFooter(numRows, columns, rowGroups, createdBy);
+    }
+
+    private static void readSchema(ThriftCompactReader in, Map<String, Column> columns) throws IOException {
+        int n = in.readListHeader();
+        for (int i = 0; i < n; i++) {
+            String name = null;
+            int type = -1;
+            int repetition = REQUIRED;
+            int convertedType = -1;
+            int numChildren = 0;
+            TimeKind logicalTime = TimeKind.NONE;
+
+            in.beginStruct();
+            while (in.nextField()) {
+                switch (in.fieldId()) {
+                    case 1 -> type = in.readI32();
+                    case 3 -> repetition = in.readI32();
+                    case 4 -> name = in.readString();
+                    case 5 -> numChildren = in.readI32();
+                    case 6 -> convertedType = in.readI32();
+                    case 10 -> logicalTime = readLogicalType(in);
+                    default -> in.skip(in.fieldType());
+                }
+            }
+            in.endStruct();
+
+            // 첫 원소는 루트(자식 수만 있음). 중첩 그룹은 지원하지 않으므로 잎 컬럼만 등록
+            if (i == 0) continue;
+            if (numChildren > 0 || repetition == REPEATED) {
+                throw new IOException("중첩/반복 컬럼은 지원하지 않습니다: " + name);
+            }
+            TimeKind timeKind = logicalTime;
+            if (timeKind == TimeKind.NONE) {
+                if (convertedType == CONVERTED_DATE) timeKind = TimeKind.DATE;
+                else if (convertedType == CONVERTED_TIMESTAMP_MILLIS) timeKind = TimeKind.MILLIS;
+                else if (convertedType == CONVERTED_TIMESTAMP_MICROS) timeKind = TimeKind.MICROS;
+                else if (type == TYPE_INT96) timeKind = TimeKind.INT96;
+            }
+            columns.put(name, new Column(name, type, repetition, timeKind));
+        }
+    }
+
+    /**
+     * LogicalType union 에서 DATE(6) / TIMESTAMP(8) 만 해석합니다.
+     */
+    private static TimeKind readLogicalType(ThriftCompactReader in) throws IOException {
+        TimeKind kind = TimeKind.NONE;
+        in.beginStruct();
+        while (in.nextField()) {
+            if (in.fieldId() == 6) {
+                in.skip(in.fieldType());
+                kind = TimeKind.DATE;
+            } else if (in.fieldId() == 8) {
+                kind = readTimestampUnit(in);
+            } else {
+                in.skip(in.fieldType());
+            }
+        }
+        in.endStruct();
+        return kind;
+    }
+
+    private static TimeKind readTimestampUnit(ThriftCompactReader in) throws IOException {
+        TimeKind kind = TimeKind.NONE;
+        in.beginStruct();
+        while (in.nextField()) {
+            if (in.fieldId() == 2) {
+                // TimeUnit union: 1=MILLIS, 2=MICROS, 3=NANOS (빈 구조체)
+                in.beginStruct();
+                while (in.nextField()) {
+                    kind = switch (in.fieldId()) {
+                        case 1 -> TimeKind.MILLIS;
+                        case 2 -> TimeKind.MICROS;
+                        case 3 -> TimeKind.NANOS;
+                        default -> kind;
+                    };
+                    in.skip(in.fieldType());
+                }
+                in.endStruct();
+            } else {
+                in.skip(in.fieldType());
+            }
+        }
+        in.endStruct();
+        return kind;
+    }
+
+    private static RowGroup readRowGroup(ThriftCompactReader in) throws IOException {
+        long numRows = 0;
+        Map<String, ColumnChunk> chunks = new LinkedHashMap<>();
+        in.beginStruct();
+        while (in.nextField()) {
+            switch (in.fieldId()) {
+                case 1 -> {
+                    int n = in.readListHeader();
+                    for (int i = 0; i < n; i++) {
+                        ColumnChunk chunk = readColumnChunk(in);
+                        if (chunk != null) chunks.put(chunk.path(), chunk);
+                    }
+                }
+                case 3 -> numRows = in.readI64();
+                default -> in.skip(in.fieldType());
+            }
+        }
+        in.endStruct();
+        return new RowGroup(numRows, chunks);
+    }
+
+    private static ColumnChunk readColumnChunk(ThriftCompactReader in) throws IOException {
+        ColumnChunk chunk = null;
+        in.beginStruct();
+        while (in.nextField()) {
+            if (in.fieldId() == 1) {
+                String filePath = in.readString();
+                throw new IOException("외부 파일을 참조하는 컬럼은 지원하지 않습니다: " + filePath);
+            } else if (in.fieldId() == 3) {
+                chunk = readColumnMetaData(in);
+            } else {
+                in.skip(in.fieldType());
+            }
+        }
+        in.endStruct();
+        return chunk;
+    }
+
+    private static ColumnChunk readColumnMetaData(ThriftCompactReader in) throws IOException {
+        int type = -1;
+        int codec = 0;
+        long numValues = 0;
+        long dataPageOffset = -1;
+        long dictionaryPageOffset = -1;
+        long totalCompressedSize = 0;
+        StringBuilder path = new StringBuilder();
+        byte[][] stats = {null, null};
+
+        in.beginStruct();
+        while (in.nextField()) {
+            switch (in.fieldId()) {
+                case 1 -> type = in.readI32();
+                case 3 -> {
+                    int n = in.readListHeader();
+                    for (int i = 0; i < n; i++) {
+                        if (i > 0) path.append('.');
+                        path.append(in.readString());
+                    }
+                }
+                case 4 -> codec = in.readI32();
+                case 5 -> numValues = in.readI64();
+                case 7 -> totalCompressedSize = in.readI64();
+                case 9 -> dataPageOffset = in.readI64();
+                case 11 -> dictionaryPageOffset = in.readI64();
+                case 12 -> stats = readStatistics(in);
+                default -> in.skip(in.fieldType());
+            }
+        }
+        in.endStruct();
+        return new ColumnChunk(path.toString(), type, codec, numValues, dataPageOffset, dictionaryPageOffset,
+                totalCompressedSize, stats[0], stats[1]);
+    }
+
+    /**
+     * Statistics → {min, max}. 새 필드(min_value/max_value)를 우선하고 없으면 구버전 min/max 를 씁니다.
+     */
+    private static byte[][] readStatistics(ThriftCompactReader in) throws IOException {
+        byte[] legacyMax = null, legacyMin = null, minValue = null, maxValue = null;
+        in.beginStruct();
+        while (in.nextField()) {
+            switch (in.fieldId()) {
+                case 1 -> legacyMax = in.readBinary();
+                case 2 -> legacyMin = in.readBinary();
+                case 5 -> maxValue = in.readBinary();
+                case 6 -> minValue = in.readBinary();
+                default -> in.skip(in.fieldType());
+            }
+        }
+        in.endStruct();
+        return new byte[][]{minValue != null ? minValue : legacyMin, maxValue != null ? maxValue : legacyMax};
+    }
+}
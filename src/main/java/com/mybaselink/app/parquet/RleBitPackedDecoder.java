@@ -0,0 +1,69 @@
+package com.mybaselink.app.parquet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Parquet RLE / bit-packing hybrid 디코더 (definition level, 사전 인덱스용).
+ */
+final class RleBitPackedDecoder {
+
+    private RleBitPackedDecoder() {
+    }
+
+    /**
+     * buf 의 현재 위치부터 limit 까지에서 count 개 값을 out 에 읽습니다.
+     */
+    static void decode(ByteBuffer buf, int limit, int bitWidth, int[] out, int count) throws IOException {
+        if (bitWidth == 0) {
+            java.util.Arrays.fill(out, 0, count, 0);
+            return;
+        }
+        if (bitWidth > 32) throw new IOException("RLE bit width 오류: " + bitWidth);
+        int byteWidth = (bitWidth + 7) >>> 3;
+        long mask = (1L << bitWidth) - 1;
+        int n = 0;
+
+        while (n < count) {
+            if (buf.position() >= limit) throw new IOException("RLE 데이터가 부족합니다. (" + n + "/" + count + ")");
+            int header = readVarint(buf);
+            if ((header & 1) == 0) {
+                // RLE run: 같은 값 반복
+                int runLength = header >>> 1;
+                int value = 0;
+                for (int i = 0; i < byteWidth; i++) value |= (buf.get() & 0xFF) << (8 * i);
+                int end = Math.min(count, n + runLength);
+                while (n < end) out[n++] = value;
+            } else {
+                // bit-packed run: 8개 단위 그룹, LSB 부터 채워짐
+                int groups = header >>> 1;
+                int values = groups * 8;
+                int bytes = groups * bitWidth;
+                int start = buf.position();
+                long acc = 0;
+                int accBits = 0;
+                int pos = start;
+                for (int i = 0; i < values; i++) {
+                    while (accBits < bitWidth) {
+                        acc |= (long) (buf.get(pos++) & 0xFF) << accBits;
+                        accBits += 8;
+                    }
+                    if (n < count) out[n++] = (int) (acc & mask);
+                    acc >>>= bitWidth;
+                    accBits -= bitWidth;
+                }
+                buf.position(start + bytes);
+            }
+        }
+    }
+
+    private static int readVarint(ByteBuffer buf) throws IOException {
+        int result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = buf.get() & 0xFF;
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+        }
+        throw new IOException("RLE varint 오류");
+    }
+}
@@ -0,0 +1,83 @@
+package com.mybaselink.app.parquet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Snappy raw 포맷 해제 (Parquet SNAPPY 코덱은 프레이밍 없는 raw 블록).
+ */
+final class Snappy {
+
+    private Snappy() {
+    }
+
+    static byte[] decompress(ByteBuffer in, int expectedLength) throws IOException {
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        int length = (int) readVarint(in);
+        if (expectedLength >= 0 && length != expectedLength) {
+            throw new IOException("Snappy 해제 길이 불일치: " + length + " != " + expectedLength);
+        }
+        byte[] out = new byte[length];
+        int op = 0;
+
+        while (in.hasRemaining()) {
+            int tag = in.get() & 0xFF;
+            switch (tag & 3) {
+                case 0 -> { // literal
+                    int len = tag >>> 2;
+                    if (len >= 60) {
+                        int bytes = len - 59;
+                        len = 0;
+                        for (int i = 0; i < bytes; i++) len |= (in.get() & 0xFF) << (8 * i);
+                    }
+                    len += 1;
+                    if (op + len > length) throw new IOException("Snappy literal 범위 초과");
+                    in.get(out, op, len);
+                    op += len;
+                }
+                case 1 -> { // copy, 1바이트 offset
+                    int len = 4 + ((tag >>> 2) & 0x07);
+                    int offset = ((tag >>> 5) << 8) | (in.get() & 0xFF);
+                    op = copy(out, op, offset, len);
+                }
+                case 2 -> { // copy, 2바이트 offset
+                    int len = (tag >>> 2) + 1;
+                    int offset = (in.get() & 0xFF) | (in.get() & 0xFF) << 8;
+                    op = copy(out, op, offset, len);
+                }
+                default -> { // copy, 4바이트 offset
+                    int len = (tag >>> 2) + 1;
+                    int offset = in.getInt();
+                    op = copy(out, op, offset, len);
+                }
+            }
+        }
+        if (op != length) throw new IOException("Snappy 해제 결과가 짧습니다: " + op + " / " + length);
+        return out;
+    }
+
+    private static int copy(byte[] out, int op, int offset, int len) throws IOException {
+        if (offset <= 0 || offset > op || op + len > out.length) {
+            throw new IOException("Snappy copy 범위 오류 (offset=" + offset + ", len=" + len + ")");
+        }
+        int from = op - offset;
+        if (offset >= len) {
+            System.arraycopy(out, from, out, op, len);
+        } else {
+            // 겹치는 복사는 한 바이트씩 (반복 패턴)
+            for (int i = 0; i < len; i++) out[op + i] = out[from + i];
+        }
+        return op + len;
+    }
+
+    private static long readVarint(ByteBuffer in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.get() & 0xFF;
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+        }
+        throw new IOException("Snappy 길이 varint 오류");
+    }
+}
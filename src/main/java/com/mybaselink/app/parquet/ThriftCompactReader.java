@@ -0,0 +1,200 @@
+package com.mybaselink.app.parquet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parquet 메타데이터(footer, page header)용 Thrift Compact Protocol 디코더.
+ * <p>
+ * 필요한 필드만 골라 읽고 나머지는 {@link #skip(int)} 으로 건너뛰는 최소 구현입니다.
+ * ByteBuffer 의 position 을 그대로 전진시키므로 page header 를 읽은 뒤 바로 page 본문이 이어집니다.
+ */
+final class ThriftCompactReader {
+
+    static final int STOP = 0;
+    static final int BOOLEAN_TRUE = 1;
+    static final int BOOLEAN_FALSE = 2;
+    static final int BYTE = 3;
+    static final int I16 = 4;
+    static final int I32 = 5;
+    static final int I64 = 6;
+    static final int DOUBLE = 7;
+    static final int BINARY = 8;
+    static final int LIST = 9;
+    static final int SET = 10;
+    static final int MAP = 11;
+    static final int STRUCT = 12;
+
+    private static final int MAX_DEPTH = 64;
+
+    private final ByteBuffer buf;
+    private final short[] fieldIdStack = new short[MAX_DEPTH];
+    private int depth = 0;
+
+    private short lastFieldId = 0;
+    private short fieldId;
+    private int fieldType;
+
+    ThriftCompactReader(ByteBuffer buf) {
+        this.buf = buf.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    ByteBuffer buffer() {
+        return buf;
+    }
+
+    void beginStruct() throws IOException {
+        if (depth == MAX_DEPTH) throw new IOException("Thrift 구조체 중첩이 너무 깊습니다.");
+        fieldIdStack[depth++] = lastFieldId;
+        lastFieldId = 0;
+    }
+
+    void endStruct() {
+        lastFieldId = fieldIdStack[--depth];
+    }
+
+    /**
+     * 다음 필드 헤더를 읽습니다. STOP 이면 false.
+     */
+    boolean nextField() throws IOException {
+        int header = buf.get() & 0xFF;
+        int type = header & 0x0F;
+        if (type == STOP) {
+            return false;
+        }
+        int delta = header >>> 4;
+        fieldId = delta == 0 ? (short) zigzagToInt(readVarint32()) : (short) (lastFieldId + delta);
+        lastFieldId = fieldId;
+        fieldType = type;
+        return true;
+    }
+
+    short fieldId() {
+        return fieldId;
+    }
+
+    int fieldType() {
+        return fieldType;
+    }
+
+    /**
+     * 구조체 필드의 bool 값 (compact 프로토콜은 타입 nibble 에 값을 담는다)
+     */
+    boolean readFieldBool() {
+        return fieldType == BOOLEAN_TRUE;
+    }
+
+    int readI32() throws IOException {
+        return zigzagToInt(readVarint32());
+    }
+
+    long readI64() throws IOException {
+        return zigzagToLong(readVarint64());
+    }
+
+    double readDouble() {
+        return buf.getDouble();
+    }
+
+    byte[] readBinary() throws IOException {
+        int len = readVarint32();
+        if (len < 0 || len > buf.remaining()) throw new IOException("Thrift binary 길이 오류: " + len);
+        byte[] out = new byte[len];
+        buf.get(out);
+        return out;
+    }
+
+    String readString() throws IOException {
+        return new String(readBinary(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 리스트 헤더를 읽고 원소 수를 돌려줍니다. 원소 타입은 {@link #listElementType()}.
+     */
+    int readListHeader() throws IOException {
+        int header = buf.get() & 0xFF;
+        listElementType = header & 0x0F;
+        int size = header >>> 4;
+        return size == 15 ? readVarint32() : size;
+    }
+
+    private int listElementType;
+
+    int listElementType() {
+        return listElementType;
+    }
+
+    /**
+     * 값 하나를 건너뜁니다. (구조체 필드의 bool 은 헤더에 값이 있어 추가로 읽을 것이 없음)
+     */
+    void skip(int type) throws IOException {
+        switch (type) {
+            case BOOLEAN_TRUE, BOOLEAN_FALSE -> { }
+            case BYTE -> buf.get();
+            case I16, I32, I64 -> readVarint64();
+            case DOUBLE -> buf.position(buf.position() + 8);
+            case BINARY -> {
+                int len = readVarint32();
+                buf.position(buf.position() + len);
+            }
+            case LIST, SET -> {
+                int size = readListHeader();
+                int elem = listElementType;
+                for (int i = 0; i < size; i++) skipElement(elem);
+            }
+            case MAP -> {
+                int size = readVarint32();
+                if (size > 0) {
+                    int kv = buf.get() & 0xFF;
+                    int keyType = kv >>> 4;
+                    int valueType = kv & 0x0F;
+                    for (int i = 0; i < size; i++) {
+                        skipElement(keyType);
+                        skipElement(valueType);
+                    }
+                }
+            }
+            case STRUCT -> {
+                beginStruct();
+                while (nextField()) skip(fieldType);
+                endStruct();
+            }
+            default -> throw new IOException("알 수 없는 Thrift 타입: " + type);
+        }
+    }
+
+    // 컬렉션 원소의 bool 은 1바이트로 기록된다
+    private void skipElement(int type) throws IOException {
+        if (type == BOOLEAN_TRUE || type == BOOLEAN_FALSE) {
+            buf.get();
+        } else {
+            skip(type);
+        }
+    }
+
+    int readVarint32() throws IOException {
+        return (int) readVarint64();
+    }
+
+    long readVarint64() throws IOException {
+        long result = 0;
+        int shift = 0;
+        while (shift < 64) {
+            byte b = buf.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+            shift += 7;
+        }
+        throw new IOException("Thrift varint 가 너무 깁니다.");
+    }
+
+    private static int zigzagToInt(int n) {
+        return (n >>> 1) ^ -(n & 1);
+    }
+
+    private static long zigzagToLong(long n) {
+        return (n >>> 1) ^ -(n & 1);
+    }
+}
@@ -0,0 +1,146 @@
+package com.mybaselink.app.python;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ✅ PythonExecutionGate
+ * --------------------------------------------------------
+ * 모든 파이썬 호출이 공유하는 동시 실행 게이트.
+ *
+ * - 허가(permit) 수는 코어 수에 맞춤 (python.gate.permits=0 이면 availableProcessors)
+ * - 공정(FIFO) 세마포어라 먼저 온 요청이 먼저 실행됨
+ * - 대기열 길이 제한(max-queue)을 넘으면 즉시 거절, 요청별 대기 기한(deadline)을 넘으면 타임아웃
+ * - 자체적으로 멀티프로세싱을 쓰는 스크립트(--parallel)는 weight 를 크게 잡아 머신을 과점유하지 않도록 함
+ * --------------------------------------------------------
+ */
+@Component
+public class PythonExecutionGate {
+
+    private static final Logger log = LoggerFactory.getLogger(PythonExecutionGate.class);
+
+    /** 전체 permit 을 요청할 때 사용하는 weight (permits 수로 잘림) */
+    public static final int ALL_PERMITS = Integer.MAX_VALUE;
+
+    @Value("${python.gate.permits:0}")
+    private int permits;
+
+    @Value("${python.gate.max-queue:64}")
+    private int maxQueue;
+
+    @Value("${python.gate.max-wait-seconds:120}")
+    private long maxWaitSeconds;
+
+    private Semaphore semaphore;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    // 통계
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong totalWaitMillis = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        if (permits <= 0) {
+            permits = Runtime.getRuntime().availableProcessors();
+        }
+        semaphore = new Semaphore(permits, true);
+        log.info("PythonExecutionGate 초기화: permits={}, maxQueue={}, maxWait={}s", permits, maxQueue, maxWaitSeconds);
+    }
+
+    /**
+     * permit 을 얻을 때까지 (최대 maxWait 또는 설정된 최대 대기 시간 중 짧은 쪽) 대기합니다.
+     *
+     * @param weight  필요한 permit 수 (1 ~ permits, {@link #ALL_PERMITS} 는 전체)
+     * @param maxWait 이 요청이 기다릴 수 있는 최대 시간
+     * @return try-with-resources 로 반납하는 {@link Permit}
+     * @throws IllegalStateException 대기열이 가득 찬 경우
+     * @throws TimeoutException      기한 안에 permit 을 얻지 못한 경우
+     */
+    public Permit acquire(int weight, Duration maxWait) throws InterruptedException, TimeoutException {
+        int n = Math.max(1, Math.min(weight, permits));
+        long waitNanos = Math.min(maxWait.toNanos(), TimeUnit.SECONDS.toNanos(maxWaitSeconds));
+
+        // 대기 없이 바로 얻을 수 있으면 대기열 카운트를 건드리지 않는다 (timeout 0 은 공정성 유지)
+        if (semaphore.tryAcquire(n, 0, TimeUnit.NANOSECONDS)) {
+            admitted.incrementAndGet();
+            return new Permit(n);
+        }
+
+        if (waiting.incrementAndGet() > maxQueue) {
+            waiting.decrementAndGet();
+            rejected.incrementAndGet();
+            throw new IllegalStateException("Python 실행 대기열이 가득 찼습니다. 잠시 후 다시 시도해주세요. (대기 " + maxQueue + "건)");
+        }
+        long startedAt = System.nanoTime();
+        try {
+            if (!semaphore.tryAcquire(n, waitNanos, TimeUnit.NANOSECONDS)) {
+                timedOut.incrementAndGet();
+                throw new TimeoutException("Python 실행 대기 시간 초과 (" + TimeUnit.NANOSECONDS.toSeconds(waitNanos) + "초)");
+            }
+            admitted.incrementAndGet();
+            totalWaitMillis.addAndGet(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            return new Permit(n);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    /**
+     * 게이트 상태 (모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long admittedCount = admitted.get();
+        stats.put("permits", permits);
+        stats.put("availablePermits", semaphore.availablePermits());
+        stats.put("waiting", waiting.get());
+        stats.put("maxQueue", maxQueue);
+        stats.put("admitted", admittedCount);
+        stats.put("rejected", rejected.get());
+        stats.put("timedOut", timedOut.get());
+        stats.put("avgWaitMillis", admittedCount == 0 ? 0 : totalWaitMillis.get() / admittedCount);
+        return stats;
+    }
+
+    /**
+     * 획득한 permit. close() 시 반납됩니다.
+     */
+    public final class Permit implements AutoCloseable {
+        private final int count;
+        private boolean released = false;
+
+        private Permit(int count) {
+            this.count = count;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                semaphore.release(count);
+            }
+        }
+    }
+}
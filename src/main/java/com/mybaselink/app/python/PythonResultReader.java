@@ -0,0 +1,133 @@
+package com.mybaselink.app.python;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * python_worker.py 응답 프레임 읽기.
+ * <p>
+ * 프레임 = 헤더 JSON 한 줄 + 헤더의 length 바이트 본문(결과 JSON).
+ * 본문은 문자열로 모으지 않고 프로세스 InputStream 에서 바로 Jackson 스트리밍 파서로 읽어
+ * 요청한 타입(DTO)으로 역직렬화합니다.
+ */
+final class PythonResultReader {
+
+    // 헤더 한 줄 최대 길이 (본문은 여기에 포함되지 않음)
+    private static final int MAX_HEADER_BYTES = 64 * 1024;
+    // 오류 메시지로 읽어 둘 본문 최대 길이
+    private static final int MAX_ERROR_BYTES = 8 * 1024;
+
+    private PythonResultReader() {
+    }
+
+    /**
+     * 헤더 한 줄을 읽습니다. 스트림이 끝났으면 null.
+     */
+    static JsonNode readHeader(ObjectMapper mapper, InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') break;
+            if (line.size() >= MAX_HEADER_BYTES) {
+                throw new IOException("Python 워커 응답 헤더가 너무 깁니다. (프로토콜 불일치)");
+            }
+            line.write(b);
+        }
+        if (b == -1 && line.size() == 0) return null;
+        return mapper.readTree(line.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 본문(length 바이트)을 읽습니다. 다 읽지 않고 끝나도 남은 바이트는 버려 다음 프레임과 어긋나지 않게 합니다.
+     *
+     * @return 결과 객체. 본문이 비어 있으면 null
+     * @throws PythonScriptException 컬렉션을 기대했는데 {"error": ...} 객체가 온 경우,
+     *                               또는 본문을 type 으로 읽지 못한 경우 (프레임은 끝까지 건너뛰었으므로 워커는 계속 사용 가능)
+     */
+    static <T> T readBody(ObjectMapper mapper, InputStream in, long length, JavaType type) throws IOException {
+        if (length == 0) return null;
+        try (FrameInputStream body = new FrameInputStream(in, length);
+             JsonParser parser = mapper.getFactory().createParser(body)) {
+            JsonToken first = parser.nextToken();
+            if (first == null) return null;
+            if (first == JsonToken.START_OBJECT && (type.isCollectionLikeType() || type.isArrayType())) {
+                // 목록 대신 오류 객체를 돌려준 경우 (작은 객체라 트리로 읽어도 부담 없음)
+                JsonNode node = mapper.readValue(parser, JsonNode.class);
+                throw new PythonScriptException(0, node.path("error").asText(node.toString()));
+            }
+            return mapper.readValue(parser, type);
+        } catch (JsonProcessingException e) {
+            // 깨진 JSON·타입 불일치는 이 응답만의 문제. 남은 본문은 위 close() 에서 이미 건너뛰었다
+            throw new PythonScriptException(0, "Python 결과를 " + type.getRawClass().getSimpleName()
+                    + " 로 읽지 못했습니다: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * 본문을 오류 메시지용 문자열로 읽습니다. (앞부분만)
+     */
+    static String readBodyAsText(InputStream in, long length) throws IOException {
+        try (FrameInputStream body = new FrameInputStream(in, length)) {
+            byte[] head = body.readNBytes((int) Math.min(length, MAX_ERROR_BYTES));
+            String text = new String(head, StandardCharsets.UTF_8);
+            return length > MAX_ERROR_BYTES ? text + "..." : text;
+        }
+    }
+
+    /**
+     * 프레임 본문만큼만 읽히는 스트림. close() 는 원본을 닫지 않고 남은 바이트만 건너뜁니다.
+     */
+    private static final class FrameInputStream extends InputStream {
+        private final InputStream in;
+        private long remaining;
+
+        FrameInputStream(InputStream in, long length) {
+            this.in = in;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) return -1;
+            int b = in.read();
+            if (b == -1) throw new IOException("Python 워커 응답 본문이 중간에 끊겼습니다.");
+            remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            if (remaining <= 0) return -1;
+            int n = in.read(buf, off, (int) Math.min(len, remaining));
+            if (n == -1) throw new IOException("Python 워커 응답 본문이 중간에 끊겼습니다.");
+            remaining -= n;
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+
+        @Override
+        public void close() throws IOException {
+            while (remaining > 0) {
+                long skipped = in.skip(remaining);
+                if (skipped <= 0) {
+                    if (in.read() == -1) break;
+                    skipped = 1;
+                }
+                remaining -= skipped;
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.mybaselink.app.python;
+
+import java.io.IOException;
+
+/**
+ * 파이썬 스크립트가 실패(0 이 아닌 종료 코드)했거나, 결과 대신 {"error": ...} 를 돌려줬거나,
+ * 결과 JSON 을 요청한 타입으로 읽지 못한 경우.
+ * <p>
+ * 워커 프로세스 자체는 정상이므로 풀은 이 예외가 나도 워커를 재사용합니다.
+ */
+public class PythonScriptException extends IOException {
+
+    private final int exitCode;
+
+    public PythonScriptException(int exitCode, String message) {
+        super(message);
+        this.exitCode = exitCode;
+    }
+
+    public PythonScriptException(int exitCode, String message, Throwable cause) {
+        super(message, cause);
+        this.exitCode = exitCode;
+    }
+
+    public int getExitCode() {
+        return exitCode;
+    }
+}
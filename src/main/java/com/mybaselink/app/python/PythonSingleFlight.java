@@ -0,0 +1,107 @@
+package com.mybaselink.app.python;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 동일한 (스크립트, 인자) 요청을 하나의 실행으로 합치는 single-flight 레이어.
+ * <p>
+ * 같은 키의 실행이 진행 중이면 새 요청은 파이썬을 다시 띄우지 않고 그 결과를 함께 기다립니다.
+ * 실행이 끝나면 키는 즉시 제거되므로 결과 캐시가 아니라 "동시 중복 제거" 만 담당합니다.
+ */
+final class PythonSingleFlight {
+
+    @FunctionalInterface
+    interface Call {
+        Object execute() throws IOException, InterruptedException, TimeoutException;
+    }
+
+    @FunctionalInterface
+    interface Copier {
+        Object copy(Object result) throws IOException;
+    }
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    // 통계
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong attached = new AtomicLong();
+
+    /**
+     * 같은 키의 실행이 있으면 거기에 합류하고, 없으면 직접 실행합니다.
+     * 합류한 요청은 자신의 timeout 만큼만 기다리며, 대표 실행의 예외를 그대로 받습니다.
+     * 결과 객체는 호출자마다 바꿀 수 있으므로 합류한 요청은 copier 로 만든 자기 복사본을 받습니다. (null 은 그대로)
+     */
+    Object run(String key, Duration timeout, Call call, Copier copier)
+            throws IOException, InterruptedException, TimeoutException {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            attached.incrementAndGet();
+            Object shared = await(existing, timeout);
+            return shared == null ? null : copier.copy(shared);
+        }
+
+        executions.incrementAndGet();
+        try {
+            Object result = call.execute();
+            mine.complete(result);
+            return result;
+        } catch (IOException | InterruptedException | TimeoutException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> future, Duration timeout)
+            throws IOException, InterruptedException, TimeoutException {
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof TimeoutException te) throw te;
+            if (cause instanceof InterruptedException) throw new IOException("동일 요청의 Python 실행이 중단되었습니다.", cause);
+            if (cause instanceof RuntimeException re) throw re;
+            throw new IOException("동일 요청의 Python 실행 실패: " + cause.getMessage(), cause);
+        } catch (TimeoutException e) {
+            throw new TimeoutException("동일 요청의 Python 실행 결과 대기 시간 초과");
+        }
+    }
+
+    /**
+     * 실행 키: 스크립트 절대 경로 + 인자 목록 그대로 (순서·공백 포함).
+     * 스크립트가 인자를 어떻게 해석하는지 여기서는 알 수 없으므로, argv 가 글자 하나라도 다르면 다른 요청으로 봅니다.
+     * 인자마다 길이를 앞에 붙여 구분자 문자가 든 인자끼리도 키가 겹치지 않게 합니다.
+     */
+    static String key(String scriptPath, List<String> args) {
+        String script;
+        try {
+            script = Paths.get(scriptPath).toAbsolutePath().normalize().toString();
+        } catch (RuntimeException e) {
+            script = scriptPath;
+        }
+
+        StringBuilder sb = new StringBuilder(script);
+        for (String arg : args) sb.append('\u0000').append(arg.length()).append(':').append(arg);
+        return sb.toString();
+    }
+
+    Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long exec = executions.get();
+        long hits = attached.get();
+        stats.put("inFlight", inFlight.size());
+        stats.put("executions", exec);
+        stats.put("attached", hits);
+        stats.put("attachRatio", exec + hits == 0 ? 0.0 : (double) hits / (exec + hits));
+        return stats;
+    }
+}
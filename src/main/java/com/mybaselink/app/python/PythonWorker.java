@@ -0,0 +1,239 @@
+package com.mybaselink.app.python;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 상주 파이썬 프로세스(python_worker.py) 하나를 감싸는 래퍼.
+ * <p>
+ * stdin 으로 JSON 한 줄 요청을 쓰고 stdout 에서 응답 프레임(헤더 한 줄 + length 바이트 본문)을 읽습니다.
+ * 본문은 {@link PythonResultReader} 가 스트리밍으로 바로 역직렬화합니다.
+ * stderr 는 전용 데몬 스레드가 로그로 흘려보냅니다.
+ * 한 번에 한 스레드만 사용해야 하며, 동시성 제어는 {@link PythonWorkerPool} 이 담당합니다.
+ */
+final class PythonWorker implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(PythonWorker.class);
+    private static final AtomicLong REQUEST_SEQ = new AtomicLong();
+
+    private final int workerId;
+    private final Process process;
+    private final BufferedWriter stdin;
+    private final InputStream stdout;
+    private final ObjectMapper mapper;
+    private final ScheduledExecutorService watchdog;
+    private final long startedAt = System.currentTimeMillis();
+
+    private int jobCount = 0;
+    private volatile long lastUsedAt = System.currentTimeMillis();
+
+    private PythonWorker(int workerId, Process process, ObjectMapper mapper, ScheduledExecutorService watchdog) {
+        this.workerId = workerId;
+        this.process = process;
+        this.mapper = mapper;
+        this.watchdog = watchdog;
+        this.stdin = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+        this.stdout = new BufferedInputStream(process.getInputStream(), 64 * 1024);
+    }
+
+    /**
+     * 워커 프로세스를 띄우고 "ready" 응답이 올 때까지 기다립니다.
+     */
+    static PythonWorker start(int workerId, List<String> command, File workingDir, ObjectMapper mapper,
+                              ScheduledExecutorService watchdog, Duration startupTimeout)
+            throws IOException, TimeoutException {
+        ProcessBuilder pb = new ProcessBuilder(command);
+        if (workingDir != null && workingDir.isDirectory()) {
+            pb.directory(workingDir);
+        }
+        pb.environment().put("PYTHONIOENCODING", "utf-8");
+        pb.environment().put("PYTHONUNBUFFERED", "1");
+        pb.environment().put("MPLBACKEND", "Agg");
+
+        Process process;
+        try {
+            process = pb.start();
+        } catch (IOException e) {
+            throw new IOException("Python 워커 시작 중 오류 발생. 실행 파일 또는 스크립트 경로를 확인하세요: " + e.getMessage(), e);
+        }
+
+        PythonWorker worker = new PythonWorker(workerId, process, mapper, watchdog);
+        worker.startStderrDrain();
+        try {
+            JsonNode ready = worker.withWatchdog(startupTimeout, worker::readHeader);
+            if (!"ready".equals(ready.path("op").asText())) {
+                throw new IOException("Python 워커 초기 응답이 올바르지 않습니다: " + ready);
+            }
+            log.info("[PythonWorker-{}] 기동 완료 (pid={})", workerId, process.pid());
+            return worker;
+        } catch (IOException | TimeoutException e) {
+            worker.close();
+            throw e;
+        }
+    }
+
+    private void startStderrDrain() {
+        Thread t = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    log.info("[PythonWorker-{}] {}", workerId, line);
+                }
+            } catch (IOException e) {
+                log.debug("[PythonWorker-{}] stderr 읽기 종료: {}", workerId, e.getMessage());
+            }
+        }, "PythonWorker-" + workerId + "-stderr");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * 스크립트 main() 을 실행하고 결과 JSON 을 resultType 으로 역직렬화해 반환합니다.
+     *
+     * @return 결과 객체. 스크립트가 아무것도 출력하지 않았으면 null
+     * @throws PythonScriptException 스크립트 종료 코드가 0 이 아닌 경우 (워커는 계속 사용 가능)
+     */
+    <T> T run(String scriptPath, List<String> args, Duration timeout, JavaType resultType)
+            throws IOException, TimeoutException {
+        long id = REQUEST_SEQ.incrementAndGet();
+        Map<String, Object> request = Map.of("id", id, "op", "run", "script", scriptPath, "args", args);
+        jobCount++;
+        lastUsedAt = System.currentTimeMillis();
+        send(request);
+        return withWatchdog(timeout, () -> {
+            JsonNode header = readHeader();
+            if (header.path("id").asLong(-1) != id) {
+                // 응답 순서가 어긋난 워커는 더 이상 신뢰할 수 없음
+                close();
+                throw new IOException("Python 워커 응답 ID 불일치 (요청=" + id + ", 응답=" + header.path("id") + ")");
+            }
+            int exitCode = header.path("exit_code").asInt(1);
+            long length = header.path("length").asLong(-1);
+            if (length < 0) {
+                close();
+                throw new IOException("Python 워커 응답 헤더에 length 가 없습니다: " + header);
+            }
+            if (exitCode != 0) {
+                String output = PythonResultReader.readBodyAsText(stdout, length);
+                throw new PythonScriptException(exitCode, "Python 스크립트 종료 코드: " + exitCode + ". 출력: " + output);
+            }
+            return PythonResultReader.readBody(mapper, stdout, length, resultType);
+        });
+    }
+
+    /**
+     * 헬스 체크. 제한 시간 안에 pong 을 받으면 true.
+     */
+    boolean ping(Duration timeout) {
+        if (!isAlive()) return false;
+        try {
+            long id = REQUEST_SEQ.incrementAndGet();
+            send(Map.of("id", id, "op", "ping"));
+            JsonNode pong = withWatchdog(timeout, this::readHeader);
+            return "pong".equals(pong.path("op").asText()) && pong.path("id").asLong(-1) == id;
+        } catch (Exception e) {
+            log.warn("[PythonWorker-{}] 헬스 체크 실패: {}", workerId, e.getMessage());
+            return false;
+        }
+    }
+
+    private void send(Map<String, Object> request) throws IOException {
+        if (!isAlive()) {
+            throw new IOException("Python 워커 프로세스가 종료되었습니다. (exit=" + process.exitValue() + ")");
+        }
+        stdin.write(mapper.writeValueAsString(request));
+        stdin.write('\n');
+        stdin.flush();
+    }
+
+    private JsonNode readHeader() throws IOException {
+        JsonNode header = PythonResultReader.readHeader(mapper, stdout);
+        if (header == null) {
+            throw new IOException("Python 워커가 응답 없이 종료되었습니다.");
+        }
+        return header;
+    }
+
+    @FunctionalInterface
+    private interface Read<T> {
+        T read() throws IOException;
+    }
+
+    /**
+     * 응답을 읽습니다. 제한 시간을 넘기면 워치독이 프로세스를 강제 종료해 블로킹 read 를 풀어줍니다.
+     */
+    private <T> T withWatchdog(Duration timeout, Read<T> reader) throws IOException, TimeoutException {
+        AtomicBoolean timedOut = new AtomicBoolean(false);
+        ScheduledFuture<?> killer = watchdog.schedule(() -> {
+            timedOut.set(true);
+            log.warn("[PythonWorker-{}] 응답 시간 초과({}초). 프로세스를 강제 종료합니다.", workerId, timeout.toSeconds());
+            destroyTree();
+        }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+        try {
+            return reader.read();
+        } catch (PythonScriptException e) {
+            throw e;
+        } catch (IOException e) {
+            if (timedOut.get()) throw new TimeoutException("Python 스크립트 실행 시간 초과");
+            throw e;
+        } finally {
+            killer.cancel(false);
+        }
+    }
+
+    boolean isAlive() {
+        return process.isAlive();
+    }
+
+    int getWorkerId() { return workerId; }
+    int getJobCount() { return jobCount; }
+    long getLastUsedAt() { return lastUsedAt; }
+    long getStartedAt() { return startedAt; }
+    long pid() { return process.pid(); }
+
+    private void destroyTree() {
+        // 스크립트 내부 multiprocessing 자식까지 함께 정리
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    @Override
+    public void close() {
+        if (process.isAlive()) {
+            try {
+                stdin.write("{\"op\":\"shutdown\"}\n");
+                stdin.flush();
+                if (!process.waitFor(3, TimeUnit.SECONDS)) {
+                    destroyTree();
+                }
+            } catch (IOException e) {
+                destroyTree();
+            } catch (InterruptedException e) {
+                destroyTree();
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            stdin.close();
+            stdout.close();
+        } catch (IOException e) {
+            log.debug("[PythonWorker-{}] 스트림 종료 중 오류: {}", workerId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.mybaselink.app.python;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ✅ PythonWorkerPool
+ * --------------------------------------------------------
+ * 미리 띄워둔 N개의 파이썬 프로세스(python_worker.py)에 분석 스크립트 실행을 맡기는 공용 풀.
+ * 요청마다 python.exe 를 새로 띄우고 pandas/matplotlib 을 다시 import 하던 비용을 없앱니다.
+ *
+ * - 워커는 처음 필요할 때(또는 기동 시 prestart) 생성되고, max-jobs 회 사용 후 교체됩니다.
+ * - 유휴 워커는 주기적으로 ping 으로 헬스 체크하며, 응답이 없으면 폐기합니다.
+ * - 실행 시간 초과 시 워커 프로세스(자식 포함)를 강제 종료하고 새 워커로 대체합니다.
+ * - 모든 실행은 {@link PythonExecutionGate} 를 먼저 통과하므로 머신 전체 동시 실행 수가 제한됩니다.
+ * - 같은 (스크립트, 인자) 요청이 동시에 들어오면 한 번만 실행하고 결과를 나눠 받습니다. (single-flight)
+ * --------------------------------------------------------
+ */
+@Component
+public class PythonWorkerPool {
+
+    private static final Logger log = LoggerFactory.getLogger(PythonWorkerPool.class);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final PythonExecutionGate gate;
+
+    @Value("${python.executable.path}")
+    private String pythonExe;
+
+    @Value("${python.working.dir}")
+    private String pythonWorkingDir;
+
+    @Value("${python.worker.script.path:${python.working.dir}/python_worker.py}")
+    private String workerScriptPath;
+
+    @Value("${python.worker.pool-size:4}")
+    private int poolSize;
+
+    @Value("${python.worker.prestart:true}")
+    private boolean prestart;
+
+    @Value("${python.worker.max-jobs:50}")
+    private int maxJobsPerWorker;
+
+    @Value("${python.worker.health-check-seconds:30}")
+    private long healthCheckSeconds;
+
+    @Value("${python.worker.startup-timeout-seconds:120}")
+    private long startupTimeoutSeconds;
+
+    @Value("${python.worker.job-timeout-seconds:300}")
+    private long defaultJobTimeoutSeconds;
+
+    @Value("${python.worker.coalesce:true}")
+    private boolean coalesce;
+
+    private final PythonSingleFlight singleFlight = new PythonSingleFlight();
+
+    // 유휴 워커 (최근 사용한 워커를 앞에서 꺼내 캐시 친화적으로 재사용)
+    private final BlockingDeque<PythonWorker> idle = new LinkedBlockingDeque<>();
+    // 살아있는(유휴+사용중+기동중) 워커 수
+    private final AtomicInteger liveWorkers = new AtomicInteger();
+    private final AtomicInteger workerSeq = new AtomicInteger();
+
+    // 동시에 워커를 빌려 쓸 수 있는 슬롯
+    private Semaphore slots;
+    private ScheduledExecutorService maintenance;
+
+    // 통계
+    private final AtomicLong completedJobs = new AtomicLong();
+    private final AtomicLong failedJobs = new AtomicLong();
+    private final AtomicLong timedOutJobs = new AtomicLong();
+    private final AtomicLong recycledWorkers = new AtomicLong();
+    private final AtomicLong startedWorkers = new AtomicLong();
+
+    public PythonWorkerPool(PythonExecutionGate gate) {
+        this.gate = gate;
+    }
+
+    @PostConstruct
+    void init() {
+        poolSize = Math.max(1, poolSize);
+        slots = new Semaphore(poolSize, true);
+        maintenance = Executors.newScheduledThreadPool(2, r -> {
+            Thread t = new Thread(r, "PythonWorkerPool-maint");
+            t.setDaemon(true);
+            return t;
+        });
+        if (healthCheckSeconds > 0) {
+            maintenance.scheduleWithFixedDelay(this::healthCheck, healthCheckSeconds, healthCheckSeconds, TimeUnit.SECONDS);
+        }
+        if (prestart) {
+            for (int i = 0; i < poolSize; i++) {
+                maintenance.execute(this::warmUpOne);
+            }
+        }
+        log.info("PythonWorkerPool 초기화: poolSize={}, maxJobs={}, script={}", poolSize, maxJobsPerWorker, workerScriptPath);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (maintenance != null) maintenance.shutdownNow();
+        PythonWorker w;
+        while ((w = idle.pollFirst()) != null) {
+            w.close();
+            liveWorkers.decrementAndGet();
+        }
+        log.info("PythonWorkerPool 종료");
+    }
+
+    /**
+     * 기본 제한 시간으로 스크립트를 실행합니다.
+     */
+    public JsonNode run(String scriptPath, List<String> args) throws IOException, InterruptedException, TimeoutException {
+        return run(scriptPath, args, Duration.ofSeconds(defaultJobTimeoutSeconds));
+    }
+
+    public JsonNode run(String scriptPath, List<String> args, Duration timeout)
+            throws IOException, InterruptedException, TimeoutException {
+        return run(scriptPath, args, timeout, 1);
+    }
+
+    public JsonNode run(String scriptPath, List<String> args, Duration timeout, int weight)
+            throws IOException, InterruptedException, TimeoutException {
+        return execute(scriptPath, args, timeout, weight, mapper.constructType(JsonNode.class));
+    }
+
+    public <T> T run(String scriptPath, List<String> args, Duration timeout, Class<T> resultType)
+            throws IOException, InterruptedException, TimeoutException {
+        return execute(scriptPath, args, timeout, 1, mapper.constructType(resultType));
+    }
+
+    public <T> T run(String scriptPath, List<String> args, Duration timeout, TypeReference<T> resultType)
+            throws IOException, InterruptedException, TimeoutException {
+        return execute(scriptPath, args, timeout, 1, mapper.constructType(resultType));
+    }
+
+    public <T> T run(String scriptPath, List<String> args, Duration timeout, int weight, TypeReference<T> resultType)
+            throws IOException, InterruptedException, TimeoutException {
+        return execute(scriptPath, args, timeout, weight, mapper.constructType(resultType));
+    }
+
+    /**
+     * 게이트 permit 과 워커 하나를 빌려 스크립트 main() 을 실행하고, 결과 JSON 을 resultType 으로 바로 역직렬화해 돌려줍니다.
+     * 출력이 비어 있으면 null 을 반환합니다.
+     * 동일한 요청이 이미 실행 중이면 새로 실행하지 않고 그 결과를 기다립니다. 합류한 호출자는 결과의 복사본을 받으므로 마음대로 바꿔도 됩니다.
+     *
+     * @param scriptPath 실행할 스크립트 경로
+     * @param args       스크립트 인자 (argparse 형식)
+     * @param timeout    대기 + 실행 전체 제한 시간
+     * @param weight     게이트 permit 수 (스크립트가 내부적으로 여러 코어를 쓰면 크게)
+     * @param resultType 결과 타입 (DTO, 목록 등)
+     * @throws PythonScriptException 스크립트가 실패했거나 목록 대신 {"error": ...} 를 돌려준 경우
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T execute(String scriptPath, List<String> args, Duration timeout, int weight, JavaType resultType)
+            throws IOException, InterruptedException, TimeoutException {
+        if (!coalesce) {
+            return runGated(scriptPath, args, timeout, weight, resultType);
+        }
+        String key = PythonSingleFlight.key(scriptPath, args) + '\u0002' + resultType.toCanonical();
+        return (T) singleFlight.run(key, timeout, () -> runGated(scriptPath, args, timeout, weight, resultType),
+                result -> copyResult(result, resultType));
+    }
+
+    /**
+     * 합류한 호출자에게 줄 결과 복사본. DTO 는 같은 mapper 로 트리로 썼다가 다시 읽어 내부 목록까지 새로 만듭니다.
+     * (파이썬을 다시 돌리는 것보다 훨씬 싸고, 대표 실행은 스트리밍 역직렬화 결과를 그대로 씁니다)
+     */
+    private Object copyResult(Object result, JavaType resultType) throws IOException {
+        if (result instanceof JsonNode node) return node.deepCopy();
+        return mapper.treeToValue(mapper.valueToTree(result), resultType);
+    }
+
+    private <T> T runGated(String scriptPath, List<String> args, Duration timeout, int weight, JavaType resultType)
+            throws IOException, InterruptedException, TimeoutException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+
+        try (PythonExecutionGate.Permit permit = gate.acquire(weight, timeout)) {
+            return runOnWorker(scriptPath, args, deadline, resultType);
+        }
+    }
+
+    private <T> T runOnWorker(String scriptPath, List<String> args, long deadline, JavaType resultType)
+            throws IOException, InterruptedException, TimeoutException {
+        if (!slots.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+            throw new TimeoutException("사용 가능한 Python 워커가 없습니다. 잠시 후 다시 시도해주세요.");
+        }
+        PythonWorker worker = null;
+        boolean healthy = false;
+        try {
+            worker = borrow(deadline);
+            long remaining = Math.max(1, deadline - System.nanoTime());
+            T result = worker.run(scriptPath, args, Duration.ofNanos(remaining), resultType);
+            healthy = true;
+            completedJobs.incrementAndGet();
+            return result;
+        } catch (PythonScriptException e) {
+            // 스크립트 실패·결과 매핑 실패일 뿐 프레임은 끝까지 읽었으므로 워커 프로토콜은 정상
+            healthy = true;
+            failedJobs.incrementAndGet();
+            throw e;
+        } catch (TimeoutException e) {
+            timedOutJobs.incrementAndGet();
+            throw e;
+        } catch (IOException e) {
+            failedJobs.incrementAndGet();
+            throw e;
+        } finally {
+            if (worker != null) release(worker, healthy);
+            slots.release();
+        }
+    }
+
+    private PythonWorker borrow(long deadline) throws IOException, InterruptedException, TimeoutException {
+        PythonWorker w = idle.pollFirst();
+        while (true) {
+            if (w != null) {
+                if (w.isAlive()) return w;
+                discard(w);
+            }
+            if (reserveSlot()) {
+                try {
+                    return createWorker();
+                } catch (IOException | TimeoutException e) {
+                    liveWorkers.decrementAndGet();
+                    throw e;
+                }
+            }
+            // 다른 스레드가 기동 중인 워커를 기다린다
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new TimeoutException("Python 워커 대기 시간 초과");
+            }
+            w = idle.pollFirst(remaining, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void release(PythonWorker worker, boolean healthy) {
+        if (!healthy || !worker.isAlive()) {
+            discard(worker);
+            maintenance.execute(this::warmUpOne);
+            return;
+        }
+        if (worker.getJobCount() >= maxJobsPerWorker) {
+            log.info("[PythonWorker-{}] {}회 실행 후 교체합니다.", worker.getWorkerId(), worker.getJobCount());
+            recycledWorkers.incrementAndGet();
+            discard(worker);
+            maintenance.execute(this::warmUpOne);
+            return;
+        }
+        idle.offerFirst(worker);
+    }
+
+    private boolean reserveSlot() {
+        while (true) {
+            int n = liveWorkers.get();
+            if (n >= poolSize) return false;
+            if (liveWorkers.compareAndSet(n, n + 1)) return true;
+        }
+    }
+
+    /** 워커 프로세스 실행 명령 */
+    List<String> workerCommand() {
+        return List.of(pythonExe, "-u", workerScriptPath);
+    }
+
+    private PythonWorker createWorker() throws IOException, TimeoutException {
+        PythonWorker w = PythonWorker.start(workerSeq.incrementAndGet(), workerCommand(), new File(pythonWorkingDir),
+                mapper, maintenance, Duration.ofSeconds(startupTimeoutSeconds));
+        startedWorkers.incrementAndGet();
+        return w;
+    }
+
+    private void discard(PythonWorker worker) {
+        worker.close();
+        liveWorkers.decrementAndGet();
+    }
+
+    /**
+     * 빈 자리가 있으면 워커를 하나 미리 띄워 유휴 큐에 넣습니다.
+     */
+    private void warmUpOne() {
+        if (!reserveSlot()) return;
+        try {
+            idle.offerLast(createWorker());
+        } catch (Exception e) {
+            liveWorkers.decrementAndGet();
+            log.warn("Python 워커 사전 기동 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 유휴 워커를 한 바퀴 돌며 ping 으로 상태를 확인합니다.
+     */
+    private void healthCheck() {
+        int n = idle.size();
+        for (int i = 0; i < n; i++) {
+            PythonWorker w = idle.pollLast();
+            if (w == null) break;
+            if (w.ping(Duration.ofSeconds(10))) {
+                idle.offerLast(w);
+            } else {
+                log.warn("[PythonWorker-{}] 응답 없음 → 폐기 후 재기동", w.getWorkerId());
+                discard(w);
+                warmUpOne();
+            }
+        }
+    }
+
+    /**
+     * 동일 요청 합치기 통계 (모니터링용)
+     */
+    public Map<String, Object> getCoalescingStats() {
+        Map<String, Object> stats = singleFlight.getStats();
+        stats.put("enabled", coalesce);
+        return stats;
+    }
+
+    /**
+     * 풀 상태 (모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("poolSize", poolSize);
+        stats.put("liveWorkers", liveWorkers.get());
+        stats.put("idleWorkers", idle.size());
+        stats.put("busyWorkers", poolSize - slots.availablePermits());
+        stats.put("waitingRequests", slots.getQueueLength());
+        stats.put("completedJobs", completedJobs.get());
+        stats.put("failedJobs", failedJobs.get());
+        stats.put("timedOutJobs", timedOutJobs.get());
+        stats.put("startedWorkers", startedWorkers.get());
+        stats.put("recycledWorkers", recycledWorkers.get());
+        stats.put("maxJobsPerWorker", maxJobsPerWorker);
+        return stats;
+    }
+}
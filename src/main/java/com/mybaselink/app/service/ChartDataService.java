@@ -0,0 +1,151 @@
+package com.mybaselink.app.service;
+
+import com.mybaselink.app.dto.ChartDataDto;
+import com.mybaselink.app.stock.MarketPriceStore;
+import com.mybaselink.app.stock.PriceSlice;
+import com.mybaselink.app.stock.chart.Lttb;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 클라이언트에서 그릴 차트 데이터 (서버 PNG 렌더링 대신, 시세 저장소에서 바로)
+ * - 날짜는 epoch day 차이 배열, 가격은 float 배열로 내려 JSON 크기를 줄임
+ * - width(화면 픽셀 폭)가 거래일 수보다 작으면 width 개로 줄임
+ *   (선 차트는 LTTB, OHLC 는 구간별 시가/고가/저가/종가 묶음)
+ */
+@Service
+public class ChartDataService {
+
+    // 한 번에 내려줄 최대 점 수 (width 상한)
+    private static final int MAX_WIDTH = 10_000;
+
+    private final MarketPriceStore marketPriceStore;
+
+    public ChartDataService(MarketPriceStore marketPriceStore) {
+        this.marketPriceStore = marketPriceStore;
+    }
+
+    /**
+     * 여러 종목을 같은 구간·폭으로 (비교 차트용)
+     */
+    public List<ChartDataDto> fetchChartData(List<String> symbols, String start, String end, Integer width, boolean ohlc) {
+        List<ChartDataDto> results = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) results.add(fetchChartData(symbol, start, end, width, ohlc));
+        return results;
+    }
+
+    /**
+     * @param width 없거나 0 이하이면 다운샘플링 없음
+     * @param ohlc  true 면 시가/고가/저가도 포함
+     * @throws IllegalStateException    시세 저장소가 준비되지 않은 경우
+     * @throws IllegalArgumentException 저장소에 없는 종목이거나 width 가 너무 큰 경우
+     */
+    public ChartDataDto fetchChartData(String symbol, String start, String end, Integer width, boolean ohlc) {
+        if (!marketPriceStore.isReady()) {
+            throw new IllegalStateException("시세 저장소가 아직 준비되지 않았습니다.");
+        }
+        if (width != null && width > MAX_WIDTH) {
+            throw new IllegalArgumentException("width 는 " + MAX_WIDTH + " 이하여야 합니다: " + width);
+        }
+        PriceSlice slice = marketPriceStore.slice(symbol,
+                start == null || start.isBlank() ? null : LocalDate.parse(start),
+                end == null || end.isBlank() ? null : LocalDate.parse(end));
+
+        // 종가가 있는 거래일만
+        int[] valid = new int[slice.length()];
+        int n = 0;
+        for (int i = 0; i < slice.length(); i++) {
+            if (!Double.isNaN(slice.close(i))) valid[n++] = i;
+        }
+        // 3 점 미만으로는 줄이지 않되, 거래일 수보다 많아지지 않게 (빈 구간이 생기지 않도록)
+        int target = width == null || width <= 0 || width >= n ? n : Math.min(n, Math.max(3, width));
+
+        ChartDataDto dto = new ChartDataDto();
+        dto.setTicker(symbol);
+        String name = marketPriceStore.getName(symbol);
+        dto.setName(name == null || name.isEmpty() ? "알 수 없음" : name);
+        dto.setTotal(n);
+        dto.setSampled(target < n);
+        if (n > 0) {
+            dto.setStartDate(slice.date(valid[0]).toString());
+            dto.setEndDate(slice.date(valid[n - 1]).toString());
+        }
+        if (ohlc) {
+            fillOhlc(dto, slice, valid, n, target);
+        } else {
+            fillClose(dto, slice, valid, n, target);
+        }
+        return dto;
+    }
+
+    private static void fillClose(ChartDataDto dto, PriceSlice slice, int[] valid, int n, int target) {
+        int[] picked;
+        if (target < n) {
+            double[] x = new double[n];
+            double[] y = new double[n];
+            for (int k = 0; k < n; k++) {
+                x[k] = slice.epochDay(valid[k]);
+                y[k] = slice.close(valid[k]);
+            }
+            picked = Lttb.select(x, y, n, target);
+        } else {
+            picked = new int[n];
+            for (int k = 0; k < n; k++) picked[k] = k;
+        }
+        int[] days = new int[picked.length];
+        float[] close = new float[picked.length];
+        for (int k = 0; k < picked.length; k++) {
+            int i = valid[picked[k]];
+            days[k] = slice.epochDay(i);
+            close[k] = (float) slice.close(i);
+        }
+        dto.setDays(deltas(days));
+        dto.setClose(close);
+    }
+
+    /**
+     * target 개 구간으로 나눠 구간마다 첫 거래일·첫 시가·최고가·최저가·마지막 종가
+     */
+    private static void fillOhlc(ChartDataDto dto, PriceSlice slice, int[] valid, int n, int target) {
+        int[] days = new int[target];
+        float[] open = new float[target];
+        float[] high = new float[target];
+        float[] low = new float[target];
+        float[] close = new float[target];
+        for (int b = 0; b < target; b++) {
+            int from = (int) ((long) b * n / target);
+            int to = (int) ((long) (b + 1) * n / target);
+            int first = valid[from];
+            double o = slice.open(first);
+            double hi = Double.NEGATIVE_INFINITY;
+            double lo = Double.POSITIVE_INFINITY;
+            for (int k = from; k < to; k++) {
+                int i = valid[k];
+                double c = slice.close(i);
+                double h = slice.high(i);
+                double l = slice.low(i);
+                hi = Math.max(hi, Double.isNaN(h) ? c : h);
+                lo = Math.min(lo, Double.isNaN(l) ? c : l);
+            }
+            days[b] = slice.epochDay(first);
+            open[b] = (float) (Double.isNaN(o) ? slice.close(first) : o);
+            high[b] = (float) hi;
+            low[b] = (float) lo;
+            close[b] = (float) slice.close(valid[to - 1]);
+        }
+        dto.setDays(deltas(days));
+        dto.setOpen(open);
+        dto.setHigh(high);
+        dto.setLow(low);
+        dto.setClose(close);
+    }
+
+    /** 첫 값은 그대로, 이후는 앞 값과의 차이 */
+    private static int[] deltas(int[] days) {
+        for (int k = days.length - 1; k > 0; k--) days[k] -= days[k - 1];
+        return days;
+    }
+}
@@ -0,0 +1,204 @@
+package com.mybaselink.app.service;
+
+import com.mybaselink.app.dto.ChartImageDto;
+import com.mybaselink.app.python.PythonWorkerPool;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * ✅ ChartImageService
+ * --------------------------------------------------------
+ * 파이썬 차트 스크립트를 --image_out 모드로 실행해 PNG 원본 바이트를 받아옵니다.
+ *
+ * - 파이썬은 PNG 를 임시 파일에 쓰고 경로만 돌려주며, Java 는 그 파일을 byte[] 로 한 번에 읽은 뒤 삭제
+ *   (base64 인코딩/디코딩과 JSON 문자열 복사가 없음)
+ * - 결과는 바이너리 그대로 LRU 캐시 (총 바이트 수 기준 상한, TTL)
+ * - 같은 차트를 동시에 요청하면 한 번만 렌더링
+ * - JVM 안에서 그리는 차트({@link com.mybaselink.app.stock.chart.ChartRenderer})도 같은 캐시를 씀
+ * --------------------------------------------------------
+ */
+@Service
+public class ChartImageService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChartImageService.class);
+
+    private final PythonWorkerPool pythonWorkerPool;
+
+    @Value("${chart.image.tmp-dir:${java.io.tmpdir}/mybaselink-charts}")
+    private String tmpDir;
+
+    @Value("${chart.image.cache-max-mb:64}")
+    private long cacheMaxMb;
+
+    @Value("${chart.image.cache-ttl-minutes:30}")
+    private long cacheTtlMinutes;
+
+    private Path tmpPath;
+    private long cacheMaxBytes;
+
+    // 접근 순서 LRU (cacheLock 으로 보호)
+    private final LinkedHashMap<String, CachedImage> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private final Object cacheLock = new Object();
+    private long cachedBytes = 0;
+
+    private final ConcurrentHashMap<String, CompletableFuture<byte[]>> rendering = new ConcurrentHashMap<>();
+
+    public ChartImageService(PythonWorkerPool pythonWorkerPool) {
+        this.pythonWorkerPool = pythonWorkerPool;
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        tmpPath = Paths.get(tmpDir);
+        Files.createDirectories(tmpPath);
+        cacheMaxBytes = cacheMaxMb * 1024 * 1024;
+
+        // 이전 실행에서 남은 임시 파일 정리
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(tmpPath, "*.{png,part}")) {
+            for (Path p : stale) {
+                Files.deleteIfExists(p);
+            }
+        }
+        log.info("ChartImageService 초기화: tmpDir={}, cacheMax={}MB, ttl={}분", tmpPath, cacheMaxMb, cacheTtlMinutes);
+    }
+
+    /**
+     * 차트 PNG 를 반환합니다. 캐시에 있으면 캐시에서, 없으면 파이썬으로 렌더링합니다.
+     *
+     * @param scriptPath 차트 스크립트 경로
+     * @param args       스크립트 인자 (--image_out 은 여기서 붙임)
+     * @return PNG 바이트 (호출자는 수정하지 말 것)
+     */
+    public byte[] render(String scriptPath, List<String> args, Duration timeout) throws Exception {
+        String key = scriptPath + '\u0000' + String.join("\u0000", args);
+        return render(key, timeout, () -> renderWithPython(scriptPath, args, timeout));
+    }
+
+    /**
+     * 차트 PNG 를 반환합니다. 캐시에 있으면 캐시에서, 없으면 renderer 로 그립니다.
+     *
+     * @param key      캐시 키
+     * @param timeout  같은 키를 먼저 그리고 있는 요청을 기다릴 최대 시간
+     * @param renderer PNG 를 만드는 함수
+     * @return PNG 바이트 (호출자는 수정하지 말 것)
+     */
+    public byte[] render(String key, Duration timeout, Callable<byte[]> renderer) throws Exception {
+        byte[] cached = getCached(key);
+        if (cached != null) return cached;
+
+        CompletableFuture<byte[]> mine = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = rendering.putIfAbsent(key, mine);
+        if (existing != null) {
+            try {
+                return existing.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                throw (e.getCause() instanceof Exception cause) ? cause : e;
+            }
+        }
+
+        try {
+            byte[] png = renderer.call();
+            putCached(key, png);
+            mine.complete(png);
+            return png;
+        } catch (Exception e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            rendering.remove(key, mine);
+        }
+    }
+
+    private byte[] renderWithPython(String scriptPath, List<String> args, Duration timeout) throws Exception {
+        Path out = tmpPath.resolve(UUID.randomUUID() + ".png");
+        List<String> fullArgs = new ArrayList<>(args.size() + 2);
+        fullArgs.addAll(args);
+        fullArgs.add("--image_out");
+        fullArgs.add(out.toString());
+
+        try {
+            ChartImageDto result = pythonWorkerPool.run(scriptPath, fullArgs, timeout, ChartImageDto.class);
+            if (result == null) {
+                throw new IllegalStateException("Python 차트 결과가 없습니다.");
+            }
+            if (result.getError() != null) {
+                throw new IllegalStateException(result.getError());
+            }
+            if (result.getImagePath() != null) {
+                // 읽고 지우는 파일은 Java 가 정한 out 하나뿐 (스크립트가 돌려준 경로는 맞는지만 확인)
+                Path reported = Paths.get(result.getImagePath()).toAbsolutePath().normalize();
+                if (!reported.equals(out.toAbsolutePath().normalize())) {
+                    throw new IllegalStateException("Python 차트 결과 경로가 요청한 경로와 다릅니다: " + result.getImagePath());
+                }
+                return Files.readAllBytes(out);
+            }
+            if (result.getImageData() != null) {
+                // --image_out 을 모르는 구버전 스크립트
+                return Base64.getDecoder().decode(result.getImageData());
+            }
+            throw new IllegalStateException("Python 차트 결과에 이미지가 없습니다.");
+        } finally {
+            Files.deleteIfExists(out);
+        }
+    }
+
+    private byte[] getCached(String key) {
+        synchronized (cacheLock) {
+            CachedImage entry = cache.get(key);
+            if (entry == null) return null;
+            if (entry.isExpired(cacheTtlMinutes)) {
+                cache.remove(key);
+                cachedBytes -= entry.png().length;
+                return null;
+            }
+            return entry.png();
+        }
+    }
+
+    private void putCached(String key, byte[] png) {
+        if (png.length > cacheMaxBytes) return;
+        synchronized (cacheLock) {
+            CachedImage old = cache.put(key, new CachedImage(png, System.currentTimeMillis()));
+            if (old != null) cachedBytes -= old.png().length;
+            cachedBytes += png.length;
+
+            Iterator<CachedImage> it = cache.values().iterator();
+            while (cachedBytes > cacheMaxBytes && it.hasNext()) {
+                cachedBytes -= it.next().png().length;
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * 캐시 상태 (모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        synchronized (cacheLock) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("entries", cache.size());
+            stats.put("bytes", cachedBytes);
+            stats.put("maxBytes", cacheMaxBytes);
+            stats.put("rendering", rendering.size());
+            return stats;
+        }
+    }
+
+    private record CachedImage(byte[] png, long createdAt) {
+        boolean isExpired(long ttlMinutes) {
+            return ttlMinutes > 0 && System.currentTimeMillis() - createdAt > TimeUnit.MINUTES.toMillis(ttlMinutes);
+        }
+    }
+}
@@ -1,54 +1,70 @@
 package com.mybaselink.app.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybaselink.app.dto.ChartDataDto;
+import com.mybaselink.app.dto.ChartPatternDto;
+import com.mybaselink.app.python.PythonExecutionGate;
+import com.mybaselink.app.python.PythonWorkerPool;
+import com.mybaselink.app.stock.chart.ChartRenderer;
+import com.mybaselink.app.stock.pattern.ChartPatternScanner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
+import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.*;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.ExecutionException;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Service
 public class ChartPatternService {
 
     private static final Logger logger = LoggerFactory.getLogger(ChartPatternService.class);
-    private final ObjectMapper mapper = new ObjectMapper();
     private final TaskStatusService taskStatusService;
     private final NewsDisclosureService newsDisclosureService;
 
-    private final String pythonExe = "C:\\Users\\User\\AppData\\Local\\Programs\\Python\\Python310\\python.exe";
-    private final String scriptPath = "C:\\LocBootProject\\workspace\\MyBaseLink\\python\\find_chart_patterns.py";
-    private static final long PYTHON_TIMEOUT_SECONDS = 300; // 파이썬 스크립트 타임아웃 5분 설정
+    private final PythonWorkerPool pythonWorkerPool;
+    private final ChartImageService chartImageService;
+    private final ChartPatternScanner chartPatternScanner;
+    private final ChartRenderer chartRenderer;
+    private final ChartDataService chartDataService;
 
-    // 파이썬 실행에 대한 전역 락
-    private static final ReentrantLock pythonLock = new ReentrantLock();
+    private final String scriptPath = "C:\\LocBootProject\\workspace\\MyBaseLink\\python\\find_chart_patterns.py";
+    private static final Duration PYTHON_TIMEOUT = Duration.ofMinutes(5); // 파이썬 스크립트 타임아웃 5분 설정
 
-    public ChartPatternService(TaskStatusService taskStatusService, NewsDisclosureService newsDisclosureService) {
+    public ChartPatternService(TaskStatusService taskStatusService, NewsDisclosureService newsDisclosureService,
+                               PythonWorkerPool pythonWorkerPool, ChartImageService chartImageService,
+                               ChartPatternScanner chartPatternScanner, ChartRenderer chartRenderer,
+                               ChartDataService chartDataService) {
         this.taskStatusService = taskStatusService;
         this.newsDisclosureService = newsDisclosureService;
+        this.pythonWorkerPool = pythonWorkerPool;
+        this.chartImageService = chartImageService;
+        this.chartPatternScanner = chartPatternScanner;
+        this.chartRenderer = chartRenderer;
+        this.chartDataService = chartDataService;
     }
 
     @Async
-    public CompletableFuture<Void> startChartPatternTask(String taskId, String start, String end, String pattern, int topN) {
+    public CompletableFuture<Void> startChartPatternTask(String taskId, String start, String end, List<String> patterns, int topN) {
         taskStatusService.setTaskStatus(taskId, new TaskStatusService.TaskStatus("IN_PROGRESS", null, null));
         try {
-            List<Map<String, Object>> results = getCachedChartPatterns(start, end, pattern, topN);
-            //taskStatusService.setTaskStatus(taskId, new TaskStatusService.TaskStatus("COMPLETED", results, null));
+            List<ChartPatternDto> results = getCachedChartPatterns(start, end, normalizePatterns(patterns), topN);
+            Map<String, Object> resultMap = new HashMap<>();
+            resultMap.put("results", results);
+            resultMap.put("count", results.size());
+            taskStatusService.setTaskStatus(taskId, new TaskStatusService.TaskStatus("COMPLETED", resultMap, null));
         } catch (Exception e) {
             String errorMsg = "비동기 작업 처리 중 오류: " + e.getMessage();
             taskStatusService.setTaskStatus(taskId, new TaskStatusService.TaskStatus("FAILED", null, errorMsg));
@@ -61,9 +77,30 @@ public class ChartPatternService {
     public CompletableFuture<Void> startFetchChartTask(String taskId, String baseSymbol, String start, String end) {
         taskStatusService.setTaskStatus(taskId, new TaskStatusService.TaskStatus("IN_PROGRESS", null, null));
         try {
-            String base64Image = fetchChart(baseSymbol, start, end);
+            byte[] png = fetchChartPng(baseSymbol, start, end);
+            Map<String, Object> resultMap = new HashMap<>();
+            resultMap.put("image_url", chartImageUrl(baseSymbol, start, end));
+            resultMap.put("image_size", png.length);
+            taskStatusService.setTaskStatus(taskId, new TaskStatusService.TaskStatus("COMPLETED", resultMap, null));
+        } catch (Exception e) {
+            String errorMsg = "비동기 작업 처리 중 오류: " + e.getMessage();
+            taskStatusService.setTaskStatus(taskId, new TaskStatusService.TaskStatus("FAILED", null, errorMsg));
+            logger.error("비동기 작업 실패: taskId={}", taskId, e);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * 차트 이미지 대신 클라이언트 차트용 시세 배열을 결과로 ({"chart": ChartDataDto})
+     */
+    @Async
+    public CompletableFuture<Void> startFetchChartDataTask(String taskId, String baseSymbol, String start, String end,
+                                                           Integer width, boolean ohlc) {
+        taskStatusService.setTaskStatus(taskId, new TaskStatusService.TaskStatus("IN_PROGRESS", null, null));
+        try {
+            ChartDataDto chart = chartDataService.fetchChartData(baseSymbol, start, end, width, ohlc);
             Map<String, Object> resultMap = new HashMap<>();
-            resultMap.put("image_data", base64Image);
+            resultMap.put("chart", chart);
             taskStatusService.setTaskStatus(taskId, new TaskStatusService.TaskStatus("COMPLETED", resultMap, null));
         } catch (Exception e) {
             String errorMsg = "비동기 작업 처리 중 오류: " + e.getMessage();
@@ -77,9 +114,9 @@ public class ChartPatternService {
     public CompletableFuture<Void> startFetchCombinedChartAndDataTask(String taskId, String baseSymbol, String start, String end) {
         taskStatusService.setTaskStatus(taskId, new TaskStatusService.TaskStatus("IN_PROGRESS", null, null));
         
-        CompletableFuture<String> chartFuture = CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<byte[]> chartFuture = CompletableFuture.supplyAsync(() -> {
             try {
-                return fetchChart(baseSymbol, start, end);
+                return fetchChartPng(baseSymbol, start, end);
             } catch (Exception e) {
                 logger.error("차트 데이터 조회 실패: {}", baseSymbol, e);
                 return null;
@@ -90,11 +127,11 @@ public class ChartPatternService {
         CompletableFuture.allOf(chartFuture, newsDisclosureFuture)
                 .thenAcceptAsync(v -> {
                     try {
-                        String base64Image = chartFuture.get();
+                        byte[] png = chartFuture.get();
                         List<Map<String, String>> newsData = newsDisclosureFuture.get();
 
                         Map<String, Object> resultMap = new HashMap<>();
-                        resultMap.put("image_data", base64Image);
+                        resultMap.put("image_url", png != null ? chartImageUrl(baseSymbol, start, end) : null);
                         resultMap.put("news_data", newsData);
 
                         taskStatusService.setTaskStatus(taskId, new TaskStatusService.TaskStatus("COMPLETED", resultMap, null));
@@ -116,152 +153,125 @@ public class ChartPatternService {
         return CompletableFuture.completedFuture(null);
     }
 
-    @Cacheable(value = "chartPatternCache", key = "#start + '-' + #end + '-' + #pattern + '-' + #topN", sync = true)
-    public List<Map<String, Object>> getCachedChartPatterns(String start, String end, String pattern, int topN) {
-        return executePythonForChartPatternList(start, end, pattern, topN);
+    /**
+     * 패턴 목록 결과 (패턴마다 최대 topN 개)
+     * - 시세 저장소가 준비돼 있으면 JVM 에서 전 종목을 한 번 훑어 모든 패턴 판정
+     * - 아니면 패턴마다 기존 스크립트 실행
+     */
+    @Cacheable(value = "chartPatternCache", key = "#start + '-' + #end + '-' + #patterns + '-' + #topN", sync = true)
+    public List<ChartPatternDto> getCachedChartPatterns(String start, String end, List<String> patterns, int topN) {
+        if (chartPatternScanner.canServe(patterns)) {
+            return chartPatternScanner.scan(LocalDate.parse(start), LocalDate.parse(end), patterns, topN);
+        }
+        List<ChartPatternDto> results = new ArrayList<>();
+        for (String pattern : patterns) {
+            results.addAll(executePythonForChartPatternList(start, end, pattern, topN));
+        }
+        return results;
+    }
+
+    /**
+     * "a,b" 처럼 쉼표로 이어 보낸 값도 나눠 받고, 공백·중복 제거 (순서 유지)
+     */
+    public static List<String> normalizePatterns(List<String> patterns) {
+        Set<String> names = new LinkedHashSet<>();
+        if (patterns != null) {
+            for (String value : patterns) {
+                if (value == null) continue;
+                for (String name : value.split(",")) {
+                    if (!name.isBlank()) names.add(name.trim());
+                }
+            }
+        }
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("패턴을 하나 이상 지정해야 합니다.");
+        }
+        return List.copyOf(names);
     }
 
-    @Cacheable(value = "chartImageCache", key = "#baseSymbol + '-' + #start + '-' + #end", sync = true)
+    /**
+     * 차트 이미지 (Base64). 기존 JSON 응답 호환용이며, 바이너리는 {@link #fetchChartPng} 에서 캐시됩니다.
+     */
     public String fetchChart(String baseSymbol, String start, String end) {
-        return executePythonForChart(baseSymbol, start, end);
+        return Base64.getEncoder().encodeToString(fetchChartPng(baseSymbol, start, end));
+    }
+
+    /**
+     * 차트 PNG 원본 바이트 (image/png 응답용)
+     */
+    public byte[] fetchChartPng(String baseSymbol, String start, String end) {
+        return fetchChartPng(baseSymbol, start, end, false);
     }
 
-    private List<Map<String, Object>> executePythonForChartPatternList(String start, String end, String pattern, int topN) {
-        if (!pythonLock.tryLock()) {
-            throw new IllegalStateException("이미 다른 사용자가 차트 패턴 분석 작업을 진행 중입니다. 잠시 후 다시 시도해주세요.");
+    /**
+     * 차트 PNG 원본 바이트. 시세 저장소에 있는 종목이면 JVM 에서 그리고, 아니면 파이썬 스크립트로 그립니다.
+     *
+     * @param candle true 면 캔들 차트 (JVM 에서만 가능)
+     */
+    public byte[] fetchChartPng(String baseSymbol, String start, String end, boolean candle) {
+        if (chartRenderer.canRender(baseSymbol)) {
+            try {
+                String key = chartRenderer.cacheKey(candle ? "candle" : "close", baseSymbol, start, end);
+                return chartImageService.render(key, PYTHON_TIMEOUT, () -> candle
+                        ? chartRenderer.candleChart(baseSymbol, start, end)
+                        : chartRenderer.closeChart(baseSymbol, start, end));
+            } catch (Exception e) {
+                logger.error("차트 이미지 생성 실패: {}", baseSymbol, e);
+                throw new RuntimeException("차트 이미지 생성 실패: " + e.getMessage());
+            }
         }
+        if (candle) {
+            throw new IllegalStateException("캔들 차트는 시세 저장소에 있는 종목만 그릴 수 있습니다: " + baseSymbol);
+        }
+        return executePythonForChart(baseSymbol, start, end);
+    }
+
+    /**
+     * 차트 이미지를 직접 내려받는 엔드포인트 주소
+     */
+    public static String chartImageUrl(String baseSymbol, String start, String end) {
+        return "/chart/chart/image?baseSymbol=" + URLEncoder.encode(baseSymbol, StandardCharsets.UTF_8)
+                + "&start=" + URLEncoder.encode(start, StandardCharsets.UTF_8)
+                + "&end=" + URLEncoder.encode(end, StandardCharsets.UTF_8);
+    }
+
+    private List<ChartPatternDto> executePythonForChartPatternList(String start, String end, String pattern, int topN) {
         try {
-            String[] command = {
-                    pythonExe, "-u", scriptPath,
+            List<String> args = List.of(
                     "--start_date", start,
                     "--end_date", end,
                     "--pattern", pattern,
                     "--topN", String.valueOf(topN),
                     "--parallel"
-            };
-            logger.info("Python 스크립트 실행 시작: 차트 패턴 조회. 커맨드: {}", Arrays.toString(command));
-            JsonNode pythonResult = executePythonScript(command);
-            if (pythonResult != null) {
-                if (pythonResult.has("error")) {
-                    String errorMsg = pythonResult.get("error").asText();
-                    logger.error("Python 스크립트 실행 오류: {}", errorMsg);
-                    throw new RuntimeException("Python 스크립트 실행 오류: " + errorMsg);
-                }
-                List<Map<String, Object>> results = mapper.convertValue(
-                        pythonResult,
-                        new TypeReference<List<Map<String, Object>>>() {}
-                );
-                logger.info("Python 스크립트 실행 완료: 차트 패턴 조회 (총 {}건)", results.size());
-                return results;
-            } else {
+            );
+            logger.info("Python 스크립트 실행 시작: 차트 패턴 조회. 인자: {}", args);
+            // --parallel 은 스크립트가 cpu_count() 만큼 프로세스를 띄우므로 게이트 전체를 점유
+            List<ChartPatternDto> results = pythonWorkerPool.run(scriptPath, args, PYTHON_TIMEOUT,
+                    PythonExecutionGate.ALL_PERMITS, new TypeReference<List<ChartPatternDto>>() {});
+            if (results == null) {
                 throw new RuntimeException("Python 스크립트 결과가 null입니다. 파이썬 스크립트 실행 중 오류 발생 가능.");
             }
+            logger.info("Python 스크립트 실행 완료: 차트 패턴 조회 (총 {}건)", results.size());
+            return results;
         } catch (Exception e) {
             logger.error("Python 스크립트 호출 실패", e);
             throw new RuntimeException("Python 스크립트 호출 실패: " + e.getMessage());
-        } finally {
-            pythonLock.unlock();
         }
     }
 
-    private String executePythonForChart(String baseSymbol, String start, String end) {
-        if (!pythonLock.tryLock()) {
-            throw new IllegalStateException("이미 다른 사용자가 차트 이미지 생성 작업을 진행 중입니다. 잠시 후 다시 시도해주세요.");
-        }
+    private byte[] executePythonForChart(String baseSymbol, String start, String end) {
         try {
-            String[] command = {
-                    pythonExe, "-u", scriptPath,
+            List<String> args = List.of(
                     "--base_symbol", baseSymbol,
                     "--start_date", start,
-                    "--end_date", end
-            };
-            logger.info("Python 스크립트 실행 시작: 차트 이미지 조회. 커맨드: {}", Arrays.toString(command));
-            JsonNode pythonResult = executePythonScript(command);
-            if (pythonResult != null) {
-                if (pythonResult.has("error")) {
-                    String errorMsg = pythonResult.get("error").asText();
-                    logger.error("Python 스크립트 실행 오류: {}", errorMsg);
-                    throw new RuntimeException("Python 스크립트 실행 오류: " + errorMsg);
-                }
-                return pythonResult.get("image_data").asText();
-            } else {
-                throw new RuntimeException("Python 스크립트 결과가 null입니다. 파이썬 스크립트 실행 중 오류 발생 가능.");
-            }
+                    "--end_date", end,
+                    "--chart"
+            );
+            logger.info("Python 스크립트 실행 시작: 차트 이미지 조회. 인자: {}", args);
+            return chartImageService.render(scriptPath, args, PYTHON_TIMEOUT);
         } catch (Exception e) {
             logger.error("Python 스크립트 호출 실패", e);
             throw new RuntimeException("Python 스크립트 호출 실패: " + e.getMessage());
-        } finally {
-            pythonLock.unlock();
-        }
-    }
-
-    private JsonNode executePythonScript(String[] command) throws IOException, InterruptedException {
-        Process process = null;
-        JsonNode resultJson = null;
-        ExecutorService executor = Executors.newSingleThreadExecutor();
-
-        try {
-            logger.info("Executing command: {}", Arrays.toString(command));
-            ProcessBuilder pb = new ProcessBuilder(command);
-            pb.redirectErrorStream(true);
-
-            try {
-                process = pb.start();
-            } catch (IOException e) {
-                throw new IOException("Python 프로세스 시작 중 오류 발생. 실행 파일 또는 스크립트 경로를 확인하세요: " + e.getMessage(), e);
-            }
-
-            Process finalProcess = process; // Effectively final 변수 생성
-            Future<StringBuilder> outputFuture = executor.submit(() -> {
-                StringBuilder output = new StringBuilder();
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(finalProcess.getInputStream(), StandardCharsets.UTF_8))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        output.append(line).append("\n");
-                    }
-                } catch (IOException e) {
-                    // 스트림 읽기 중 오류 발생 시 로깅
-                    logger.error("Error reading Python process output stream", e);
-                }
-                return output;
-            });
-
-            if (!process.waitFor(PYTHON_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
-                process.destroyForcibly();
-                throw new IOException("Python 스크립트가 타임아웃되었습니다.");
-            }
-
-            int exitCode = process.exitValue();
-            String errorOutput = outputFuture.get().toString();
-
-            if (exitCode != 0) {
-                if (errorOutput.contains("SSL: CERTIFICATE_VERIFY_FAILED")) {
-                    process.destroyForcibly();
-                    throw new IOException("Python 스크립트 실행 중 SSL 통신 오류 발생. 프로세스 강제 종료.");
-                }
-                throw new IOException("Python 스크립트 종료 코드: " + exitCode + ". 에러 메시지: " + errorOutput);
-            }
-
-            String outputString = errorOutput.trim();
-            if (!outputString.isEmpty()) {
-                resultJson = mapper.readTree(outputString);
-            }
-        } catch (ExecutionException e) {
-            if (process != null) {
-                process.destroyForcibly();
-            }
-            throw new IOException("비동기 작업 처리 중 오류: " + e.getCause().getMessage(), e);
-        } finally {
-            if (process != null) {
-                try {
-                    process.getInputStream().close();
-                    process.getErrorStream().close();
-                } catch (IOException e) {
-                    logger.error("프로세스 스트림 종료 중 오류 발생", e);
-                }
-            }
-            executor.shutdown();
         }
-        return resultJson;
     }
 }
@@ -0,0 +1,64 @@
+package com.mybaselink.app.service;
+
+import com.mybaselink.app.dto.IndicatorValueDto;
+import com.mybaselink.app.stock.MarketPriceStore;
+import com.mybaselink.app.stock.indicator.IndicatorEngine;
+import com.mybaselink.app.stock.indicator.IndicatorSpec;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 전 종목 기술적 지표 조회 서비스 (JVM 내부 계산, 파이썬 대체 경로 없음)
+ */
+@Service
+public class IndicatorService {
+
+    private final IndicatorEngine indicatorEngine;
+    private final MarketPriceStore marketPriceStore;
+
+    public IndicatorService(IndicatorEngine indicatorEngine, MarketPriceStore marketPriceStore) {
+        this.indicatorEngine = indicatorEngine;
+        this.marketPriceStore = marketPriceStore;
+    }
+
+    /**
+     * 지표 하나의 전 종목 값
+     *
+     * @param date  null 이면 최근 거래일
+     * @param order asc/desc 이면 첫 번째 값 기준 정렬, 아니면 종목 목록 순서
+     * @param limit 0 이하이면 전부
+     */
+    public List<IndicatorValueDto> fetchIndicator(IndicatorSpec spec, LocalDate date, String order, int limit) {
+        if (!marketPriceStore.isReady()) {
+            throw new IllegalStateException("시세 저장소가 아직 준비되지 않았습니다.");
+        }
+        List<IndicatorEngine.IndicatorValue> values = new ArrayList<>(indicatorEngine.valuesAt(spec, date));
+        if ("asc".equalsIgnoreCase(order) || "desc".equalsIgnoreCase(order)) {
+            Comparator<IndicatorEngine.IndicatorValue> byValue = Comparator.comparingDouble(v -> v.values()[0]);
+            values.sort("desc".equalsIgnoreCase(order) ? byValue.reversed() : byValue);
+        }
+        int count = limit > 0 ? Math.min(limit, values.size()) : values.size();
+
+        List<String> fields = spec.type().fields();
+        List<IndicatorValueDto> results = new ArrayList<>(count);
+        for (IndicatorEngine.IndicatorValue v : values.subList(0, count)) {
+            IndicatorValueDto dto = new IndicatorValueDto();
+            dto.setTicker(v.symbol());
+            String name = marketPriceStore.getName(v.symbol());
+            dto.setName(name == null || name.isEmpty() ? "알 수 없음" : name);
+            dto.setDate(LocalDate.ofEpochDay(v.day()).toString());
+            dto.setClose(v.close());
+            Map<String, Double> map = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) map.put(fields.get(i), v.values()[i]);
+            dto.setValues(map);
+            results.add(dto);
+        }
+        return results;
+    }
+}
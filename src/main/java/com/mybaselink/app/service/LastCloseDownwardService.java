@@ -1,145 +1,141 @@
 package com.mybaselink.app.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybaselink.app.dto.DownwardStockDto;
+import com.mybaselink.app.python.PythonWorkerPool;
+import com.mybaselink.app.stock.DeclineStreak;
+import com.mybaselink.app.stock.DeclineStreakIndex;
+import com.mybaselink.app.stock.MarketPriceStore;
+import com.mybaselink.app.stock.PriceSlice;
+import com.mybaselink.app.stock.TopK;
+import com.mybaselink.app.stock.chart.ChartRenderer;
 import org.springframework.stereotype.Service;
 
-import java.io.*;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.*;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
- * Python 스크립트를 호출하여 연속 하락 종목 조회 및 차트 반환 서비스
+ * 연속 하락 종목 조회(시세 저장소) 및 차트 반환(시세 저장소, 없는 종목은 Python) 서비스
  */
 @Service
 public class LastCloseDownwardService {
 
-    private final ObjectMapper mapper = new ObjectMapper();
-
-    // Python 실행 경로
-    private final String pythonExe = "C:\\Users\\User\\AppData\\Local\\Programs\\Python\\Python310\\python.exe";
+    // 상주 Python 워커 풀
+    private final PythonWorkerPool pythonWorkerPool;
+    private final ChartImageService chartImageService;
     // Python 스크립트 경로
     private final String scriptPath = "C:\\LocBootProject\\workspace\\MyBaseLink\\python\\find_last_close_downward.py";
 
+    private static final Duration PYTHON_TIMEOUT = Duration.ofSeconds(180);
+    // 병렬 스트림 작업 단위 (종목 수)
+    private static final int CHUNK_SIZE = 256;
+
+    private final MarketPriceStore marketPriceStore;
+    private final DeclineStreakIndex declineStreakIndex;
+    private final ChartRenderer chartRenderer;
+
+    public LastCloseDownwardService(PythonWorkerPool pythonWorkerPool, ChartImageService chartImageService,
+                                    MarketPriceStore marketPriceStore, DeclineStreakIndex declineStreakIndex,
+                                    ChartRenderer chartRenderer) {
+        this.pythonWorkerPool = pythonWorkerPool;
+        this.chartImageService = chartImageService;
+        this.marketPriceStore = marketPriceStore;
+        this.declineStreakIndex = declineStreakIndex;
+        this.chartRenderer = chartRenderer;
+    }
+
     /**
-     * Python 호출하여 상위 N 연속 하락 종목 리스트 조회
+     * 구간 마지막 거래일 기준 상위 N 연속 하락 종목 조회
+     * - 하락 일수가 긴 순, 같으면 하락률이 큰 순
+     * - 최근 거래일까지의 구간이면 미리 정렬된 {@link DeclineStreakIndex} 에서 바로 읽음
+     * - 그 밖의 구간은 종목 묶음별 TopK 를 병렬로 만든 뒤 합침
      */
-    public List<Map<String, Object>> fetchLastCloseDownward(String start, String end, int topN) {
-        try {
-            String[] command = {
-                    pythonExe,
-                    "-u",
-                    scriptPath,
-                    "--start_date", start,
-                    "--end_date", end,
-                    "--topN", String.valueOf(topN)
-            };
-
-            JsonNode pythonResult = executePythonScript(command);
+    public List<DownwardStockDto> fetchLastCloseDownward(String start, String end, int topN) {
+        if (!marketPriceStore.isReady()) {
+            throw new IllegalStateException("시세 저장소가 아직 준비되지 않았습니다.");
+        }
+        LocalDate from = LocalDate.parse(start);
+        LocalDate to = LocalDate.parse(end);
+        List<DeclineStreakIndex.Ranked> ranked = declineStreakIndex.top(from, to, topN);
+        if (ranked != null) {
+            List<DownwardStockDto> results = new ArrayList<>(ranked.size());
+            for (DeclineStreakIndex.Ranked r : ranked) results.add(toDto(r.symbol(), r.streak()));
+            return results;
+        }
+        return scanRange(from, to, topN);
+    }
 
-            if (pythonResult != null) {
-                if (pythonResult.has("error")) {
-                    throw new RuntimeException(pythonResult.get("error").asText());
-                }
-                return mapper.convertValue(pythonResult.get("results"), new TypeReference<List<Map<String, Object>>>(){});
-            } else {
-                throw new RuntimeException("Python 스크립트 결과가 null입니다.");
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException("Python 스크립트 호출 실패: " + e.getMessage());
+    private List<DownwardStockDto> scanRange(LocalDate from, LocalDate to, int topN) {
+        List<PriceSlice> slices = marketPriceStore.sliceAll(from, to);
+        DeclineStreak[] streaks = new DeclineStreak[slices.size()];
+        int k = Math.max(0, topN);
+        int chunks = (slices.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        TopK top = IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> {
+                    TopK local = new TopK(k);
+                    int last = Math.min(slices.size(), (c + 1) * CHUNK_SIZE);
+                    for (int i = c * CHUNK_SIZE; i < last; i++) {
+                        DeclineStreak streak = DeclineStreak.of(slices.get(i));
+                        if (streak == null || streak.days() == 0) continue;
+                        streaks[i] = streak;
+                        local.offer(streak.rankScore(), i);
+                    }
+                    return local;
+                })
+                .reduce(TopK::merge)
+                .orElseGet(() -> new TopK(k));
+
+        int[] ids = top.sortedIds();
+        List<DownwardStockDto> results = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            results.add(toDto(slices.get(id).getSymbol(), streaks[id]));
         }
+        return results;
+    }
+
+    private DownwardStockDto toDto(String symbol, DeclineStreak streak) {
+        String name = marketPriceStore.getName(symbol);
+        DownwardStockDto dto = new DownwardStockDto();
+        dto.setTicker(symbol);
+        dto.setName(name == null || name.isEmpty() ? "알 수 없음" : name);
+        dto.setDownDays(streak.days());
+        dto.setDropRate(streak.dropRate());
+        dto.setStartDate(LocalDate.ofEpochDay(streak.startDay()).toString());
+        dto.setEndDate(LocalDate.ofEpochDay(streak.endDay()).toString());
+        dto.setLastClose(streak.lastClose());
+        return dto;
     }
 
     /**
-     * Python 호출하여 개별 종목 차트 Base64 반환
+     * 개별 종목 차트 Base64 반환
      */
     public String fetchChart(String baseSymbol, String start, String end) {
+        return Base64.getEncoder().encodeToString(fetchChartPng(baseSymbol, start, end));
+    }
+
+    /**
+     * 개별 종목 차트 PNG 원본 반환 (시세 저장소에 있으면 JVM 에서, 없으면 Python 으로 그림)
+     */
+    public byte[] fetchChartPng(String baseSymbol, String start, String end) {
         try {
-            String[] command = {
-                    pythonExe,
-                    "-u",
-                    scriptPath,
+            if (chartRenderer.canRender(baseSymbol)) {
+                String key = chartRenderer.cacheKey("single", baseSymbol, start, end);
+                return chartImageService.render(key, PYTHON_TIMEOUT,
+                        () -> chartRenderer.compareChart(baseSymbol, null, start, end));
+            }
+            List<String> args = List.of(
                     "--base_symbol", baseSymbol,
                     "--start_date", start,
                     "--end_date", end
-            };
-
-            JsonNode pythonResult = executePythonScript(command);
-
-            if (pythonResult != null) {
-                if (pythonResult.has("error")) {
-                    throw new RuntimeException(pythonResult.get("error").asText());
-                }
-                return pythonResult.get("image_data").asText();
-            } else {
-                throw new RuntimeException("Python 스크립트 결과가 null입니다.");
-            }
+            );
+            return chartImageService.render(scriptPath, args, PYTHON_TIMEOUT);
         } catch (Exception e) {
             e.printStackTrace();
             throw new RuntimeException("차트 생성 실패: " + e.getMessage());
         }
     }
-
-    /**
-     * Python 스크립트 실행 및 JSON 파싱
-     */
-    private JsonNode executePythonScript(String[] command) throws IOException, InterruptedException, ExecutionException, TimeoutException {
-        File scriptDir = new File("C:\\LocBootProject\\workspace\\MyBaseLink\\python");
-        ProcessBuilder pb = new ProcessBuilder(command);
-        pb.directory(scriptDir);
-        pb.environment().put("PYTHONIOENCODING", "utf-8");
-
-        Process process = pb.start();
-
-        ExecutorService executor = Executors.newFixedThreadPool(2);
-
-        // 표준 출력 읽기 (JSON 결과)
-        Future<String> outputFuture = executor.submit(() -> {
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
-                return reader.lines().collect(Collectors.joining("\n"));
-            } catch (IOException e) {
-                return "";
-            }
-        });
-
-        // 표준 에러 읽기 (로그)
-        Future<Void> errorFuture = executor.submit(() -> {
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
-                reader.lines().forEach(line -> System.err.println("[Python ERR] " + line));
-            } catch (IOException e) {
-                // 무시
-            }
-            return null;
-        });
-
-        String pythonOutput = null;
-        try {
-            pythonOutput = outputFuture.get(180, TimeUnit.SECONDS);
-            errorFuture.get(180, TimeUnit.SECONDS);
-            boolean finished = process.waitFor(180, TimeUnit.SECONDS);
-            if (!finished) {
-                process.destroyForcibly();
-                throw new TimeoutException("Python 프로세스가 시간 내 종료되지 않았습니다.");
-            }
-            int exitCode = process.exitValue();
-            if (exitCode != 0) {
-                throw new RuntimeException("Python 스크립트 종료 코드: " + exitCode + ", 출력: " + pythonOutput);
-            }
-        } finally {
-            executor.shutdown();
-        }
-
-        if (pythonOutput == null || pythonOutput.trim().isEmpty()) {
-            throw new RuntimeException("Python 스크립트 출력이 없습니다.");
-        }
-
-        System.out.println(pythonOutput); // ✅ 콘솔에도 출력
-
-        return mapper.readTree(pythonOutput);
-    }
 }
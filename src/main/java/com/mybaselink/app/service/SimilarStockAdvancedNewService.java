@@ -1,114 +1,91 @@
 package com.mybaselink.app.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybaselink.app.dto.SimilarStockDto;
+import com.mybaselink.app.dto.SimilarStockResultDto;
+import com.mybaselink.app.python.PythonWorkerPool;
+import com.mybaselink.app.stock.similarity.SimilarityEngine;
+import com.mybaselink.app.stock.similarity.SimilarityMethod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.*;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Base64;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.*;
-import java.util.stream.Collectors;
 
 @Service
 public class SimilarStockAdvancedNewService {
 
-    private final ObjectMapper mapper = new ObjectMapper();
-    private final String pythonExe = "C:\\Users\\User\\AppData\\Local\\Programs\\Python\\Python310\\python.exe";
+    private static final Logger log = LoggerFactory.getLogger(SimilarStockAdvancedNewService.class);
+
+    private final PythonWorkerPool pythonWorkerPool;
+    private final ChartImageService chartImageService;
+    private final SimilarityEngine similarityEngine;
+
+    // ✅ true 면 시세 저장소가 준비된 경우 JVM 안에서 계산 (아니면 파이썬 스크립트)
+    @Value("${similarity.engine.enabled:true}")
+    private boolean engineEnabled;
     private final String scriptPath = "C:\\LocBootProject\\workspace\\MyBaseLink\\python\\find_similar_new_full.py";
+    private static final Duration PYTHON_TIMEOUT = Duration.ofSeconds(180);
+
+    public SimilarStockAdvancedNewService(PythonWorkerPool pythonWorkerPool, ChartImageService chartImageService,
+                                          SimilarityEngine similarityEngine) {
+        this.pythonWorkerPool = pythonWorkerPool;
+        this.chartImageService = chartImageService;
+        this.similarityEngine = similarityEngine;
+    }
 
-    public List<Map<String, Object>> fetchSimilar(String companyCode, String start, String end, int nSimilarStocks, String method) {
+    public List<SimilarStockDto> fetchSimilar(String companyCode, String start, String end, int nSimilarStocks, String method) {
+        SimilarityMethod similarityMethod = SimilarityMethod.of(method);
+        if (engineEnabled && similarityEngine.canServe(companyCode, similarityMethod)) {
+            return similarityEngine.findSimilar(companyCode, LocalDate.parse(start), LocalDate.parse(end),
+                    similarityMethod, nSimilarStocks);
+        }
+        log.info("유사 종목 계산을 파이썬 스크립트로 수행합니다. (base={}, method={})", companyCode, method);
         try {
-            String[] command = {
-                    pythonExe,
-                    "-u",
-                    scriptPath,
+            List<String> args = List.of(
                     "--base_symbol", companyCode,
                     "--start_date", start,
                     "--end_date", end,
                     "--n_similar", String.valueOf(nSimilarStocks),
                     "--method", method
-            };
-            JsonNode pythonResult = executePythonScript(command);
+            );
+            SimilarStockResultDto pythonResult = runScript(args, SimilarStockResultDto.class);
 
-            if (pythonResult.has("error")) {
-                throw new RuntimeException(pythonResult.get("error").asText());
+            if (pythonResult.getError() != null) {
+                throw new RuntimeException(pythonResult.getError());
             }
-            return mapper.convertValue(pythonResult.get("similar_stocks"), new TypeReference<>(){});
+            return pythonResult.getSimilarStocks();
         } catch (Exception e) {
             throw new RuntimeException("Python 실행/통신 오류: " + e.getMessage(), e);
         }
     }
 
     public String fetchChart(String baseSymbol, String compareSymbol, String start, String end) {
+        return Base64.getEncoder().encodeToString(fetchChartPng(baseSymbol, compareSymbol, start, end));
+    }
+
+    public byte[] fetchChartPng(String baseSymbol, String compareSymbol, String start, String end) {
         try {
-            String[] command = {
-                    pythonExe,
-                    "-u",
-                    scriptPath,
+            List<String> args = List.of(
                     "--base_symbol", baseSymbol,
                     "--compare_symbol", compareSymbol,
                     "--start_date", start,
                     "--end_date", end
-            };
-            JsonNode pythonResult = executePythonScript(command);
-
-            if (pythonResult.has("error")) {
-                throw new RuntimeException(pythonResult.get("error").asText());
-            }
-            return pythonResult.get("image_data").asText();
+            );
+            return chartImageService.render(scriptPath, args, PYTHON_TIMEOUT);
         } catch (Exception e) {
             throw new RuntimeException("Python 차트 생성 오류: " + e.getMessage(), e);
         }
     }
 
-    private JsonNode executePythonScript(String[] command) throws IOException, InterruptedException, ExecutionException, TimeoutException {
-        ProcessBuilder pb = new ProcessBuilder(command);
-        pb.directory(new File("C:\\LocBootProject\\workspace\\MyBaseLink\\python"));
-        pb.environment().put("PYTHONIOENCODING", "utf-8");
-
-        Process process = pb.start();
-        ExecutorService executor = Executors.newFixedThreadPool(2);
-
-        Future<String> outputFuture = executor.submit(() -> {
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
-                return reader.lines().collect(Collectors.joining("\n"));
-            }
-        });
-
-        Future<Void> errorFuture = executor.submit(() -> {
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
-                reader.lines().forEach(line -> System.err.println("[Python ERR] " + line));
-            }
-            return null;
-        });
-
-        String pythonOutput = outputFuture.get(180, TimeUnit.SECONDS);
-        errorFuture.get(180, TimeUnit.SECONDS);
-
-        boolean finished = process.waitFor(180, TimeUnit.SECONDS);
-        if (!finished) {
-            process.destroyForcibly();
-            throw new TimeoutException("Python 프로세스가 시간 내 종료되지 않았습니다.");
-        }
-
-        int exitCode = process.exitValue();
-        if (exitCode != 0) {
-            String msg = "Python 실행 실패 (exitCode=" + exitCode + ")";
-            if (pythonOutput != null && !pythonOutput.isBlank()) {
-                msg += ": " + pythonOutput.split("\n")[0];
-            }
-            throw new RuntimeException(msg);
-        }
-
-        if (pythonOutput == null || pythonOutput.isBlank()) {
+    private <T> T runScript(List<String> args, Class<T> resultType) throws Exception {
+        T pythonResult = pythonWorkerPool.run(scriptPath, args, PYTHON_TIMEOUT, resultType);
+        if (pythonResult == null) {
             throw new RuntimeException("Python 출력이 없습니다.");
         }
-
-        System.out.println(pythonOutput); // 로그
-        executor.shutdown();
-        return mapper.readTree(pythonOutput);
+        return pythonResult;
     }
 }
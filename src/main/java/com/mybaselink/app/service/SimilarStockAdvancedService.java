@@ -1,53 +1,118 @@
 package com.mybaselink.app.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybaselink.app.dto.SimilarBatchRequestDto;
+import com.mybaselink.app.dto.SimilarStockDto;
+import com.mybaselink.app.dto.SimilarStockResultDto;
+import com.mybaselink.app.python.PythonWorkerPool;
+import com.mybaselink.app.stock.chart.ChartRenderer;
+import com.mybaselink.app.stock.similarity.SaxIndex;
+import com.mybaselink.app.stock.similarity.SimilarityEngine;
+import com.mybaselink.app.stock.similarity.SimilarityMethod;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.*;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.*;
-import java.util.stream.Collectors;
 
 @Service
 public class SimilarStockAdvancedService {
 
-    private final ObjectMapper mapper = new ObjectMapper();
+    // ▶ 상주 Python 워커 풀
+    private final PythonWorkerPool pythonWorkerPool;
+    private final ChartImageService chartImageService;
+    private final SimilarityEngine similarityEngine;
+    private final SaxIndex saxIndex;
+    private final ChartRenderer chartRenderer;
+
+    // ▶ true 면 시세 저장소가 준비된 경우 JVM 안에서 코사인 유사도 계산
+    @Value("${similarity.engine.enabled:true}")
+    private boolean engineEnabled;
+
+    // ▶ fast 모드 후보 수 = topN × 이 값 (요청에 candidates 가 없을 때). 클수록 정확하고 느림
+    @Value("${similarity.ann.candidate-factor:10}")
+    private int candidateFactor;
+
+    // ▶ 일괄 조회 한 번에 받을 최대 기준 종목 수
+    @Value("${similarity.batch.max-symbols:500}")
+    private int batchMaxSymbols;
 
-    // ▶ Python 실행 경로
-    private final String pythonExe = "C:\\Users\\User\\AppData\\Local\\Programs\\Python\\Python310\\python.exe";
+    private final ObjectMapper mapper = new ObjectMapper();
 
     // ▶ 실행할 Python 스크립트 경로
     private final String scriptPath = "C:\\LocBootProject\\workspace\\MyBaseLink\\python\\find_similar_full.py";
 
+    private static final Duration PYTHON_TIMEOUT = Duration.ofSeconds(180);
+
+    public SimilarStockAdvancedService(PythonWorkerPool pythonWorkerPool, ChartImageService chartImageService,
+                                       SimilarityEngine similarityEngine, SaxIndex saxIndex,
+                                       ChartRenderer chartRenderer) {
+        this.pythonWorkerPool = pythonWorkerPool;
+        this.chartImageService = chartImageService;
+        this.similarityEngine = similarityEngine;
+        this.saxIndex = saxIndex;
+        this.chartRenderer = chartRenderer;
+    }
+
     /**
      * 파이썬 스크립트를 호출하여 유사 종목 리스트를 조회합니다.
      * ⭐ method: 선택한 유사도 계산 방식 전달
      */
-    public List<Map<String, Object>> fetchSimilar(String companyCode, String start, String end, int nSimilarStocks, String method) {
+    public List<SimilarStockDto> fetchSimilar(String companyCode, String start, String end, int nSimilarStocks, String method) {
+        return fetchSimilar(companyCode, start, end, nSimilarStocks, method, "exact", null);
+    }
+
+    /**
+     * ⭐ mode=fast: SAX 인덱스(인덱스에 없는 길이는 저장소 누적합 PAA)로 후보를 먼저 고른 뒤 후보만 정확히 계산
+     *    (기준 구간이 16거래일보다 짧거나 값이 일정하면 exact)
+     * ⭐ candidates: fast 모드 후보 수 (없으면 nSimilarStocks × similarity.ann.candidate-factor)
+     */
+    public List<SimilarStockDto> fetchSimilar(String companyCode, String start, String end, int nSimilarStocks,
+                                              String method, String mode, Integer candidates) {
+        // ▶ find_similar_full.py 와 같은 코사인 유사도 → cosine_similarity 로 응답
+        if (engineEnabled && similarityEngine.canServe(companyCode, SimilarityMethod.COSINE)) {
+            LocalDate startDate = LocalDate.parse(start);
+            LocalDate endDate = LocalDate.parse(end);
+            List<String> candidateSymbols = null;
+            if ("fast".equalsIgnoreCase(mode)) {
+                int count = candidates != null ? candidates : nSimilarStocks * Math.max(candidateFactor, 1);
+                candidateSymbols = saxIndex.candidates(companyCode, startDate, endDate, Math.max(count, nSimilarStocks));
+            }
+            List<SimilarStockDto> results = similarityEngine.findSimilar(companyCode, startDate, endDate,
+                    SimilarityMethod.COSINE, nSimilarStocks, candidateSymbols);
+            for (SimilarStockDto dto : results) {
+                dto.setCosineSimilarity(dto.getSimilarity());
+                dto.setSimilarity(null);
+            }
+            return results;
+        }
         try {
-            String[] command = {
-                pythonExe,
-                "-u",
-                scriptPath,
+            List<String> args = List.of(
                 "--base_symbol", companyCode,
                 "--start_date", start,
                 "--end_date", end,
                 "--n_similar", String.valueOf(nSimilarStocks),
                 "--method", method // ⭐ 추가
-            };
+            );
 
-            JsonNode pythonResult = executePythonScript(command);
+            SimilarStockResultDto pythonResult = pythonWorkerPool.run(scriptPath, args, PYTHON_TIMEOUT, SimilarStockResultDto.class);
 
             if (pythonResult != null) {
-                if (pythonResult.has("error")) {
-                    System.err.println("파이썬 스크립트 실행 오류: " + pythonResult.get("error").asText());
+                if (pythonResult.getError() != null) {
+                    System.err.println("파이썬 스크립트 실행 오류: " + pythonResult.getError());
                     return List.of();
                 }
-                return mapper.convertValue(pythonResult.get("similar_stocks"), new TypeReference<List<Map<String, Object>>>(){});
+                return pythonResult.getSimilarStocks() != null ? pythonResult.getSimilarStocks() : List.of();
             } else {
                 System.err.println("파이썬 스크립트 실행 실패: 결과가 null입니다.");
                 return List.of();
@@ -60,95 +125,111 @@ public class SimilarStockAdvancedService {
     }
 
     /**
-     * 파이썬 스크립트를 호출하여 개별 종목 차트 이미지를 Base64 문자열로 조회합니다.
+     * 일괄 조회 요청 검사 (스트리밍 시작 전에 호출)
+     *
+     * @throws IllegalArgumentException 종목/구간이 없거나 종목 수가 한도를 넘는 경우
      */
-    public String fetchChart(String baseSymbol, String compareSymbol, String start, String end) {
-        try {
-            String[] command = {
-                pythonExe,
-                "-u",
-                scriptPath,
-                "--base_symbol", baseSymbol,
-                "--start_date", start,
-                "--end_date", end,
-                "--compare_symbol", compareSymbol
-            };
-
-            JsonNode pythonResult = executePythonScript(command);
-
-            if (pythonResult != null) {
-                if (pythonResult.has("error")) {
-                    System.err.println("파이썬 스크립트 실행 오류: " + pythonResult.get("error").asText());
-                    return null;
-                }
-                return pythonResult.get("image_data").asText();
-            } else {
-                System.err.println("파이썬 스크립트 실행 실패: 결과가 null입니다.");
-                return null;
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("차트 조회 중 오류 발생: " + e.getMessage());
-            return null;
+    public void validateBatch(SimilarBatchRequestDto request) {
+        if (request.getSymbols() == null || request.getSymbols().isEmpty()) {
+            throw new IllegalArgumentException("symbols 가 비어 있습니다.");
+        }
+        if (request.getSymbols().size() > batchMaxSymbols) {
+            throw new IllegalArgumentException("한 번에 조회할 수 있는 기준 종목은 최대 " + batchMaxSymbols + "개입니다.");
+        }
+        if (request.getStart() == null || request.getEnd() == null) {
+            throw new IllegalArgumentException("start / end 가 필요합니다.");
         }
+        LocalDate.parse(request.getStart());
+        LocalDate.parse(request.getEnd());
     }
 
     /**
-     * 파이썬 스크립트를 실행하고 표준 출력을 JSON으로 파싱합니다.
+     * ⭐ 여러 기준 종목의 유사 종목을 NDJSON 으로 기준 종목마다 한 줄씩 흘려보냅니다.
+     * - 줄 형식: {"base_symbol": ..., "similar_stocks": [...]} 또는 {"base_symbol": ..., "error": ...}
+     * - 시세 저장소에 있는 기준 종목은 정규화 행렬 블록 곱으로 한 번에 계산하고,
+     *   저장소로 답할 수 없는 나머지 종목만 종목마다 기존 경로(파이썬)로 보냄 (종목마다 따로 판단)
      */
-    private JsonNode executePythonScript(String[] command) throws IOException, InterruptedException, ExecutionException, TimeoutException {
-        File scriptDir = new File("C:\\LocBootProject\\workspace\\MyBaseLink\\python");
-        ProcessBuilder pb = new ProcessBuilder(command);
-        pb.directory(scriptDir);
-        pb.environment().put("PYTHONIOENCODING", "utf-8");
-
-        Process process = pb.start();
-
-        ExecutorService executor = Executors.newFixedThreadPool(2);
-
-        // 표준 출력 읽기 (JSON 결과)
-        Future<String> outputFuture = executor.submit(() -> {
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
-                return reader.lines().collect(Collectors.joining("\n"));
-            } catch (IOException e) {
-                return "";
-            }
-        });
-
-        // 표준 에러 읽기 (로그)
-        Future<Void> errorFuture = executor.submit(() -> {
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
-                reader.lines().forEach(line -> System.err.println("[Python ERR] " + line));
-            } catch (IOException e) {
-                // 무시
+    public void streamSimilarBatch(SimilarBatchRequestDto request, OutputStream out) throws IOException {
+        List<String> symbols = List.copyOf(new LinkedHashSet<>(request.getSymbols()));
+        int n = request.getnSimilarStocks();
+        List<String> engineSymbols = new ArrayList<>();
+        List<String> pythonSymbols = new ArrayList<>();
+        for (String symbol : symbols) {
+            if (engineEnabled && similarityEngine.canServe(symbol, SimilarityMethod.COSINE)) {
+                engineSymbols.add(symbol);
+            } else {
+                pythonSymbols.add(symbol);
             }
-            return null;
-        });
-
-        String pythonOutput = null;
+        }
         try {
-            pythonOutput = outputFuture.get(180, TimeUnit.SECONDS);
-            errorFuture.get(180, TimeUnit.SECONDS);
-            boolean finished = process.waitFor(180, TimeUnit.SECONDS);
-            if (!finished) {
-                process.destroyForcibly();
-                throw new TimeoutException("Python process did not finish in time.");
+            if (!engineSymbols.isEmpty()) {
+                similarityEngine.findSimilarBatch(engineSymbols, LocalDate.parse(request.getStart()),
+                        LocalDate.parse(request.getEnd()), n, new SimilarityEngine.BatchListener() {
+                            @Override
+                            public void onResult(String baseSymbol, List<SimilarStockDto> results) {
+                                for (SimilarStockDto dto : results) {
+                                    dto.setCosineSimilarity(dto.getSimilarity());
+                                    dto.setSimilarity(null);
+                                }
+                                writeLine(out, Map.of("base_symbol", baseSymbol, "similar_stocks", results));
+                            }
+
+                            @Override
+                            public void onError(String baseSymbol, String message) {
+                                writeLine(out, Map.of("base_symbol", baseSymbol, "error", message));
+                            }
+                        });
             }
-            int exitCode = process.exitValue();
-            if (exitCode != 0) {
-                throw new RuntimeException("Python script execution failed with exit code: " + exitCode + " Output: " + pythonOutput);
+            for (String symbol : pythonSymbols) {
+                List<SimilarStockDto> results = fetchSimilar(symbol, request.getStart(), request.getEnd(), n, "cosine");
+                writeLine(out, Map.of("base_symbol", symbol, "similar_stocks", results));
             }
-        } finally {
-            executor.shutdown();
+        } catch (UncheckedIOException e) {
+            // 클라이언트가 연결을 끊은 경우 등
+            throw e.getCause();
         }
+    }
 
-        if (pythonOutput == null || pythonOutput.trim().isEmpty()) {
-            throw new RuntimeException("Python script produced no output.");
+    private void writeLine(OutputStream out, Map<String, Object> line) {
+        try {
+            out.write(mapper.writeValueAsString(new LinkedHashMap<>(line)).getBytes(StandardCharsets.UTF_8));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+    }
 
-        // ✅ 순수 JSON만 출력
-        System.out.println(pythonOutput);
+    /**
+     * 파이썬 스크립트를 호출하여 개별 종목 차트 이미지를 Base64 문자열로 조회합니다.
+     */
+    public String fetchChart(String baseSymbol, String compareSymbol, String start, String end) {
+        byte[] png = fetchChartPng(baseSymbol, compareSymbol, start, end);
+        return png != null ? Base64.getEncoder().encodeToString(png) : null;
+    }
 
-        return mapper.readTree(pythonOutput);
+    /**
+     * 개별 종목 차트 PNG 원본 바이트를 조회합니다. (실패 시 null)
+     * ⭐ 두 종목이 시세 저장소에 있으면 JVM 에서 그림
+     */
+    public byte[] fetchChartPng(String baseSymbol, String compareSymbol, String start, String end) {
+        try {
+            if (chartRenderer.canRender(baseSymbol, compareSymbol)) {
+                String key = chartRenderer.cacheKey("compare", baseSymbol, compareSymbol, start, end);
+                return chartImageService.render(key, PYTHON_TIMEOUT,
+                        () -> chartRenderer.compareChart(baseSymbol, compareSymbol, start, end));
+            }
+            List<String> args = List.of(
+                "--base_symbol", baseSymbol,
+                "--start_date", start,
+                "--end_date", end,
+                "--compare_symbol", compareSymbol
+            );
+            return chartImageService.render(scriptPath, args, PYTHON_TIMEOUT);
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.err.println("차트 조회 중 오류 발생: " + e.getMessage());
+            return null;
+        }
     }
 }
@@ -0,0 +1,31 @@
+package com.mybaselink.app.service;
+
+import com.mybaselink.app.dto.SubsequenceMatchDto;
+import com.mybaselink.app.stock.similarity.SubsequenceSearchEngine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 기준 종목 구간과 닮은 모양을 전 종목 전체 기간에서 찾는 서비스 (JVM 내부 계산, 파이썬 대체 경로 없음)
+ */
+@Service
+public class SimilarSubsequenceService {
+
+    private final SubsequenceSearchEngine subsequenceSearchEngine;
+
+    // 한 종목에서 돌려줄 최대 구간 수 (요청에 없을 때)
+    @Value("${similarity.subsequence.per-symbol:3}")
+    private int defaultPerSymbol;
+
+    public SimilarSubsequenceService(SubsequenceSearchEngine subsequenceSearchEngine) {
+        this.subsequenceSearchEngine = subsequenceSearchEngine;
+    }
+
+    public List<SubsequenceMatchDto> fetchMatches(String companyCode, String start, String end, int topN, Integer perSymbol) {
+        return subsequenceSearchEngine.findMatches(companyCode, LocalDate.parse(start), LocalDate.parse(end),
+                topN, perSymbol != null ? perSymbol : defaultPerSymbol);
+    }
+}
@@ -1,6 +1,7 @@
 package com.mybaselink.app.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybaselink.app.stock.MarketPriceStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value; // ✅ Value 어노테이션 추가
@@ -22,6 +23,7 @@ public class StockBatchService {
     private static final Logger log = LoggerFactory.getLogger(StockBatchService.class);
     private final ObjectMapper mapper = new ObjectMapper();
     private final TaskStatusService taskStatusService;
+    private final MarketPriceStore marketPriceStore;
     
     // ✅ @Value 어노테이션으로 프로퍼티 값 주입
     @Value("${python.executable.path}")
@@ -44,8 +46,9 @@ public class StockBatchService {
     // 진행 상태
     private final ConcurrentMap<String, ProgressState> progressStates = new ConcurrentHashMap<>();
 
-    public StockBatchService(TaskStatusService taskStatusService) {
+    public StockBatchService(TaskStatusService taskStatusService, MarketPriceStore marketPriceStore) {
         this.taskStatusService = taskStatusService;
+        this.marketPriceStore = marketPriceStore;
     }
 
     private static final class ProgressState {
@@ -200,6 +203,9 @@ public class StockBatchService {
         taskStatusService.setTaskStatus(taskId, new TaskStatusService.TaskStatus("COMPLETED", res, null));
         appendLog(taskId, "[PROGRESS] 100.0 ✅ 전체 완료");
         appendLog(taskId, "✅ 업데이트 완료");
+
+        // ✅ 새 parquet 으로 시세 저장소 다시 적재 (완료 시 version 증가)
+        marketPriceStore.refreshAsync("batch " + taskId);
     }
 
     private void setFailed(String taskId, String err) {
@@ -1,7 +1,14 @@
 package com.mybaselink.app.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybaselink.app.stock.StockListTable;
+import com.mybaselink.app.stock.StockListing;
+import com.mybaselink.app.stock.StockSearchIndex;
+import com.mybaselink.app.stock.StockSuggestTrie;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
@@ -9,24 +16,204 @@ import org.springframework.util.StringUtils;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.List;
-import java.util.Map;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * StockListService
  * --------------------------------------------------------
  * python/stock/stock_list/stock_listing.json 읽기
+ *
+ * - 파일은 한 번만 읽어 StockListing 레코드 목록(불변 스냅샷)으로 들고 있음 → 요청은 메모리 필터링만
+ * - 스냅샷마다 검색 역색인(StockSearchIndex: 글자 조각·초성)을 함께 만들어, 검색은 비트셋 교집합으로 처리
+ * - 정렬·범위 조건은 컬럼 표(StockListTable)의 미리 정렬해 둔 순서를 걸으며 처리 (요청마다 전체 정렬 없음)
+ * - 자동완성은 접두사 트라이(StockSuggestTrie)의 노드별 시가총액 상위 k 개를 읽기만 함
+ * - 파일이 있는 폴더를 WatchService 로 지켜보다가 update_stock_listing.py 가 파일을 다시 쓰면
+ *   마지막 변경 뒤 잠시 기다렸다가 새로 읽어 스냅샷을 통째로 바꿈
+ * - 파이썬이 파일을 쓰는 도중이라 읽기에 실패하면 기존 스냅샷을 그대로 쓰고, 다음 변경 때 다시 시도
  * --------------------------------------------------------
  */
 @Service
 public class StockListService {
 
+    private static final Logger log = LoggerFactory.getLogger(StockListService.class);
+
+    /** 마지막 변경 알림 뒤 이만큼 조용하면 다시 읽음 (파일을 여러 번에 나눠 쓰는 동안 읽지 않도록) */
+    private static final long RELOAD_DELAY_MILLIS = 500;
+
     private final ObjectMapper mapper = new ObjectMapper();
-    
+
     // ✅ 프로퍼티 값 주입 시, 기본값을 설정하여 파일이 없는 경우 대비
     @Value("${python.stock.stock_listing.path:}")
     private String localPath;
-    
+
+    /** 검색 결과 정렬 기준 (StockSearchIndex.Rank 이름) */
+    @Value("${stock.list.rank:marcap}")
+    private String rank = "marcap";
+
+    /** 자동완성 한 번에 돌려줄 최대 종목 수 (트라이 노드마다 남기는 수) */
+    @Value("${stock.suggest.max-size:20}")
+    private int suggestMaxSize = 20;
+
+    /** 목록과 검색 색인을 함께 든 스냅샷 */
+    private record Snapshot(List<StockListing> listings, StockSearchIndex index, StockListTable table,
+                            StockSuggestTrie suggest,
+                            Path source, long modified, long size, long loadedAt) { }
+
+    private volatile Snapshot snapshot;
+
+    private ScheduledExecutorService reloader;
+    private ScheduledFuture<?> pendingReload;
+    private final Object scheduleLock = new Object();
+    private WatchService watchService;
+    private Thread watcher;
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile long lastLoadMillis;
+
+    @PostConstruct
+    void init() {
+        try {
+            reloadIfChanged();
+        } catch (IOException e) {
+            log.warn("StockListService: 종목 목록을 읽지 못했습니다. 첫 조회 때 다시 시도합니다 ({})", e.getMessage());
+        }
+        startWatcher();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (watcher != null) watcher.interrupt();
+        if (reloader != null) reloader.shutdownNow();
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    /**
+     * 전체 종목 목록 (id 순, 읽기 전용)
+     */
+    public List<StockListing> getListings() throws IOException {
+        return current().listings();
+    }
+
+    /**
+     * 종목코드·회사명·업종·시장 중 하나에 검색어가 들어간 종목 (대소문자 무시),
+     * 초성 검색어("ㅅㅅㅈㅈ")는 회사명 초성으로 찾음. 결과는 stock.list.rank 순 (읽기 전용)
+     */
+    public List<StockListing> search(String query) throws IOException {
+        return current().index().search(query);
+    }
+
+    /**
+     * 검색어 + 범위 조건에 맞는 종목을 정렬 조건 순으로 offset 부터 limit 개 (정렬 조건이 없으면 stock.list.rank 순)
+     */
+    public StockListTable.Page list(String query, List<StockListTable.SortKey> sort, List<StockListTable.Range> ranges,
+                                    int offset, int limit) throws IOException {
+        Snapshot s = current();
+        return s.table().query(s.index().search(query), sort, ranges, offset, limit);
+    }
+
+    /**
+     * 종목코드·회사명·초성이 검색어로 시작하는 종목 (시가총액 큰 순, 최대 limit 개)
+     */
+    public List<StockListing> suggest(String query, int limit) throws IOException {
+        return current().suggest().suggest(query, limit);
+    }
+
+    /**
+     * getStockList() 메서드에 id 추가 로직을 포함
+     * <p>
+     * 예전 Map 모양이 필요한 곳(시세 저장소 적재 등)을 위한 호환 메서드.
+     * 배치 직후에 불릴 수 있어, 감시 스레드보다 먼저 파일이 바뀌었는지 확인하고 읽음
+     */
+    public List<Map<String, Object>> getStockList() throws IOException {
+        reloadIfChanged();
+        List<StockListing> listings = current().listings();
+        List<Map<String, Object>> stockList = new ArrayList<>(listings.size());
+        for (StockListing listing : listings) stockList.add(listing.toMap());
+        return stockList;
+    }
+
+    /**
+     * 파일의 수정 시각이나 크기가 스냅샷과 다르면 다시 읽어 바꿈
+     *
+     * @return 다시 읽었으면 true
+     */
+    public synchronized boolean reloadIfChanged() throws IOException {
+        Path file = resolveJsonFile().toPath();
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        long modified = attrs.lastModifiedTime().toMillis();
+        Snapshot prev = snapshot;
+        if (prev != null && prev.source().equals(file) && prev.modified() == modified && prev.size() == attrs.size()) {
+            return false;
+        }
+
+        long started = System.currentTimeMillis();
+        StockListing[] parsed;
+        try {
+            parsed = mapper.readValue(file.toFile(), StockListing[].class);
+        } catch (IOException e) {
+            failures.incrementAndGet();
+            throw e;
+        }
+
+        Map<String, String> pool = new HashMap<>();
+        List<StockListing> listings = new ArrayList<>(parsed.length);
+        for (int i = 0; i < parsed.length; i++) {
+            // ✅ 각 항목에 고유한 id 추가 (1부터 시작)
+            listings.add(parsed[i].compact(i + 1, v -> v == null ? null : pool.computeIfAbsent(v, k -> k)));
+        }
+        StockSearchIndex index = new StockSearchIndex(listings, StockSearchIndex.Rank.of(rank));
+        StockListTable table = new StockListTable(listings);
+        StockSuggestTrie suggest = new StockSuggestTrie(listings, suggestMaxSize);
+
+        snapshot = new Snapshot(Collections.unmodifiableList(listings), index, table, suggest, file, modified, attrs.size(),
+                System.currentTimeMillis());
+        lastLoadMillis = System.currentTimeMillis() - started;
+        reloads.incrementAndGet();
+        log.info("StockListService: 종목 목록 {}건 적재 ({} ms, {})", listings.size(), lastLoadMillis, file);
+        return true;
+    }
+
+    /**
+     * 지금 읽어야 할 종목 목록 파일 (시세 저장소가 마지막 세대보다 새로운지 볼 때 씀)
+     */
+    public Path getListingFile() throws IOException {
+        return resolveJsonFile().toPath();
+    }
+
+    public Map<String, Object> getStats() {
+        Snapshot s = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", s != null);
+        stats.put("listings", s == null ? 0 : s.listings().size());
+        stats.put("rank", s == null ? null : s.index().getRank().name());
+        stats.put("suggestNodes", s == null ? 0 : s.suggest().getNodeCount());
+        stats.put("source", s == null ? null : s.source().toString());
+        stats.put("loadedAt", s == null ? 0 : s.loadedAt());
+        stats.put("watching", watcher != null && watcher.isAlive());
+        stats.put("reloads", reloads.get());
+        stats.put("failures", failures.get());
+        stats.put("lastLoadMillis", lastLoadMillis);
+        return stats;
+    }
+
+    private Snapshot current() throws IOException {
+        Snapshot s = snapshot;
+        if (s != null) return s;
+        reloadIfChanged();
+        return snapshot;
+    }
 
     private File resolveJsonFile() throws IOException {
         // String localPath = "C:\LocBootProject\workspace\MyBaseLink\python\stock\stock_list\stock_listing.json";
@@ -39,18 +226,69 @@ public class StockListService {
         return new ClassPathResource("data/stock_listing.json").getFile();
     }
 
-    /**
-     * getStockList() 메서드에 id 추가 로직을 포함
-     */
-    public List<Map<String, Object>> getStockList() throws IOException {
-        File jsonFile = resolveJsonFile();
-        List<Map<String, Object>> stockList = mapper.readValue(jsonFile, new TypeReference<List<Map<String, Object>>>() {});
-        
-        // ✅ 각 항목에 고유한 id 추가
-        for (int i = 0; i < stockList.size(); i++) {
-            stockList.get(i).put("id", i + 1); // 1부터 시작하는 id
-        }
-        
-        return stockList;
+    // =====================================
+    // 🔹 파일 감시
+    // =====================================
+
+    private void startWatcher() {
+        if (!StringUtils.hasText(localPath)) return;
+        Path file = Paths.get(localPath).toAbsolutePath();
+        Path dir = file.getParent();
+        if (dir == null || !Files.isDirectory(dir)) {
+            log.warn("StockListService: 감시할 폴더가 없습니다 ({})", dir);
+            return;
+        }
+        try {
+            watchService = dir.getFileSystem().newWatchService();
+            dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            log.warn("StockListService: 파일 감시를 시작하지 못했습니다 ({})", e.getMessage());
+            return;
+        }
+        reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "StockListService-reloader");
+            t.setDaemon(true);
+            return t;
+        });
+        Path name = file.getFileName();
+        watcher = new Thread(() -> watch(name), "StockListService-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void watch(Path name) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                boolean touched = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    // OVERFLOW 는 어떤 파일인지 모르므로 바뀐 것으로 봄
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context())) {
+                        touched = true;
+                    }
+                }
+                if (touched) scheduleReload();
+                if (!key.reset()) {
+                    log.warn("StockListService: 감시 폴더를 더 이상 볼 수 없어 파일 감시를 멈춥니다");
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // 종료
+        }
+    }
+
+    /** 변경 알림이 이어지는 동안은 예약을 미루다가, 조용해지면 한 번만 읽음 */
+    private void scheduleReload() {
+        synchronized (scheduleLock) {
+            if (pendingReload != null) pendingReload.cancel(false);
+            pendingReload = reloader.schedule(() -> {
+                try {
+                    reloadIfChanged();
+                } catch (Exception e) {
+                    log.warn("StockListService: 종목 목록 다시 읽기 실패, 기존 목록 유지 ({})", e.getMessage());
+                }
+            }, RELOAD_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
     }
 }
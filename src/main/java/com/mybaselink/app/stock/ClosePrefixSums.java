@@ -0,0 +1,90 @@
+package com.mybaselink.app.stock;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * ✅ ClosePrefixSums
+ * --------------------------------------------------------
+ * 종목별 종가 누적합 컬럼. 임의의 날짜 구간 평균·분산을 O(1) 로 구합니다.
+ *
+ * - 행 r 에는 종목 첫 행부터 r 까지의 Σ(c - K), Σ(c - K)², NaN 이 아닌 종가 수가 들어 있음
+ * - K 는 종목 첫 종가 (NaN 이면 0). 가격 수준을 빼고 더해야 E[x²] - E[x]² 의 자릿수 손실이 작음
+ * - 누적은 Neumaier 보정 합으로 하고, 보정까지 더한 값을 저장
+ * - NaN 종가는 0 으로 더하고 개수에서 빠짐
+ * --------------------------------------------------------
+ */
+final class ClosePrefixSums {
+
+    static final ClosePrefixSums EMPTY = new ClosePrefixSums(DoubleBuffer.allocate(0),
+            DoubleBuffer.allocate(0), DoubleBuffer.allocate(0), IntBuffer.allocate(0));
+
+    private final DoubleBuffer close;
+    private final DoubleBuffer sum;
+    private final DoubleBuffer sum2;
+    private final IntBuffer count;
+
+    ClosePrefixSums(DoubleBuffer close, DoubleBuffer sum, DoubleBuffer sum2, IntBuffer count) {
+        this.close = close;
+        this.sum = sum;
+        this.sum2 = sum2;
+        this.count = count;
+    }
+
+    /**
+     * 종목 첫 행이 origin 인 구간 [lo, hi) 의 통계
+     */
+    CloseStats stats(int origin, int lo, int hi) {
+        if (hi <= lo) return CloseStats.EMPTY;
+        int last = hi - 1;
+        boolean head = lo == origin;
+        int n = count.get(last) - (head ? 0 : count.get(lo - 1));
+        if (n == 0) return CloseStats.EMPTY;
+        double s = sum.get(last) - (head ? 0 : sum.get(lo - 1));
+        double s2 = sum2.get(last) - (head ? 0 : sum2.get(lo - 1));
+        double shiftedMean = s / n;
+        double variance = Math.max(0.0, s2 / n - shiftedMean * shiftedMean);
+        return new CloseStats(n, shift(close.get(origin)) + shiftedMean, variance);
+    }
+
+    static double shift(double firstClose) {
+        return Double.isNaN(firstClose) ? 0.0 : firstClose;
+    }
+
+    /**
+     * 적재 시 종목 하나의 누적합을 차례로 계산합니다.
+     */
+    static final class Accumulator {
+        private double shift;
+        private double sum, sumComp;
+        private double sum2, sum2Comp;
+        private int count;
+
+        /** 새 종목 시작 */
+        void reset(double firstClose) {
+            shift = shift(firstClose);
+            sum = sumComp = sum2 = sum2Comp = 0;
+            count = 0;
+        }
+
+        void add(double close) {
+            if (Double.isNaN(close)) return;
+            double d = close - shift;
+            double d2 = d * d;
+
+            double t = sum + d;
+            sumComp += Math.abs(sum) >= Math.abs(d) ? (sum - t) + d : (d - t) + sum;
+            sum = t;
+
+            t = sum2 + d2;
+            sum2Comp += Math.abs(sum2) >= Math.abs(d2) ? (sum2 - t) + d2 : (d2 - t) + sum2;
+            sum2 = t;
+
+            count++;
+        }
+
+        double sum() { return sum + sumComp; }
+        double sum2() { return sum2 + sum2Comp; }
+        int count() { return count; }
+    }
+}
@@ -0,0 +1,18 @@
+package com.mybaselink.app.stock;
+
+/**
+ * 한 구간 종가의 개수·평균·분산 (np.mean / np.std 와 같은 모분산, ddof=0).
+ * NaN 종가는 세지 않습니다.
+ *
+ * @param count    NaN 이 아닌 종가 수
+ * @param mean     평균 (count 가 0 이면 NaN)
+ * @param variance 모분산 (count 가 0 이면 NaN)
+ */
+public record CloseStats(int count, double mean, double variance) {
+
+    static final CloseStats EMPTY = new CloseStats(0, Double.NaN, Double.NaN);
+
+    public double std() {
+        return Math.sqrt(variance);
+    }
+}
@@ -0,0 +1,57 @@
+package com.mybaselink.app.stock;
+
+/**
+ * 구간 마지막 거래일에서 거꾸로 센 연속 종가 하락.
+ *
+ * @param days      연속 하락 일수 (전일 대비 종가가 낮았던 날 수)
+ * @param startDay  하락이 시작되기 직전 거래일 (epoch day, 하락 기준가의 날짜)
+ * @param endDay    마지막 거래일 (epoch day)
+ * @param dropRate  기준가 대비 마지막 종가 변화율 (%, 음수)
+ * @param lastClose 마지막 종가
+ * @param baseClose 하락 기준가 (startDay 종가)
+ */
+public record DeclineStreak(int days, int startDay, int endDay, double dropRate, double lastClose, double baseClose) {
+
+    /**
+     * 순위 점수: 하락 일수가 우선, 같으면 하락폭이 큰 쪽 (하락폭은 0 ~ 1 사이로 더해짐)
+     */
+    public double rankScore() {
+        return days + Math.min(-dropRate / 100.0, 0.999_999);
+    }
+
+    /**
+     * 다음 거래일 종가를 반영한 값. 전일보다 낮으면 이어지고, 아니면 그날부터 새로 셈
+     */
+    public DeclineStreak advance(int day, double close) {
+        if (close < lastClose) {
+            return new DeclineStreak(days + 1, startDay, day, dropRate(baseClose, close), close, baseClose);
+        }
+        return first(day, close);
+    }
+
+    /**
+     * 첫 거래일 (하락 0일)
+     */
+    public static DeclineStreak first(int day, double close) {
+        return new DeclineStreak(0, day, day, dropRate(close, close), close, close);
+    }
+
+    /**
+     * @return 마지막 날이 하락이 아니면 days = 0, 데이터가 없으면 null
+     */
+    public static DeclineStreak of(PriceSlice slice) {
+        int n = slice.length();
+        if (n == 0) return null;
+        int last = n - 1;
+        int i = last;
+        while (i > 0 && slice.close(i) < slice.close(i - 1)) i--;
+        double base = slice.close(i);
+        double lastClose = slice.close(last);
+        return new DeclineStreak(last - i, slice.epochDay(i), slice.epochDay(last), dropRate(base, lastClose),
+                lastClose, base);
+    }
+
+    private static double dropRate(double base, double lastClose) {
+        return base > 0 ? (lastClose / base - 1.0) * 100.0 : 0.0;
+    }
+}
@@ -0,0 +1,189 @@
+package com.mybaselink.app.stock;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ✅ DeclineStreakIndex
+ * --------------------------------------------------------
+ * 전 종목의 "최근 거래일까지 연속 하락" 상태(일수, 시작일, 누적 하락률)를 들고 있는 인덱스.
+ *
+ * - 시세 저장소가 새 세대로 바뀌면, 종목마다 지난 상태의 마지막 거래일 뒤에 붙은 새 거래일만 반영 (종목당 O(새 거래일))
+ * - 지난 상태의 마지막 날·기준일 종가가 새 세대와 다르면(수정주가 반영 등) 그 종목만 다시 계산
+ * - 순위(하락 일수 → 하락폭)로 미리 정렬해 두고, 상위 N 은 앞에서 N 개를 읽기만 함
+ * - 인덱스와 같은 결과가 보장되지 않는 [start, end] 구간이면 null 을 돌려주고, 호출측이 구간을 직접 계산
+ * --------------------------------------------------------
+ */
+@Component
+public class DeclineStreakIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DeclineStreakIndex.class);
+
+    /** 순위 한 칸 */
+    public record Ranked(String symbol, DeclineStreak streak) { }
+
+    private final MarketPriceStore store;
+
+    private volatile Snapshot snapshot;
+
+    private final ExecutorService updater = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "DeclineStreakIndex-updater");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile long extended;
+    private volatile long recomputed;
+    private volatile long lastUpdateMillis;
+
+    public DeclineStreakIndex(MarketPriceStore store) {
+        this.store = store;
+    }
+
+    @PostConstruct
+    void init() {
+        store.addRefreshListener(version -> updater.execute(this::update));
+        if (store.isReady()) updater.execute(this::update);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        updater.shutdownNow();
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * [start, end] 구간 기준 상위 topN 연속 하락 종목 (하락 일수가 긴 순, 같으면 하락률이 큰 순)
+     * <p>
+     * end 가 저장소 마지막 거래일 이후이고, 상위 종목들의 하락 시작일이 모두 start 이후일 때만 답합니다.
+     * (그래야 구간을 잘라 다시 센 값과 같음)
+     *
+     * @param start null 이면 제한 없음
+     * @param end   null 이면 제한 없음
+     * @return 인덱스로 답할 수 없으면 null
+     */
+    public List<Ranked> top(LocalDate start, LocalDate end, int topN) {
+        Snapshot s = snapshot;
+        if (s == null || s.storeVersion != store.getVersion()
+                || (end != null && end.toEpochDay() < s.lastDay)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        long from = start == null ? Long.MIN_VALUE : start.toEpochDay();
+        int k = Math.min(Math.max(topN, 0), s.ranked.length);
+        List<Ranked> results = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            // 하락이 start 이전부터 이어졌으면 구간 안에서 센 일수는 더 짧아 순위가 달라짐
+            if (s.ranked[i].streak().startDay() < from) {
+                misses.incrementAndGet();
+                return null;
+            }
+            results.add(s.ranked[i]);
+        }
+        hits.incrementAndGet();
+        return results;
+    }
+
+    /**
+     * 종목 하나의 현재 상태 (없거나 인덱스가 준비되지 않았으면 null)
+     */
+    public DeclineStreak get(String symbol) {
+        Snapshot s = snapshot;
+        return s == null ? null : s.streaks.get(symbol);
+    }
+
+    public Map<String, Object> getStats() {
+        Snapshot s = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", s != null);
+        stats.put("storeVersion", s == null ? 0 : s.storeVersion);
+        stats.put("symbols", s == null ? 0 : s.streaks.size());
+        stats.put("declining", s == null ? 0 : s.ranked.length);
+        stats.put("lastDay", s == null ? null : LocalDate.ofEpochDay(s.lastDay).toString());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("extended", extended);
+        stats.put("recomputed", recomputed);
+        stats.put("lastUpdateMillis", lastUpdateMillis);
+        return stats;
+    }
+
+    /**
+     * 저장소 현재 세대로 상태를 갱신합니다. (updater 스레드에서만 호출)
+     */
+    private void update() {
+        if (!store.isReady()) return;
+        long started = System.currentTimeMillis();
+        List<PriceSlice> slices = store.sliceAll(null, null);
+        long version = slices.isEmpty() ? store.getVersion() : slices.get(0).getVersion();
+        Snapshot prev = snapshot;
+        if (prev != null && prev.storeVersion == version) return;
+
+        Map<String, DeclineStreak> streaks = new HashMap<>(slices.size() * 2);
+        List<Ranked> declining = new ArrayList<>();
+        int lastDay = Integer.MIN_VALUE;
+        long extendedCount = 0;
+        long recomputedCount = 0;
+        for (PriceSlice slice : slices) {
+            int n = slice.length();
+            if (n == 0) continue;
+            lastDay = Math.max(lastDay, slice.epochDay(n - 1));
+            DeclineStreak old = prev == null ? null : prev.streaks.get(slice.getSymbol());
+            DeclineStreak streak = old == null ? null : extend(old, slice);
+            if (streak != null) {
+                extendedCount++;
+            } else {
+                streak = DeclineStreak.of(slice);
+                recomputedCount++;
+            }
+            streaks.put(slice.getSymbol(), streak);
+            if (streak.days() > 0) declining.add(new Ranked(slice.getSymbol(), streak));
+        }
+        // 안정 정렬이라 점수가 같으면 종목 목록 순서 유지
+        declining.sort(Comparator.comparingDouble((Ranked r) -> r.streak().rankScore()).reversed());
+
+        snapshot = new Snapshot(version, lastDay, streaks, declining.toArray(new Ranked[0]));
+        extended = extendedCount;
+        recomputed = recomputedCount;
+        lastUpdateMillis = System.currentTimeMillis() - started;
+        log.info("DeclineStreakIndex 갱신: storeVersion={}, 종목={}, 하락 중={}, 이어서 계산={}, 다시 계산={}, {}ms",
+                version, streaks.size(), declining.size(), extendedCount, recomputedCount, lastUpdateMillis);
+    }
+
+    /**
+     * 지난 상태 뒤에 붙은 거래일만 반영. 지난 상태와 새 시세가 맞지 않으면 null
+     */
+    static DeclineStreak extend(DeclineStreak old, PriceSlice slice) {
+        int p = slice.length() - 1;
+        while (p >= 0 && slice.epochDay(p) > old.endDay()) p--;
+        if (p < 0 || slice.epochDay(p) != old.endDay()
+                || Double.compare(slice.close(p), old.lastClose()) != 0) {
+            return null;
+        }
+        int base = p - old.days();
+        if (base < 0 || slice.epochDay(base) != old.startDay()
+                || Double.compare(slice.close(base), old.baseClose()) != 0) {
+            return null;
+        }
+        DeclineStreak streak = old;
+        for (int i = p + 1; i < slice.length(); i++) {
+            streak = streak.advance(slice.epochDay(i), slice.close(i));
+        }
+        return streak;
+    }
+
+    private record Snapshot(long storeVersion, int lastDay, Map<String, DeclineStreak> streaks, Ranked[] ranked) { }
+}
@@ -0,0 +1,534 @@
+package com.mybaselink.app.stock;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybaselink.app.service.StockListService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * ✅ MarketPriceStore
+ * --------------------------------------------------------
+ * KRX 전 종목(stock_listing.json)의 일봉을 컬럼별 파일로 모아 memory-map 해두는 상주 시세 저장소.
+ *
+ * - 컬럼(days/open/high/low/close/volume)은 종목 순서대로 이어 붙인 primitive 파일이며
+ *   힙이 아닌 OS 페이지 캐시에 올라감 (힙에는 종목 인덱스만 있음)
+ * - 기동 시에는 마지막으로 만든 세대(generation)를 매핑만 하므로 바로 사용 가능.
+ *   parquet 이나 종목 목록 파일이 더 새로우면 백그라운드에서 다시 만듦
+ * - StockBatchService 업데이트가 끝나면 새 세대를 만들고 교체하며 version 이 올라감
+ * - 세대마다 디렉터리를 새로 만들므로 매핑 중인 파일을 덮어쓰지 않음 (Windows 파일 잠금 대비)
+ * - 종목 구간 안의 날짜 검색은 이분 탐색 (O(log n))
+ * - 종가 누적합 컬럼({@link ClosePrefixSums})으로 임의 구간의 평균·표준편차를 O(1) 로 계산
+ * --------------------------------------------------------
+ */
+@Component
+public class MarketPriceStore {
+
+    private static final Logger log = LoggerFactory.getLogger(MarketPriceStore.class);
+
+    private static final String CURRENT_FILE = "CURRENT";
+    private static final String INDEX_FILE = "index.json";
+    private static final String[] COLUMN_FILES = {"days.i32", "open.f64", "high.f64", "low.f64", "close.f64", "volume.i64"};
+    private static final String[] PREFIX_FILES = {"close_sum.f64", "close_sum2.f64", "close_count.i32"};
+
+    private final StockParquetLoader loader;
+    private final StockListService stockListService;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Value("${market.store.enabled:true}")
+    private boolean enabled;
+
+    @Value("${market.store.dir:${python.stock.data.dir:${python.working.dir}/stock_data}/.price_store}")
+    private String storeDir;
+
+    private Path storePath;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "MarketPriceStore-builder");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean building = new AtomicBoolean(false);
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean(false);
+    private final List<LongConsumer> refreshListeners = new CopyOnWriteArrayList<>();
+
+    public MarketPriceStore(StockParquetLoader loader, StockListService stockListService) {
+        this.loader = loader;
+        this.stockListService = stockListService;
+    }
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            log.info("MarketPriceStore 비활성화 (market.store.enabled=false)");
+            return;
+        }
+        storePath = Paths.get(storeDir);
+        try {
+            Files.createDirectories(storePath);
+            Path current = storePath.resolve(CURRENT_FILE);
+            if (Files.isRegularFile(current)) {
+                String generation = Files.readString(current, StandardCharsets.UTF_8).trim();
+                snapshot = Snapshot.open(storePath.resolve(generation), mapper);
+                log.info("MarketPriceStore 로드: {} (version={}, 종목={}, rows={})",
+                        generation, snapshot.version, snapshot.entries.size(), snapshot.rows);
+            }
+        } catch (Exception e) {
+            log.warn("MarketPriceStore 기존 세대 로드 실패 → 새로 만듭니다: {}", e.getMessage());
+            snapshot = Snapshot.EMPTY;
+        }
+
+        if (snapshot == Snapshot.EMPTY || isStale(snapshot)) {
+            refreshAsync("startup");
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        builder.shutdownNow();
+    }
+
+    // ------------------------------------------------------------------
+    // 조회
+    // ------------------------------------------------------------------
+
+    /** 최소 한 번 적재가 끝났는지 */
+    public boolean isReady() {
+        return snapshot != Snapshot.EMPTY;
+    }
+
+    /** 저장소 버전 (새 세대가 반영될 때마다 증가) */
+    public long getVersion() {
+        return snapshot.version;
+    }
+
+    public boolean contains(String symbol) {
+        return snapshot.entries.containsKey(symbol);
+    }
+
+    public Set<String> getSymbols() {
+        return Collections.unmodifiableSet(snapshot.entries.keySet());
+    }
+
+    public String getName(String symbol) {
+        Entry e = snapshot.entries.get(symbol);
+        return e == null ? null : e.name();
+    }
+
+    /**
+     * 종목 전체 기간
+     */
+    public PriceSlice slice(String symbol) {
+        return slice(symbol, null, null);
+    }
+
+    /**
+     * 종목의 [from, to] 기간 (양끝 포함, null 이면 제한 없음)
+     *
+     * @throws IllegalStateException    저장소가 아직 준비되지 않은 경우
+     * @throws IllegalArgumentException 저장소에 없는 종목
+     */
+    public PriceSlice slice(String symbol, LocalDate from, LocalDate to) {
+        Snapshot s = requireReady();
+        Entry e = s.entries.get(symbol);
+        if (e == null) {
+            throw new IllegalArgumentException("시세 저장소에 없는 종목입니다: " + symbol);
+        }
+        return slice(s, e, from, to);
+    }
+
+    /**
+     * 전 종목의 [from, to] 기간. 모든 구간이 같은 버전(스냅샷)에서 나옵니다.
+     */
+    public List<PriceSlice> sliceAll(LocalDate from, LocalDate to) {
+        Snapshot s = requireReady();
+        List<PriceSlice> slices = new ArrayList<>(s.entries.size());
+        for (Entry e : s.entries.values()) {
+            slices.add(slice(s, e, from, to));
+        }
+        return slices;
+    }
+
+    /**
+     * 지정한 종목들의 [from, to] 기간 (저장소에 없는 종목은 건너뜀). 모든 구간이 같은 버전에서 나옵니다.
+     */
+    public List<PriceSlice> slices(Collection<String> symbols, LocalDate from, LocalDate to) {
+        Snapshot s = requireReady();
+        List<PriceSlice> slices = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            Entry e = s.entries.get(symbol);
+            if (e != null) slices.add(slice(s, e, from, to));
+        }
+        return slices;
+    }
+
+    private Snapshot requireReady() {
+        Snapshot s = snapshot;
+        if (s == Snapshot.EMPTY) {
+            throw new IllegalStateException("시세 저장소를 준비 중입니다. 잠시 후 다시 시도해주세요.");
+        }
+        return s;
+    }
+
+    private static PriceSlice slice(Snapshot s, Entry e, LocalDate from, LocalDate to) {
+        int start = e.offset();
+        int end = e.offset() + e.length();
+        int lo = from == null ? start : lowerBound(s.days, start, end, (int) from.toEpochDay());
+        int hi = to == null ? end : lowerBound(s.days, lo, end, (int) to.toEpochDay() + 1);
+        return new PriceSlice(e.symbol(), s.version, e.offset(), lo, hi - lo,
+                s.days, s.open, s.high, s.low, s.close, s.volume, s.prefix);
+    }
+
+    public Map<String, Object> getStats() {
+        Snapshot s = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", isReady());
+        stats.put("version", s.version);
+        stats.put("symbols", s.entries.size());
+        stats.put("rows", s.rows);
+        stats.put("mappedBytes", (long) s.rows * (4 + 5 * 8 + 2 * 8 + 4));
+        stats.put("builtAt", s.builtAt);
+        stats.put("building", building.get());
+        return stats;
+    }
+
+    // ------------------------------------------------------------------
+    // 적재
+    // ------------------------------------------------------------------
+
+    /**
+     * 새 세대로 교체될 때마다 새 version 으로 호출됩니다. (적재 스레드에서 호출되므로 오래 걸리는 일은 넘겨서 처리)
+     */
+    public void addRefreshListener(LongConsumer listener) {
+        refreshListeners.add(listener);
+    }
+
+    /**
+     * 새 세대를 백그라운드에서 만들고 교체합니다. 이미 만드는 중이면 끝난 뒤 한 번 더 만듭니다.
+     */
+    public CompletableFuture<Long> refreshAsync(String reason) {
+        if (!enabled) return CompletableFuture.completedFuture(snapshot.version);
+        rebuildRequested.set(true);
+        return CompletableFuture.supplyAsync(() -> {
+            if (!rebuildRequested.getAndSet(false)) {
+                return snapshot.version; // 앞선 요청이 이미 반영함
+            }
+            building.set(true);
+            try {
+                rebuild(reason);
+            } catch (Exception e) {
+                log.error("MarketPriceStore 생성 실패 ({})", reason, e);
+            } finally {
+                building.set(false);
+            }
+            return snapshot.version;
+        }, builder);
+    }
+
+    private void rebuild(String reason) throws IOException {
+        long started = System.currentTimeMillis();
+        long version = Math.max(snapshot.version, latestGeneration()) + 1;
+        String generation = "gen-" + version;
+        Path dir = storePath.resolve(generation);
+        deleteRecursively(dir);
+        Files.createDirectories(dir);
+
+        List<Entry> entries = new ArrayList<>();
+        int rows = 0;
+        int failed = 0;
+        try (ColumnWriter days = new ColumnWriter(dir.resolve(COLUMN_FILES[0]));
+             ColumnWriter open = new ColumnWriter(dir.resolve(COLUMN_FILES[1]));
+             ColumnWriter high = new ColumnWriter(dir.resolve(COLUMN_FILES[2]));
+             ColumnWriter low = new ColumnWriter(dir.resolve(COLUMN_FILES[3]));
+             ColumnWriter close = new ColumnWriter(dir.resolve(COLUMN_FILES[4]));
+             ColumnWriter volume = new ColumnWriter(dir.resolve(COLUMN_FILES[5]));
+             ColumnWriter closeSum = new ColumnWriter(dir.resolve(PREFIX_FILES[0]));
+             ColumnWriter closeSum2 = new ColumnWriter(dir.resolve(PREFIX_FILES[1]));
+             ColumnWriter closeCount = new ColumnWriter(dir.resolve(PREFIX_FILES[2]))) {
+
+            ClosePrefixSums.Accumulator acc = new ClosePrefixSums.Accumulator();
+
+            for (Map<String, Object> item : stockListService.getStockList()) {
+                String symbol = Objects.toString(item.get("Code"), "").trim();
+                if (symbol.isEmpty() || !loader.exists(symbol)) continue;
+                StockPriceSeries series;
+                try {
+                    series = loader.load(symbol);
+                } catch (Exception e) {
+                    failed++;
+                    log.debug("MarketPriceStore: {} 읽기 실패 ({})", symbol, e.getMessage());
+                    continue;
+                }
+                if ((long) rows + series.length() > Integer.MAX_VALUE / Double.BYTES) {
+                    throw new IOException("시세 행 수가 저장소 한도를 넘었습니다: " + rows);
+                }
+                int n = series.length();
+                if (n > 0) acc.reset(series.getClose()[0]);
+                for (int i = 0; i < n; i++) {
+                    days.putInt(series.getEpochDays()[i]);
+                    open.putDouble(series.getOpen()[i]);
+                    high.putDouble(series.getHigh()[i]);
+                    low.putDouble(series.getLow()[i]);
+                    close.putDouble(series.getClose()[i]);
+                    volume.putLong(series.getVolume()[i]);
+                    acc.add(series.getClose()[i]);
+                    closeSum.putDouble(acc.sum());
+                    closeSum2.putDouble(acc.sum2());
+                    closeCount.putInt(acc.count());
+                }
+                entries.add(new Entry(symbol, Objects.toString(item.get("Name"), ""), rows, n));
+                rows += n;
+            }
+        }
+
+        Index index = new Index(version, System.currentTimeMillis(), rows, entries);
+        mapper.writeValue(dir.resolve(INDEX_FILE).toFile(), index);
+
+        Snapshot next = Snapshot.open(dir, mapper);
+        writeAtomically(storePath.resolve(CURRENT_FILE), generation);
+        snapshot = next;
+        log.info("MarketPriceStore {} 완료 ({}): version={}, 종목={}, rows={}, 실패={}, {}ms",
+                generation, reason, version, entries.size(), rows, failed, System.currentTimeMillis() - started);
+
+        cleanupOldGenerations(generation);
+        for (LongConsumer listener : refreshListeners) {
+            try {
+                listener.accept(version);
+            } catch (Exception e) {
+                log.warn("MarketPriceStore 갱신 알림 실패: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * parquet 또는 종목 목록이 마지막 세대보다 새로우면 true
+     */
+    private boolean isStale(Snapshot s) {
+        if (listingModified() > s.builtAt) return true;
+        Path dataDir = loader.getDataDir();
+        if (!Files.isDirectory(dataDir)) return false;
+        try (Stream<Path> files = Files.list(dataDir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".parquet"))
+                    .anyMatch(p -> lastModified(p) > s.builtAt);
+        } catch (IOException e) {
+            log.warn("MarketPriceStore 변경 확인 실패: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /** 종목 목록 파일 수정 시각 (파일을 찾지 못하면 0) */
+    private long listingModified() {
+        try {
+            return lastModified(stockListService.getListingFile());
+        } catch (IOException e) {
+            log.debug("MarketPriceStore 종목 목록 파일 확인 실패: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private long latestGeneration() throws IOException {
+        long max = 0;
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(storePath, "gen-*")) {
+            for (Path p : dirs) {
+                try {
+                    max = Math.max(max, Long.parseLong(p.getFileName().toString().substring(4)));
+                } catch (NumberFormatException ignore) {
+                }
+            }
+        }
+        return max;
+    }
+
+    /**
+     * 현재 세대를 제외한 이전 세대 삭제. 아직 매핑이 남아 지워지지 않는 파일은 다음 번에 다시 시도.
+     */
+    private void cleanupOldGenerations(String keep) {
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(storePath, "gen-*")) {
+            for (Path p : dirs) {
+                if (p.getFileName().toString().equals(keep)) continue;
+                try {
+                    deleteRecursively(p);
+                } catch (IOException e) {
+                    log.debug("MarketPriceStore 이전 세대 삭제 보류: {} ({})", p, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.debug("MarketPriceStore 이전 세대 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    private static long lastModified(Path p) {
+        try {
+            return Files.getLastModifiedTime(p).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void writeAtomically(Path target, String content) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".part");
+        Files.writeString(tmp, content, StandardCharsets.UTF_8);
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            for (Path p : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    /** 구간 [lo, hi) 에서 key 이상인 첫 위치 */
+    private static int lowerBound(IntBuffer days, int lo, int hi, int key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (days.get(mid) < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // ------------------------------------------------------------------
+
+    /** 종목별 구간 (행 단위 offset) */
+    record Entry(String symbol, String name, int offset, int length) { }
+
+    /** index.json */
+    record Index(long version, long builtAt, int rows, List<Entry> entries) { }
+
+    /**
+     * 한 세대의 매핑된 컬럼과 종목 인덱스 (불변)
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(0, 0, 0, Map.of(),
+                IntBuffer.allocate(0), DoubleBuffer.allocate(0), DoubleBuffer.allocate(0),
+                DoubleBuffer.allocate(0), DoubleBuffer.allocate(0), LongBuffer.allocate(0), ClosePrefixSums.EMPTY);
+
+        final long version;
+        final long builtAt;
+        final int rows;
+        final Map<String, Entry> entries;
+        final IntBuffer days;
+        final DoubleBuffer open, high, low, close;
+        final LongBuffer volume;
+        final ClosePrefixSums prefix;
+
+        private Snapshot(long version, long builtAt, int rows, Map<String, Entry> entries, IntBuffer days,
+                         DoubleBuffer open, DoubleBuffer high, DoubleBuffer low, DoubleBuffer close, LongBuffer volume,
+                         ClosePrefixSums prefix) {
+            this.version = version;
+            this.builtAt = builtAt;
+            this.rows = rows;
+            this.entries = entries;
+            this.days = days;
+            this.open = open;
+            this.high = high;
+            this.low = low;
+            this.close = close;
+            this.volume = volume;
+            this.prefix = prefix;
+        }
+
+        static Snapshot open(Path dir, ObjectMapper mapper) throws IOException {
+            Index index = mapper.readValue(dir.resolve(INDEX_FILE).toFile(), new TypeReference<Index>() {});
+            Map<String, Entry> entries = new LinkedHashMap<>(index.entries().size() * 2);
+            for (Entry e : index.entries()) entries.put(e.symbol(), e);
+            int rows = index.rows();
+            DoubleBuffer close = map(dir.resolve(COLUMN_FILES[4]), rows, Double.BYTES).asDoubleBuffer();
+            // 누적합 컬럼이 없는 이전 형식 세대는 여기서 실패 → 새로 만듦
+            ClosePrefixSums prefix = new ClosePrefixSums(close,
+                    map(dir.resolve(PREFIX_FILES[0]), rows, Double.BYTES).asDoubleBuffer(),
+                    map(dir.resolve(PREFIX_FILES[1]), rows, Double.BYTES).asDoubleBuffer(),
+                    map(dir.resolve(PREFIX_FILES[2]), rows, Integer.BYTES).asIntBuffer());
+            return new Snapshot(index.version(), index.builtAt(), rows, entries,
+                    map(dir.resolve(COLUMN_FILES[0]), rows, Integer.BYTES).asIntBuffer(),
+                    map(dir.resolve(COLUMN_FILES[1]), rows, Double.BYTES).asDoubleBuffer(),
+                    map(dir.resolve(COLUMN_FILES[2]), rows, Double.BYTES).asDoubleBuffer(),
+                    map(dir.resolve(COLUMN_FILES[3]), rows, Double.BYTES).asDoubleBuffer(),
+                    close,
+                    map(dir.resolve(COLUMN_FILES[5]), rows, Long.BYTES).asLongBuffer(),
+                    prefix);
+        }
+
+        private static ByteBuffer map(Path file, int rows, int width) throws IOException {
+            long expected = (long) rows * width;
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (ch.size() != expected) {
+                    throw new IOException("컬럼 파일 크기 불일치: " + file + " (" + ch.size() + " != " + expected + ")");
+                }
+                // 채널을 닫아도 매핑은 GC 될 때까지 유지됨
+                return ch.map(FileChannel.MapMode.READ_ONLY, 0, expected).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+    }
+
+    /**
+     * little-endian 컬럼 파일 순차 쓰기
+     */
+    private static final class ColumnWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(256 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+
+        ColumnWriter(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void putInt(int v) throws IOException {
+            if (buf.remaining() < Integer.BYTES) flush();
+            buf.putInt(v);
+        }
+
+        void putLong(long v) throws IOException {
+            if (buf.remaining() < Long.BYTES) flush();
+            buf.putLong(v);
+        }
+
+        void putDouble(double v) throws IOException {
+            if (buf.remaining() < Double.BYTES) flush();
+            buf.putDouble(v);
+        }
+
+        private void flush() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) channel.write(buf);
+            buf.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+                channel.force(false);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.mybaselink.app.stock;
+
+import java.util.EnumSet;
+
+/**
+ * stock_data/{symbol}.parquet 의 시세 컬럼 (projection 지정용)
+ */
+public enum PriceColumn {
+    DATE("Date"),
+    OPEN("Open"),
+    HIGH("High"),
+    LOW("Low"),
+    CLOSE("Close"),
+    VOLUME("Volume");
+
+    /** OHLCV 전체 */
+    public static final EnumSet<PriceColumn> ALL = EnumSet.allOf(PriceColumn.class);
+
+    private final String parquetName;
+
+    PriceColumn(String parquetName) {
+        this.parquetName = parquetName;
+    }
+
+    /** update_stock_listing.py 가 저장하는 컬럼명 (FinanceDataReader 기준) */
+    public String getParquetName() {
+        return parquetName;
+    }
+}
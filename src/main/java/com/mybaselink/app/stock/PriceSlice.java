@@ -0,0 +1,133 @@
+package com.mybaselink.app.stock;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.time.LocalDate;
+
+/**
+ * ✅ PriceSlice
+ * --------------------------------------------------------
+ * {@link MarketPriceStore} 의 한 종목 구간 [offset, offset + length) 을 가리키는 읽기 전용 뷰.
+ *
+ * - 값은 복사하지 않고 memory-mapped 컬럼에서 바로 읽음
+ * - 만들어질 때의 스냅샷을 붙잡고 있으므로, 도중에 저장소가 갱신돼도 값이 바뀌지 않음
+ * - 배열이 필요하면 closes() 등으로 복사본을 받음
+ * - 구간 종가 평균·분산은 closeStats() 로 O(1) (저장소의 누적합 컬럼 사용)
+ * --------------------------------------------------------
+ */
+public final class PriceSlice {
+
+    private final String symbol;
+    private final long version;
+    private final int origin;
+    private final int offset;
+    private final int length;
+    private final IntBuffer days;
+    private final DoubleBuffer open;
+    private final DoubleBuffer high;
+    private final DoubleBuffer low;
+    private final DoubleBuffer close;
+    private final LongBuffer volume;
+    private final ClosePrefixSums prefix;
+
+    PriceSlice(String symbol, long version, int origin, int offset, int length, IntBuffer days,
+               DoubleBuffer open, DoubleBuffer high, DoubleBuffer low, DoubleBuffer close, LongBuffer volume,
+               ClosePrefixSums prefix) {
+        this.symbol = symbol;
+        this.version = version;
+        this.origin = origin;
+        this.offset = offset;
+        this.length = length;
+        this.days = days;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        this.prefix = prefix;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /** 이 구간을 읽은 저장소 버전 */
+    public long getVersion() {
+        return version;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public int epochDay(int i) { return days.get(index(i)); }
+    public LocalDate date(int i) { return LocalDate.ofEpochDay(epochDay(i)); }
+    public double open(int i) { return open.get(index(i)); }
+    public double high(int i) { return high.get(index(i)); }
+    public double low(int i) { return low.get(index(i)); }
+    public double close(int i) { return close.get(index(i)); }
+    public long volume(int i) { return volume.get(index(i)); }
+
+    /**
+     * 이 구간 종가의 개수·평균·분산 (NaN 제외). 구간 길이와 관계없이 O(1)
+     */
+    public CloseStats closeStats() {
+        return prefix.stats(origin, offset, offset + length);
+    }
+
+    /**
+     * 이 구간 안의 [from, to) 행 종가의 개수·평균·분산 (NaN 제외). O(1)
+     */
+    public CloseStats closeStats(int from, int to) {
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException("range [" + from + ", " + to + ") / length " + length);
+        }
+        return prefix.stats(origin, offset + from, offset + to);
+    }
+
+    public int[] epochDays() {
+        int[] out = new int[length];
+        days.get(offset, out, 0, length);
+        return out;
+    }
+
+    public double[] opens() { return copy(open); }
+    public double[] highs() { return copy(high); }
+    public double[] lows() { return copy(low); }
+    public double[] closes() { return copy(close); }
+
+    public long[] volumes() {
+        long[] out = new long[length];
+        volume.get(offset, out, 0, length);
+        return out;
+    }
+
+    /**
+     * 힙 배열로 복사한 {@link StockPriceSeries}
+     */
+    public StockPriceSeries toSeries() {
+        return new StockPriceSeries(symbol, length, epochDays(), opens(), highs(), lows(), closes(), volumes());
+    }
+
+    private double[] copy(DoubleBuffer column) {
+        double[] out = new double[length];
+        column.get(offset, out, 0, length);
+        return out;
+    }
+
+    private int index(int i) {
+        if (i < 0 || i >= length) throw new IndexOutOfBoundsException("index " + i + " / length " + length);
+        return offset + i;
+    }
+
+    @Override
+    public String toString() {
+        return "PriceSlice{" + symbol + ", v" + version + ", rows=" + length
+                + (length > 0 ? ", " + date(0) + " ~ " + date(length - 1) : "") + "}";
+    }
+}
@@ -0,0 +1,328 @@
+package com.mybaselink.app.stock;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * ✅ StockListTable
+ * --------------------------------------------------------
+ * 종목 목록 정렬·범위 조건용 컬럼 표 (목록 스냅샷마다 한 번 만듦, 불변)
+ *
+ * - 숫자 칸은 컬럼마다 double 배열 (값이 없으면 NaN), 위치 = id - 1
+ * - 컬럼마다 오름차순 정렬 순서(perm)와 순위(rank, 같은 값은 같은 순위)를 미리 만들어 둠
+ * - 조회는 첫 정렬 컬럼의 perm 을 앞(오름차순)이나 뒤(내림차순)부터 걸으며 조건에 맞는 종목만 세고,
+ *   페이지 범위에 드는 것만 담음. 첫 컬럼 값이 같은 묶음만 다음 정렬 컬럼의 rank 로 정렬
+ * - 값이 없는 종목은 정렬 방향과 관계없이 맨 뒤, 범위 조건이 있으면 제외
+ * --------------------------------------------------------
+ */
+public final class StockListTable {
+
+    /** 정렬·범위 조건에 쓸 수 있는 컬럼 (이름은 JSON 키, 대소문자 무관) */
+    public enum Column {
+        CODE(false, StockListing::code),
+        NAME(false, StockListing::name),
+        MARKET(false, StockListing::market),
+        DEPT(false, StockListing::dept),
+        CLOSE(true, StockListing::close),
+        CHANGES(true, StockListing::changes),
+        RATIO(true, StockListing::changesRatio, "chagesratio", "changesratio"),
+        OPEN(true, StockListing::open),
+        HIGH(true, StockListing::high),
+        LOW(true, StockListing::low),
+        VOLUME(true, StockListing::volume),
+        AMOUNT(true, StockListing::amount),
+        MARCAP(true, StockListing::marcap),
+        STOCKS(true, StockListing::stocks);
+
+        private final boolean numeric;
+        private final Function<StockListing, Object> value;
+        private final List<String> aliases;
+
+        Column(boolean numeric, Function<StockListing, Object> value, String... aliases) {
+            this.numeric = numeric;
+            this.value = value;
+            this.aliases = List.of(aliases);
+        }
+
+        public boolean isNumeric() {
+            return numeric;
+        }
+
+        /** "Marcap", "ChagesRatio", "ratio" 처럼 JSON 키나 별칭으로 찾음 */
+        public static Column of(String name) {
+            Column c = find(name);
+            if (c == null) throw new IllegalArgumentException("알 수 없는 컬럼: " + name);
+            return c;
+        }
+
+        /** {@link #of} 와 같되, 없는 이름이면 null */
+        static Column find(String name) {
+            String key = name.trim().toLowerCase(Locale.ROOT);
+            for (Column c : values()) {
+                if (c.name().toLowerCase(Locale.ROOT).equals(key) || c.aliases.contains(key)) return c;
+            }
+            return null;
+        }
+    }
+
+    /** 정렬 조건 하나 */
+    public record SortKey(Column column, boolean descending) { }
+
+    /** 범위 조건 하나 ([min, max], 양 끝 포함, 없는 쪽은 무한대) */
+    public record Range(Column column, double min, double max) {
+        public Range {
+            if (!column.isNumeric()) throw new IllegalArgumentException("숫자 컬럼만 범위 조건을 쓸 수 있습니다: " + column);
+            if (min > max) throw new IllegalArgumentException("범위가 비어 있습니다: " + column + " " + min + " ~ " + max);
+        }
+    }
+
+    /** 한 페이지와 조건에 맞는 전체 건수 */
+    public record Page(List<StockListing> content, int total) { }
+
+    private final List<StockListing> listings;
+    private final double[][] numbers;
+    private final int[][] perm;
+    private final int[][] rank;
+    /** 값이 있는 종목 수 (perm 에서 이 위치 뒤는 값 없음) */
+    private final int[] present;
+
+    /**
+     * @param listings id 순 종목 목록 (위치 = id - 1)
+     */
+    public StockListTable(List<StockListing> listings) {
+        this.listings = listings;
+        int n = listings.size();
+        Column[] columns = Column.values();
+        this.numbers = new double[columns.length][];
+        this.perm = new int[columns.length][];
+        this.rank = new int[columns.length][];
+        this.present = new int[columns.length];
+
+        for (Column c : columns) {
+            int ci = c.ordinal();
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) order[i] = i;
+            Comparator<Integer> cmp;
+            if (c.numeric) {
+                double[] v = new double[n];
+                for (int i = 0; i < n; i++) v[i] = toDouble(c.value.apply(listings.get(i)));
+                numbers[ci] = v;
+                cmp = (a, b) -> Double.compare(v[a], v[b]);
+                // NaN 은 Double.compare 상 가장 큼 → 오름차순 perm 의 맨 뒤
+            } else {
+                String[] v = new String[n];
+                for (int i = 0; i < n; i++) {
+                    Object o = c.value.apply(listings.get(i));
+                    v[i] = o == null || o.toString().isEmpty() ? null : o.toString();
+                }
+                cmp = (a, b) -> v[a] == null ? (v[b] == null ? 0 : 1) : v[b] == null ? -1 : v[a].compareTo(v[b]);
+            }
+            Arrays.sort(order, cmp.thenComparingInt(i -> i));
+
+            int[] p = new int[n];
+            int[] r = new int[n];
+            int count = 0;
+            for (int j = 0; j < n; j++) {
+                p[j] = order[j];
+                r[order[j]] = j > 0 && cmp.compare(order[j - 1], order[j]) == 0 ? r[order[j - 1]] : j;
+                if (!isMissing(c, order[j], numbers[ci], listings)) count++;
+            }
+            perm[ci] = p;
+            rank[ci] = r;
+            present[ci] = count;
+        }
+    }
+
+    /**
+     * @param matches 검색어에 맞는 종목 (이 표를 만든 목록의 부분집합)
+     * @param sort    정렬 조건 (앞이 우선, 비면 matches 순서 그대로)
+     * @param ranges  범위 조건 (모두 만족)
+     * @param offset  건너뛸 건수
+     * @param limit   담을 최대 건수
+     */
+    public Page query(List<StockListing> matches, List<SortKey> sort, List<Range> ranges, int offset, int limit) {
+        int n = listings.size();
+        boolean[] allowed = null;
+        if (matches.size() < n) {
+            allowed = new boolean[n];
+            for (StockListing s : matches) allowed[s.id() - 1] = true;
+        }
+        int from = Math.max(0, offset);
+        long to = (long) from + Math.max(0, limit);
+        List<StockListing> content = new ArrayList<>();
+        int total = 0;
+
+        if (sort.isEmpty()) {
+            // 정렬 조건이 없으면 검색 결과(순위 순)를 그대로 걸음
+            for (StockListing s : matches) {
+                if (!accept(s.id() - 1, ranges)) continue;
+                if (total >= from && total < to) content.add(s);
+                total++;
+            }
+            return new Page(content, total);
+        }
+
+        SortKey primary = sort.get(0);
+        int ci = primary.column().ordinal();
+        int[] p = perm[ci];
+        int[] r = rank[ci];
+        int count = present[ci];
+        int[] group = new int[n];
+
+        // 값 있는 구간을 정렬 방향대로, 그 뒤에 값 없는 구간
+        int j = 0;
+        while (j < n) {
+            int pos = j < count ? (primary.descending() ? count - 1 - j : j) : j;
+            // 같은 순위 묶음 모으기
+            int groupRank = r[p[pos]];
+            int size = 0;
+            int k = j;
+            while (k < n) {
+                int q = k < count ? (primary.descending() ? count - 1 - k : k) : k;
+                if (r[p[q]] != groupRank || (k < count) != (j < count)) break;
+                int i = p[q];
+                if ((allowed == null || allowed[i]) && accept(i, ranges)) group[size++] = i;
+                k++;
+            }
+            if (size > 0 && total + size > from && total < to) {
+                if (size > 1) sortGroup(group, size, sort);
+                for (int g = 0; g < size; g++) {
+                    if (total + g >= from && total + g < to) content.add(listings.get(group[g]));
+                }
+            }
+            total += size;
+            j = k;
+        }
+        return new Page(content, total);
+    }
+
+    /** 첫 정렬 컬럼 값이 같은 묶음을 나머지 정렬 컬럼 순위로 정렬 (끝까지 같으면 id 순) */
+    private void sortGroup(int[] group, int size, List<SortKey> sort) {
+        if (sort.size() == 1) {
+            Arrays.sort(group, 0, size);
+            return;
+        }
+        Integer[] boxed = new Integer[size];
+        for (int g = 0; g < size; g++) boxed[g] = group[g];
+        Comparator<Integer> cmp = null;
+        for (SortKey key : sort.subList(1, sort.size())) {
+            int[] r = rank[key.column().ordinal()];
+            double[] v = numbers[key.column().ordinal()];
+            Comparator<Integer> byRank = key.descending()
+                    ? (a, b) -> Integer.compare(r[b], r[a])
+                    : (a, b) -> Integer.compare(r[a], r[b]);
+            // 값 없는 종목은 내림차순이어도 뒤
+            Comparator<Integer> c = Comparator.<Integer, Boolean>comparing(i -> isMissing(key.column(), i, v, listings))
+                    .thenComparing(byRank);
+            cmp = cmp == null ? c : cmp.thenComparing(c);
+        }
+        Arrays.sort(boxed, cmp.thenComparingInt(i -> i));
+        for (int g = 0; g < size; g++) group[g] = boxed[g];
+    }
+
+    private boolean accept(int i, List<Range> ranges) {
+        for (Range range : ranges) {
+            double v = numbers[range.column().ordinal()][i];
+            // NaN 은 어느 비교도 만족하지 않으므로 제외됨
+            if (!(v >= range.min() && v <= range.max())) return false;
+        }
+        return true;
+    }
+
+    private static boolean isMissing(Column c, int i, double[] v, List<StockListing> listings) {
+        if (c.numeric) return Double.isNaN(v[i]);
+        Object o = c.value.apply(listings.get(i));
+        return o == null || o.toString().isEmpty();
+    }
+
+    private static double toDouble(Object o) {
+        if (o instanceof Number n) return n.doubleValue();
+        if (o == null) return Double.NaN;
+        try {
+            return Double.parseDouble(o.toString().replace(",", "").trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    // =====================================
+    // 🔹 요청 파라미터 해석
+    // =====================================
+
+    /**
+     * "Marcap:desc,Volume" 처럼 쉼표로 구분한 정렬 조건 (방향 생략 시 오름차순)
+     */
+    public static List<SortKey> parseSort(List<String> specs) {
+        List<SortKey> keys = new ArrayList<>();
+        if (specs == null) return keys;
+        for (String spec : specs) {
+            for (String part : spec.split(",")) {
+                if (part.isBlank()) continue;
+                String[] kv = part.split(":", 2);
+                boolean desc = false;
+                if (kv.length == 2) {
+                    String dir = kv[1].trim().toLowerCase(Locale.ROOT);
+                    if (dir.equals("desc")) desc = true;
+                    else if (!dir.equals("asc")) throw new IllegalArgumentException("정렬 방향은 asc 또는 desc: " + part);
+                }
+                keys.add(new SortKey(Column.of(kv[0]), desc));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 요청 파라미터 중 "{컬럼}Min", "{컬럼}Max", "{컬럼}Between=최소,최대" 를 범위 조건으로
+     * (예: marcapMin=1e12, volumeMin=100000, ratioBetween=-3,3)
+     * - 앞부분이 숫자 컬럼 이름이 아닌 파라미터(pageMin 등)는 범위 조건이 아니므로 무시
+     * - 값은 유한한 숫자만 받음 (NaN, Infinity, 1e400 처럼 넘치는 값은 오류)
+     */
+    public static List<Range> parseRanges(Map<String, String> params) {
+        Map<Column, double[]> bounds = new EnumMap<>(Column.class);
+        for (Map.Entry<String, String> e : params.entrySet()) {
+            String name = e.getKey();
+            String value = e.getValue();
+            if (value == null || value.isBlank()) continue;
+            String column;
+            int side;
+            if (name.endsWith("Min")) {
+                column = name.substring(0, name.length() - 3);
+                side = 0;
+            } else if (name.endsWith("Max")) {
+                column = name.substring(0, name.length() - 3);
+                side = 1;
+            } else if (name.endsWith("Between")) {
+                column = name.substring(0, name.length() - 7);
+                side = 2;
+            } else {
+                continue;
+            }
+            Column c = Column.find(column);
+            if (c == null || !c.isNumeric()) continue;
+            double[] b = bounds.computeIfAbsent(c, k -> new double[]{Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY});
+            if (side == 2) {
+                String[] parts = value.split(",", -1);
+                if (parts.length != 2) throw new IllegalArgumentException(name + " 는 \"최소,최대\" 형식이어야 합니다");
+                if (!parts[0].isBlank()) b[0] = Math.max(b[0], parseNumber(name, parts[0]));
+                if (!parts[1].isBlank()) b[1] = Math.min(b[1], parseNumber(name, parts[1]));
+            } else if (side == 0) {
+                b[0] = Math.max(b[0], parseNumber(name, value));
+            } else {
+                b[1] = Math.min(b[1], parseNumber(name, value));
+            }
+        }
+        List<Range> ranges = new ArrayList<>();
+        bounds.forEach((c, b) -> ranges.add(new Range(c, b[0], b[1])));
+        return ranges;
+    }
+
+    private static double parseNumber(String name, String value) {
+        try {
+            double v = Double.parseDouble(value.trim());
+            if (!Double.isFinite(v)) throw new NumberFormatException();
+            return v;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " 값이 숫자가 아닙니다: " + value);
+        }
+    }
+}
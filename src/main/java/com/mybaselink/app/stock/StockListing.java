@@ -0,0 +1,81 @@
+package com.mybaselink.app.stock;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * stock_listing.json 한 종목 (KRX 상장 목록 한 행)
+ * <p>
+ * JSON 키 이름 그대로 직렬화되므로 /api/stock/list 응답 모양은 예전 Map 과 같음.
+ * 숫자 칸은 값이 비어 있을 수 있어 박싱 타입을 씀 ("ChagesRatio" 는 원본 철자 그대로).
+ * 아래에 없는 키(update_stock_listing.py 가 새로 넣은 칸 등)는 버리지 않고 extra 에 담아 응답에 그대로 내보냄
+ */
+public record StockListing(
+        @JsonProperty("Code") String code,
+        @JsonProperty("ISU_CD") String isuCd,
+        @JsonProperty("Name") String name,
+        @JsonProperty("Market") String market,
+        @JsonProperty("Dept") String dept,
+        @JsonProperty("Close") String close,
+        @JsonProperty("ChangeCode") String changeCode,
+        @JsonProperty("Changes") Long changes,
+        @JsonProperty("ChagesRatio") Double changesRatio,
+        @JsonProperty("Open") Long open,
+        @JsonProperty("High") Long high,
+        @JsonProperty("Low") Long low,
+        @JsonProperty("Volume") Long volume,
+        @JsonProperty("Amount") Long amount,
+        @JsonProperty("Marcap") Long marcap,
+        @JsonProperty("Stocks") Long stocks,
+        @JsonProperty("MarketId") String marketId,
+        @JsonProperty("Date") String date,
+        @JsonProperty("id") int id,
+        @JsonAnySetter @JsonAnyGetter Map<String, Object> extra) {
+
+    public StockListing {
+        extra = extra == null || extra.isEmpty() ? Map.of() : Collections.unmodifiableMap(new LinkedHashMap<>(extra));
+    }
+
+    /**
+     * id 를 붙이고, 종목마다 되풀이되는 문자열(시장, 소속부, 등락 구분, 기준일)을 intern 으로 공유한 사본
+     */
+    public StockListing compact(int id, UnaryOperator<String> intern) {
+        return new StockListing(code, isuCd, name, intern.apply(market), intern.apply(dept), close,
+                intern.apply(changeCode), changes, changesRatio, open, high, low, volume, amount, marcap, stocks,
+                intern.apply(marketId), intern.apply(date), id, extra);
+    }
+
+    /**
+     * 예전 getStockList() 와 같은 키 순서의 Map (알려지지 않은 키는 id 앞에)
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("Code", code);
+        map.put("ISU_CD", isuCd);
+        map.put("Name", name);
+        map.put("Market", market);
+        map.put("Dept", dept);
+        map.put("Close", close);
+        map.put("ChangeCode", changeCode);
+        map.put("Changes", changes);
+        map.put("ChagesRatio", changesRatio);
+        map.put("Open", open);
+        map.put("High", high);
+        map.put("Low", low);
+        map.put("Volume", volume);
+        map.put("Amount", amount);
+        map.put("Marcap", marcap);
+        map.put("Stocks", stocks);
+        map.put("MarketId", marketId);
+        map.put("Date", date);
+        map.putAll(extra);
+        map.put("id", id);
+        return map;
+    }
+}
@@ -0,0 +1,231 @@
+package com.mybaselink.app.stock;
+
+import com.mybaselink.app.parquet.ParquetFileReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * ✅ StockParquetLoader
+ * --------------------------------------------------------
+ * update_stock_listing.py 가 저장한 stock_data/{symbol}.parquet 을 pandas 없이 Java 에서 직접 읽습니다.
+ *
+ * - projection: 요청한 컬럼만 디코딩 (예: Close 만)
+ * - 날짜 범위 pushdown: row group 통계로 범위 밖 row group 을 건너뛰고,
+ *   범위 안에서는 Date 컬럼을 이분 탐색해 필요한 행 구간만 읽음
+ * - 결과는 {@link StockPriceSeries} (primitive 배열)
+ * --------------------------------------------------------
+ */
+@Component
+public class StockParquetLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(StockParquetLoader.class);
+
+    private static final Pattern SYMBOL_PATTERN = Pattern.compile("[0-9A-Za-z._-]+");
+
+    /** pandas 가 DatetimeIndex 를 저장할 때 쓰는 컬럼명 후보 */
+    private static final List<String> DATE_COLUMN_CANDIDATES = List.of("Date", "date", "__index_level_0__", "index");
+
+    @Value("${python.stock.data.dir:${python.working.dir}/stock_data}")
+    private String stockDataDir;
+
+    public Path getDataDir() {
+        return Paths.get(stockDataDir);
+    }
+
+    public Path pathOf(String symbol) {
+        if (symbol == null || !SYMBOL_PATTERN.matcher(symbol).matches() || symbol.startsWith(".")) {
+            throw new IllegalArgumentException("잘못된 종목 코드: " + symbol);
+        }
+        return Paths.get(stockDataDir).resolve(symbol + ".parquet");
+    }
+
+    public boolean exists(String symbol) {
+        return Files.isRegularFile(pathOf(symbol));
+    }
+
+    /**
+     * 전체 기간 OHLCV 를 읽습니다.
+     */
+    public StockPriceSeries load(String symbol) throws IOException {
+        return load(symbol, PriceColumn.ALL, null, null);
+    }
+
+    /**
+     * @param symbol  종목 코드
+     * @param columns 읽을 컬럼 (DATE 를 빼도 날짜 범위 필터에는 Date 컬럼이 사용됨)
+     * @param from    시작일 (포함, null 이면 처음부터)
+     * @param to      종료일 (포함, null 이면 끝까지)
+     */
+    public StockPriceSeries load(String symbol, EnumSet<PriceColumn> columns, LocalDate from, LocalDate to)
+            throws IOException {
+        Path path = pathOf(symbol);
+        if (!Files.isRegularFile(path)) {
+            throw new NoSuchFileException(path.toString(), null, "종목 시세 파일이 없습니다.");
+        }
+        int fromDay = from == null ? Integer.MIN_VALUE : (int) from.toEpochDay();
+        int toDay = to == null ? Integer.MAX_VALUE : (int) to.toEpochDay();
+        boolean ranged = from != null || to != null;
+
+        try (ParquetFileReader reader = ParquetFileReader.open(path)) {
+            String dateColumn = findDateColumn(reader);
+            if (dateColumn == null && (ranged || columns.contains(PriceColumn.DATE))) {
+                throw new IOException("Date 컬럼을 찾을 수 없습니다: " + path + " " + reader.getColumnNames());
+            }
+            String[] names = new String[PriceColumn.values().length];
+            for (PriceColumn c : columns) {
+                names[c.ordinal()] = c == PriceColumn.DATE ? dateColumn : resolveColumn(reader, c);
+            }
+
+            Columns out = new Columns(columns, (int) Math.min(reader.getNumRows(), Integer.MAX_VALUE));
+            for (int rg = 0; rg < reader.getRowGroupCount(); rg++) {
+                int rows = (int) reader.getRowGroupNumRows(rg);
+                if (rows == 0) continue;
+                if (!ranged) {
+                    readRows(reader, rg, names, 0, rows, out);
+                    continue;
+                }
+                int[] stats = reader.getEpochDayRange(rg, dateColumn);
+                if (stats != null && (stats[1] < fromDay || stats[0] > toDay)) {
+                    continue; // 범위 밖 row group
+                }
+                int[] days = reader.readEpochDays(rg, dateColumn, 0, rows);
+                if (isAscending(days)) {
+                    int lo = lowerBound(days, fromDay);
+                    int hi = toDay == Integer.MAX_VALUE ? rows : lowerBound(days, toDay + 1);
+                    if (lo < hi) readRows(reader, rg, names, lo, hi, out);
+                } else {
+                    // 정렬되지 않은 파일은 row group 전체를 읽어 걸러냄
+                    Columns all = new Columns(columns, rows);
+                    readRows(reader, rg, names, 0, rows, all);
+                    for (int i = 0; i < rows; i++) {
+                        if (days[i] >= fromDay && days[i] <= toDay) out.appendRow(all, i);
+                    }
+                }
+            }
+            log.debug("parquet 로드: {} rows={} columns={} ({} ~ {})", symbol, out.size, columns, from, to);
+            return out.toSeries(symbol);
+        }
+    }
+
+    private static void readRows(ParquetFileReader reader, int rg, String[] names, int from, int to, Columns out)
+            throws IOException {
+        int n = to - from;
+        out.ensureCapacity(out.size + n);
+        if (names[PriceColumn.DATE.ordinal()] != null) {
+            System.arraycopy(reader.readEpochDays(rg, names[PriceColumn.DATE.ordinal()], from, to), 0, out.days, out.size, n);
+        }
+        copy(reader, rg, names[PriceColumn.OPEN.ordinal()], from, to, out.open, out.size);
+        copy(reader, rg, names[PriceColumn.HIGH.ordinal()], from, to, out.high, out.size);
+        copy(reader, rg, names[PriceColumn.LOW.ordinal()], from, to, out.low, out.size);
+        copy(reader, rg, names[PriceColumn.CLOSE.ordinal()], from, to, out.close, out.size);
+        if (names[PriceColumn.VOLUME.ordinal()] != null) {
+            System.arraycopy(reader.readLongs(rg, names[PriceColumn.VOLUME.ordinal()], from, to, 0L), 0, out.volume, out.size, n);
+        }
+        out.size += n;
+    }
+
+    private static void copy(ParquetFileReader reader, int rg, String name, int from, int to, double[] dest, int offset)
+            throws IOException {
+        if (name == null) return;
+        System.arraycopy(reader.readDoubles(rg, name, from, to), 0, dest, offset, to - from);
+    }
+
+    private static String findDateColumn(ParquetFileReader reader) {
+        for (String candidate : DATE_COLUMN_CANDIDATES) {
+            if (reader.hasColumn(candidate) && reader.isTimeColumn(candidate)) return candidate;
+        }
+        for (String name : reader.getColumnNames()) {
+            if (reader.isTimeColumn(name)) return name;
+        }
+        return null;
+    }
+
+    private static String resolveColumn(ParquetFileReader reader, PriceColumn column) throws IOException {
+        String expected = column.getParquetName();
+        if (reader.hasColumn(expected)) return expected;
+        for (String name : reader.getColumnNames()) {
+            if (name.toLowerCase(Locale.ROOT).equals(expected.toLowerCase(Locale.ROOT))) return name;
+        }
+        throw new IOException(expected + " 컬럼이 없습니다: " + reader.getPath() + " " + reader.getColumnNames());
+    }
+
+    private static boolean isAscending(int[] days) {
+        for (int i = 1; i < days.length; i++) {
+            if (days[i] < days[i - 1]) return false;
+        }
+        return true;
+    }
+
+    /** key 이상인 첫 인덱스 */
+    private static int lowerBound(int[] days, int key) {
+        int lo = 0, hi = days.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (days[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * row group 단위로 이어 붙이는 컬럼 버퍼
+     */
+    private static final class Columns {
+        int[] days;
+        double[] open, high, low, close;
+        long[] volume;
+        int size;
+
+        Columns(EnumSet<PriceColumn> columns, int capacity) {
+            if (columns.contains(PriceColumn.DATE)) days = new int[capacity];
+            if (columns.contains(PriceColumn.OPEN)) open = new double[capacity];
+            if (columns.contains(PriceColumn.HIGH)) high = new double[capacity];
+            if (columns.contains(PriceColumn.LOW)) low = new double[capacity];
+            if (columns.contains(PriceColumn.CLOSE)) close = new double[capacity];
+            if (columns.contains(PriceColumn.VOLUME)) volume = new long[capacity];
+        }
+
+        void ensureCapacity(int n) {
+            if (days != null && days.length < n) days = Arrays.copyOf(days, n);
+            if (open != null && open.length < n) open = Arrays.copyOf(open, n);
+            if (high != null && high.length < n) high = Arrays.copyOf(high, n);
+            if (low != null && low.length < n) low = Arrays.copyOf(low, n);
+            if (close != null && close.length < n) close = Arrays.copyOf(close, n);
+            if (volume != null && volume.length < n) volume = Arrays.copyOf(volume, n);
+        }
+
+        void appendRow(Columns src, int i) {
+            ensureCapacity(size + 1);
+            if (days != null) days[size] = src.days[i];
+            if (open != null) open[size] = src.open[i];
+            if (high != null) high[size] = src.high[i];
+            if (low != null) low[size] = src.low[i];
+            if (close != null) close[size] = src.close[i];
+            if (volume != null) volume[size] = src.volume[i];
+            size++;
+        }
+
+        StockPriceSeries toSeries(String symbol) {
+            return new StockPriceSeries(symbol, size,
+                    trim(days), trim(open), trim(high), trim(low), trim(close), trim(volume));
+        }
+
+        private int[] trim(int[] a) { return a == null || a.length == size ? a : Arrays.copyOf(a, size); }
+        private double[] trim(double[] a) { return a == null || a.length == size ? a : Arrays.copyOf(a, size); }
+        private long[] trim(long[] a) { return a == null || a.length == size ? a : Arrays.copyOf(a, size); }
+    }
+}
@@ -0,0 +1,92 @@
+package com.mybaselink.app.stock;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * ✅ StockPriceSeries
+ * --------------------------------------------------------
+ * 한 종목의 일봉 시세를 컬럼별 primitive 배열로 보관합니다.
+ *
+ * - 날짜는 epoch day(int), 가격은 double, 거래량은 long
+ * - projection 으로 읽지 않은 컬럼은 null
+ * - 배열은 복사 없이 그대로 노출하므로 읽기 전용으로만 사용해야 합니다.
+ * --------------------------------------------------------
+ */
+public final class StockPriceSeries {
+
+    private final String symbol;
+    private final int length;
+    private final int[] epochDays;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final long[] volume;
+
+    public StockPriceSeries(String symbol, int length, int[] epochDays,
+                            double[] open, double[] high, double[] low, double[] close, long[] volume) {
+        this.symbol = symbol;
+        this.length = length;
+        this.epochDays = epochDays;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /** 행(거래일) 수 */
+    public int length() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public int[] getEpochDays() { return epochDays; }
+    public double[] getOpen() { return open; }
+    public double[] getHigh() { return high; }
+    public double[] getLow() { return low; }
+    public double[] getClose() { return close; }
+    public long[] getVolume() { return volume; }
+
+    public boolean has(PriceColumn column) {
+        return switch (column) {
+            case DATE -> epochDays != null;
+            case OPEN -> open != null;
+            case HIGH -> high != null;
+            case LOW -> low != null;
+            case CLOSE -> close != null;
+            case VOLUME -> volume != null;
+        };
+    }
+
+    public LocalDate dateAt(int index) {
+        if (epochDays == null) throw new IllegalStateException("Date 컬럼을 읽지 않았습니다: " + symbol);
+        return LocalDate.ofEpochDay(epochDays[index]);
+    }
+
+    /**
+     * date 이상인 첫 행의 인덱스 (날짜 오름차순 전제). 모두 date 보다 이전이면 length().
+     */
+    public int lowerBound(LocalDate date) {
+        if (epochDays == null) throw new IllegalStateException("Date 컬럼을 읽지 않았습니다: " + symbol);
+        int key = (int) date.toEpochDay();
+        int i = Arrays.binarySearch(epochDays, 0, length, key);
+        if (i < 0) return -i - 1;
+        while (i > 0 && epochDays[i - 1] == key) i--;
+        return i;
+    }
+
+    @Override
+    public String toString() {
+        return "StockPriceSeries{" + symbol + ", rows=" + length
+                + (length > 0 && epochDays != null ? ", " + dateAt(0) + " ~ " + dateAt(length - 1) : "") + "}";
+    }
+}
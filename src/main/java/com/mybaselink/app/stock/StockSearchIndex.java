@@ -0,0 +1,215 @@
+package com.mybaselink.app.stock;
+
+import java.util.*;
+
+/**
+ * ✅ StockSearchIndex
+ * --------------------------------------------------------
+ * 종목 목록 검색용 역색인 (목록 스냅샷마다 한 번 만듦, 불변)
+ *
+ * - 종목코드·회사명·업종·시장을 소문자로 바꿔 필드마다 글자 2개짜리 조각(bigram)과 글자 1개 → 종목 비트셋
+ * - 회사명의 초성 문자열(삼성전자 → ㅅㅅㅈㅈ)도 같은 방식으로 색인해, 초성만 친 검색어는 초성으로 찾음
+ * - 검색은 검색어 조각들의 비트셋 교집합으로 후보를 좁힌 뒤, 후보만 실제 포함 여부를 확인
+ *   (결과는 예전 "네 필드 중 하나에 포함" 과 같음)
+ * - 비트 번호를 순위(시가총액 등) 순으로 매겨 두어, 비트를 앞에서부터 읽으면 그대로 순위 순
+ * --------------------------------------------------------
+ */
+public final class StockSearchIndex {
+
+    /** 결과 정렬 기준 */
+    public enum Rank {
+        /** 파일 순서 (id) */
+        ID(Comparator.comparingInt(StockListing::id)),
+        /** 시가총액 큰 순 */
+        MARCAP(Comparator.comparing(StockListing::marcap, Comparator.nullsLast(Comparator.reverseOrder()))),
+        /** 거래대금 큰 순 */
+        AMOUNT(Comparator.comparing(StockListing::amount, Comparator.nullsLast(Comparator.reverseOrder()))),
+        /** 종목코드 순 */
+        CODE(Comparator.comparing(StockListing::code, Comparator.nullsLast(Comparator.naturalOrder()))),
+        /** 회사명 가나다 순 */
+        NAME(Comparator.comparing(StockListing::name, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        private final Comparator<StockListing> order;
+
+        Rank(Comparator<StockListing> order) {
+            this.order = order.thenComparingInt(StockListing::id);
+        }
+
+        public Comparator<StockListing> comparator() {
+            return order;
+        }
+
+        /** "marcap" 처럼 대소문자 무관한 이름으로 찾음 */
+        public static Rank of(String name) {
+            return Rank.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static final char[] CHOSUNG = {
+            'ㄱ', 'ㄲ', 'ㄴ', 'ㄷ', 'ㄸ', 'ㄹ', 'ㅁ', 'ㅂ', 'ㅃ', 'ㅅ', 'ㅆ', 'ㅇ', 'ㅈ', 'ㅉ', 'ㅊ', 'ㅋ', 'ㅌ', 'ㅍ', 'ㅎ'
+    };
+    private static final char HANGUL_FIRST = '가';
+    private static final char HANGUL_LAST = '힣';
+    /** 한 초성 아래 음절 수 (중성 21 × 종성 28) */
+    private static final int SYLLABLES_PER_CHOSUNG = 21 * 28;
+
+    private final Rank rank;
+    /** 순위 순 종목 (비트 번호 = 위치) */
+    private final List<StockListing> ranked;
+    /** 필드별 소문자 값을 줄바꿈으로 이은 확인용 키 */
+    private final String[] keys;
+    /** 회사명 초성 키 */
+    private final String[] chosungKeys;
+    private final Map<Integer, long[]> grams;
+    private final Map<Integer, long[]> chosungGrams;
+    private final int words;
+
+    public StockSearchIndex(List<StockListing> listings, Rank rank) {
+        this.rank = rank;
+        List<StockListing> sorted = new ArrayList<>(listings);
+        sorted.sort(rank.order);
+        this.ranked = Collections.unmodifiableList(sorted);
+        this.words = (sorted.size() + 63) >>> 6;
+        this.keys = new String[sorted.size()];
+        this.chosungKeys = new String[sorted.size()];
+        this.grams = new HashMap<>();
+        this.chosungGrams = new HashMap<>();
+
+        for (int i = 0; i < sorted.size(); i++) {
+            StockListing s = sorted.get(i);
+            String[] fields = {lower(s.code()), lower(s.name()), lower(s.dept()), lower(s.market())};
+            for (String field : fields) addGrams(grams, field, i);
+            keys[i] = String.join("\n", fields);
+            chosungKeys[i] = chosung(lower(s.name()));
+            addGrams(chosungGrams, chosungKeys[i], i);
+        }
+    }
+
+    public Rank getRank() {
+        return rank;
+    }
+
+    public int size() {
+        return ranked.size();
+    }
+
+    /** 순위 순 전체 목록 (읽기 전용) */
+    public List<StockListing> all() {
+        return ranked;
+    }
+
+    /**
+     * 종목코드·회사명·업종·시장 중 하나에 검색어가 들어가거나(대소문자 무시),
+     * 초성만으로 된 검색어가 회사명 초성에 들어가는 종목 (순위 순)
+     */
+    public List<StockListing> search(String query) {
+        if (query == null || query.isBlank()) return ranked;
+        String q = query.toLowerCase(Locale.ROOT);
+
+        long[] hits = match(grams, keys, q);
+        if (isChosungQuery(q)) {
+            long[] chosungHits = match(chosungGrams, chosungKeys, q);
+            if (hits == null) {
+                hits = chosungHits;
+            } else if (chosungHits != null) {
+                for (int w = 0; w < words; w++) hits[w] |= chosungHits[w];
+            }
+        }
+        if (hits == null) return List.of();
+
+        List<StockListing> result = new ArrayList<>();
+        for (int w = 0; w < words; w++) {
+            long word = hits[w];
+            while (word != 0) {
+                result.add(ranked.get((w << 6) + Long.numberOfTrailingZeros(word)));
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 조각 비트셋 교집합 → 실제 포함 확인
+     *
+     * @return 맞는 종목 비트셋 (하나도 없으면 null)
+     */
+    private long[] match(Map<Integer, long[]> index, String[] targets, String q) {
+        long[] hits = null;
+        if (q.length() == 1) {
+            long[] posting = index.get(unigram(q.charAt(0)));
+            if (posting == null) return null;
+            return posting.clone();
+        }
+        for (int i = 0; i + 1 < q.length(); i++) {
+            long[] posting = index.get(bigram(q.charAt(i), q.charAt(i + 1)));
+            if (posting == null) return null;
+            if (hits == null) {
+                hits = posting.clone();
+            } else {
+                for (int w = 0; w < words; w++) hits[w] &= posting[w];
+            }
+        }
+        // 조각이 모두 있어도 이어져 있는지는 모르므로 후보만 확인
+        boolean any = false;
+        for (int w = 0; w < words; w++) {
+            long word = hits[w];
+            while (word != 0) {
+                long bit = word & -word;
+                int i = (w << 6) + Long.numberOfTrailingZeros(word);
+                if (!targets[i].contains(q)) hits[w] &= ~bit;
+                word &= word - 1;
+            }
+            any |= hits[w] != 0;
+        }
+        return any ? hits : null;
+    }
+
+    private void addGrams(Map<Integer, long[]> index, String text, int bit) {
+        for (int i = 0; i < text.length(); i++) {
+            set(index, unigram(text.charAt(i)), bit);
+            if (i + 1 < text.length()) set(index, bigram(text.charAt(i), text.charAt(i + 1)), bit);
+        }
+    }
+
+    private void set(Map<Integer, long[]> index, int key, int bit) {
+        index.computeIfAbsent(key, k -> new long[words])[bit >>> 6] |= 1L << bit;
+    }
+
+    /** 글자 1개 키 (상위 16비트를 0xFFFF 로 두어 bigram 과 겹치지 않게 함, U+FFFF 는 문자가 아님) */
+    private static int unigram(char c) {
+        return 0xFFFF0000 | c;
+    }
+
+    private static int bigram(char a, char b) {
+        return (a << 16) | b;
+    }
+
+    private static String lower(String s) {
+        return s == null ? "" : s.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 한글 음절을 초성(호환 자모)으로 바꾼 문자열. 한글 음절이 아닌 글자는 그대로 둠
+     */
+    public static String chosung(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) sb.append(chosung(text.charAt(i)));
+        return sb.toString();
+    }
+
+    /** 한글 음절이면 초성, 아니면 그대로 */
+    static char chosung(char c) {
+        return c >= HANGUL_FIRST && c <= HANGUL_LAST ? CHOSUNG[(c - HANGUL_FIRST) / SYLLABLES_PER_CHOSUNG] : c;
+    }
+
+    /** 한글 음절 없이 초성 자음이 하나 이상 있는 검색어 (예: "ㅅㅅㅈㅈ", "sk ㅎㅇ") */
+    private static boolean isChosungQuery(String q) {
+        boolean consonant = false;
+        for (int i = 0; i < q.length(); i++) {
+            char c = q.charAt(i);
+            if (c >= HANGUL_FIRST && c <= HANGUL_LAST) return false;
+            if (c >= 'ㄱ' && c <= 'ㅎ') consonant = true;
+        }
+        return consonant;
+    }
+}
@@ -0,0 +1,165 @@
+package com.mybaselink.app.stock;
+
+import java.util.*;
+
+/**
+ * ✅ StockSuggestTrie
+ * --------------------------------------------------------
+ * 종목 선택 자동완성용 접두사 트라이 (목록 스냅샷마다 한 번 만듦, 불변)
+ *
+ * - 키: 소문자 종목코드, 소문자 회사명, 회사명 초성 (삼성전자 → ㅅㅅㅈㅈ)
+ * - 종목을 시가총액 큰 순으로 넣으면서 노드마다 앞선 k 개만 남겨 두므로,
+ *   조회는 검색어 길이만큼 내려간 노드의 목록을 읽기만 함
+ * - 한글 입력 도중의 마지막 자음(삼ㅅ)은 "삼" 아래에서 초성이 ㅅ 인 음절 노드들의 목록을 합쳐 답함
+ * --------------------------------------------------------
+ */
+public final class StockSuggestTrie {
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+
+    private static final class Node {
+        /** 자식 글자 (정렬) 와 자식 노드 */
+        char[] labels = NO_LABELS;
+        Node[] next = NO_NODES;
+        /** 이 접두사를 가진 종목의 순위 (작을수록 시가총액 큼, 오름차순) */
+        int[] top;
+        int count;
+
+        Node(int k) {
+            top = new int[k];
+        }
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            return i >= 0 ? next[i] : null;
+        }
+
+        Node childOrAdd(char c, int k) {
+            int i = Arrays.binarySearch(labels, c);
+            if (i >= 0) return next[i];
+            i = -i - 1;
+            Node node = new Node(k);
+            char[] l = new char[labels.length + 1];
+            Node[] n = new Node[next.length + 1];
+            System.arraycopy(labels, 0, l, 0, i);
+            System.arraycopy(next, 0, n, 0, i);
+            l[i] = c;
+            n[i] = node;
+            System.arraycopy(labels, i, l, i + 1, labels.length - i);
+            System.arraycopy(next, i, n, i + 1, next.length - i);
+            labels = l;
+            next = n;
+            return node;
+        }
+
+        void add(int rank) {
+            // 같은 종목의 키들은 연달아 들어오므로 마지막 것만 보면 중복을 거를 수 있음
+            if (count < top.length && (count == 0 || top[count - 1] != rank)) top[count++] = rank;
+        }
+    }
+
+    private final List<StockListing> ranked;
+    private final Node root;
+    private final int k;
+    private int nodes;
+
+    /**
+     * @param listings 종목 목록
+     * @param k        노드마다 남길 종목 수 (한 번에 돌려줄 수 있는 최대 개수)
+     */
+    public StockSuggestTrie(List<StockListing> listings, int k) {
+        this.k = Math.max(1, k);
+        List<StockListing> sorted = new ArrayList<>(listings);
+        sorted.sort(StockSearchIndex.Rank.MARCAP.comparator());
+        this.ranked = Collections.unmodifiableList(sorted);
+        this.root = new Node(this.k);
+        this.nodes = 1;
+
+        for (int r = 0; r < sorted.size(); r++) {
+            StockListing s = sorted.get(r);
+            String name = lower(s.name());
+            insert(lower(s.code()), r);
+            insert(name, r);
+            insert(StockSearchIndex.chosung(name), r);
+        }
+        trim(root);
+    }
+
+    public int getMaxSuggestions() {
+        return k;
+    }
+
+    public int getNodeCount() {
+        return nodes;
+    }
+
+    /**
+     * 검색어로 시작하는 종목코드·회사명·초성을 가진 종목을 시가총액 큰 순으로 최대 limit 개
+     */
+    public List<StockListing> suggest(String query, int limit) {
+        if (query == null) return List.of();
+        String q = query.strip().toLowerCase(Locale.ROOT);
+        int n = Math.min(Math.max(1, limit), k);
+        if (q.isEmpty()) return List.of();
+
+        Node parent = root;
+        for (int i = 0; i < q.length() - 1 && parent != null; i++) parent = parent.child(q.charAt(i));
+        if (parent == null) return List.of();
+
+        char last = q.charAt(q.length() - 1);
+        // 첫 글자가 자음이면 초성 키가 이미 같은 종목들을 담고 있음
+        if (q.length() == 1 || !isConsonant(last)) {
+            Node exact = parent.child(last);
+            return exact == null ? List.of() : collect(exact.top, exact.count, n);
+        }
+
+        // 입력 중인 자음: 그 자음 자체와, 초성이 같은 음절 자식들의 상위 목록을 합침
+        int[] merged = new int[0];
+        int size = 0;
+        for (int i = 0; i < parent.labels.length; i++) {
+            if (StockSearchIndex.chosung(parent.labels[i]) != last) continue;
+            Node child = parent.next[i];
+            merged = Arrays.copyOf(merged, size + child.count);
+            System.arraycopy(child.top, 0, merged, size, child.count);
+            size += child.count;
+        }
+        Arrays.sort(merged, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || merged[distinct - 1] != merged[i]) merged[distinct++] = merged[i];
+        }
+        return collect(merged, distinct, n);
+    }
+
+    private List<StockListing> collect(int[] ranks, int count, int limit) {
+        int n = Math.min(count, limit);
+        List<StockListing> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) result.add(ranked.get(ranks[i]));
+        return result;
+    }
+
+    private void insert(String key, int rank) {
+        Node node = root;
+        node.add(rank);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrAdd(key.charAt(i), k);
+            if (node.count == 0) nodes++;
+            node.add(rank);
+        }
+    }
+
+    /** 다 만든 뒤 목록 배열을 실제 개수에 맞춤 */
+    private static void trim(Node node) {
+        if (node.count < node.top.length) node.top = Arrays.copyOf(node.top, node.count);
+        for (Node child : node.next) trim(child);
+    }
+
+    private static String lower(String s) {
+        return s == null ? "" : s.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isConsonant(char c) {
+        return c >= 'ㄱ' && c <= 'ㅎ';
+    }
+}
@@ -0,0 +1,135 @@
+package com.mybaselink.app.stock;
+
+import java.util.Arrays;
+
+/**
+ * ✅ TopK
+ * --------------------------------------------------------
+ * 점수(double)가 가장 큰 K 개의 id(int)를 고르는 고정 크기 min-heap.
+ *
+ * - 메모리 O(K), N 개 입력에 O(N log K)
+ * - 박싱 없음 (점수·id 를 primitive 배열로 보관)
+ * - fork-join 작업 단위별로 하나씩 쓰고 {@link #merge(TopK)} 로 합침
+ * - 점수가 같으면 id 가 작은 쪽을 남김 (결과 순서가 병렬 분할과 무관하게 결정적)
+ * - NaN 점수는 무시
+ * --------------------------------------------------------
+ */
+public final class TopK {
+
+    private final int k;
+    private final double[] scores;
+    private final int[] ids;
+    private int size;
+
+    public TopK(int k) {
+        if (k < 0) throw new IllegalArgumentException("k 는 0 이상이어야 합니다: " + k);
+        this.k = k;
+        this.scores = new double[k];
+        this.ids = new int[k];
+    }
+
+    public int capacity() {
+        return k;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == k;
+    }
+
+    /**
+     * 들어가기 위해 넘어야 하는 점수. 아직 K 개가 안 찼으면 -∞.
+     */
+    public double threshold() {
+        if (k == 0) return Double.POSITIVE_INFINITY;
+        return size < k ? Double.NEGATIVE_INFINITY : scores[0];
+    }
+
+    /**
+     * @return 후보가 들어갔으면 true
+     */
+    public boolean offer(double score, int id) {
+        if (k == 0 || Double.isNaN(score)) return false;
+        if (size < k) {
+            scores[size] = score;
+            ids[size] = id;
+            siftUp(size++);
+            return true;
+        }
+        if (!worse(scores[0], ids[0], score, id)) return false;
+        scores[0] = score;
+        ids[0] = id;
+        siftDown(0);
+        return true;
+    }
+
+    /**
+     * other 의 원소를 이 힙에 합칩니다. (this 를 반환하므로 reduce 에 바로 사용 가능)
+     */
+    public TopK merge(TopK other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.scores[i], other.ids[i]);
+        }
+        return this;
+    }
+
+    /**
+     * 점수 내림차순으로 정렬한 id (힙은 그대로 유지)
+     */
+    public int[] sortedIds() {
+        return Arrays.stream(order()).map(i -> ids[i]).toArray();
+    }
+
+    /**
+     * 점수 내림차순으로 정렬한 점수
+     */
+    public double[] sortedScores() {
+        return Arrays.stream(order()).mapToDouble(i -> scores[i]).toArray();
+    }
+
+    private int[] order() {
+        Integer[] idx = new Integer[size];
+        for (int i = 0; i < size; i++) idx[i] = i;
+        Arrays.sort(idx, (x, y) -> worse(scores[x], ids[x], scores[y], ids[y]) ? 1 : -1);
+        return Arrays.stream(idx).mapToInt(Integer::intValue).toArray();
+    }
+
+    /** (s1, id1) 이 (s2, id2) 보다 순위가 낮은지 */
+    private static boolean worse(double s1, int id1, double s2, int id2) {
+        return s1 < s2 || (s1 == s2 && id1 > id2);
+    }
+
+    private void siftUp(int i) {
+        double s = scores[i];
+        int id = ids[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!worse(s, id, scores[parent], ids[parent])) break;
+            scores[i] = scores[parent];
+            ids[i] = ids[parent];
+            i = parent;
+        }
+        scores[i] = s;
+        ids[i] = id;
+    }
+
+    private void siftDown(int i) {
+        double s = scores[i];
+        int id = ids[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && worse(scores[right], ids[right], scores[child], ids[child])) child = right;
+            if (!worse(scores[child], ids[child], s, id)) break;
+            scores[i] = scores[child];
+            ids[i] = ids[child];
+            i = child;
+        }
+        scores[i] = s;
+        ids[i] = id;
+    }
+}
@@ -0,0 +1,529 @@
+package com.mybaselink.app.stock.chart;
+
+import com.mybaselink.app.stock.MarketPriceStore;
+import com.mybaselink.app.stock.PriceSlice;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.*;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+
+/**
+ * ✅ ChartRenderer
+ * --------------------------------------------------------
+ * 시세 저장소의 종가/OHLC 로 차트 PNG 를 JVM 안에서 그립니다. (matplotlib 차트 스크립트 대체)
+ *
+ * - 종가 선 차트, 캔들 차트, 기준/비교 종목 겹침 차트
+ * - 크기·글꼴 크기·선 굵기·색·여백·눈금 규칙은 파이썬 스크립트의 matplotlib 기본값(dpi 100)에 맞춤
+ * - 헤드리스 Java2D 로 그리며, 같은 크기의 BufferedImage 와 PNG 인코더는 풀에서 빌려 재사용
+ *   (풀 크기는 CPU 수, 풀이 비면 새로 만들고 돌려줄 때 자리가 없으면 버림)
+ * - 글꼴은 chart.image.font → 한글을 그릴 수 있는 설치 글꼴 → SansSerif 순으로 고름
+ * --------------------------------------------------------
+ */
+@Component
+public class ChartRenderer {
+
+    private static final Logger log = LoggerFactory.getLogger(ChartRenderer.class);
+
+    /** pt → px (dpi 100) */
+    private static final float PX = 100f / 72f;
+    private static final float FONT_SIZE = 10 * PX;
+    private static final float TITLE_SIZE = 12 * PX;
+    private static final float TICK_LENGTH = 3.5f * PX;
+    private static final float TICK_PAD = 3.5f * PX;
+    private static final float LABEL_PAD = 4 * PX;
+    private static final float TITLE_PAD = 6 * PX;
+    private static final float LINE_WIDTH = 1.5f * PX;
+    private static final float BASE_LINE_WIDTH = 2.5f * PX;
+    private static final float TIGHT_PAD = 1.08f * FONT_SIZE;
+    /** 데이터 범위 바깥 여백 (axes.xmargin / ymargin) */
+    private static final double MARGIN = 0.05;
+
+    private static final Color[] CYCLE = {new Color(0x1f77b4), new Color(0xff7f0e), new Color(0x2ca02c), new Color(0xd62728)};
+    private static final Color GRID = new Color(0xb0b0b0);
+    private static final Color LEGEND_EDGE = new Color(0xcccccc);
+    private static final Color LEGEND_FACE = new Color(255, 255, 255, 204);
+    /** 국내 관례: 상승 빨강, 하락 파랑 */
+    private static final Color CANDLE_UP = new Color(0xd62728);
+    private static final Color CANDLE_DOWN = new Color(0x1f5fbf);
+    private static final double CANDLE_BODY = 0.6;
+
+    private static final String[] KOREAN_FONTS = {"Malgun Gothic", "맑은 고딕", "NanumGothic", "나눔고딕",
+            "Noto Sans CJK KR", "Noto Sans KR", "UnDotum"};
+
+    /** 선 하나 (days 와 values 는 같은 길이, NaN 은 끊김) */
+    public record Line(String label, int[] days, double[] values, float width, Color color) { }
+
+    private final MarketPriceStore store;
+
+    @Value("${chart.image.java-renderer:true}")
+    private boolean enabled;
+
+    @Value("${chart.image.font:Malgun Gothic}")
+    private String fontName;
+
+    private Font font;
+    private final int poolSize = Runtime.getRuntime().availableProcessors();
+    private final Map<Long, BlockingQueue<BufferedImage>> canvases = new ConcurrentHashMap<>();
+    private final BlockingQueue<PngEncoder> encoders = new ArrayBlockingQueue<>(poolSize);
+
+    private final AtomicLong renders = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+
+    public ChartRenderer(MarketPriceStore store) {
+        this.store = store;
+    }
+
+    @PostConstruct
+    void init() {
+        Set<String> installed = new HashSet<>(Arrays.asList(
+                GraphicsEnvironment.getLocalGraphicsEnvironment().getAvailableFontFamilyNames()));
+        String family = Font.SANS_SERIF;
+        List<String> candidates = new ArrayList<>();
+        candidates.add(fontName);
+        candidates.addAll(Arrays.asList(KOREAN_FONTS));
+        for (String candidate : candidates) {
+            if (installed.contains(candidate)) {
+                family = candidate;
+                break;
+            }
+        }
+        font = new Font(family, Font.PLAIN, 1).deriveFont(FONT_SIZE);
+        if (font.canDisplayUpTo("종가 차트") >= 0) {
+            log.warn("ChartRenderer: 한글을 그릴 수 있는 글꼴이 없습니다 (font={}). chart.image.font 를 확인하세요.", family);
+        }
+        log.info("ChartRenderer 초기화: enabled={}, font={}, pool={}", enabled, family, poolSize);
+    }
+
+    /**
+     * 켜져 있고 저장소가 준비됐으며 종목이 모두 저장소에 있으면 true
+     */
+    public boolean canRender(String... symbols) {
+        if (!enabled || !store.isReady()) return false;
+        for (String symbol : symbols) {
+            if (symbol == null || !store.contains(symbol)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 캐시 키 (저장소 세대가 바뀌면 새 키)
+     */
+    public String cacheKey(String kind, String... parts) {
+        return "java\u0000" + kind + '\u0000' + store.getVersion() + '\u0000' + String.join("\u0000", parts);
+    }
+
+    /**
+     * 종목 종가 선 차트 (find_chart_patterns.py --chart 와 같은 10×5 인치, tight_layout)
+     */
+    public byte[] closeChart(String symbol, String start, String end) {
+        PriceSlice slice = store.slice(symbol, LocalDate.parse(start), LocalDate.parse(end));
+        String title = displayName(symbol) + " 종가 차트 (" + start + " ~ " + end + ")";
+        Line line = new Line(displayName(symbol), slice.epochDays(), slice.closes(), LINE_WIDTH, CYCLE[0]);
+        return render(1000, 500, title, true, false, List.of(line), null);
+    }
+
+    /**
+     * 종목 캔들 차트 (선 차트와 같은 크기·배치)
+     */
+    public byte[] candleChart(String symbol, String start, String end) {
+        PriceSlice slice = store.slice(symbol, LocalDate.parse(start), LocalDate.parse(end));
+        String title = displayName(symbol) + " 캔들 차트 (" + start + " ~ " + end + ")";
+        return render(1000, 500, title, true, false, List.of(), slice);
+    }
+
+    /**
+     * 기준 종목과 비교 종목 종가 겹침 차트 (find_similar_full.py 의 15×8 인치, 범례 포함).
+     * compareSymbol 이 null 이면 기준 종목만 그림
+     *
+     * @throws IllegalStateException 그릴 종목 중 구간 안 시세가 없는 종목이 있는 경우 (파이썬 스크립트와 같이 오류)
+     */
+    public byte[] compareChart(String baseSymbol, String compareSymbol, String start, String end) {
+        LocalDate from = LocalDate.parse(start);
+        LocalDate to = LocalDate.parse(end);
+        PriceSlice base = requireRows(store.slice(baseSymbol, from, to), baseSymbol);
+        List<Line> lines = new ArrayList<>(2);
+        lines.add(new Line(baseSymbol + " (기준)", base.epochDays(), base.closes(), BASE_LINE_WIDTH, CYCLE[0]));
+        String title = baseSymbol;
+        if (compareSymbol != null) {
+            PriceSlice compare = requireRows(store.slice(compareSymbol, from, to), compareSymbol);
+            lines.add(new Line(compareSymbol + " (비교)", compare.epochDays(), compare.closes(), LINE_WIDTH, CYCLE[1]));
+            title = baseSymbol + " vs " + compareSymbol;
+        }
+        return render(1500, 800, "[" + title + "] 차트 (" + start + " ~ " + end + ")", false, true, lines, null);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long count = renders.get();
+        stats.put("enabled", enabled);
+        stats.put("font", font == null ? null : font.getFamily());
+        stats.put("renders", count);
+        stats.put("avgMillis", count == 0 ? 0 : totalMicros.get() / count / 1000.0);
+        int pooled = 0;
+        for (BlockingQueue<BufferedImage> q : canvases.values()) pooled += q.size();
+        stats.put("pooledCanvases", pooled);
+        stats.put("pooledEncoders", encoders.size());
+        return stats;
+    }
+
+    private static PriceSlice requireRows(PriceSlice slice, String symbol) {
+        if (slice.isEmpty()) {
+            throw new IllegalStateException("차트 데이터를 생성할 수 없습니다. 데이터 기간을 확인하세요. (" + symbol + ")");
+        }
+        return slice;
+    }
+
+    private String displayName(String symbol) {
+        String name = store.getName(symbol);
+        return name == null || name.isEmpty() ? symbol : name;
+    }
+
+    /**
+     * 한 장을 그려 PNG 로 인코딩
+     *
+     * @param tight   true 면 글자 크기에 맞춘 여백 (tight_layout), 아니면 matplotlib 기본 subplot 여백
+     * @param candles null 이 아니면 이 구간의 캔들을 그림
+     */
+    private byte[] render(int width, int height, String title, boolean tight, boolean legend,
+                          List<Line> lines, PriceSlice candles) {
+        long started = System.nanoTime();
+        double x0 = Double.POSITIVE_INFINITY, x1 = Double.NEGATIVE_INFINITY;
+        double y0 = Double.POSITIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY;
+        for (Line line : lines) {
+            for (int i = 0; i < line.days().length; i++) {
+                double v = line.values()[i];
+                if (Double.isNaN(v)) continue;
+                x0 = Math.min(x0, line.days()[i]);
+                x1 = Math.max(x1, line.days()[i]);
+                y0 = Math.min(y0, v);
+                y1 = Math.max(y1, v);
+            }
+        }
+        if (candles != null) {
+            for (int i = 0; i < candles.length(); i++) {
+                double c = candles.close(i);
+                if (Double.isNaN(c)) continue;
+                x0 = Math.min(x0, candles.epochDay(i));
+                x1 = Math.max(x1, candles.epochDay(i));
+                y0 = Math.min(y0, low(candles, i));
+                y1 = Math.max(y1, high(candles, i));
+            }
+        }
+        if (x0 > x1) {
+            throw new IllegalArgumentException("차트에 그릴 시세가 없습니다: " + title);
+        }
+        if (x0 == x1) {
+            x0 -= 1;
+            x1 += 1;
+        }
+        if (y0 == y1) {
+            double pad = y0 == 0 ? 1 : Math.abs(y0) * MARGIN;
+            y0 -= pad;
+            y1 += pad;
+        }
+        Axes axes = new Axes(x0 - (x1 - x0) * MARGIN, x1 + (x1 - x0) * MARGIN,
+                y0 - (y1 - y0) * MARGIN, y1 + (y1 - y0) * MARGIN);
+
+        BufferedImage canvas = borrowCanvas(width, height);
+        try {
+            Graphics2D g = canvas.createGraphics();
+            try {
+                draw(g, width, height, title, tight, legend, lines, candles, axes);
+            } finally {
+                g.dispose();
+            }
+            int[] pixels = ((DataBufferInt) canvas.getRaster().getDataBuffer()).getData();
+            PngEncoder encoder = encoders.poll();
+            if (encoder == null) encoder = new PngEncoder(Deflater.BEST_SPEED);
+            try {
+                return encoder.encode(pixels, width, height);
+            } finally {
+                // 풀이 가득 차 버리는 인코더는 GC 를 기다리지 않고 Deflater 를 바로 해제
+                if (!encoders.offer(encoder)) encoder.close();
+            }
+        } finally {
+            releaseCanvas(canvas);
+            renders.incrementAndGet();
+            totalMicros.addAndGet((System.nanoTime() - started) / 1000);
+        }
+    }
+
+    private void draw(Graphics2D g, int width, int height, String title, boolean tight, boolean legend,
+                      List<Line> lines, PriceSlice candles, Axes axes) {
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+        g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, width, height);
+
+        Font titleFont = font.deriveFont(TITLE_SIZE);
+        FontMetrics fm = g.getFontMetrics(font);
+        FontMetrics tfm = g.getFontMetrics(titleFont);
+        float textHeight = fm.getAscent() + fm.getDescent();
+
+        // 축 영역: y 눈금 수는 높이에 맞춰 정하므로 여백 → 눈금 → (tight 이면) 여백 다시 계산
+        double left = 0.125 * width, right = 0.9 * width, top = 0.12 * height, bottom = 0.89 * height;
+        ChartTicks.ValueTicks yTicks = ChartTicks.values(axes.ymin, axes.ymax, maxValueTicks(bottom - top));
+        ChartTicks.DateTicks xTicks = ChartTicks.dates(axes.xmin, axes.xmax);
+        if (tight) {
+            float yLabelWidth = 0;
+            for (String label : yTicks.labels()) yLabelWidth = Math.max(yLabelWidth, fm.stringWidth(label));
+            float lastXLabel = xTicks.labels().length == 0 ? 0 : fm.stringWidth(xTicks.labels()[xTicks.labels().length - 1]);
+            left = TIGHT_PAD + textHeight + LABEL_PAD + yLabelWidth + TICK_PAD + TICK_LENGTH;
+            bottom = height - (TIGHT_PAD + textHeight + LABEL_PAD + textHeight + TICK_PAD + TICK_LENGTH);
+            top = TIGHT_PAD + tfm.getAscent() + tfm.getDescent() + TITLE_PAD;
+            right = width - Math.max(TIGHT_PAD, lastXLabel / 2 + 2);
+            yTicks = ChartTicks.values(axes.ymin, axes.ymax, maxValueTicks(bottom - top));
+        }
+        axes.place(left, top, right - left, bottom - top);
+        xTicks = ChartTicks.thin(xTicks, labelStep(xTicks, axes, fm));
+
+        // 격자
+        g.setColor(GRID);
+        g.setStroke(new BasicStroke(0.8f * PX));
+        for (double v : yTicks.values()) {
+            double y = axes.py(v);
+            g.draw(new Line2D.Double(axes.left, y, axes.left + axes.width, y));
+        }
+        for (int d : xTicks.days()) {
+            double x = axes.px(d);
+            g.draw(new Line2D.Double(x, axes.top, x, axes.top + axes.height));
+        }
+
+        // 데이터
+        Shape clip = g.getClip();
+        g.clip(new Rectangle2D.Double(axes.left, axes.top, axes.width, axes.height));
+        if (candles != null) drawCandles(g, candles, axes);
+        for (Line line : lines) {
+            g.setColor(line.color());
+            g.setStroke(new BasicStroke(line.width(), BasicStroke.CAP_SQUARE, BasicStroke.JOIN_ROUND));
+            g.draw(path(line, axes));
+        }
+        g.setClip(clip);
+
+        // 테두리, 눈금, 라벨
+        g.setColor(Color.BLACK);
+        g.setStroke(new BasicStroke(0.8f * PX, BasicStroke.CAP_SQUARE, BasicStroke.JOIN_MITER));
+        g.draw(new Rectangle2D.Double(axes.left, axes.top, axes.width, axes.height));
+        g.setFont(font);
+        double axisBottom = axes.top + axes.height;
+        for (int i = 0; i < xTicks.days().length; i++) {
+            double x = axes.px(xTicks.days()[i]);
+            g.draw(new Line2D.Double(x, axisBottom, x, axisBottom + TICK_LENGTH));
+            String label = xTicks.labels()[i];
+            g.drawString(label, (float) (x - fm.stringWidth(label) / 2.0),
+                    (float) (axisBottom + TICK_LENGTH + TICK_PAD + fm.getAscent()));
+        }
+        float yLabelWidth = 0;
+        for (int i = 0; i < yTicks.values().length; i++) {
+            double y = axes.py(yTicks.values()[i]);
+            g.draw(new Line2D.Double(axes.left - TICK_LENGTH, y, axes.left, y));
+            String label = yTicks.labels()[i];
+            float w = fm.stringWidth(label);
+            yLabelWidth = Math.max(yLabelWidth, w);
+            g.drawString(label, (float) (axes.left - TICK_LENGTH - TICK_PAD - w),
+                    (float) (y + (fm.getAscent() - fm.getDescent()) / 2.0));
+        }
+        String xLabel = "날짜";
+        g.drawString(xLabel, (float) (axes.left + (axes.width - fm.stringWidth(xLabel)) / 2.0),
+                (float) (axisBottom + TICK_LENGTH + TICK_PAD + textHeight + LABEL_PAD + fm.getAscent()));
+        String yLabel = "종가";
+        Graphics2D rotated = (Graphics2D) g.create();
+        try {
+            rotated.translate(axes.left - TICK_LENGTH - TICK_PAD - yLabelWidth - LABEL_PAD - fm.getDescent(),
+                    axes.top + (axes.height + fm.stringWidth(yLabel)) / 2.0);
+            rotated.rotate(-Math.PI / 2);
+            rotated.drawString(yLabel, 0f, 0f);
+        } finally {
+            rotated.dispose();
+        }
+        g.setFont(titleFont);
+        g.drawString(title, (float) (axes.left + (axes.width - tfm.stringWidth(title)) / 2.0),
+                (float) (axes.top - TITLE_PAD - tfm.getDescent()));
+
+        if (legend && !lines.isEmpty()) drawLegend(g, fm, lines, axes);
+    }
+
+    private void drawCandles(Graphics2D g, PriceSlice candles, Axes axes) {
+        double body = Math.max(1.0, CANDLE_BODY * axes.width / (axes.xmax - axes.xmin));
+        g.setStroke(new BasicStroke(Math.max(1f, 0.8f * PX)));
+        for (int i = 0; i < candles.length(); i++) {
+            double close = candles.close(i);
+            if (Double.isNaN(close)) continue;
+            double open = Double.isNaN(candles.open(i)) ? close : candles.open(i);
+            double x = axes.px(candles.epochDay(i));
+            g.setColor(close >= open ? CANDLE_UP : CANDLE_DOWN);
+            g.draw(new Line2D.Double(x, axes.py(high(candles, i)), x, axes.py(low(candles, i))));
+            double yTop = axes.py(Math.max(open, close));
+            double yBottom = axes.py(Math.min(open, close));
+            g.fill(new Rectangle2D.Double(x - body / 2, yTop, body, Math.max(1.0, yBottom - yTop)));
+        }
+    }
+
+    /**
+     * 범례: 선과 겹치는 점이 가장 적은 모서리 (우상 → 좌상 → 좌하 → 우하 순으로 같으면 앞쪽, matplotlib loc='best')
+     */
+    private void drawLegend(Graphics2D g, FontMetrics fm, List<Line> lines, Axes axes) {
+        float pad = 0.4f * FONT_SIZE;
+        float handle = 2.0f * FONT_SIZE;
+        float handleGap = 0.8f * FONT_SIZE;
+        float spacing = 0.5f * FONT_SIZE;
+        float border = 0.5f * FONT_SIZE;
+        float rowHeight = fm.getAscent() + fm.getDescent();
+        float textWidth = 0;
+        for (Line line : lines) textWidth = Math.max(textWidth, fm.stringWidth(line.label()));
+        double w = pad * 2 + handle + handleGap + textWidth;
+        double h = pad * 2 + rowHeight * lines.size() + spacing * (lines.size() - 1);
+
+        double[][] corners = {
+                {axes.left + axes.width - border - w, axes.top + border},
+                {axes.left + border, axes.top + border},
+                {axes.left + border, axes.top + axes.height - border - h},
+                {axes.left + axes.width - border - w, axes.top + axes.height - border - h},
+        };
+        double[] best = corners[0];
+        long fewest = Long.MAX_VALUE;
+        for (double[] c : corners) {
+            long inside = 0;
+            for (Line line : lines) {
+                for (int i = 0; i < line.days().length; i++) {
+                    if (Double.isNaN(line.values()[i])) continue;
+                    double x = axes.px(line.days()[i]);
+                    double y = axes.py(line.values()[i]);
+                    if (x >= c[0] && x <= c[0] + w && y >= c[1] && y <= c[1] + h) inside++;
+                }
+            }
+            if (inside < fewest) {
+                fewest = inside;
+                best = c;
+            }
+        }
+
+        RoundRectangle2D frame = new RoundRectangle2D.Double(best[0], best[1], w, h, 0.4 * FONT_SIZE, 0.4 * FONT_SIZE);
+        g.setColor(LEGEND_FACE);
+        g.fill(frame);
+        g.setColor(LEGEND_EDGE);
+        g.setStroke(new BasicStroke(PX));
+        g.draw(frame);
+        g.setFont(font);
+        double y = best[1] + pad;
+        for (Line line : lines) {
+            double mid = y + rowHeight / 2.0;
+            g.setColor(line.color());
+            g.setStroke(new BasicStroke(line.width(), BasicStroke.CAP_SQUARE, BasicStroke.JOIN_ROUND));
+            g.draw(new Line2D.Double(best[0] + pad, mid, best[0] + pad + handle, mid));
+            g.setColor(Color.BLACK);
+            g.drawString(line.label(), (float) (best[0] + pad + handle + handleGap), (float) (y + fm.getAscent()));
+            y += rowHeight + spacing;
+        }
+    }
+
+    private static Path2D path(Line line, Axes axes) {
+        Path2D.Double path = new Path2D.Double(Path2D.WIND_NON_ZERO, line.days().length);
+        boolean pen = false;
+        for (int i = 0; i < line.days().length; i++) {
+            double v = line.values()[i];
+            if (Double.isNaN(v)) {
+                pen = false;
+                continue;
+            }
+            double x = axes.px(line.days()[i]);
+            double y = axes.py(v);
+            if (pen) {
+                path.lineTo(x, y);
+            } else {
+                path.moveTo(x, y);
+                pen = true;
+            }
+        }
+        return path;
+    }
+
+    /**
+     * 이웃 라벨이 겹치지 않으려면 몇 개마다 하나씩 남겨야 하는지
+     */
+    private static int labelStep(ChartTicks.DateTicks ticks, Axes axes, FontMetrics fm) {
+        int[] days = ticks.days();
+        if (days.length < 2) return 1;
+        double widest = 0;
+        for (String label : ticks.labels()) widest = Math.max(widest, fm.stringWidth(label));
+        double gap = Double.MAX_VALUE;
+        for (int i = 1; i < days.length; i++) gap = Math.min(gap, axes.px(days[i]) - axes.px(days[i - 1]));
+        return Math.max(1, (int) Math.ceil((widest + FONT_SIZE) / Math.max(gap, 1e-9)));
+    }
+
+    /** matplotlib 'auto' 눈금 수: 축 길이를 글자 크기의 3배로 나눈 값 (3 ~ 9) */
+    private static int maxValueTicks(double axisLength) {
+        return (int) Math.max(3, Math.min(9, axisLength / (FONT_SIZE * 3)));
+    }
+
+    private static double high(PriceSlice s, int i) {
+        double h = s.high(i);
+        return Double.isNaN(h) ? Math.max(s.close(i), Double.isNaN(s.open(i)) ? s.close(i) : s.open(i)) : h;
+    }
+
+    private static double low(PriceSlice s, int i) {
+        double l = s.low(i);
+        return Double.isNaN(l) ? Math.min(s.close(i), Double.isNaN(s.open(i)) ? s.close(i) : s.open(i)) : l;
+    }
+
+    private BufferedImage borrowCanvas(int width, int height) {
+        BlockingQueue<BufferedImage> pool = canvases.computeIfAbsent(((long) width << 32) | height,
+                k -> new ArrayBlockingQueue<>(poolSize));
+        BufferedImage canvas = pool.poll();
+        return canvas != null ? canvas : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    private void releaseCanvas(BufferedImage canvas) {
+        BlockingQueue<BufferedImage> pool = canvases.get(((long) canvas.getWidth() << 32) | canvas.getHeight());
+        if (pool != null) pool.offer(canvas);
+    }
+
+    /**
+     * 데이터 좌표 → 픽셀 좌표
+     */
+    private static final class Axes {
+        final double xmin, xmax, ymin, ymax;
+        double left, top, width, height;
+
+        Axes(double xmin, double xmax, double ymin, double ymax) {
+            this.xmin = xmin;
+            this.xmax = xmax;
+            this.ymin = ymin;
+            this.ymax = ymax;
+        }
+
+        void place(double left, double top, double width, double height) {
+            this.left = left;
+            this.top = top;
+            this.width = width;
+            this.height = height;
+        }
+
+        double px(double day) {
+            return left + (day - xmin) / (xmax - xmin) * width;
+        }
+
+        double py(double value) {
+            return top + height - (value - ymin) / (ymax - ymin) * height;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.mybaselink.app.stock.chart;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 축 눈금 계산 (matplotlib MaxNLocator / AutoDateLocator 와 같은 규칙을 단순화)
+ */
+final class ChartTicks {
+
+    private static final double[] STEPS = {1, 2, 2.5, 5, 10};
+    private static final int[] YEAR_INTERVALS = {1, 2, 4, 5, 10, 20, 50, 100};
+    private static final int[] MONTH_INTERVALS = {1, 2, 3, 4, 6};
+    private static final int[] DAY_INTERVALS = {1, 2, 3, 7, 14};
+    /** 이 수 이상 눈금이 나오는 가장 큰 단위(연 → 월 → 일)를 씀 */
+    private static final int MIN_TICKS = 5;
+    private static final int MAX_YEAR_TICKS = 11;
+    private static final int MAX_MONTH_TICKS = 12;
+    private static final int MAX_DAY_TICKS = 11;
+
+    /** 날짜 눈금 (epoch day) 과 라벨 */
+    record DateTicks(int[] days, String[] labels) { }
+
+    /** 값 눈금과 라벨 */
+    record ValueTicks(double[] values, String[] labels) { }
+
+    private ChartTicks() {
+    }
+
+    /**
+     * [min, max] 안의 1·2·2.5·5 × 10^k 간격 눈금 (최대 maxTicks 개 남짓)
+     */
+    static ValueTicks values(double min, double max, int maxTicks) {
+        double raw = (max - min) / Math.max(1, maxTicks);
+        double magnitude = Math.pow(10, Math.floor(Math.log10(raw)));
+        double step = STEPS[STEPS.length - 1] * magnitude;
+        for (double s : STEPS) {
+            if (s * magnitude >= raw) {
+                step = s * magnitude;
+                break;
+            }
+        }
+        // 간격의 유효 자릿수만큼 소수점 표시 (예: 2.5 → 1자리, 0.05 → 2자리)
+        int decimals = Math.max(0, new BigDecimal(step).round(new MathContext(3)).stripTrailingZeros().scale());
+
+        List<Double> ticks = new ArrayList<>();
+        for (long k = (long) Math.ceil(min / step - 1e-9); k * step <= max + step * 1e-9; k++) {
+            ticks.add(k * step);
+        }
+        double[] values = new double[ticks.size()];
+        String[] labels = new String[ticks.size()];
+        String format = "%." + decimals + "f";
+        for (int i = 0; i < values.length; i++) {
+            values[i] = ticks.get(i);
+            labels[i] = decimals == 0 ? Long.toString(Math.round(values[i])) : String.format(format, values[i]);
+        }
+        return new ValueTicks(values, labels);
+    }
+
+    /**
+     * [min, max] (epoch day) 안의 날짜 눈금. 연 1월 1일 → 월 1일 → 일 순으로 눈금이 충분한 단위를 고름
+     */
+    static DateTicks dates(double min, double max) {
+        LocalDate from = LocalDate.ofEpochDay((long) Math.ceil(min));
+        LocalDate to = LocalDate.ofEpochDay((long) Math.floor(max));
+
+        int years = to.getYear() - from.getYear();
+        if (years >= MIN_TICKS) {
+            int interval = pick(YEAR_INTERVALS, years, MAX_YEAR_TICKS);
+            List<LocalDate> ticks = new ArrayList<>();
+            for (int y = from.getYear(); y <= to.getYear(); y++) {
+                LocalDate d = LocalDate.of(y, 1, 1);
+                if (y % interval == 0 && !d.isBefore(from)) ticks.add(d);
+            }
+            return build(ticks, DateTimeFormatter.ofPattern("yyyy"));
+        }
+        int months = years * 12 + to.getMonthValue() - from.getMonthValue();
+        if (months >= MIN_TICKS) {
+            int interval = pick(MONTH_INTERVALS, months, MAX_MONTH_TICKS);
+            List<LocalDate> ticks = new ArrayList<>();
+            for (LocalDate d = from.withDayOfMonth(1); !d.isAfter(to); d = d.plusMonths(1)) {
+                if ((d.getMonthValue() - 1) % interval == 0 && !d.isBefore(from)) ticks.add(d);
+            }
+            return build(ticks, DateTimeFormatter.ofPattern("yyyy-MM"));
+        }
+        int days = (int) (to.toEpochDay() - from.toEpochDay());
+        int interval = pick(DAY_INTERVALS, days, MAX_DAY_TICKS);
+        List<LocalDate> ticks = new ArrayList<>();
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            // 다음 달 1일과 간격보다 가까운 월말 눈금(예: 7일 간격의 29일)은 뺌
+            if ((d.getDayOfMonth() - 1) % interval == 0 && d.lengthOfMonth() - d.getDayOfMonth() + 1 >= interval) {
+                ticks.add(d);
+            }
+        }
+        return build(ticks, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+    }
+
+    /**
+     * 라벨이 겹치지 않도록 눈금을 step 개마다 하나만 남김
+     */
+    static DateTicks thin(DateTicks ticks, int step) {
+        if (step <= 1) return ticks;
+        int n = (ticks.days().length + step - 1) / step;
+        int[] days = new int[n];
+        String[] labels = new String[n];
+        for (int i = 0; i < n; i++) {
+            days[i] = ticks.days()[i * step];
+            labels[i] = ticks.labels()[i * step];
+        }
+        return new DateTicks(days, labels);
+    }
+
+    /** 눈금 수가 maxTicks 이하가 되는 가장 작은 간격 */
+    private static int pick(int[] intervals, int span, int maxTicks) {
+        for (int interval : intervals) {
+            if (span / interval + 1 <= maxTicks) return interval;
+        }
+        return intervals[intervals.length - 1];
+    }
+
+    private static DateTicks build(List<LocalDate> ticks, DateTimeFormatter format) {
+        int[] days = new int[ticks.size()];
+        String[] labels = new String[ticks.size()];
+        for (int i = 0; i < days.length; i++) {
+            days[i] = (int) ticks.get(i).toEpochDay();
+            labels[i] = ticks.get(i).format(format);
+        }
+        return new DateTicks(days, labels);
+    }
+}
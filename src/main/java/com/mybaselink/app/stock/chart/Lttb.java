@@ -0,0 +1,65 @@
+package com.mybaselink.app.stock.chart;
+
+/**
+ * LTTB (Largest-Triangle-Three-Buckets) 다운샘플링.
+ * <p>
+ * 첫·마지막 점은 그대로 두고, 나머지를 threshold - 2 개 구간으로 나눠 구간마다
+ * "앞에서 고른 점 - 후보 - 다음 구간 평균점" 삼각형 넓이가 가장 큰 점 하나를 고릅니다.
+ * 화면 폭만큼만 점을 남겨도 선 모양(급등락 꼭짓점)이 유지됨
+ */
+public final class Lttb {
+
+    private Lttb() {
+    }
+
+    /**
+     * @param x         x 좌표 (오름차순)
+     * @param y         y 좌표
+     * @param n         점 수 (x, y 의 앞 n 개)
+     * @param threshold 남길 점 수 (3 미만이거나 n 이상이면 전부)
+     * @return 남길 점의 위치 (오름차순)
+     */
+    public static int[] select(double[] x, double[] y, int n, int threshold) {
+        if (threshold < 3 || threshold >= n) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) all[i] = i;
+            return all;
+        }
+        int[] selected = new int[threshold];
+        double every = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        selected[0] = 0;
+        for (int b = 0; b < threshold - 2; b++) {
+            // 다음 구간 평균점
+            int avgStart = (int) Math.floor((b + 1) * every) + 1;
+            int avgEnd = Math.min((int) Math.floor((b + 2) * every) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += x[j];
+                avgY += y[j];
+            }
+            int count = Math.max(1, avgEnd - avgStart);
+            avgX /= count;
+            avgY /= count;
+
+            int from = (int) Math.floor(b * every) + 1;
+            int to = (int) Math.floor((b + 1) * every) + 1;
+            double ax = x[a];
+            double ay = y[a];
+            double maxArea = -1;
+            int next = from;
+            for (int j = from; j < to; j++) {
+                double area = Math.abs((ax - avgX) * (y[j] - ay) - (ax - x[j]) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+            selected[b + 1] = next;
+            a = next;
+        }
+        selected[threshold - 1] = n - 1;
+        return selected;
+    }
+}
@@ -0,0 +1,121 @@
+package com.mybaselink.app.stock.chart;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 24비트 RGB PNG 인코더 (ImageIO 대체).
+ * <p>
+ * - 모든 행을 Up 필터(윗행과의 차이)로 기록: 배경·격자가 대부분인 차트는 행 사이 차이가 거의 0 이라
+ *   행마다 필터를 고르는 것보다 작고 빠름 (윗행과 픽셀이 같은 행은 비교 없이 0 으로 채움)
+ * - Deflater, 필터 버퍼, 출력 버퍼를 다음 인코딩에 재사용 (한 번에 한 스레드만 사용)
+ * - 더 쓰지 않을 인코더는 close() 로 Deflater 의 네이티브 메모리를 바로 돌려줌
+ */
+final class PngEncoder {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    /** matplotlib 기본 dpi (100) 를 미터당 픽셀로 */
+    private static final int PIXELS_PER_METER = 3937;
+    private static final byte FILTER_UP = 2;
+
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(128 * 1024);
+    private final byte[] chunk = new byte[64 * 1024];
+    private final byte[] word = new byte[4];
+    private byte[] raw = new byte[0];
+
+    PngEncoder(int level) {
+        this.deflater = new Deflater(level);
+    }
+
+    /**
+     * @param rgb    0xRRGGBB 픽셀 (행 우선, 상위 8비트는 무시)
+     * @param width  폭
+     * @param height 높이
+     */
+    byte[] encode(int[] rgb, int width, int height) {
+        int rowLength = width * 3 + 1;
+        if (raw.length < rowLength * height) raw = new byte[rowLength * height];
+
+        for (int y = 0; y < height; y++) {
+            int p = y * width;
+            int o = y * rowLength;
+            raw[o++] = FILTER_UP;
+            if (y == 0) {
+                // 첫 행의 윗행은 0 으로 간주
+                for (int x = 0; x < width; x++) {
+                    int c = rgb[p + x];
+                    raw[o++] = (byte) (c >>> 16);
+                    raw[o++] = (byte) (c >>> 8);
+                    raw[o++] = (byte) c;
+                }
+            } else if (Arrays.equals(rgb, p, p + width, rgb, p - width, p)) {
+                Arrays.fill(raw, o, o + rowLength - 1, (byte) 0);
+            } else {
+                // 채널별 차이의 하위 8비트는 위쪽 채널 비트와 무관
+                for (int x = 0; x < width; x++) {
+                    int c = rgb[p + x];
+                    int u = rgb[p - width + x];
+                    raw[o++] = (byte) ((c >>> 16) - (u >>> 16));
+                    raw[o++] = (byte) ((c >>> 8) - (u >>> 8));
+                    raw[o++] = (byte) (c - u);
+                }
+            }
+        }
+
+        deflater.reset();
+        deflater.setInput(raw, 0, rowLength * height);
+        deflater.finish();
+
+        out.reset();
+        out.write(SIGNATURE, 0, SIGNATURE.length);
+        byte[] header = new byte[13];
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        header[8] = 8;   // 비트 깊이
+        header[9] = 2;   // 트루컬러 RGB
+        writeChunk("IHDR", header, header.length);
+        byte[] phys = new byte[9];
+        putInt(phys, 0, PIXELS_PER_METER);
+        putInt(phys, 4, PIXELS_PER_METER);
+        phys[8] = 1;     // 단위: 미터
+        writeChunk("pHYs", phys, phys.length);
+        while (!deflater.finished()) {
+            int n = deflater.deflate(chunk);
+            if (n > 0) writeChunk("IDAT", chunk, n);
+        }
+        writeChunk("IEND", chunk, 0);
+        return out.toByteArray();
+    }
+
+    /**
+     * Deflater 해제 (이후 encode 호출 불가)
+     */
+    void close() {
+        deflater.end();
+    }
+
+    private void writeChunk(String type, byte[] data, int length) {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        putInt(word, 0, length);
+        out.write(word, 0, 4);
+        out.write(typeBytes, 0, 4);
+        out.write(data, 0, length);
+        crc.reset();
+        crc.update(typeBytes, 0, 4);
+        crc.update(data, 0, length);
+        putInt(word, 0, (int) crc.getValue());
+        out.write(word, 0, 4);
+    }
+
+    private static void putInt(byte[] b, int at, int v) {
+        b[at] = (byte) (v >>> 24);
+        b[at + 1] = (byte) (v >>> 16);
+        b[at + 2] = (byte) (v >>> 8);
+        b[at + 3] = (byte) v;
+    }
+}
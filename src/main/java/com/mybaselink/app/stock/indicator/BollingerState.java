@@ -0,0 +1,43 @@
+package com.mybaselink.app.stock.indicator;
+
+/**
+ * 볼린저 밴드: 최근 n 개 평균 ± 2 × 표준편차 (모표준편차, TA-Lib 과 같음)
+ */
+final class BollingerState implements IndicatorState {
+
+    static final double WIDTH = 2.0;
+
+    private final RollingWindow window;
+
+    BollingerState(int period) {
+        this.window = new RollingWindow(period);
+    }
+
+    private BollingerState(BollingerState other) {
+        this.window = other.window.copy();
+    }
+
+    @Override
+    public void update(double close) {
+        window.add(close);
+    }
+
+    @Override
+    public boolean ready() {
+        return window.full();
+    }
+
+    @Override
+    public void values(double[] out) {
+        double middle = window.mean();
+        double band = WIDTH * Math.sqrt(window.variance());
+        out[0] = middle;
+        out[1] = middle + band;
+        out[2] = middle - band;
+    }
+
+    @Override
+    public IndicatorState copy() {
+        return new BollingerState(this);
+    }
+}
@@ -0,0 +1,55 @@
+package com.mybaselink.app.stock.indicator;
+
+/**
+ * 지수 이동평균. 처음 n 개의 단순 평균으로 시작하고 이후 α = 2 / (n + 1) 로 갱신 (TA-Lib 과 같은 방식)
+ */
+final class EmaState implements IndicatorState {
+
+    private final int period;
+    private final double alpha;
+    private int count;
+    private double sum;
+    private double value;
+
+    EmaState(int period) {
+        this.period = period;
+        this.alpha = 2.0 / (period + 1);
+    }
+
+    private EmaState(EmaState other) {
+        this.period = other.period;
+        this.alpha = other.alpha;
+        this.count = other.count;
+        this.sum = other.sum;
+        this.value = other.value;
+    }
+
+    @Override
+    public void update(double close) {
+        if (count < period) {
+            sum += close;
+            if (++count == period) value = sum / period;
+        } else {
+            value += alpha * (close - value);
+        }
+    }
+
+    @Override
+    public boolean ready() {
+        return count >= period;
+    }
+
+    double value() {
+        return value;
+    }
+
+    @Override
+    public void values(double[] out) {
+        out[0] = value;
+    }
+
+    @Override
+    public IndicatorState copy() {
+        return new EmaState(this);
+    }
+}
@@ -0,0 +1,356 @@
+package com.mybaselink.app.stock.indicator;
+
+import com.mybaselink.app.stock.MarketPriceStore;
+import com.mybaselink.app.stock.PriceSlice;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * ✅ IndicatorEngine
+ * --------------------------------------------------------
+ * 전 종목 기술적 지표(SMA/EMA/RSI/MACD/볼린저)를 시세 저장소 위에서 계산합니다.
+ *
+ * - indicator.specs 에 적은 지표는 종목마다 누적 상태를 들고 있음 (종가 하나당 O(1) 갱신)
+ * - 처음에는 전 종목을 병렬로 한 번에 계산하고, 저장소가 새 세대로 바뀌면(일별 업데이트 후)
+ *   종목마다 지난 마지막 거래일 뒤에 붙은 거래일만 반영
+ *   (지난 마지막 거래일 종가가 달라졌으면 — 수정주가 반영 등 — 그 종목만 처음부터 다시 계산)
+ * - 갱신은 상태를 복사한 뒤 반영하고 통째로 교체하므로, 조회는 잠금 없이 한 세대의 값만 봄
+ * - 최근 거래일 값은 누적 상태에서 바로, 과거 날짜나 등록하지 않은 지표는 종목 시세를 처음부터 다시 돌려 계산
+ * - 종가가 NaN 인 거래일은 건너뜀
+ * - 마지막 거래일이 조회 기준일보다 indicator.max-stale-days(달력일) 넘게 앞선 종목(거래 정지·상장 폐지 등)은 결과에서 뺌
+ * --------------------------------------------------------
+ */
+@Component
+public class IndicatorEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(IndicatorEngine.class);
+
+    /** 작업 단위 (종목 수) */
+    private static final int CHUNK_SIZE = 64;
+
+    /**
+     * 한 종목 지표 값
+     *
+     * @param day    값이 나온 거래일 (epoch day, 요청 날짜 이전 마지막 거래일)
+     * @param close  그날 종가
+     * @param values 값 (순서는 {@link IndicatorType#fields()})
+     */
+    public record IndicatorValue(String symbol, int day, double close, double[] values) { }
+
+    private final MarketPriceStore store;
+
+    @Value("${indicator.enabled:true}")
+    private boolean enabled;
+
+    @Value("${indicator.specs:sma20,sma60,ema12,ema26,rsi14,macd,bb20}")
+    private String[] specNames;
+
+    /** 0 이하이면 오래된 종목도 그대로 돌려줌 */
+    @Value("${indicator.max-stale-days:14}")
+    private int maxStaleDays;
+
+    @Value("${similarity.engine.parallelism:0}")
+    private int parallelism;
+
+    private IndicatorSpec[] specs = new IndicatorSpec[0];
+    private ForkJoinPool pool;
+    private volatile Snapshot snapshot;
+
+    private final ExecutorService updater = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "IndicatorEngine-updater");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong replays = new AtomicLong();
+    private volatile long advanced;
+    private volatile long recomputed;
+    private volatile long lastUpdateMillis;
+
+    public IndicatorEngine(MarketPriceStore store) {
+        this.store = store;
+    }
+
+    @PostConstruct
+    void init() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads);
+        if (!enabled) {
+            log.info("IndicatorEngine 누적 상태 비활성화 (indicator.enabled=false), 조회는 매번 계산");
+            return;
+        }
+        LinkedHashSet<IndicatorSpec> parsed = new LinkedHashSet<>();
+        for (String name : specNames) {
+            if (!name.isBlank()) parsed.add(IndicatorSpec.parse(name));
+        }
+        specs = parsed.toArray(new IndicatorSpec[0]);
+        store.addRefreshListener(version -> updater.execute(this::update));
+        if (store.isReady()) updater.execute(this::update);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        updater.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /** 누적 상태를 들고 있는 지표 */
+    public List<IndicatorSpec> getSpecs() {
+        return List.of(specs);
+    }
+
+    /**
+     * 전 종목의 date 시점 지표 값 (종목 목록 순서, 값이 아직 없는 종목·오래전에 거래가 끊긴 종목 제외)
+     *
+     * @param date null 이면 최근 거래일
+     * @throws IllegalStateException 저장소가 준비되지 않은 경우
+     */
+    public List<IndicatorValue> valuesAt(IndicatorSpec spec, LocalDate date) {
+        Snapshot s = snapshot;
+        int slot = s == null ? -1 : s.slot(spec);
+        if (slot >= 0 && s.storeVersion == store.getVersion()
+                && (date == null || date.toEpochDay() >= s.lastDay)) {
+            hits.incrementAndGet();
+            return fromState(s, slot, spec);
+        }
+        replays.incrementAndGet();
+        return replay(spec, date);
+    }
+
+    public Map<String, Object> getStats() {
+        Snapshot s = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", s != null);
+        stats.put("specs", Arrays.stream(specs).map(IndicatorSpec::key).toList());
+        stats.put("maxStaleDays", maxStaleDays);
+        stats.put("storeVersion", s == null ? 0 : s.storeVersion);
+        stats.put("symbols", s == null ? 0 : s.symbols.length);
+        stats.put("lastDay", s == null ? null : LocalDate.ofEpochDay(s.lastDay).toString());
+        stats.put("hits", hits.get());
+        stats.put("replays", replays.get());
+        stats.put("advanced", advanced);
+        stats.put("recomputed", recomputed);
+        stats.put("lastUpdateMillis", lastUpdateMillis);
+        return stats;
+    }
+
+    private List<IndicatorValue> fromState(Snapshot s, int slot, IndicatorSpec spec) {
+        int width = spec.type().fields().size();
+        int oldest = oldestDay(s.lastDay);
+        List<IndicatorValue> results = new ArrayList<>(s.symbols.length);
+        for (SymbolState st : s.symbols) {
+            IndicatorState state = st.states[slot];
+            if (!state.ready() || st.lastDay < oldest) continue;
+            double[] values = new double[width];
+            state.values(values);
+            results.add(new IndicatorValue(st.symbol, st.lastDay, st.lastClose, values));
+        }
+        return results;
+    }
+
+    /**
+     * 종목마다 처음부터 date 까지 종가를 넣어 계산 (병렬)
+     */
+    private List<IndicatorValue> replay(IndicatorSpec spec, LocalDate date) {
+        List<PriceSlice> slices = store.sliceAll(null, date);
+        IndicatorValue[] out = new IndicatorValue[slices.size()];
+        int width = spec.type().fields().size();
+        runChunks(slices.size(), i -> {
+            PriceSlice slice = slices.get(i);
+            if (slice.isEmpty()) return;
+            IndicatorState state = spec.newState();
+            for (int k = 0; k < slice.length(); k++) {
+                double close = slice.close(k);
+                if (!Double.isNaN(close)) state.update(close);
+            }
+            if (!state.ready()) return;
+            double[] values = new double[width];
+            state.values(values);
+            int last = slice.length() - 1;
+            out[i] = new IndicatorValue(slice.getSymbol(), slice.epochDay(last), slice.close(last), values);
+        });
+        int lastDay = Integer.MIN_VALUE;
+        for (PriceSlice slice : slices) {
+            if (!slice.isEmpty()) lastDay = Math.max(lastDay, slice.epochDay(slice.length() - 1));
+        }
+        int oldest = oldestDay(lastDay);
+        List<IndicatorValue> results = new ArrayList<>(out.length);
+        for (IndicatorValue v : out) {
+            if (v != null && v.day() >= oldest) results.add(v);
+        }
+        return results;
+    }
+
+    /**
+     * 기준일(조회 시점 시장 마지막 거래일)에서 maxStaleDays 만큼 앞선 날. 이보다 먼저 거래가 끊긴 종목은 뺌
+     */
+    private int oldestDay(int lastDay) {
+        if (maxStaleDays <= 0 || lastDay == Integer.MIN_VALUE) return Integer.MIN_VALUE;
+        return lastDay - maxStaleDays;
+    }
+
+    /**
+     * 저장소 현재 세대로 누적 상태를 갱신합니다. (updater 스레드에서만 호출)
+     */
+    private void update() {
+        if (!store.isReady() || specs.length == 0) return;
+        long started = System.currentTimeMillis();
+        List<PriceSlice> slices = store.sliceAll(null, null);
+        long version = slices.isEmpty() ? store.getVersion() : slices.get(0).getVersion();
+        Snapshot prev = snapshot;
+        if (prev != null && prev.storeVersion == version) return;
+        Map<String, SymbolState> previous = prev == null ? Map.of() : prev.bySymbol;
+        IndicatorSpec[] current = specs;
+
+        SymbolState[] next = new SymbolState[slices.size()];
+        boolean[] extended = new boolean[slices.size()];
+        runChunks(slices.size(), i -> {
+            PriceSlice slice = slices.get(i);
+            if (slice.isEmpty()) return;
+            SymbolState old = previous.get(slice.getSymbol());
+            SymbolState st = old == null ? null : old.advance(slice);
+            if (st != null) {
+                extended[i] = true;
+            } else {
+                st = SymbolState.compute(slice, current);
+            }
+            next[i] = st;
+        });
+
+        List<SymbolState> states = new ArrayList<>(next.length);
+        long advancedCount = 0;
+        int lastDay = Integer.MIN_VALUE;
+        for (int i = 0; i < next.length; i++) {
+            if (next[i] == null) continue;
+            states.add(next[i]);
+            lastDay = Math.max(lastDay, next[i].lastDay);
+            if (extended[i]) advancedCount++;
+        }
+        snapshot = new Snapshot(version, lastDay, current, states.toArray(new SymbolState[0]));
+        advanced = advancedCount;
+        recomputed = states.size() - advancedCount;
+        lastUpdateMillis = System.currentTimeMillis() - started;
+        log.info("IndicatorEngine 갱신: storeVersion={}, 지표={}, 종목={}, 이어서 계산={}, 다시 계산={}, {}ms",
+                version, Arrays.toString(current), states.size(), advancedCount, recomputed, lastUpdateMillis);
+    }
+
+    private void runChunks(int size, IntConsumer body) {
+        int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        try {
+            pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int to = Math.min((chunk + 1) * CHUNK_SIZE, size);
+                for (int i = chunk * CHUNK_SIZE; i < to; i++) body.accept(i);
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("지표 계산이 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("지표 계산 오류: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * 종목 하나의 지표별 누적 상태와 마지막으로 반영한 거래일
+     */
+    private static final class SymbolState {
+        final String symbol;
+        final int lastDay;
+        final double lastClose;
+        // 마지막으로 상태에 넣은(NaN 이 아닌) 종가와 그 거래일. 마지막 날 종가가 비어 있어도 시세가 바뀌었는지 알아보는 데 씀
+        final int fedDay;
+        final double fedClose;
+        final IndicatorState[] states;
+
+        SymbolState(String symbol, PriceSlice slice, IndicatorState[] states) {
+            int last = slice.length() - 1;
+            int fed = last;
+            while (fed >= 0 && Double.isNaN(slice.close(fed))) fed--;
+            this.symbol = symbol;
+            this.lastDay = slice.epochDay(last);
+            this.lastClose = slice.close(last);
+            this.fedDay = fed < 0 ? Integer.MIN_VALUE : slice.epochDay(fed);
+            this.fedClose = fed < 0 ? Double.NaN : slice.close(fed);
+            this.states = states;
+        }
+
+        static SymbolState compute(PriceSlice slice, IndicatorSpec[] specs) {
+            IndicatorState[] states = new IndicatorState[specs.length];
+            for (int j = 0; j < specs.length; j++) states[j] = specs[j].newState();
+            feed(states, slice, 0);
+            return new SymbolState(slice.getSymbol(), slice, states);
+        }
+
+        /**
+         * 상태를 복사해 lastDay 뒤 거래일만 반영. 저장소 시세가 지난 상태와 맞지 않으면 null
+         */
+        SymbolState advance(PriceSlice slice) {
+            int p = slice.length() - 1;
+            while (p >= 0 && slice.epochDay(p) > lastDay) p--;
+            if (p < 0 || slice.epochDay(p) != lastDay || Double.compare(slice.close(p), lastClose) != 0) {
+                return null;
+            }
+            if (fedDay != Integer.MIN_VALUE) {
+                int q = p;
+                while (q >= 0 && slice.epochDay(q) > fedDay) q--;
+                if (q < 0 || slice.epochDay(q) != fedDay || Double.compare(slice.close(q), fedClose) != 0) {
+                    return null;
+                }
+            }
+            if (p == slice.length() - 1) return this;
+            IndicatorState[] copies = new IndicatorState[states.length];
+            for (int j = 0; j < states.length; j++) copies[j] = states[j].copy();
+            feed(copies, slice, p + 1);
+            return new SymbolState(symbol, slice, copies);
+        }
+
+        private static void feed(IndicatorState[] states, PriceSlice slice, int from) {
+            for (int i = from; i < slice.length(); i++) {
+                double close = slice.close(i);
+                if (Double.isNaN(close)) continue;
+                for (IndicatorState state : states) state.update(close);
+            }
+        }
+    }
+
+    private static final class Snapshot {
+        final long storeVersion;
+        final int lastDay;
+        final IndicatorSpec[] specs;
+        final SymbolState[] symbols;
+        final Map<String, SymbolState> bySymbol;
+
+        Snapshot(long storeVersion, int lastDay, IndicatorSpec[] specs, SymbolState[] symbols) {
+            this.storeVersion = storeVersion;
+            this.lastDay = lastDay;
+            this.specs = specs;
+            this.symbols = symbols;
+            this.bySymbol = new HashMap<>(symbols.length * 2);
+            for (SymbolState st : symbols) bySymbol.put(st.symbol, st);
+        }
+
+        int slot(IndicatorSpec spec) {
+            for (int j = 0; j < specs.length; j++) {
+                if (specs[j].equals(spec)) return j;
+            }
+            return -1;
+        }
+    }
+}
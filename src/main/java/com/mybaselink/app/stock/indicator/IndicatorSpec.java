@@ -0,0 +1,55 @@
+package com.mybaselink.app.stock.indicator;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 지표 + 기간 (예: sma20, rsi14, macd, bb20)
+ *
+ * @param period MACD 는 0
+ */
+public record IndicatorSpec(IndicatorType type, int period) {
+
+    static final int MAX_PERIOD = 1000;
+    private static final Pattern KEY = Pattern.compile("([a-zA-Z]+)(\\d*)");
+
+    public IndicatorSpec {
+        if (type.fixedPeriod()) {
+            period = 0;
+        } else if (period < 2 || period > MAX_PERIOD) {
+            throw new IllegalArgumentException(type.key() + " 기간은 2 ~ " + MAX_PERIOD + " 사이여야 합니다: " + period);
+        }
+    }
+
+    /**
+     * @param period null 이면 지표 기본 기간
+     */
+    public static IndicatorSpec of(String indicator, Integer period) {
+        IndicatorType type = IndicatorType.of(indicator.trim());
+        return new IndicatorSpec(type, period == null ? type.defaultPeriod() : period);
+    }
+
+    /**
+     * "sma20" 처럼 이름 뒤에 기간을 붙인 표기. 기간이 없으면 기본 기간
+     */
+    public static IndicatorSpec parse(String key) {
+        Matcher m = KEY.matcher(key.trim());
+        if (!m.matches()) {
+            throw new IllegalArgumentException("지표 표기가 올바르지 않습니다: " + key);
+        }
+        return of(m.group(1), m.group(2).isEmpty() ? null : Integer.parseInt(m.group(2)));
+    }
+
+    public String key() {
+        return type.fixedPeriod() ? type.key() : type.key() + period;
+    }
+
+    IndicatorState newState() {
+        return type.newState(period);
+    }
+
+    @Override
+    public String toString() {
+        return key();
+    }
+}
@@ -0,0 +1,19 @@
+package com.mybaselink.app.stock.indicator;
+
+/**
+ * 종목 하나·지표 하나의 누적 상태. 종가를 한 개씩 넣으면 O(1) 로 갱신됩니다.
+ * <p>
+ * 한 스레드만 갱신하고, 발행된 뒤에는 읽기만 합니다. (갱신이 필요하면 copy 후 갱신)
+ */
+interface IndicatorState {
+
+    void update(double close);
+
+    /** 값을 낼 만큼 종가가 쌓였는지 (기간 미만이면 false) */
+    boolean ready();
+
+    /** out[0, fields) 에 현재 값 (필드 순서는 {@link IndicatorType#fields()}) */
+    void values(double[] out);
+
+    IndicatorState copy();
+}
@@ -0,0 +1,61 @@
+package com.mybaselink.app.stock.indicator;
+
+import java.util.List;
+
+/**
+ * 지원하는 기술적 지표
+ */
+public enum IndicatorType {
+
+    SMA("sma", 20, List.of("sma")),
+    EMA("ema", 20, List.of("ema")),
+    RSI("rsi", 14, List.of("rsi")),
+    /** 기간은 12/26/9 고정 */
+    MACD("macd", 0, List.of("macd", "signal", "histogram")),
+    BOLLINGER("bb", 20, List.of("middle", "upper", "lower"));
+
+    private final String key;
+    private final int defaultPeriod;
+    private final List<String> fields;
+
+    IndicatorType(String key, int defaultPeriod, List<String> fields) {
+        this.key = key;
+        this.defaultPeriod = defaultPeriod;
+        this.fields = fields;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public int defaultPeriod() {
+        return defaultPeriod;
+    }
+
+    /** 값 이름 (첫 번째가 정렬 기준 값) */
+    public List<String> fields() {
+        return fields;
+    }
+
+    /** 기간을 받지 않는 지표 (MACD) */
+    public boolean fixedPeriod() {
+        return defaultPeriod == 0;
+    }
+
+    IndicatorState newState(int period) {
+        return switch (this) {
+            case SMA -> new SmaState(period);
+            case EMA -> new EmaState(period);
+            case RSI -> new RsiState(period);
+            case MACD -> new MacdState();
+            case BOLLINGER -> new BollingerState(period);
+        };
+    }
+
+    public static IndicatorType of(String key) {
+        for (IndicatorType type : values()) {
+            if (type.key.equalsIgnoreCase(key) || type.name().equalsIgnoreCase(key)) return type;
+        }
+        throw new IllegalArgumentException("지원하지 않는 지표입니다: " + key + " (가능: sma, ema, rsi, macd, bb)");
+    }
+}
@@ -0,0 +1,52 @@
+package com.mybaselink.app.stock.indicator;
+
+/**
+ * MACD(12, 26, 9): EMA12 - EMA26, 그 값의 EMA9(시그널), 차이(히스토그램)
+ */
+final class MacdState implements IndicatorState {
+
+    static final int FAST = 12;
+    static final int SLOW = 26;
+    static final int SIGNAL = 9;
+
+    private final EmaState fast;
+    private final EmaState slow;
+    private final EmaState signal;
+
+    MacdState() {
+        this.fast = new EmaState(FAST);
+        this.slow = new EmaState(SLOW);
+        this.signal = new EmaState(SIGNAL);
+    }
+
+    private MacdState(MacdState other) {
+        this.fast = (EmaState) other.fast.copy();
+        this.slow = (EmaState) other.slow.copy();
+        this.signal = (EmaState) other.signal.copy();
+    }
+
+    @Override
+    public void update(double close) {
+        fast.update(close);
+        slow.update(close);
+        if (slow.ready()) signal.update(fast.value() - slow.value());
+    }
+
+    @Override
+    public boolean ready() {
+        return signal.ready();
+    }
+
+    @Override
+    public void values(double[] out) {
+        double macd = fast.value() - slow.value();
+        out[0] = macd;
+        out[1] = signal.value();
+        out[2] = macd - signal.value();
+    }
+
+    @Override
+    public IndicatorState copy() {
+        return new MacdState(this);
+    }
+}
@@ -0,0 +1,78 @@
+package com.mybaselink.app.stock.indicator;
+
+/**
+ * 최근 n 개 종가의 합·제곱합 (원형 버퍼).
+ * <p>
+ * 값에서 기준값 K 를 뺀 합을 들고 있어 가격 수준이 커도 분산 계산의 자릿수 손실이 작고,
+ * 버퍼가 한 바퀴 돌 때마다 합을 다시 더해 누적 반올림 오차를 털어냄 (분할 상환 O(1))
+ */
+final class RollingWindow {
+
+    private final double[] ring;
+    private int index;
+    private long count;
+    private double shift;
+    private double sum;
+    private double sum2;
+
+    RollingWindow(int size) {
+        this.ring = new double[size];
+    }
+
+    private RollingWindow(RollingWindow other) {
+        this.ring = other.ring.clone();
+        this.index = other.index;
+        this.count = other.count;
+        this.shift = other.shift;
+        this.sum = other.sum;
+        this.sum2 = other.sum2;
+    }
+
+    void add(double x) {
+        if (count == 0) shift = x;
+        double d = x - shift;
+        if (count >= ring.length) {
+            double old = ring[index] - shift;
+            sum -= old;
+            sum2 -= old * old;
+        }
+        ring[index] = x;
+        sum += d;
+        sum2 += d * d;
+        count++;
+        if (++index == ring.length) {
+            index = 0;
+            resum();
+        }
+    }
+
+    boolean full() {
+        return count >= ring.length;
+    }
+
+    double mean() {
+        return shift + sum / ring.length;
+    }
+
+    /** 모분산 (n 으로 나눔) */
+    double variance() {
+        double m = sum / ring.length;
+        return Math.max(0.0, sum2 / ring.length - m * m);
+    }
+
+    RollingWindow copy() {
+        return new RollingWindow(this);
+    }
+
+    private void resum() {
+        int filled = (int) Math.min(count, ring.length);
+        shift = ring[(index + ring.length - 1) % ring.length];
+        sum = 0;
+        sum2 = 0;
+        for (int i = 0; i < filled; i++) {
+            double d = ring[i] - shift;
+            sum += d;
+            sum2 += d * d;
+        }
+    }
+}
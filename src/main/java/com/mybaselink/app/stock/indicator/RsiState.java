@@ -0,0 +1,66 @@
+package com.mybaselink.app.stock.indicator;
+
+/**
+ * RSI (Wilder). 처음 n 개 변화의 평균 상승·하락폭으로 시작하고 이후 (이전 × (n - 1) + 이번) / n 으로 평활
+ */
+final class RsiState implements IndicatorState {
+
+    private final int period;
+    private int changes;
+    private boolean started;
+    private double previous;
+    private double gain;
+    private double loss;
+
+    RsiState(int period) {
+        this.period = period;
+    }
+
+    private RsiState(RsiState other) {
+        this.period = other.period;
+        this.changes = other.changes;
+        this.started = other.started;
+        this.previous = other.previous;
+        this.gain = other.gain;
+        this.loss = other.loss;
+    }
+
+    @Override
+    public void update(double close) {
+        if (!started) {
+            started = true;
+            previous = close;
+            return;
+        }
+        double change = close - previous;
+        previous = close;
+        double up = Math.max(change, 0.0);
+        double down = Math.max(-change, 0.0);
+        if (changes < period) {
+            gain += up;
+            loss += down;
+            if (++changes == period) {
+                gain /= period;
+                loss /= period;
+            }
+        } else {
+            gain = (gain * (period - 1) + up) / period;
+            loss = (loss * (period - 1) + down) / period;
+        }
+    }
+
+    @Override
+    public boolean ready() {
+        return changes >= period;
+    }
+
+    @Override
+    public void values(double[] out) {
+        out[0] = loss == 0 ? (gain == 0 ? 50.0 : 100.0) : 100.0 - 100.0 / (1.0 + gain / loss);
+    }
+
+    @Override
+    public IndicatorState copy() {
+        return new RsiState(this);
+    }
+}
@@ -0,0 +1,37 @@
+package com.mybaselink.app.stock.indicator;
+
+/**
+ * 단순 이동평균 (최근 n 개 종가 평균)
+ */
+final class SmaState implements IndicatorState {
+
+    private final RollingWindow window;
+
+    SmaState(int period) {
+        this.window = new RollingWindow(period);
+    }
+
+    private SmaState(SmaState other) {
+        this.window = other.window.copy();
+    }
+
+    @Override
+    public void update(double close) {
+        window.add(close);
+    }
+
+    @Override
+    public boolean ready() {
+        return window.full();
+    }
+
+    @Override
+    public void values(double[] out) {
+        out[0] = window.mean();
+    }
+
+    @Override
+    public IndicatorState copy() {
+        return new SmaState(this);
+    }
+}
@@ -0,0 +1,20 @@
+package com.mybaselink.app.stock.pattern;
+
+/**
+ * 차트 패턴 판정기.
+ * <p>
+ * 빈으로 등록하면 {@link ChartPatternScanner} 가 이름으로 찾아 씁니다.
+ * 종목마다 한 번 만든 {@link PatternFeatures} 를 요청된 모든 판정기가 함께 읽으므로,
+ * 패턴을 여러 개 요청해도 종목 데이터는 한 번만 훑습니다.
+ * 구현은 상태를 두지 말고(여러 스레드가 동시에 호출), 필요한 값은 features 에서 읽어야 합니다.
+ */
+public interface ChartPatternDetector {
+
+    /** 요청·응답에 쓰는 패턴 이름 (예: head_and_shoulders) */
+    String name();
+
+    /** 판정에 필요한 최소 종가 수. 이보다 짧은 종목은 판정하지 않음 */
+    int minLength();
+
+    boolean detect(PatternFeatures features);
+}
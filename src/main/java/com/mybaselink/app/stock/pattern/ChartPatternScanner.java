@@ -0,0 +1,188 @@
+package com.mybaselink.app.stock.pattern;
+
+import com.mybaselink.app.dto.ChartPatternDto;
+import com.mybaselink.app.stock.MarketPriceStore;
+import com.mybaselink.app.stock.PriceSlice;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * ✅ ChartPatternScanner
+ * --------------------------------------------------------
+ * 시세 저장소의 전 종목에서 차트 패턴을 찾습니다. (find_chart_patterns.py --parallel 대체)
+ *
+ * - 판정기는 {@link ChartPatternDetector} 빈을 이름으로 모아 씀
+ * - 종목마다 {@link PatternFeatures} 를 한 번 채우고 요청된 패턴을 모두 판정 (패턴 수와 관계없이 한 번 훑음)
+ * - 종목을 묶음으로 나눠 ForkJoinPool 에서 병렬 판정
+ * - 종가 버퍼와 봉우리 검출기는 스레드별로 재사용 (종목마다 새로 할당하지 않음)
+ * - 결과는 종목 목록 순서 그대로, 패턴마다 앞에서 topN 개 (스크립트와 같은 방식)
+ * --------------------------------------------------------
+ */
+@Component
+public class ChartPatternScanner {
+
+    private static final Logger log = LoggerFactory.getLogger(ChartPatternScanner.class);
+
+    /** 작업 단위 (종목 수) */
+    private static final int CHUNK_SIZE = 64;
+    /** 한 번에 판정할 수 있는 패턴 수 (종목별 결과를 long 비트로 기록) */
+    private static final int MAX_PATTERNS = Long.SIZE;
+
+    private final MarketPriceStore store;
+    private final Map<String, ChartPatternDetector> detectors = new LinkedHashMap<>();
+
+    @Value("${similarity.engine.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+
+    private final ThreadLocal<PatternFeatures> workspaces = ThreadLocal.withInitial(PatternFeatures::new);
+
+    private final AtomicLong scans = new AtomicLong();
+    private final AtomicLong totalMillis = new AtomicLong();
+
+    public ChartPatternScanner(MarketPriceStore store, List<ChartPatternDetector> detectors) {
+        this.store = store;
+        for (ChartPatternDetector detector : detectors) {
+            if (this.detectors.putIfAbsent(detector.name(), detector) != null) {
+                throw new IllegalStateException("같은 이름의 차트 패턴 판정기가 둘 이상입니다: " + detector.name());
+            }
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /** 등록된 패턴 이름 */
+    public Set<String> getPatterns() {
+        return detectors.keySet();
+    }
+
+    /**
+     * 저장소가 준비됐고 요청한 패턴을 모두 JVM 에서 판정할 수 있으면 true
+     */
+    public boolean canServe(List<String> patterns) {
+        return store.isReady() && !patterns.isEmpty() && detectors.keySet().containsAll(patterns);
+    }
+
+    /**
+     * [start, end] 구간 종가로 패턴들을 한 번에 판정해, 종목 목록 순서로 패턴마다 최대 topN 개를 돌려줍니다.
+     *
+     * @throws IllegalStateException    저장소가 준비되지 않은 경우
+     * @throws IllegalArgumentException 패턴이 없거나 등록되지 않은 패턴이 있는 경우
+     */
+    public List<ChartPatternDto> scan(LocalDate start, LocalDate end, List<String> patterns, int topN) {
+        if (!store.isReady()) {
+            throw new IllegalStateException("시세 저장소가 아직 준비되지 않았습니다.");
+        }
+        ChartPatternDetector[] selected = select(patterns);
+        int minLength = Integer.MAX_VALUE;
+        for (ChartPatternDetector detector : selected) minLength = Math.min(minLength, detector.minLength());
+        int shortest = minLength;
+
+        long started = System.nanoTime();
+        List<PriceSlice> slices = store.sliceAll(start, end);
+        // 종목 위치별 판정 결과 (비트 p = selected[p] 일치, 각 칸은 한 스레드만 씀)
+        long[] matched = new long[slices.size()];
+        int chunks = (slices.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        try {
+            pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                PatternFeatures features = workspaces.get();
+                int to = Math.min((chunk + 1) * CHUNK_SIZE, slices.size());
+                for (int i = chunk * CHUNK_SIZE; i < to; i++) {
+                    PriceSlice slice = slices.get(i);
+                    int n = slice.length();
+                    if (n < shortest) continue;
+                    features.load(slice);
+                    long bits = 0;
+                    for (int p = 0; p < selected.length; p++) {
+                        if (n >= selected[p].minLength() && selected[p].detect(features)) bits |= 1L << p;
+                    }
+                    matched[i] = bits;
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("차트 패턴 검색이 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("차트 패턴 검색 오류: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        List<ChartPatternDto> results = new ArrayList<>();
+        int[] counts = new int[selected.length];
+        for (int i = 0; i < matched.length; i++) {
+            if (matched[i] == 0) continue;
+            PriceSlice slice = slices.get(i);
+            for (int p = 0; p < selected.length; p++) {
+                if ((matched[i] & (1L << p)) == 0 || counts[p] >= topN) continue;
+                counts[p]++;
+                ChartPatternDto dto = new ChartPatternDto();
+                dto.setSymbol(slice.getSymbol());
+                dto.setName(store.getName(slice.getSymbol()));
+                dto.setPattern(selected[p].name());
+                dto.setStartDate(slice.date(0).toString());
+                dto.setEndDate(slice.date(slice.length() - 1).toString());
+                results.add(dto);
+            }
+        }
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+        scans.incrementAndGet();
+        totalMillis.addAndGet(elapsed);
+        log.info("차트 패턴 검색: patterns={}, 구간={}~{}, 종목={}, 결과={}, {}ms",
+                patterns, start, end, slices.size(), results.size(), elapsed);
+        return results;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long count = scans.get();
+        stats.put("scans", count);
+        stats.put("avgMillis", count == 0 ? 0 : totalMillis.get() / count);
+        stats.put("patterns", detectors.keySet());
+        return stats;
+    }
+
+    private ChartPatternDetector[] select(List<String> patterns) {
+        Set<String> names = new LinkedHashSet<>(patterns);
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("패턴을 하나 이상 지정해야 합니다.");
+        }
+        if (names.size() > MAX_PATTERNS) {
+            throw new IllegalArgumentException("한 번에 판정할 수 있는 패턴은 " + MAX_PATTERNS + "개까지입니다.");
+        }
+        ChartPatternDetector[] selected = new ChartPatternDetector[names.size()];
+        int p = 0;
+        for (String name : names) {
+            ChartPatternDetector detector = detectors.get(name);
+            if (detector == null) {
+                throw new IllegalArgumentException("지원하지 않는 패턴입니다: " + name + " (가능: " + detectors.keySet() + ")");
+            }
+            selected[p++] = detector;
+        }
+        return selected;
+    }
+}
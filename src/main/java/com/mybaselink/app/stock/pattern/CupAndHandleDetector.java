@@ -0,0 +1,74 @@
+package com.mybaselink.app.stock.pattern;
+
+/**
+ * 컵 앤 핸들 판정 (마지막 120거래일, 데이터가 짧으면 전체)
+ * <p>
+ * - 왼쪽 테두리: 구간 봉우리 중 가장 높은 것 (핸들이 들어갈 자리를 남기고 앞쪽에서 고름)
+ * - 컵 바닥: 왼쪽 테두리 이후 최저 종가. 깊이 12% ~ 50%, 테두리에서 10거래일 이상 떨어짐 (V 자 제외)
+ * - 오른쪽 테두리: 바닥 이후 최고 종가. 왼쪽 테두리와 5% 안, 바닥에서 10거래일 이상
+ * - 핸들: 오른쪽 테두리 이후 3거래일 이상, 컵 길이의 1/3 이하.
+ *   테두리 대비 2% ~ 15% 눌림, 저점이 컵 중간보다 위, 하루 -7% 넘는 급락 없음
+ */
+public final class CupAndHandleDetector implements ChartPatternDetector {
+
+    public static final String PATTERN = "cup_and_handle";
+
+    static final int MIN_LENGTH = 60;
+    static final int LOOKBACK = 120;
+    static final int MIN_SIDE = 10;
+    static final int MIN_HANDLE = 3;
+    static final double MIN_DEPTH = 0.12;
+    static final double MAX_DEPTH = 0.50;
+    static final double RIM_TOLERANCE = 0.05;
+    static final double MIN_PULLBACK = 0.02;
+    static final double MAX_PULLBACK = 0.15;
+    static final double MAX_HANDLE_DROP = -0.07;
+
+    @Override
+    public String name() {
+        return PATTERN;
+    }
+
+    @Override
+    public int minLength() {
+        return MIN_LENGTH;
+    }
+
+    @Override
+    public boolean detect(PatternFeatures f) {
+        int n = f.length();
+        if (n < MIN_LENGTH) return false;
+        int from = Math.max(0, n - LOOKBACK);
+        int latestRim = n - 1 - MIN_HANDLE - 2 * MIN_SIDE;
+
+        int left = -1;
+        for (int i = f.firstExtremumFrom(false, from); i < f.peakCount(); i++) {
+            int p = f.peak(i);
+            if (p > latestRim) break;
+            if (left < 0 || f.close(p) > f.close(left)) left = p;
+        }
+        if (left < 0) return false;
+        double rim = f.close(left);
+
+        int bottom = f.argMin(left + 1, n - MIN_HANDLE);
+        if (bottom < 0 || bottom - left < MIN_SIDE) return false;
+        double depth = (rim - f.close(bottom)) / rim;
+        if (depth < MIN_DEPTH || depth > MAX_DEPTH) return false;
+
+        int right = f.argMax(bottom + 1, n - MIN_HANDLE);
+        if (right < 0 || right - bottom < MIN_SIDE) return false;
+        double rightRim = f.close(right);
+        if (Math.abs(rightRim - rim) / rim >= RIM_TOLERANCE) return false;
+
+        int handle = n - 1 - right;
+        if (handle < MIN_HANDLE || handle * 3 > right - left) return false;
+        int handleLow = f.argMin(right + 1, n);
+        double pullback = (rightRim - f.close(handleLow)) / rightRim;
+        if (pullback < MIN_PULLBACK || pullback > MAX_PULLBACK) return false;
+        if (f.close(handleLow) <= (rim + f.close(bottom)) / 2) return false;
+        for (int i = right + 1; i < n; i++) {
+            if (f.dailyReturn(i) < MAX_HANDLE_DROP) return false;
+        }
+        return true;
+    }
+}
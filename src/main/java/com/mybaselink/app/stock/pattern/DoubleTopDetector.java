@@ -0,0 +1,56 @@
+package com.mybaselink.app.stock.pattern;
+
+/**
+ * 쌍봉(double top) / 쌍바닥(double bottom) 판정
+ * <p>
+ * - 가장 최근 봉우리 두 개가 모두 마지막 60거래일 안에 있고, 높이 차이가 높은 쪽의 3% 미만
+ * - 두 봉우리 사이 최저 종가(넥라인)가 낮은 봉우리보다 5% 이상 낮음
+ * - bottom 이면 골짜기로 같은 판정 (사이 최고 종가가 높은 골짜기보다 5% 이상 높음)
+ */
+public final class DoubleTopDetector implements ChartPatternDetector {
+
+    public static final String PATTERN = "double_top";
+    public static final String BOTTOM_PATTERN = "double_bottom";
+
+    static final int MIN_LENGTH = 60;
+    static final int LOOKBACK = 60;
+    static final double PEAK_TOLERANCE = 0.03;
+    static final double MIN_DEPTH = 0.05;
+
+    private final boolean bottom;
+
+    public DoubleTopDetector(boolean bottom) {
+        this.bottom = bottom;
+    }
+
+    @Override
+    public String name() {
+        return bottom ? BOTTOM_PATTERN : PATTERN;
+    }
+
+    @Override
+    public int minLength() {
+        return MIN_LENGTH;
+    }
+
+    @Override
+    public boolean detect(PatternFeatures f) {
+        int n = f.length();
+        if (n < MIN_LENGTH) return false;
+        int count = f.extremaCount(bottom);
+        if (count < 2) return false;
+        int a = f.extremum(bottom, count - 2);
+        int b = f.extremum(bottom, count - 1);
+        if (a < n - LOOKBACK) return false;
+        double first = f.close(a);
+        double second = f.close(b);
+        double higher = Math.max(first, second);
+        if (Math.abs(first - second) / higher >= PEAK_TOLERANCE) return false;
+        if (bottom) {
+            int neck = f.argMax(a + 1, b);
+            return neck >= 0 && f.close(neck) >= higher * (1 + MIN_DEPTH);
+        }
+        int neck = f.argMin(a + 1, b);
+        return neck >= 0 && f.close(neck) <= Math.min(first, second) * (1 - MIN_DEPTH);
+    }
+}
@@ -0,0 +1,54 @@
+package com.mybaselink.app.stock.pattern;
+
+/**
+ * 헤드 앤 숄더 판정 (find_chart_patterns.py 의 detect_head_and_shoulders 와 같은 규칙)
+ * <p>
+ * - 종가 60개 미만이면 판정하지 않음
+ * - 봉우리: {@link PatternFeatures} 기본값 (간격 10일, 돌출도 구간 최고 종가의 2%)
+ * - 마지막 60거래일 안의 연속한 봉우리 세 개가 왼쪽 어깨 &lt; 머리 &gt; 오른쪽 어깨이고,
+ *   두 어깨 높이 차이가 머리 높이의 5% 미만이면 패턴
+ * - inverse 이면 골짜기로 같은 판정 (역헤드 앤 숄더: 머리가 가장 낮음)
+ */
+public final class HeadAndShouldersDetector implements ChartPatternDetector {
+
+    public static final String PATTERN = "head_and_shoulders";
+    public static final String INVERSE_PATTERN = "inverse_head_and_shoulders";
+
+    static final int MIN_LENGTH = 60;
+    static final int LOOKBACK = 60;
+    static final double SHOULDER_TOLERANCE = 0.05;
+
+    private final boolean inverse;
+
+    public HeadAndShouldersDetector(boolean inverse) {
+        this.inverse = inverse;
+    }
+
+    @Override
+    public String name() {
+        return inverse ? INVERSE_PATTERN : PATTERN;
+    }
+
+    @Override
+    public int minLength() {
+        return MIN_LENGTH;
+    }
+
+    @Override
+    public boolean detect(PatternFeatures f) {
+        int n = f.length();
+        if (n < MIN_LENGTH || Double.isNaN(f.max())) return false;
+        // 골짜기는 부호를 뒤집어 봉우리와 같은 부등호로 비교
+        double sign = inverse ? -1.0 : 1.0;
+        int count = f.extremaCount(inverse);
+        for (int i = f.firstExtremumFrom(inverse, n - LOOKBACK); i + 2 < count; i++) {
+            double left = sign * f.close(f.extremum(inverse, i));
+            double head = sign * f.close(f.extremum(inverse, i + 1));
+            double right = sign * f.close(f.extremum(inverse, i + 2));
+            if (left < head && head > right && Math.abs(left - right) / Math.abs(head) < SHOULDER_TOLERANCE) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
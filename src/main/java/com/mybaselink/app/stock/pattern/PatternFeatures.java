@@ -0,0 +1,217 @@
+package com.mybaselink.app.stock.pattern;
+
+import com.mybaselink.app.stock.PriceSlice;
+
+/**
+ * ✅ PatternFeatures
+ * --------------------------------------------------------
+ * 종목 하나의 구간 종가와, 여러 판정기가 함께 쓰는 파생 값.
+ *
+ * - 봉우리·골짜기: 간격 {@link #PEAK_DISTANCE}일 이상, 돌출도 구간 최고 종가의 2% 이상
+ *   (find_chart_patterns.py 의 find_peaks 인자와 같음. 골짜기는 부호를 뒤집은 종가의 봉우리)
+ * - 최근 {@link #ROLLING_WINDOW}거래일 최고·최저 종가, 일간 수익률
+ * - 모든 값은 처음 읽을 때 한 번만 계산 (요청된 판정기가 쓰지 않으면 계산하지 않음)
+ * - 스레드별로 하나씩 두고 종목마다 load 로 다시 채움 (버퍼는 길이가 늘어날 때만 다시 할당)
+ * --------------------------------------------------------
+ */
+public final class PatternFeatures {
+
+    public static final int PEAK_DISTANCE = 10;
+    public static final double PROMINENCE_RATIO = 0.02;
+    public static final int ROLLING_WINDOW = 20;
+
+    private final PeakFinder peakFinder = new PeakFinder();
+    private final PeakFinder troughFinder = new PeakFinder();
+
+    private double[] close = new double[0];
+    private double[] negated = new double[0];
+    private double[] returns = new double[0];
+    private double[] rollingMax = new double[0];
+    private double[] rollingMin = new double[0];
+    private int[] deque = new int[0];
+    private int n;
+    private double max;
+    private double min;
+
+    private boolean peaksReady;
+    private boolean troughsReady;
+    private boolean returnsReady;
+    private boolean rollingReady;
+
+    PatternFeatures() {
+    }
+
+    /**
+     * 종목 구간 종가로 다시 채웁니다. 이전 종목의 파생 값은 모두 버려짐
+     */
+    void load(PriceSlice slice) {
+        int len = slice.length();
+        ensure(len);
+        for (int i = 0; i < len; i++) close[i] = slice.close(i);
+        reset(len);
+    }
+
+    void load(double[] values, int len) {
+        ensure(len);
+        System.arraycopy(values, 0, close, 0, len);
+        reset(len);
+    }
+
+    public int length() {
+        return n;
+    }
+
+    public double close(int i) {
+        return close[i];
+    }
+
+    /** 구간 최고 종가 (NaN 제외, 전부 NaN 이면 NaN) */
+    public double max() {
+        return max;
+    }
+
+    /** 구간 최저 종가 (NaN 제외, 전부 NaN 이면 NaN) */
+    public double min() {
+        return min;
+    }
+
+    /** [from, to) 최고 종가 위치 (같으면 앞쪽, 없으면 -1) */
+    public int argMax(int from, int to) {
+        int best = -1;
+        for (int i = Math.max(from, 0); i < Math.min(to, n); i++) {
+            if (best < 0 ? !Double.isNaN(close[i]) : close[i] > close[best]) best = i;
+        }
+        return best;
+    }
+
+    /** [from, to) 최저 종가 위치 (같으면 앞쪽, 없으면 -1) */
+    public int argMin(int from, int to) {
+        int best = -1;
+        for (int i = Math.max(from, 0); i < Math.min(to, n); i++) {
+            if (best < 0 ? !Double.isNaN(close[i]) : close[i] < close[best]) best = i;
+        }
+        return best;
+    }
+
+    public int peakCount() {
+        ensurePeaks();
+        return peakFinder.count();
+    }
+
+    /** i 번째 봉우리 위치 (오름차순) */
+    public int peak(int i) {
+        ensurePeaks();
+        return peakFinder.peak(i);
+    }
+
+    public int troughCount() {
+        ensureTroughs();
+        return troughFinder.count();
+    }
+
+    /** i 번째 골짜기 위치 (오름차순) */
+    public int trough(int i) {
+        ensureTroughs();
+        return troughFinder.peak(i);
+    }
+
+    /** troughs 이면 골짜기, 아니면 봉우리 개수 (뒤집힌 패턴을 한 코드로 판정할 때 사용) */
+    public int extremaCount(boolean troughs) {
+        return troughs ? troughCount() : peakCount();
+    }
+
+    public int extremum(boolean troughs, int i) {
+        return troughs ? trough(i) : peak(i);
+    }
+
+    /** day 이상인 첫 봉우리(또는 골짜기)의 순번. 없으면 개수 */
+    public int firstExtremumFrom(boolean troughs, int day) {
+        int count = extremaCount(troughs);
+        int i = 0;
+        while (i < count && extremum(troughs, i) < day) i++;
+        return i;
+    }
+
+    /** 일간 수익률 close[i] / close[i - 1] - 1 (0 번째는 0) */
+    public double dailyReturn(int i) {
+        if (!returnsReady) {
+            if (n > 0) returns[0] = 0;
+            for (int k = 1; k < n; k++) returns[k] = close[k] / close[k - 1] - 1.0;
+            returnsReady = true;
+        }
+        return returns[i];
+    }
+
+    /** i 까지 최근 {@link #ROLLING_WINDOW}거래일 최고 종가 */
+    public double rollingMax(int i) {
+        ensureRolling();
+        return rollingMax[i];
+    }
+
+    /** i 까지 최근 {@link #ROLLING_WINDOW}거래일 최저 종가 */
+    public double rollingMin(int i) {
+        ensureRolling();
+        return rollingMin[i];
+    }
+
+    private void reset(int len) {
+        n = len;
+        max = Double.NaN;
+        min = Double.NaN;
+        for (int i = 0; i < len; i++) {
+            double v = close[i];
+            // pandas max()/min() 처럼 NaN 은 건너뜀
+            if (v > max || Double.isNaN(max)) max = v;
+            if (v < min || Double.isNaN(min)) min = v;
+        }
+        peaksReady = false;
+        troughsReady = false;
+        returnsReady = false;
+        rollingReady = false;
+    }
+
+    private void ensurePeaks() {
+        if (peaksReady) return;
+        peakFinder.find(close, n, PEAK_DISTANCE, max * PROMINENCE_RATIO);
+        peaksReady = true;
+    }
+
+    private void ensureTroughs() {
+        if (troughsReady) return;
+        for (int i = 0; i < n; i++) negated[i] = -close[i];
+        troughFinder.find(negated, n, PEAK_DISTANCE, max * PROMINENCE_RATIO);
+        troughsReady = true;
+    }
+
+    /**
+     * 단조 덱으로 최근 구간 최고·최저를 O(n) 에 계산
+     */
+    private void ensureRolling() {
+        if (rollingReady) return;
+        slidingExtreme(rollingMax, true);
+        slidingExtreme(rollingMin, false);
+        rollingReady = true;
+    }
+
+    private void slidingExtreme(double[] out, boolean highest) {
+        int head = 0, tail = 0;
+        for (int i = 0; i < n; i++) {
+            double v = close[i];
+            while (tail > head && (highest ? close[deque[tail - 1]] <= v : close[deque[tail - 1]] >= v)) tail--;
+            deque[tail++] = i;
+            if (deque[head] <= i - ROLLING_WINDOW) head++;
+            out[i] = close[deque[head]];
+        }
+    }
+
+    private void ensure(int len) {
+        if (close.length < len) {
+            close = new double[len];
+            negated = new double[len];
+            returns = new double[len];
+            rollingMax = new double[len];
+            rollingMin = new double[len];
+            deque = new int[len];
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.mybaselink.app.stock.pattern;
+
+/**
+ * ✅ PeakFinder
+ * --------------------------------------------------------
+ * scipy.signal.find_peaks(x, distance=, prominence=) 를 옮긴 봉우리 검출기.
+ *
+ * - 지역 최대(평탄한 꼭대기는 가운데 위치), 거리 조건, 돌출도 조건 순서로 걸러냄 (scipy 와 같은 순서)
+ * - 거리 조건은 높은 봉우리부터 남기고 그 주변 distance 미만을 지움.
+ *   높이가 같으면 뒤쪽 봉우리를 먼저 남김 (numpy argsort 가 작은 배열에서 내는 순서와 같음)
+ * - 돌출도는 wlen 없이 양쪽 끝까지 본 값 (scipy 기본값)
+ * - 버퍼는 인스턴스가 들고 있고 길이가 늘어날 때만 다시 할당하므로, 스레드마다 하나씩 두고 재사용
+ * --------------------------------------------------------
+ */
+public final class PeakFinder {
+
+    private int[] peaks = new int[0];
+    private int[] order = new int[0];
+    private int[] scratch = new int[0];
+    private boolean[] keep = new boolean[0];
+    private int count;
+
+    /**
+     * x[0, n) 의 봉우리를 찾습니다.
+     *
+     * @param distance      봉우리 사이 최소 간격 (1 이하이면 거르지 않음)
+     * @param minProminence 최소 돌출도 (NaN 이면 거르지 않음)
+     * @return 찾은 봉우리 수. 위치는 {@link #peak(int)} 로 오름차순 조회
+     */
+    public int find(double[] x, int n, int distance, double minProminence) {
+        ensure(n / 2 + 1);
+        int m = localMaxima(x, n);
+        if (distance > 1 && m > 1) m = selectByDistance(x, m, distance);
+        if (!Double.isNaN(minProminence) && m > 0) m = selectByProminence(x, n, m, minProminence);
+        count = m;
+        return m;
+    }
+
+    /** 마지막 find 결과 개수 */
+    public int count() {
+        return count;
+    }
+
+    /** 마지막 find 결과의 i 번째 봉우리 위치 */
+    public int peak(int i) {
+        if (i < 0 || i >= count) throw new IndexOutOfBoundsException("peak " + i + " / " + count);
+        return peaks[i];
+    }
+
+    /**
+     * 봉우리 하나의 돌출도: 양쪽으로 더 높은 값을 만나기 전까지의 최저점 중 높은 쪽과의 차이
+     */
+    public static double prominence(double[] x, int n, int peak) {
+        double height = x[peak];
+        double leftMin = height;
+        for (int i = peak; i >= 0 && x[i] <= height; i--) {
+            if (x[i] < leftMin) leftMin = x[i];
+        }
+        double rightMin = height;
+        for (int i = peak; i < n && x[i] <= height; i++) {
+            if (x[i] < rightMin) rightMin = x[i];
+        }
+        return height - Math.max(leftMin, rightMin);
+    }
+
+    /**
+     * 양옆보다 높은 점. 같은 값이 이어지는 꼭대기는 가운데(왼쪽으로 내림) 위치 하나로 셉니다.
+     */
+    private int localMaxima(double[] x, int n) {
+        int m = 0;
+        int last = n - 1;
+        int i = 1;
+        while (i < last) {
+            if (x[i - 1] < x[i]) {
+                int ahead = i + 1;
+                while (ahead < last && x[ahead] == x[i]) ahead++;
+                if (x[ahead] < x[i]) {
+                    peaks[m++] = (i + ahead - 1) >>> 1;
+                    i = ahead;
+                }
+            }
+            i++;
+        }
+        return m;
+    }
+
+    private int selectByDistance(double[] x, int m, int distance) {
+        for (int i = 0; i < m; i++) {
+            order[i] = i;
+            keep[i] = true;
+        }
+        sortByHeight(x, m);
+        for (int r = m - 1; r >= 0; r--) {
+            int j = order[r];
+            if (!keep[j]) continue;
+            for (int k = j - 1; k >= 0 && peaks[j] - peaks[k] < distance; k--) keep[k] = false;
+            for (int k = j + 1; k < m && peaks[k] - peaks[j] < distance; k++) keep[k] = false;
+        }
+        int w = 0;
+        for (int i = 0; i < m; i++) {
+            if (keep[i]) peaks[w++] = peaks[i];
+        }
+        return w;
+    }
+
+    private int selectByProminence(double[] x, int n, int m, double minProminence) {
+        int w = 0;
+        for (int i = 0; i < m; i++) {
+            if (prominence(x, n, peaks[i]) >= minProminence) peaks[w++] = peaks[i];
+        }
+        return w;
+    }
+
+    /**
+     * order[0, m) 를 봉우리 높이 오름차순으로 정렬 (상향식 병합 정렬, 같은 높이는 위치 순서 유지)
+     */
+    private void sortByHeight(double[] x, int m) {
+        int[] src = order;
+        int[] dst = scratch;
+        for (int width = 1; width < m; width <<= 1) {
+            for (int lo = 0; lo < m; lo += width << 1) {
+                int mid = Math.min(lo + width, m);
+                int hi = Math.min(lo + (width << 1), m);
+                int a = lo, b = mid, o = lo;
+                while (a < mid && b < hi) {
+                    dst[o++] = x[peaks[src[b]]] < x[peaks[src[a]]] ? src[b++] : src[a++];
+                }
+                while (a < mid) dst[o++] = src[a++];
+                while (b < hi) dst[o++] = src[b++];
+            }
+            int[] t = src;
+            src = dst;
+            dst = t;
+        }
+        if (src != order) System.arraycopy(src, 0, order, 0, m);
+    }
+
+    private void ensure(int capacity) {
+        if (peaks.length < capacity) {
+            peaks = new int[capacity];
+            order = new int[capacity];
+            scratch = new int[capacity];
+            keep = new boolean[capacity];
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.mybaselink.app.stock.pattern;
+
+/**
+ * 삼각수렴 판정 (상승·하락·대칭)
+ * <p>
+ * - 마지막 60거래일 안에 봉우리·골짜기가 각각 2개 이상
+ * - 첫·마지막 봉우리(고점선)와 첫·마지막 골짜기(저점선)의 변화율로 기울기를 봄.
+ *   ±2% 안이면 수평, 그보다 크면 상승/하락
+ *   · 상승 삼각형: 고점선 수평, 저점선 상승
+ *   · 하락 삼각형: 고점선 하락, 저점선 수평
+ *   · 대칭 삼각형: 고점선 하락, 저점선 상승
+ * - 20일 고저폭이 구간 초반보다 30% 이상 줄어듦 (수렴)
+ * - 마지막 종가가 아직 고점선·저점선 사이 (이탈 전)
+ */
+public final class TriangleDetector implements ChartPatternDetector {
+
+    public enum Kind {
+        ASCENDING("ascending_triangle"),
+        DESCENDING("descending_triangle"),
+        SYMMETRICAL("symmetrical_triangle");
+
+        private final String pattern;
+
+        Kind(String pattern) {
+            this.pattern = pattern;
+        }
+    }
+
+    static final int MIN_LENGTH = 60;
+    static final int LOOKBACK = 60;
+    static final double FLAT_TOLERANCE = 0.02;
+    static final double MAX_RANGE_RATIO = 0.7;
+
+    private final Kind kind;
+
+    public TriangleDetector(Kind kind) {
+        this.kind = kind;
+    }
+
+    @Override
+    public String name() {
+        return kind.pattern;
+    }
+
+    @Override
+    public int minLength() {
+        return MIN_LENGTH;
+    }
+
+    @Override
+    public boolean detect(PatternFeatures f) {
+        int n = f.length();
+        if (n < MIN_LENGTH) return false;
+        int from = n - LOOKBACK;
+
+        int firstPeak = f.firstExtremumFrom(false, from);
+        int lastPeak = f.peakCount() - 1;
+        int firstTrough = f.firstExtremumFrom(true, from);
+        int lastTrough = f.troughCount() - 1;
+        if (lastPeak - firstPeak < 1 || lastTrough - firstTrough < 1) return false;
+
+        double highStart = f.close(f.peak(firstPeak));
+        double highEnd = f.close(f.peak(lastPeak));
+        double lowStart = f.close(f.trough(firstTrough));
+        double lowEnd = f.close(f.trough(lastTrough));
+        int high = slope(highStart, highEnd);
+        int low = slope(lowStart, lowEnd);
+        boolean shape = switch (kind) {
+            case ASCENDING -> high == 0 && low > 0;
+            case DESCENDING -> high < 0 && low == 0;
+            case SYMMETRICAL -> high < 0 && low > 0;
+        };
+        if (!shape) return false;
+
+        // 구간 초반 20일 고저폭 대비 마지막 20일 고저폭
+        int early = from + PatternFeatures.ROLLING_WINDOW - 1;
+        double earlyRange = f.rollingMax(early) - f.rollingMin(early);
+        double lateRange = f.rollingMax(n - 1) - f.rollingMin(n - 1);
+        if (!(lateRange <= earlyRange * MAX_RANGE_RATIO)) return false;
+
+        double last = f.close(n - 1);
+        return last <= highEnd * (1 + FLAT_TOLERANCE) && last >= lowEnd * (1 - FLAT_TOLERANCE);
+    }
+
+    /** 1 상승, -1 하락, 0 수평 */
+    private static int slope(double start, double end) {
+        double change = end / start - 1.0;
+        if (change > FLAT_TOLERANCE) return 1;
+        if (change < -FLAT_TOLERANCE) return -1;
+        return 0;
+    }
+}
@@ -0,0 +1,141 @@
+package com.mybaselink.app.stock.similarity;
+
+import java.util.Arrays;
+
+/**
+ * Sakoe-Chiba 밴드 DTW 와 하한(lower bound) 계산.
+ * <p>
+ * 거리는 dtaidistance 와 같이 제곱 오차 누적의 제곱근이며, 내부에서는 제곱 거리로 비교합니다.
+ * 후보 하나는 LB_Kim → LB_Keogh → (조기 중단) DTW 순서로 걸러집니다.
+ * 모든 버퍼는 {@link Workspace} 에서 재사용하므로 후보 루프에서 할당이 없습니다.
+ */
+final class Dtw {
+
+    static final double INF = Double.POSITIVE_INFINITY;
+
+    private Dtw() {
+    }
+
+    /**
+     * 밴드 폭 (한쪽 방향 칸 수)
+     */
+    static int window(int n, double ratio) {
+        if (ratio >= 1.0) return n;
+        return Math.max(1, (int) Math.ceil(n * Math.max(ratio, 0)));
+    }
+
+    /**
+     * 기준 시계열 q 의 LB_Keogh 상·하한 envelope
+     */
+    static void envelope(double[] q, int n, int w, double[] upper, double[] lower) {
+        for (int i = 0; i < n; i++) {
+            int lo = Math.max(0, i - w);
+            int hi = Math.min(n - 1, i + w);
+            double u = q[lo], l = q[lo];
+            for (int j = lo + 1; j <= hi; j++) {
+                double v = q[j];
+                if (v > u) u = v;
+                if (v < l) l = v;
+            }
+            upper[i] = u;
+            lower[i] = l;
+        }
+    }
+
+    /**
+     * LB_Kim (양끝 점은 반드시 서로 매칭됨)
+     */
+    static double lbKim(double[] q, double[] c, int n) {
+        double d0 = q[0] - c[0];
+        double dn = q[n - 1] - c[n - 1];
+        return d0 * d0 + dn * dn;
+    }
+
+    /**
+     * LB_Keogh. 후보 인덱스별 기여분을 tail 에 누적(뒤에서부터 합)해 DTW 조기 중단에 사용합니다.
+     *
+     * @param tail 길이 n + 1. tail[j] = j 이후 기여분 합, 중간에 bestSoFar 를 넘으면 계산을 멈추고 INF
+     */
+    static double lbKeogh(double[] c, int n, double[] upper, double[] lower, double bestSoFar, double[] tail) {
+        double sum = 0;
+        for (int j = 0; j < n; j++) {
+            double v = c[j];
+            double d = v > upper[j] ? v - upper[j] : v < lower[j] ? lower[j] - v : 0;
+            double contribution = d * d;
+            tail[j] = contribution;
+            sum += contribution;
+            if (sum > bestSoFar) return INF;
+        }
+        tail[n] = 0;
+        for (int j = n - 1; j >= 0; j--) {
+            tail[j] += tail[j + 1];
+        }
+        return sum;
+    }
+
+    /**
+     * 밴드 DTW 제곱 거리. 행 최솟값 + 남은 LB_Keogh 하한이 bestSoFar 를 넘으면 INF 로 중단합니다.
+     *
+     * @param tail {@link #lbKeogh} 가 채운 누적 하한 (null 이면 사용 안 함)
+     */
+    static double distanceSquared(double[] q, double[] c, int n, int w, double bestSoFar, double[] tail, Workspace ws) {
+        double[] prev = ws.prev;
+        double[] cur = ws.cur;
+        Arrays.fill(prev, 0, n, INF);
+
+        for (int i = 0; i < n; i++) {
+            int lo = Math.max(0, i - w);
+            int hi = Math.min(n - 1, i + w);
+            double qi = q[i];
+            double rowMin = INF;
+
+            for (int j = lo; j <= hi; j++) {
+                double d = qi - c[j];
+                double best;
+                if (i == 0 && j == 0) {
+                    best = 0;
+                } else {
+                    best = prev[j];
+                    if (j > 0) {
+                        if (prev[j - 1] < best) best = prev[j - 1];
+                        if (j > lo && cur[j - 1] < best) best = cur[j - 1];
+                    }
+                }
+                double v = d * d + best;
+                cur[j] = v;
+                if (v < rowMin) rowMin = v;
+            }
+            if (hi + 1 < n) cur[hi + 1] = INF;
+
+            // 이 행 이후 아직 매칭되지 않은 후보 칸(hi + 1 ~)의 하한
+            double remaining = tail == null || hi + 1 >= n ? 0 : tail[hi + 1];
+            if (rowMin + remaining > bestSoFar) return INF;
+
+            double[] t = prev;
+            prev = cur;
+            cur = t;
+        }
+        return prev[n - 1];
+    }
+
+    /**
+     * 스레드별로 재사용하는 버퍼
+     */
+    static final class Workspace {
+        double[] aligned = new double[0];
+        double[] sums = new double[SimilarityKernel.SUMS];
+        double[] prev = new double[0];
+        double[] cur = new double[0];
+        double[] tail = new double[0];
+
+        Workspace ensure(int n) {
+            if (aligned.length < n) {
+                aligned = new double[n];
+                prev = new double[n];
+                cur = new double[n];
+                tail = new double[n + 1];
+            }
+            return this;
+        }
+    }
+}
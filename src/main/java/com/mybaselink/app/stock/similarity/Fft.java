@@ -0,0 +1,91 @@
+package com.mybaselink.app.stock.similarity;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 길이 2^k 복소수 FFT (in-place, 반복형 radix-2).
+ * <p>
+ * 실수부·허수부를 따로 둔 double 배열을 쓰고, 크기별 회전 인자(twiddle) 표는 한 번만 만들어 공유합니다.
+ */
+final class Fft {
+
+    /** 크기 n → {cos(2πk/n), sin(2πk/n)} (k < n/2) */
+    private static final ConcurrentHashMap<Integer, double[][]> TWIDDLES = new ConcurrentHashMap<>();
+
+    private Fft() {
+    }
+
+    /** n 이상인 가장 작은 2의 거듭제곱 */
+    static int size(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    /**
+     * 정방향 변환. n 은 2의 거듭제곱
+     */
+    static void forward(double[] re, double[] im, int n) {
+        transform(re, im, n, false);
+    }
+
+    /**
+     * 역변환 (1/n 배율 포함)
+     */
+    static void inverse(double[] re, double[] im, int n) {
+        transform(re, im, n, true);
+        double scale = 1.0 / n;
+        for (int i = 0; i < n; i++) {
+            re[i] *= scale;
+            im[i] *= scale;
+        }
+    }
+
+    private static void transform(double[] re, double[] im, int n, boolean inverse) {
+        if (Integer.bitCount(n) != 1) {
+            throw new IllegalArgumentException("FFT 크기는 2의 거듭제곱이어야 합니다: " + n);
+        }
+        // 비트 반전 순서로 재배치
+        for (int i = 1, j = 0; i < n; i++) {
+            int bit = n >> 1;
+            for (; (j & bit) != 0; bit >>= 1) j ^= bit;
+            j ^= bit;
+            if (i < j) {
+                double t = re[i]; re[i] = re[j]; re[j] = t;
+                t = im[i]; im[i] = im[j]; im[j] = t;
+            }
+        }
+        double[][] table = TWIDDLES.computeIfAbsent(n, Fft::twiddles);
+        double[] cos = table[0];
+        double[] sin = table[1];
+        double sign = inverse ? 1.0 : -1.0;
+        for (int len = 2; len <= n; len <<= 1) {
+            int half = len >> 1;
+            int step = n / len;
+            for (int i = 0; i < n; i += len) {
+                for (int k = 0, t = 0; k < half; k++, t += step) {
+                    double wr = cos[t];
+                    double wi = sign * sin[t];
+                    int a = i + k;
+                    int b = a + half;
+                    double xr = re[b] * wr - im[b] * wi;
+                    double xi = re[b] * wi + im[b] * wr;
+                    re[b] = re[a] - xr;
+                    im[b] = im[a] - xi;
+                    re[a] += xr;
+                    im[a] += xi;
+                }
+            }
+        }
+    }
+
+    private static double[][] twiddles(int n) {
+        int half = Math.max(1, n / 2);
+        double[] cos = new double[half];
+        double[] sin = new double[half];
+        for (int k = 0; k < half; k++) {
+            double angle = 2 * Math.PI * k / n;
+            cos[k] = Math.cos(angle);
+            sin[k] = Math.sin(angle);
+        }
+        return new double[][]{cos, sin};
+    }
+}
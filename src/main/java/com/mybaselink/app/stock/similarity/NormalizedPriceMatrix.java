@@ -0,0 +1,112 @@
+package com.mybaselink.app.stock.similarity;
+
+import com.mybaselink.app.stock.CloseStats;
+import com.mybaselink.app.stock.PriceSlice;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 한 구간의 전 종목 종가를 같은 날짜축에 맞춰 행 단위로 정규화한 행렬 (행 = 종목, 열 = 거래일).
+ * <p>
+ * 날짜축은 구간 안에서 한 종목이라도 거래한 날의 합집합이고, 빈 날은 {@link SimilarityEngine#align} 과 같이 보간합니다.
+ * 각 행은 평균을 빼고 노름 1 로 나눠 두 행의 내적이 곧 피어슨 상관계수(= z-정규화 코사인)가 됩니다.
+ * 첫날 값이 없거나 값이 일정한 종목은 행에 넣지 않습니다.
+ * <p>
+ * 거래일이 날짜축 전체와 같은 기준 종목({@link #coversCalendar})은 자기 거래일에 맞춘
+ * {@link SimilarityEngine#findSimilar} 와 같은 후보·같은 정렬 값을 보므로 점수도 같습니다.
+ */
+final class NormalizedPriceMatrix {
+
+    /** 열 수 (날짜축 길이) */
+    final int m;
+    /** 행 수 */
+    final int rows;
+    /** 날짜축 (epochDay 오름차순) */
+    final int[] days;
+    /** row-major, rows × m */
+    final double[] values;
+    /** 행 → slices 인덱스 */
+    final int[] sliceIndex;
+    private final Map<String, Integer> rowBySymbol;
+
+    private NormalizedPriceMatrix(int m, int rows, int[] days, double[] values, int[] sliceIndex,
+                                  Map<String, Integer> rowBySymbol) {
+        this.m = m;
+        this.rows = rows;
+        this.days = days;
+        this.values = values;
+        this.sliceIndex = sliceIndex;
+        this.rowBySymbol = rowBySymbol;
+    }
+
+    /** 종목의 행 번호 (행이 없으면 -1) */
+    int rowOf(String symbol) {
+        return rowBySymbol.getOrDefault(symbol, -1);
+    }
+
+    /**
+     * 종목 구간의 거래일이 날짜축 전체와 같은지 (구간 거래일은 날짜축의 부분집합이므로 개수만 비교)
+     */
+    boolean coversCalendar(PriceSlice slice) {
+        return slice.length() == m;
+    }
+
+    static NormalizedPriceMatrix build(List<PriceSlice> slices) {
+        int[] days = calendar(slices);
+        int m = days.length;
+        double[] values = new double[slices.size() * m];
+        int[] sliceIndex = new int[slices.size()];
+        Map<String, Integer> rowBySymbol = new HashMap<>(slices.size() * 2);
+        double[] row = new double[m];
+        int rows = 0;
+        for (int i = 0; i < slices.size() && m >= 3; i++) {
+            PriceSlice slice = slices.get(i);
+            // findSimilar 와 같이 종가가 일정한 종목은 뺌 (보간·평균 뒤 반올림 잔차로 노름이 0 이 아니게 될 수 있음)
+            CloseStats stats = slice.closeStats();
+            if (stats.count() > 0 && stats.variance() == 0) continue;
+            if (SimilarityEngine.align(days, m, slice, row) < 0) continue;
+            double mean = 0;
+            for (int t = 0; t < m; t++) mean += row[t];
+            mean /= m;
+            double norm2 = 0;
+            for (int t = 0; t < m; t++) {
+                row[t] -= mean;
+                norm2 += row[t] * row[t];
+            }
+            if (!(norm2 > 0)) continue;
+            double scale = 1.0 / Math.sqrt(norm2);
+            int base = rows * m;
+            for (int t = 0; t < m; t++) values[base + t] = row[t] * scale;
+            sliceIndex[rows] = i;
+            rowBySymbol.put(slice.getSymbol(), rows);
+            rows++;
+        }
+        return new NormalizedPriceMatrix(m, rows, days, values, sliceIndex, rowBySymbol);
+    }
+
+    /**
+     * 구간 안 거래일의 합집합 (오름차순)
+     */
+    private static int[] calendar(List<PriceSlice> slices) {
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (PriceSlice s : slices) {
+            if (s.isEmpty()) continue;
+            min = Math.min(min, s.epochDay(0));
+            max = Math.max(max, s.epochDay(s.length() - 1));
+        }
+        if (min > max) return new int[0];
+        boolean[] traded = new boolean[max - min + 1];
+        for (PriceSlice s : slices) {
+            for (int i = 0; i < s.length(); i++) traded[s.epochDay(i) - min] = true;
+        }
+        int[] days = new int[traded.length];
+        int n = 0;
+        for (int d = 0; d < traded.length; d++) {
+            if (traded[d]) days[n++] = min + d;
+        }
+        return Arrays.copyOf(days, n);
+    }
+}
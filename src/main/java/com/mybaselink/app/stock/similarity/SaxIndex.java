@@ -0,0 +1,402 @@
+package com.mybaselink.app.stock.similarity;
+
+import com.mybaselink.app.stock.CloseStats;
+import com.mybaselink.app.stock.MarketPriceStore;
+import com.mybaselink.app.stock.PriceSlice;
+import com.mybaselink.app.stock.TopK;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * ✅ SaxIndex
+ * --------------------------------------------------------
+ * 고정 길이 z-정규화 구간의 PAA/SAX 근사 인덱스. similar-advanced 의 fast 모드 후보 선별에 사용합니다.
+ *
+ * - 길이 L(similarity.ann.lengths) × 최근 거래일 D(similarity.ann.days) 마다,
+ *   각 종목의 "그날까지 마지막 L 거래일" 종가를 z-정규화 → PAA 16 구간 → SAX 8 단계 (48 비트 long 하나)
+ * - 질의는 기준 구간 PAA 와 후보 SAX 칸 사이의 하한 거리(MINDIST)로 후보를 고르고,
+ *   정확한 유사도 재정렬은 {@link SimilarityEngine} 이 후보만 대상으로 수행
+ * - 인덱스에 없는 길이나 거래일이면 종목마다 저장소 누적합으로 같은 길이 구간 PAA 를 그 자리에서 구해
+ *   PAA 사이 거리로 고름 (종목당 O(SEGMENTS), 어느 쪽으로 답했는지는 getStats 의 indexedQueries/derivedQueries)
+ * - 후보 수(= 재현율/지연시간 조절)는 요청의 candidates 또는 topN × similarity.ann.candidate-factor
+ * - 시세 저장소가 새 세대로 바뀔 때마다(= StockBatchService 업데이트 후) 다시 만들어 파일로 저장하고,
+ *   기동 시에는 저장소 버전이 같으면 파일을 그대로 읽음
+ * --------------------------------------------------------
+ */
+@Component
+public class SaxIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SaxIndex.class);
+
+    static final int SEGMENTS = 16;
+    static final int ALPHABET = 8;
+    private static final int BITS = 3;
+    /** N(0,1) 을 8 등분하는 경계 */
+    private static final double[] BREAKPOINTS = {-1.1503, -0.6745, -0.3186, 0.0, 0.3186, 0.6745, 1.1503};
+    /** 구간이 짧거나 값이 일정해 SAX 를 만들 수 없는 칸 */
+    private static final long NO_WORD = -1L;
+    private static final int FILE_MAGIC = 0x53415831; // "SAX1"
+    /** 표준편차가 평균 가격의 이 비율 이하면 값이 일정한 구간으로 봄 */
+    private static final double FLAT_RATIO = 1e-6;
+
+    private final MarketPriceStore store;
+
+    @Value("${similarity.ann.enabled:true}")
+    private boolean enabled;
+
+    @Value("${similarity.ann.lengths:20,60,120,250}")
+    private int[] lengths;
+
+    @Value("${similarity.ann.days:250}")
+    private int days;
+
+    @Value("${similarity.ann.file:${market.store.dir:${python.stock.data.dir:${python.working.dir}/stock_data}/.price_store}/sax_index.bin}")
+    private String indexFile;
+
+    private volatile Snapshot snapshot;
+
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "SaxIndex-builder");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicLong indexedQueries = new AtomicLong();
+    private final AtomicLong derivedQueries = new AtomicLong();
+
+    public SaxIndex(MarketPriceStore store) {
+        this.store = store;
+    }
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            log.info("SaxIndex 비활성화 (similarity.ann.enabled=false)");
+            return;
+        }
+        lengths = Arrays.stream(lengths).filter(l -> l >= SEGMENTS).distinct().sorted().toArray();
+        if (lengths.length == 0) {
+            log.warn("SaxIndex 비활성화: similarity.ann.lengths 에 {} 이상인 길이가 없습니다.", SEGMENTS);
+            return;
+        }
+        store.addRefreshListener(version -> builder.execute(() -> build(version)));
+        if (!store.isReady()) return; // 저장소 첫 적재가 끝나면 알림으로 만듦
+
+        long version = store.getVersion();
+        builder.execute(() -> {
+            Path file = Paths.get(indexFile);
+            if (Files.isRegularFile(file)) {
+                try {
+                    Snapshot loaded = read(file);
+                    if (loaded.storeVersion == version && Arrays.equals(loaded.lengths, lengths)) {
+                        snapshot = loaded;
+                        log.info("SaxIndex 로드: storeVersion={}, 길이={}, 거래일={}, 종목={}",
+                                version, Arrays.toString(lengths), loaded.days.length, loaded.symbols.length);
+                        return;
+                    }
+                } catch (IOException e) {
+                    log.warn("SaxIndex 파일 읽기 실패 → 새로 만듭니다: {}", e.getMessage());
+                }
+            }
+            build(version);
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        builder.shutdownNow();
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * 기준 종목 [start, end] 구간과 모양이 가까울 것으로 보이는 종목 count 개 (하한 거리 오름차순, 기준 종목 제외)
+     * <p>
+     * 구간 길이가 인덱스 길이 중 하나이고 마지막 날이 인덱스 거래일 안이면 미리 만든 SAX 단어로,
+     * 아니면 각 종목의 end 까지 마지막 (구간 길이) 거래일 PAA 를 저장소 누적합으로 구해 고릅니다.
+     *
+     * @return 답할 수 없으면 null (인덱스 비활성, 저장소 준비 전, 기준 구간이 {@value #SEGMENTS}일보다 짧거나 값이 일정한 경우)
+     */
+    public List<String> candidates(String baseSymbol, LocalDate start, LocalDate end, int count) {
+        if (!enabled || !store.isReady() || !store.contains(baseSymbol)) return null;
+        PriceSlice window = store.slice(baseSymbol, start, end);
+        int m = window.length();
+        if (m < SEGMENTS) return null;
+
+        double[] q = window.closes();
+        if (!SimilarityEngine.interpolate(q, m)) return null;
+        double[] paa = new double[SEGMENTS];
+        if (!paa(q, 0, m, paa)) return null;
+
+        TopK top = new TopK(Math.max(count, 0));
+        Snapshot s = snapshot;
+        int lengthIndex = s == null ? -1 : Arrays.binarySearch(s.lengths, m);
+        int dayIndex = lengthIndex < 0 ? -1 : Arrays.binarySearch(s.days, window.epochDay(m - 1));
+        if (dayIndex >= 0) {
+            offerIndexed(s, lengthIndex, dayIndex, baseSymbol, paa, m, top);
+            indexedQueries.incrementAndGet();
+            return symbols(top, id -> s.symbols[id]);
+        }
+
+        List<PriceSlice> slices = store.sliceAll(null, end);
+        offerDerived(slices, baseSymbol, window.epochDay(0), paa, m, top);
+        derivedQueries.incrementAndGet();
+        return symbols(top, id -> slices.get(id).getSymbol());
+    }
+
+    /**
+     * 미리 만든 SAX 단어와 기준 PAA 사이 하한 거리(MINDIST)
+     */
+    private static void offerIndexed(Snapshot s, int lengthIndex, int dayIndex, String baseSymbol,
+                                     double[] paa, int m, TopK top) {
+        // 구간 i 에서 후보 칸 c 까지의 하한 거리² × 구간 길이
+        double[][] cost = new double[SEGMENTS][ALPHABET];
+        for (int i = 0; i < SEGMENTS; i++) {
+            int len = segmentEnd(i, m) - segmentStart(i, m);
+            for (int c = 0; c < ALPHABET; c++) {
+                double lo = c == 0 ? Double.NEGATIVE_INFINITY : BREAKPOINTS[c - 1];
+                double hi = c == ALPHABET - 1 ? Double.POSITIVE_INFINITY : BREAKPOINTS[c];
+                double d = paa[i] < lo ? lo - paa[i] : paa[i] > hi ? paa[i] - hi : 0.0;
+                cost[i][c] = len * d * d;
+            }
+        }
+
+        long[] words = s.words[lengthIndex];
+        int symbols = s.symbols.length;
+        int offset = dayIndex * symbols;
+        for (int j = 0; j < symbols; j++) {
+            long word = words[offset + j];
+            if (word == NO_WORD || s.symbols[j].equals(baseSymbol)) continue;
+            double lb = 0;
+            for (int i = 0; i < SEGMENTS; i++) {
+                lb += cost[i][(int) (word >>> (i * BITS)) & (ALPHABET - 1)];
+            }
+            top.offer(-lb, j);
+        }
+    }
+
+    /**
+     * 인덱스에 없는 길이·거래일: 종목마다 마지막 m 거래일 PAA 를 구해 기준 PAA 와의 거리 (z-정규화 유클리드 거리의 하한)
+     *
+     * @param firstDay 기준 구간 첫날. 이보다 먼저 거래가 끝난 종목은 건너뜀
+     */
+    private static void offerDerived(List<PriceSlice> slices, String baseSymbol, int firstDay,
+                                     double[] paa, int m, TopK top) {
+        double[] c = new double[SEGMENTS];
+        for (int j = 0; j < slices.size(); j++) {
+            PriceSlice slice = slices.get(j);
+            int n = slice.length();
+            if (n < m || slice.epochDay(n - 1) < firstDay || slice.getSymbol().equals(baseSymbol)) continue;
+            if (!paa(slice, n - m, m, c)) continue;
+            double lb = 0;
+            for (int i = 0; i < SEGMENTS; i++) {
+                double d = paa[i] - c[i];
+                lb += (segmentEnd(i, m) - segmentStart(i, m)) * d * d;
+            }
+            top.offer(-lb, j);
+        }
+    }
+
+    private static List<String> symbols(TopK top, IntFunction<String> symbolOf) {
+        List<String> result = new ArrayList<>(top.size());
+        for (int id : top.sortedIds()) result.add(symbolOf.apply(id));
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        Snapshot s = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", s != null);
+        stats.put("storeVersion", s == null ? 0 : s.storeVersion);
+        stats.put("lengths", lengths);
+        stats.put("days", s == null ? 0 : s.days.length);
+        stats.put("symbols", s == null ? 0 : s.symbols.length);
+        stats.put("indexedQueries", indexedQueries.get());
+        stats.put("derivedQueries", derivedQueries.get());
+        return stats;
+    }
+
+    // ------------------------------------------------------------------
+    // 생성
+    // ------------------------------------------------------------------
+
+    private void build(long version) {
+        long started = System.currentTimeMillis();
+        try {
+            List<PriceSlice> slices = store.sliceAll(null, null);
+            if (!slices.isEmpty()) version = slices.get(0).getVersion();
+            int[] calendar = calendar(slices, days);
+            int symbols = slices.size();
+            String[] names = new String[symbols];
+            long[][] words = new long[lengths.length][calendar.length * symbols];
+            for (long[] w : words) Arrays.fill(w, NO_WORD);
+
+            double[] paa = new double[SEGMENTS];
+            for (int j = 0; j < symbols; j++) {
+                PriceSlice slice = slices.get(j);
+                names[j] = slice.getSymbol();
+                int n = slice.length();
+                int first = 0;
+                while (first < n && Double.isNaN(slice.close(first))) first++;
+                if (n - first < lengths[0]) continue;
+
+                int p = first - 1; // calendar[d] 이하인 마지막 거래일
+                for (int d = 0; d < calendar.length; d++) {
+                    while (p + 1 < n && slice.epochDay(p + 1) <= calendar[d]) p++;
+                    if (p < first) continue;
+                    for (int li = 0; li < lengths.length; li++) {
+                        int from = p - lengths[li] + 1;
+                        if (from < first) break; // 길이는 오름차순
+                        if (paa(slice, from, lengths[li], paa)) {
+                            words[li][d * symbols + j] = encode(paa);
+                        }
+                    }
+                }
+            }
+
+            Snapshot next = new Snapshot(version, lengths.clone(), calendar, names, words);
+            write(Paths.get(indexFile), next);
+            snapshot = next;
+            log.info("SaxIndex 생성: storeVersion={}, 길이={}, 거래일={}, 종목={}, {}ms", version,
+                    Arrays.toString(lengths), calendar.length, symbols, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("SaxIndex 생성 실패 (storeVersion={})", version, e);
+        }
+    }
+
+    /**
+     * 모든 종목의 최근 거래일을 모아 마지막 count 개 (오름차순)
+     */
+    private static int[] calendar(List<PriceSlice> slices, int count) {
+        int total = 0;
+        for (PriceSlice s : slices) total += Math.min(s.length(), count);
+        int[] all = new int[total];
+        int k = 0;
+        for (PriceSlice s : slices) {
+            for (int i = Math.max(0, s.length() - count); i < s.length(); i++) all[k++] = s.epochDay(i);
+        }
+        int[] unique = Arrays.stream(all).sorted().distinct().toArray();
+        return Arrays.copyOfRange(unique, Math.max(0, unique.length - count), unique.length);
+    }
+
+    /**
+     * x[from, from + len) 을 z-정규화한 뒤 SEGMENTS 구간 평균. 값이 일정하면 false
+     */
+    static boolean paa(double[] x, int from, int len, double[] out) {
+        double shift = x[from];
+        double sum = 0, sum2 = 0;
+        for (int i = from; i < from + len; i++) {
+            double d = x[i] - shift;
+            sum += d;
+            sum2 += d * d;
+        }
+        double mean = sum / len;
+        double std = Math.sqrt(Math.max(0.0, sum2 / len - mean * mean));
+        if (std == 0 || std <= FLAT_RATIO * Math.abs(mean + shift)) return false;
+        for (int s = 0; s < SEGMENTS; s++) {
+            int a = segmentStart(s, len), b = segmentEnd(s, len);
+            double seg = 0;
+            for (int i = a; i < b; i++) seg += x[from + i] - shift;
+            out[s] = (seg / (b - a) - mean) / std;
+        }
+        return true;
+    }
+
+    /**
+     * slice 의 [from, from + len) 행 종가 PAA ({@link #paa(double[], int, int, double[])} 와 같은 정규화).
+     * 저장소 누적합(Neumaier 보정 합, {@link PriceSlice#closeStats(int, int)})으로 O(SEGMENTS) 에 계산하며 NaN 종가는 빼고 평균
+     */
+    static boolean paa(PriceSlice slice, int from, int len, double[] out) {
+        CloseStats w = slice.closeStats(from, from + len);
+        if (w.count() == 0) return false;
+        double std = w.std();
+        if (std == 0 || std <= FLAT_RATIO * Math.abs(w.mean())) return false;
+        for (int s = 0; s < SEGMENTS; s++) {
+            CloseStats seg = slice.closeStats(from + segmentStart(s, len), from + segmentEnd(s, len));
+            out[s] = seg.count() == 0 ? 0.0 : (seg.mean() - w.mean()) / std;
+        }
+        return true;
+    }
+
+    private static int segmentStart(int s, int len) {
+        return (int) ((long) s * len / SEGMENTS);
+    }
+
+    private static int segmentEnd(int s, int len) {
+        return (int) ((long) (s + 1) * len / SEGMENTS);
+    }
+
+    private static long encode(double[] paa) {
+        long word = 0;
+        for (int s = 0; s < SEGMENTS; s++) {
+            int symbol = 0;
+            while (symbol < BREAKPOINTS.length && paa[s] >= BREAKPOINTS[symbol]) symbol++;
+            word |= (long) symbol << (s * BITS);
+        }
+        return word;
+    }
+
+    // ------------------------------------------------------------------
+    // 파일
+    // ------------------------------------------------------------------
+
+    private static void write(Path file, Snapshot s) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".part");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeLong(s.storeVersion);
+            out.writeInt(s.lengths.length);
+            for (int l : s.lengths) out.writeInt(l);
+            out.writeInt(s.days.length);
+            for (int d : s.days) out.writeInt(d);
+            out.writeInt(s.symbols.length);
+            for (String symbol : s.symbols) out.writeUTF(symbol);
+            for (long[] w : s.words) {
+                for (long word : w) out.writeLong(word);
+            }
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static Snapshot read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != FILE_MAGIC) throw new IOException("SaxIndex 파일 형식이 아닙니다: " + file);
+            long version = in.readLong();
+            int[] lengths = new int[in.readInt()];
+            for (int i = 0; i < lengths.length; i++) lengths[i] = in.readInt();
+            int[] days = new int[in.readInt()];
+            for (int i = 0; i < days.length; i++) days[i] = in.readInt();
+            String[] symbols = new String[in.readInt()];
+            for (int i = 0; i < symbols.length; i++) symbols[i] = in.readUTF();
+            long[][] words = new long[lengths.length][days.length * symbols.length];
+            for (long[] w : words) {
+                for (int i = 0; i < w.length; i++) w[i] = in.readLong();
+            }
+            return new Snapshot(version, lengths, days, symbols, words);
+        }
+    }
+
+    /**
+     * 한 번 만든 인덱스 (불변). words[길이][거래일 × 종목 수 + 종목]
+     */
+    private record Snapshot(long storeVersion, int[] lengths, int[] days, String[] symbols, long[][] words) { }
+}
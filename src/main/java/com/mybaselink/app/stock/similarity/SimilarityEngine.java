@@ -0,0 +1,530 @@
+package com.mybaselink.app.stock.similarity;
+
+import com.mybaselink.app.dto.SimilarStockDto;
+import com.mybaselink.app.stock.CloseStats;
+import com.mybaselink.app.stock.MarketPriceStore;
+import com.mybaselink.app.stock.PriceSlice;
+import com.mybaselink.app.stock.TopK;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * ✅ SimilarityEngine
+ * --------------------------------------------------------
+ * find_similar_new_full.py 의 유사 종목 검색을 {@link MarketPriceStore} 위에서 JVM 안에서 수행합니다.
+ *
+ * - 후보 종목을 기준 종목 날짜에 맞춰 정렬(reindex)하고 빈 날은 선형 보간 (pandas interpolate 와 동일)
+ * - cosine / pearson / euclidean / slope 에 필요한 합계를 후보마다 한 번의 루프로 계산 (Vector API 또는 스칼라)
+ * - 평균·분산은 저장소 누적합으로 O(1) ({@link PriceSlice#closeStats()}).
+ *   구간 종가가 일정한 후보는 정렬 전에 제외하고, 날짜가 기준과 똑같은 후보는 루프 합계 대신 누적합 분산을 사용
+ * - dtw 는 Sakoe-Chiba 밴드 + LB_Kim / LB_Keogh 하한으로 대부분의 후보를 건너뛰고,
+ *   남은 후보도 현재 k 번째 최선 거리를 넘는 순간 계산을 중단
+ * - 후보는 코어 수만큼 나눠 병렬 처리, 스레드별 버퍼 재사용, 상위 K 개만 {@link TopK} 로 유지
+ * - 여러 기준 종목은 정규화 행렬의 블록 곱으로 한 번에 계산 ({@link #findSimilarBatch})
+ * - 결과 형식은 파이썬 스크립트와 같음 (ticker, name, similarity)
+ * --------------------------------------------------------
+ */
+@Component
+public class SimilarityEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarityEngine.class);
+
+    /** 후보를 나누는 단위 (작업 단위당 scratch 배열을 한 번만 할당) */
+    private static final int CHUNK_SIZE = 64;
+    /** 배치 계산: 한 번에 처리하는 기준 종목 수 / 후보 행 블록 크기 (블록이 L2 캐시에 머물도록) */
+    private static final int BATCH_BASE_BLOCK = 16;
+    private static final int BATCH_ROW_BLOCK = 128;
+
+    private final MarketPriceStore store;
+
+    @Value("${similarity.engine.vector:true}")
+    private boolean preferVector;
+
+    @Value("${similarity.engine.parallelism:0}")
+    private int parallelism;
+
+    /** DTW 밴드 폭 (구간 길이 대비 비율, 1 이상이면 제한 없음 = 기본값, 파이썬 dtaidistance 와 같은 결과) */
+    @Value("${similarity.dtw.window-ratio:1.0}")
+    private double dtwWindowRatio;
+
+    private SimilarityKernel kernel;
+    private ForkJoinPool pool;
+
+    private final ThreadLocal<Dtw.Workspace> workspaces = ThreadLocal.withInitial(Dtw.Workspace::new);
+
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong totalMillis = new AtomicLong();
+    private final AtomicLong batchQueries = new AtomicLong();
+    private final AtomicLong batchBases = new AtomicLong();
+
+    // DTW 가지치기 통계
+    private final AtomicLong dtwCandidates = new AtomicLong();
+    private final AtomicLong dtwPrunedKim = new AtomicLong();
+    private final AtomicLong dtwPrunedKeogh = new AtomicLong();
+    private final AtomicLong dtwAbandoned = new AtomicLong();
+
+    public SimilarityEngine(MarketPriceStore store) {
+        this.store = store;
+    }
+
+    @PostConstruct
+    void init() {
+        kernel = SimilarityKernel.create(preferVector);
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads);
+        log.info("SimilarityEngine 초기화: kernel={}, parallelism={}", kernel.name(), threads);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 이 엔진이 처리할 수 있는 요청인지 (저장소 준비, 기준 종목 존재, 지원 방식)
+     */
+    public boolean canServe(String baseSymbol, SimilarityMethod method) {
+        return store.isReady() && store.contains(baseSymbol);
+    }
+
+    /**
+     * 기준 종목과 [start, end] 구간 종가가 가장 비슷한 종목 topN 개 (유사도 내림차순)
+     */
+    public List<SimilarStockDto> findSimilar(String baseSymbol, LocalDate start, LocalDate end,
+                                             SimilarityMethod method, int topN) {
+        return findSimilar(baseSymbol, start, end, method, topN, null);
+    }
+
+    /**
+     * candidates 로 후보를 제한한 {@link #findSimilar} (null 이면 전 종목). 근사 검색 결과의 정확한 재정렬에 사용
+     */
+    public List<SimilarStockDto> findSimilar(String baseSymbol, LocalDate start, LocalDate end,
+                                             SimilarityMethod method, int topN, Collection<String> candidates) {
+        long started = System.nanoTime();
+        List<PriceSlice> slices;
+        if (candidates == null) {
+            slices = store.sliceAll(start, end);
+        } else {
+            Set<String> symbols = new LinkedHashSet<>(candidates);
+            symbols.add(baseSymbol);
+            slices = store.slices(symbols, start, end);
+        }
+        PriceSlice base = slices.stream().filter(s -> s.getSymbol().equals(baseSymbol)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("시세 저장소에 없는 종목입니다: " + baseSymbol));
+
+        BaseSeries b = BaseSeries.of(base);
+        boolean correlation = method == SimilarityMethod.COSINE || method == SimilarityMethod.PEARSON;
+        int k = Math.max(topN, 0);
+        int chunks = (slices.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        Callable<TopK> task = method == SimilarityMethod.DTW
+                ? () -> scoreDtw(slices, baseSymbol, b, k, chunks)
+                : () -> IntStream.range(0, chunks).parallel().mapToObj(chunk -> {
+                    Dtw.Workspace ws = workspaces.get().ensure(b.n);
+                    TopK local = new TopK(k);
+                    int to = Math.min((chunk + 1) * CHUNK_SIZE, slices.size());
+                    for (int i = chunk * CHUNK_SIZE; i < to; i++) {
+                        PriceSlice candidate = slices.get(i);
+                        if (candidate.getSymbol().equals(baseSymbol)) continue;
+                        CloseStats stats = correlation ? candidate.closeStats() : null;
+                        // 구간 종가가 일정하면 상관계수가 정의되지 않음 (보간해도 일정)
+                        if (correlation && stats.count() > 0 && stats.variance() == 0) continue;
+                        int matched = align(b.days, b.n, candidate, ws.aligned);
+                        if (matched < 0) continue;
+                        kernel.accumulate(b.values, b.centered, b.gradient, ws.aligned, b.n, ws.sums);
+                        // 날짜가 기준과 똑같으면 정렬된 값 = 자기 종가이므로 누적합 분산을 그대로 사용
+                        double varC = correlation && matched == b.n && candidate.length() == b.n
+                                && stats.count() == b.n ? b.n * stats.variance() : Double.NaN;
+                        local.offer(score(method, b, ws.sums, varC), i);
+                    }
+                    return local;
+                }).reduce(TopK::merge).orElseGet(() -> new TopK(k));
+
+        TopK top;
+        try {
+            top = pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("유사도 계산이 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("유사도 계산 오류: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        // DTW 는 -(제곱 거리) 를 점수로 모았으므로 유사도로 바꿈
+        DoubleUnaryOperator toSimilarity = method == SimilarityMethod.DTW
+                ? key -> 1.0 / (1.0 + Math.sqrt(-key))
+                : DoubleUnaryOperator.identity();
+        List<SimilarStockDto> results = toDtos(slices, top, toSimilarity);
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+        queries.incrementAndGet();
+        totalMillis.addAndGet(elapsed);
+        log.info("유사 종목 계산: base={}, method={}, 구간={}~{}({}일), 후보={}, {}ms",
+                baseSymbol, method.code(), start, end, b.n, slices.size() - 1, elapsed);
+        return results;
+    }
+
+    /**
+     * 배치 결과를 기준 종목마다 받는 콜백. 호출한 스레드에서 기준 종목 블록이 끝날 때마다 차례로 호출됩니다.
+     */
+    public interface BatchListener {
+        void onResult(String baseSymbol, List<SimilarStockDto> results);
+
+        void onError(String baseSymbol, String message);
+    }
+
+    /**
+     * 여러 기준 종목의 [start, end] 피어슨(= z-정규화 코사인) 유사 종목 topN 개.
+     * <p>
+     * 전 종목을 같은 날짜축(구간 거래일 합집합)에 맞춰 정규화한 행렬 Z 를 한 번 만들고,
+     * 기준 종목 블록 × 후보 블록 단위의 Z·Zᵀ 곱으로 점수를 구합니다.
+     * 행렬은 거래일이 날짜축 전체와 같은 기준 종목에만 씁니다. 거래 정지일이 있거나 구간 중간에 상장한 기준 종목은
+     * 자기 거래일에 후보를 맞춰야 하므로 {@link #findSimilar} 로 따로 계산해, 어느 쪽이든 결과는 단건 조회와 같습니다.
+     */
+    public void findSimilarBatch(List<String> baseSymbols, LocalDate start, LocalDate end, int topN,
+                                 BatchListener listener) {
+        long started = System.nanoTime();
+        List<PriceSlice> slices = store.sliceAll(start, end);
+        NormalizedPriceMatrix z = NormalizedPriceMatrix.build(slices);
+        int k = Math.max(topN, 0);
+
+        List<String> pending = new ArrayList<>();
+        List<Integer> pendingRows = new ArrayList<>();
+        List<String> single = new ArrayList<>();
+        for (String symbol : baseSymbols) {
+            if (!store.contains(symbol)) {
+                listener.onError(symbol, "시세 저장소에 없는 종목입니다: " + symbol);
+                continue;
+            }
+            int row = z.rowOf(symbol);
+            if (row < 0 || !z.coversCalendar(slices.get(z.sliceIndex[row]))) {
+                single.add(symbol);
+                continue;
+            }
+            pending.add(symbol);
+            pendingRows.add(row);
+        }
+
+        for (int from = 0; from < pending.size(); from += BATCH_BASE_BLOCK) {
+            int to = Math.min(from + BATCH_BASE_BLOCK, pending.size());
+            int[] bases = pendingRows.subList(from, to).stream().mapToInt(Integer::intValue).toArray();
+            TopK[] tops;
+            try {
+                tops = pool.submit(() -> scoreBlock(z, bases, k)).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("유사도 계산이 중단되었습니다.", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("유사도 계산 오류: " + e.getCause().getMessage(), e.getCause());
+            }
+            for (int b = 0; b < bases.length; b++) {
+                listener.onResult(pending.get(from + b), toDtos(slices, remap(tops[b], z), DoubleUnaryOperator.identity()));
+            }
+        }
+
+        // 행렬 날짜축과 거래일이 다른 기준 종목 (거래 정지·신규 상장·값이 일정하거나 첫날 종가 없음)
+        for (String symbol : single) {
+            List<SimilarStockDto> results;
+            try {
+                results = findSimilar(symbol, start, end, SimilarityMethod.COSINE, k);
+            } catch (IllegalArgumentException e) {
+                listener.onError(symbol, e.getMessage());
+                continue;
+            }
+            listener.onResult(symbol, results);
+        }
+
+        batchQueries.incrementAndGet();
+        batchBases.addAndGet(baseSymbols.size());
+        log.info("배치 유사 종목 계산: 기준={}개(개별 계산 {}개), 구간={}~{}({}일), 행={}, {}ms", baseSymbols.size(),
+                single.size(), start, end, z.m, z.rows, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * 기준 행 묶음 × 전체 행의 내적. 후보 행 블록을 병렬로 나누고, 블록마다 기준 행별 TopK 를 만들어 합칩니다.
+     */
+    private static TopK[] scoreBlock(NormalizedPriceMatrix z, int[] bases, int k) {
+        int blocks = (z.rows + BATCH_ROW_BLOCK - 1) / BATCH_ROW_BLOCK;
+        return IntStream.range(0, blocks).parallel().mapToObj(block -> {
+            TopK[] local = new TopK[bases.length];
+            for (int b = 0; b < bases.length; b++) local[b] = new TopK(k);
+            int to = Math.min((block + 1) * BATCH_ROW_BLOCK, z.rows);
+            double[] dots = new double[4];
+            for (int b = 0; b < bases.length; b += 4) {
+                int width = Math.min(4, bases.length - b);
+                for (int row = block * BATCH_ROW_BLOCK; row < to; row++) {
+                    dot4(z, bases, b, width, row, dots);
+                    for (int j = 0; j < width; j++) {
+                        if (row != bases[b + j]) local[b + j].offer(dots[j], row);
+                    }
+                }
+            }
+            return local;
+        }).reduce((x, y) -> {
+            for (int b = 0; b < x.length; b++) x[b].merge(y[b]);
+            return x;
+        }).orElseGet(() -> {
+            TopK[] empty = new TopK[bases.length];
+            for (int b = 0; b < bases.length; b++) empty[b] = new TopK(k);
+            return empty;
+        });
+    }
+
+    /**
+     * 기준 행 최대 4개와 후보 행 하나의 내적을 한 번의 루프로 (후보 행을 한 번만 읽음)
+     */
+    private static void dot4(NormalizedPriceMatrix z, int[] bases, int from, int width, int row, double[] out) {
+        double[] v = z.values;
+        int m = z.m;
+        int c = row * m;
+        int b0 = bases[from] * m;
+        int b1 = (width > 1 ? bases[from + 1] : bases[from]) * m;
+        int b2 = (width > 2 ? bases[from + 2] : bases[from]) * m;
+        int b3 = (width > 3 ? bases[from + 3] : bases[from]) * m;
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        for (int t = 0; t < m; t++) {
+            double x = v[c + t];
+            s0 += v[b0 + t] * x;
+            s1 += v[b1 + t] * x;
+            s2 += v[b2 + t] * x;
+            s3 += v[b3 + t] * x;
+        }
+        out[0] = s0;
+        out[1] = s1;
+        out[2] = s2;
+        out[3] = s3;
+    }
+
+    /** 행 번호로 모은 TopK 를 slices 인덱스 기준으로 바꿈 */
+    private static TopK remap(TopK top, NormalizedPriceMatrix z) {
+        int[] ids = top.sortedIds();
+        double[] scores = top.sortedScores();
+        TopK out = new TopK(ids.length);
+        for (int r = 0; r < ids.length; r++) out.offer(scores[r], z.sliceIndex[ids[r]]);
+        return out;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long count = queries.get();
+        stats.put("kernel", kernel.name());
+        stats.put("parallelism", pool.getParallelism());
+        stats.put("queries", count);
+        stats.put("avgMillis", count == 0 ? 0 : totalMillis.get() / count);
+        stats.put("batchQueries", batchQueries.get());
+        stats.put("batchBases", batchBases.get());
+        stats.put("dtwWindowRatio", dtwWindowRatio);
+        stats.put("dtwCandidates", dtwCandidates.get());
+        stats.put("dtwPrunedKim", dtwPrunedKim.get());
+        stats.put("dtwPrunedKeogh", dtwPrunedKeogh.get());
+        stats.put("dtwAbandoned", dtwAbandoned.get());
+        return stats;
+    }
+
+    // ------------------------------------------------------------------
+    // DTW
+    // ------------------------------------------------------------------
+
+    /**
+     * DTW 거리로 후보를 고릅니다. 점수는 -(제곱 거리)이며, 하한이 현재 k 번째 최선 거리보다 큰 후보는 건너뜁니다.
+     * <p>
+     * 각 작업 단위는 자기 {@link TopK} 의 k 번째 값을 전역 기준(bound)으로 공유합니다.
+     * 어느 작업 단위의 k 번째 값도 최종 k 번째 값보다 나쁘거나 같으므로 이 기준으로 버린 후보는 결과에 들 수 없습니다.
+     */
+    private TopK scoreDtw(List<PriceSlice> slices, String baseSymbol, BaseSeries b, int k, int chunks) {
+        int n = b.n;
+        int w = Dtw.window(n, dtwWindowRatio);
+        double[] upper = new double[n];
+        double[] lower = new double[n];
+        Dtw.envelope(b.values, n, w, upper, lower);
+        AtomicLong bound = new AtomicLong(Double.doubleToLongBits(Dtw.INF));
+
+        return IntStream.range(0, chunks).parallel().mapToObj(chunk -> {
+            Dtw.Workspace ws = workspaces.get().ensure(n);
+            TopK local = new TopK(k);
+            long kim = 0, keogh = 0, abandoned = 0, candidates = 0;
+
+            int to = Math.min((chunk + 1) * CHUNK_SIZE, slices.size());
+            for (int i = chunk * CHUNK_SIZE; i < to; i++) {
+                PriceSlice candidate = slices.get(i);
+                if (candidate.getSymbol().equals(baseSymbol)) continue;
+                if (align(b.days, n, candidate, ws.aligned) < 0) continue;
+                candidates++;
+
+                double threshold = Math.min(-local.threshold(), Double.longBitsToDouble(bound.get()));
+                if (Dtw.lbKim(b.values, ws.aligned, n) > threshold) {
+                    kim++;
+                    continue;
+                }
+                if (Dtw.lbKeogh(ws.aligned, n, upper, lower, threshold, ws.tail) > threshold) {
+                    keogh++;
+                    continue;
+                }
+                double d2 = Dtw.distanceSquared(b.values, ws.aligned, n, w, threshold, ws.tail, ws);
+                if (d2 > threshold) {
+                    abandoned++;
+                    continue;
+                }
+                if (local.offer(-d2, i) && local.isFull()) {
+                    lowerBound(bound, -local.threshold());
+                }
+            }
+            dtwCandidates.addAndGet(candidates);
+            dtwPrunedKim.addAndGet(kim);
+            dtwPrunedKeogh.addAndGet(keogh);
+            dtwAbandoned.addAndGet(abandoned);
+            return local;
+        }).reduce(TopK::merge).orElseGet(() -> new TopK(k));
+    }
+
+    private static void lowerBound(AtomicLong bound, double value) {
+        long current;
+        do {
+            current = bound.get();
+            if (Double.longBitsToDouble(current) <= value) return;
+        } while (!bound.compareAndSet(current, Double.doubleToLongBits(value)));
+    }
+
+    // ------------------------------------------------------------------
+
+    /**
+     * @param varC 후보의 Σ(c - mean(c))². NaN 이면 루프 합계(Σc, Σc²)로 계산
+     */
+    private static double score(SimilarityMethod method, BaseSeries b, double[] sums, double varC) {
+        int n = b.n;
+        return switch (method) {
+            case COSINE, PEARSON -> {
+                // z-정규화 코사인 = 피어슨 상관계수
+                if (Double.isNaN(varC)) {
+                    double meanC = sums[SimilarityKernel.SUM_C] / n;
+                    varC = sums[SimilarityKernel.SUM_C2] - n * meanC * meanC;
+                }
+                if (varC <= 0 || b.centeredNorm == 0) yield Double.NaN;
+                yield sums[SimilarityKernel.SUM_BC] / (b.centeredNorm * Math.sqrt(varC));
+            }
+            case EUCLIDEAN -> 1.0 / (1.0 + Math.sqrt(sums[SimilarityKernel.SUM_DIFF2]));
+            case SLOPE -> 1.0 / (1.0 + sums[SimilarityKernel.SUM_GRAD] / n);
+            case DTW -> Double.NaN;
+        };
+    }
+
+    private List<SimilarStockDto> toDtos(List<PriceSlice> slices, TopK top, DoubleUnaryOperator toSimilarity) {
+        int[] ids = top.sortedIds();
+        double[] scores = top.sortedScores();
+        List<SimilarStockDto> results = new ArrayList<>(ids.length);
+        for (int r = 0; r < ids.length; r++) {
+            String symbol = slices.get(ids[r]).getSymbol();
+            SimilarStockDto dto = new SimilarStockDto();
+            dto.setTicker(symbol);
+            String name = store.getName(symbol);
+            dto.setName(name == null || name.isEmpty() ? "알 수 없음" : name);
+            dto.setSimilarity(toSimilarity.applyAsDouble(scores[r]));
+            results.add(dto);
+        }
+        return results;
+    }
+
+    /**
+     * 후보 종가를 기준 날짜에 맞춰 out 에 채웁니다. (reindex + 선형 보간)
+     *
+     * @return 기준 날짜 중 후보에 있던 날 수. 첫 기준일 값이 없어 보간할 수 없으면 -1 (파이썬과 같이 후보에서 제외)
+     */
+    static int align(int[] baseDays, int n, PriceSlice candidate, double[] out) {
+        int m = candidate.length();
+        int j = 0;
+        int matched = 0;
+        for (int i = 0; i < n; i++) {
+            int day = baseDays[i];
+            while (j < m && candidate.epochDay(j) < day) j++;
+            if (j < m && candidate.epochDay(j) == day) {
+                out[i] = candidate.close(j);
+                matched++;
+            } else {
+                out[i] = Double.NaN;
+            }
+        }
+        return interpolate(out, n) ? matched : -1;
+    }
+
+    /**
+     * pandas interpolate(method='linear') 와 같이 위치 기준으로 보간. 뒤쪽 빈 값은 마지막 값으로 채움.
+     */
+    static boolean interpolate(double[] x, int n) {
+        if (n == 0 || Double.isNaN(x[0])) return false;
+        int last = 0;
+        for (int i = 1; i < n; i++) {
+            if (Double.isNaN(x[i])) continue;
+            int gap = i - last;
+            if (gap > 1) {
+                double step = (x[i] - x[last]) / gap;
+                for (int k = 1; k < gap; k++) x[last + k] = x[last] + step * k;
+            }
+            last = i;
+        }
+        for (int k = last + 1; k < n; k++) x[k] = x[last];
+        return true;
+    }
+
+    /**
+     * 기준 종목의 종가와 미리 계산해둔 값
+     */
+    private static final class BaseSeries {
+        final int n;
+        final int[] days;
+        final double[] values;
+        final double[] centered;
+        final double[] gradient;
+        final double centeredNorm;
+
+        private BaseSeries(int n, int[] days, double[] values, double[] centered, double[] gradient, double centeredNorm) {
+            this.n = n;
+            this.days = days;
+            this.values = values;
+            this.centered = centered;
+            this.gradient = gradient;
+            this.centeredNorm = centeredNorm;
+        }
+
+        static BaseSeries of(PriceSlice slice) {
+            int[] days = slice.epochDays();
+            double[] values = slice.closes();
+            int n = values.length;
+            if (n < 3) {
+                throw new IllegalArgumentException(slice.getSymbol() + " 기준 구간 데이터가 부족합니다. (" + n + "일)");
+            }
+            if (!interpolate(values, n)) {
+                throw new IllegalArgumentException(slice.getSymbol() + " 기준 구간 첫 종가가 없습니다.");
+            }
+            // NaN 이 없으면 저장소 누적합 평균 (보간한 날이 있으면 보간 값으로 다시 계산)
+            CloseStats stats = slice.closeStats();
+            double mean;
+            if (stats.count() == n) {
+                mean = stats.mean();
+            } else {
+                mean = 0;
+                for (double v : values) mean += v;
+                mean /= n;
+            }
+            double[] centered = new double[n];
+            double norm2 = 0;
+            for (int i = 0; i < n; i++) {
+                centered[i] = values[i] - mean;
+                norm2 += centered[i] * centered[i];
+            }
+            double[] gradient = new double[n];
+            SimilarityKernel.gradient(values, n, gradient);
+            return new BaseSeries(n, days, values, centered, gradient, Math.sqrt(norm2));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.mybaselink.app.stock.similarity;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 기준 시계열과 후보 시계열 한 쌍에 대해 유사도 계산에 필요한 합계를 한 번의 루프로 구합니다.
+ * <p>
+ * out[SUM_C]     Σc
+ * out[SUM_C2]    Σc²
+ * out[SUM_BC]    Σ(b - mean(b))·c
+ * out[SUM_DIFF2] Σ(b - c)²
+ * out[SUM_GRAD]  Σ|gradient(b) - gradient(c)|   (np.gradient 와 같은 중앙 차분, 양끝은 한쪽 차분)
+ * <p>
+ * 구현은 Vector API 판({@code VectorSimilarityKernel})과 스칼라 판이 있으며,
+ * 기본 빌드는 스칼라 판만 컴파일합니다. Vector API 판은 vector-api 메이븐 프로파일로 빌드하고
+ * jdk.incubator.vector 모듈을 붙여 실행할 때만 쓰이며, 클래스나 모듈이 없으면 스칼라 판을 사용합니다.
+ */
+abstract class SimilarityKernel {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarityKernel.class);
+
+    static final int SUM_C = 0;
+    static final int SUM_C2 = 1;
+    static final int SUM_BC = 2;
+    static final int SUM_DIFF2 = 3;
+    static final int SUM_GRAD = 4;
+    static final int SUMS = 5;
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNEL = "com.mybaselink.app.stock.similarity.VectorSimilarityKernel";
+
+    /**
+     * @param b          기준 시계열
+     * @param bCentered  b - mean(b)
+     * @param gb         gradient(b)
+     * @param c          후보 시계열 (기준 날짜에 맞춰 정렬된 값)
+     * @param n          길이 (3 이상)
+     * @param out        합계 (길이 {@link #SUMS})
+     */
+    abstract void accumulate(double[] b, double[] bCentered, double[] gb, double[] c, int n, double[] out);
+
+    abstract String name();
+
+    /**
+     * 사용할 커널을 고릅니다. Vector API 를 쓸 수 없는 환경(--add-modules 미지정 등)에서는 스칼라 커널.
+     */
+    static SimilarityKernel create(boolean preferVector) {
+        if (preferVector && ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                return (SimilarityKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+            } catch (ClassNotFoundException e) {
+                log.info("Vector API 커널이 빌드에 포함되지 않음 (-Pvector-api) → 스칼라 커널 사용");
+            } catch (ReflectiveOperationException | LinkageError e) {
+                log.warn("Vector API 커널 로드 실패 → 스칼라 커널 사용: {}", e.toString());
+            }
+        }
+        return new Scalar();
+    }
+
+    /**
+     * np.gradient 와 같은 방식의 기울기
+     */
+    static void gradient(double[] x, int n, double[] out) {
+        out[0] = x[1] - x[0];
+        for (int i = 1; i < n - 1; i++) {
+            out[i] = (x[i + 1] - x[i - 1]) * 0.5;
+        }
+        out[n - 1] = x[n - 1] - x[n - 2];
+    }
+
+    /**
+     * 양끝(i = 0, n - 1) 항을 더합니다. 두 커널이 공통으로 사용.
+     */
+    static void accumulateEdges(double[] b, double[] bCentered, double[] gb, double[] c, int n, double[] out) {
+        double g0 = c[1] - c[0];
+        double gn = c[n - 1] - c[n - 2];
+        int last = n - 1;
+        out[SUM_C] += c[0] + c[last];
+        out[SUM_C2] += c[0] * c[0] + c[last] * c[last];
+        out[SUM_BC] += bCentered[0] * c[0] + bCentered[last] * c[last];
+        double d0 = b[0] - c[0];
+        double dn = b[last] - c[last];
+        out[SUM_DIFF2] += d0 * d0 + dn * dn;
+        out[SUM_GRAD] += Math.abs(gb[0] - g0) + Math.abs(gb[last] - gn);
+    }
+
+    /**
+     * 스칼라 커널
+     */
+    static final class Scalar extends SimilarityKernel {
+
+        @Override
+        void accumulate(double[] b, double[] bCentered, double[] gb, double[] c, int n, double[] out) {
+            double sumC = 0, sumC2 = 0, sumBC = 0, sumDiff2 = 0, sumGrad = 0;
+            for (int i = 1; i < n - 1; i++) {
+                double ci = c[i];
+                double d = b[i] - ci;
+                double gc = (c[i + 1] - c[i - 1]) * 0.5;
+                sumC += ci;
+                sumC2 += ci * ci;
+                sumBC += bCentered[i] * ci;
+                sumDiff2 += d * d;
+                sumGrad += Math.abs(gb[i] - gc);
+            }
+            out[SUM_C] = sumC;
+            out[SUM_C2] = sumC2;
+            out[SUM_BC] = sumBC;
+            out[SUM_DIFF2] = sumDiff2;
+            out[SUM_GRAD] = sumGrad;
+            accumulateEdges(b, bCentered, gb, c, n, out);
+        }
+
+        @Override
+        String name() {
+            return "scalar";
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.mybaselink.app.stock.similarity;
+
+import java.util.Locale;
+
+/**
+ * 유사도 계산 방식 (find_similar_new_full.py 의 --method 값과 동일)
+ */
+public enum SimilarityMethod {
+    /** z-정규화 후 코사인 유사도 */
+    COSINE,
+    /** 피어슨 상관계수 */
+    PEARSON,
+    /** 1 / (1 + 유클리드 거리) */
+    EUCLIDEAN,
+    /** 1 / (1 + 기울기(np.gradient) 차이의 평균 절댓값) */
+    SLOPE,
+    /** 1 / (1 + DTW 거리) */
+    DTW;
+
+    public static SimilarityMethod of(String value) {
+        if (value == null || value.isBlank()) return COSINE;
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("지원하지 않는 유사도 방식: " + value + " (cosine, pearson, euclidean, slope, dtw)");
+        }
+    }
+
+    public String code() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
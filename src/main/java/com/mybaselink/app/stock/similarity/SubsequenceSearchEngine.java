@@ -0,0 +1,379 @@
+package com.mybaselink.app.stock.similarity;
+
+import com.mybaselink.app.dto.SubsequenceMatchDto;
+import com.mybaselink.app.stock.MarketPriceStore;
+import com.mybaselink.app.stock.PriceSlice;
+import com.mybaselink.app.stock.TopK;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * ✅ SubsequenceSearchEngine
+ * --------------------------------------------------------
+ * "이 구간과 닮은 모양이 어느 종목의 어느 시기에 있었나" 를 전 종목 전체 기간에서 찾습니다. (MASS)
+ *
+ * - 기준 구간(길이 m)을 z-정규화하고, FFT 한 번으로 모든 시작 위치의 내적을 구함
+ *   (실수 시계열 두 개를 실수부·허수부에 넣어 종목 두 개를 한 번에 변환)
+ * - 이동 평균·표준편차와 합쳐 z-정규화 유클리드 거리 프로파일을 만듦 (종목당 O(N log N))
+ * - 한 종목에서는 서로 m/2 이상 떨어진 구간만 고름 (바로 옆으로 한 칸씩 밀린 같은 모양 제외)
+ * - 기준 종목 자신의 기준 구간과 겹치는 위치는 제외
+ * - 종목을 나눠 병렬 처리, 상위 K 개만 {@link TopK} 로 유지
+ * --------------------------------------------------------
+ */
+@Component
+public class SubsequenceSearchEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(SubsequenceSearchEngine.class);
+
+    /** 작업 단위 (종목 수) */
+    private static final int CHUNK_SIZE = 16;
+    private static final int MIN_LENGTH = 4;
+
+    private final MarketPriceStore store;
+
+    @Value("${similarity.engine.parallelism:0}")
+    private int parallelism;
+
+    /** 기준 구간 최대 길이 (거래일) */
+    @Value("${similarity.subsequence.max-length:500}")
+    private int maxLength;
+
+    private ForkJoinPool pool;
+
+    private final ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(Workspace::new);
+
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong totalMillis = new AtomicLong();
+
+    public SubsequenceSearchEngine(MarketPriceStore store) {
+        this.store = store;
+    }
+
+    @PostConstruct
+    void init() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 기준 종목 [start, end] 구간과 모양이 가장 비슷한 과거 구간 topN 개 (거리 오름차순)
+     *
+     * @param perSymbol 한 종목에서 고를 최대 구간 수
+     * @throws IllegalStateException    저장소가 준비되지 않은 경우
+     * @throws IllegalArgumentException 기준 구간이 너무 짧거나 길거나, 값이 일정한 경우
+     */
+    public List<SubsequenceMatchDto> findMatches(String baseSymbol, LocalDate start, LocalDate end,
+                                                 int topN, int perSymbol) {
+        long started = System.nanoTime();
+        List<PriceSlice> slices = store.sliceAll(null, null);
+        int baseIndex = -1;
+        for (int i = 0; i < slices.size(); i++) {
+            if (slices.get(i).getSymbol().equals(baseSymbol)) {
+                baseIndex = i;
+                break;
+            }
+        }
+        if (baseIndex < 0) {
+            throw new IllegalArgumentException("시세 저장소에 없는 종목입니다: " + baseSymbol);
+        }
+        Query q = Query.of(store.slice(baseSymbol, start, end), slices.get(baseIndex), maxLength);
+
+        // 결과 id = 전체 시세에서의 행 위치 (종목 시작 행 + 구간 시작 위치)
+        int[] starts = new int[slices.size() + 1];
+        for (int i = 0; i < slices.size(); i++) starts[i + 1] = starts[i] + slices.get(i).length();
+
+        int k = Math.max(topN, 0);
+        int per = Math.max(perSymbol, 1);
+        int chunks = (slices.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        int self = baseIndex;
+        TopK top;
+        try {
+            top = pool.submit(() -> IntStream.range(0, chunks).parallel().mapToObj(chunk -> {
+                Workspace ws = workspaces.get();
+                TopK local = new TopK(k);
+                int to = Math.min((chunk + 1) * CHUNK_SIZE, slices.size());
+                for (int i = chunk * CHUNK_SIZE; i < to; i += 2) {
+                    ws.a.load(slices.get(i), i == self, starts[i]);
+                    if (i + 1 < to) ws.b.load(slices.get(i + 1), i + 1 == self, starts[i + 1]);
+                    else ws.b.clear();
+                    scanPair(q, ws.a, ws.b, per, ws, local);
+                }
+                return local;
+            }).reduce(TopK::merge).orElseGet(() -> new TopK(k))).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("구간 검색이 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("구간 검색 오류: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        List<SubsequenceMatchDto> results = toDtos(slices, starts, top, q.m);
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+        queries.incrementAndGet();
+        totalMillis.addAndGet(elapsed);
+        log.info("구간 모양 검색: base={}, 구간={}~{}({}일), 종목={}, {}ms",
+                baseSymbol, start, end, q.m, slices.size(), elapsed);
+        return results;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long count = queries.get();
+        stats.put("queries", count);
+        stats.put("avgMillis", count == 0 ? 0 : totalMillis.get() / count);
+        stats.put("maxLength", maxLength);
+        return stats;
+    }
+
+    /**
+     * 두 종목의 거리 프로파일을 FFT 한 번으로 만들고 각각 가장 가까운 구간을 perSymbol 개까지 top 에 넣습니다.
+     * <p>
+     * 기준 구간이 실수이므로 (a + i·b) 를 변환해 곱하고 역변환하면 실수부는 a, 허수부는 b 의 내적이 됩니다.
+     */
+    private static void scanPair(Query q, Series a, Series b, int perSymbol, Workspace ws, TopK top) {
+        int m = q.m;
+        if (a.n < m && b.n < m) return;
+        int size = Fft.size(Math.max(a.n, b.n));
+        ws.ensureFft(size);
+
+        // re[i + m - 1] = Σ_j qz[j]·(a[i + j] - shiftA), im 은 b 에 대해 같은 값
+        // qz 의 합이 0 이므로 shift 를 빼도 내적은 같고, 가격 수준이 빠져 반올림 오차가 작아짐
+        double[] re = ws.re;
+        double[] im = ws.im;
+        a.fillShifted(re, size, m);
+        b.fillShifted(im, size, m);
+        Fft.forward(re, im, size);
+        double[][] spectrum = q.spectrum(size);
+        double[] sr = spectrum[0];
+        double[] si = spectrum[1];
+        for (int i = 0; i < size; i++) {
+            double x = re[i], y = im[i];
+            re[i] = x * sr[i] - y * si[i];
+            im[i] = x * si[i] + y * sr[i];
+        }
+        Fft.inverse(re, im, size);
+
+        if (a.n >= m) select(q, a, re, perSymbol, ws, top);
+        if (b.n >= m) select(q, b, im, perSymbol, ws, top);
+    }
+
+    /**
+     * 내적(dot)과 이동 평균·표준편차로 거리 프로파일을 만들고, 서로 m/2 이상 떨어진 최선 구간을 고릅니다.
+     */
+    private static void select(Query q, Series series, double[] dot, int perSymbol, Workspace ws, TopK top) {
+        int m = q.m;
+        int n = series.n;
+        double[] v = series.values;
+        double[] sum = ws.sum;
+        double[] sum2 = ws.sum2;
+        double shift = v[0];
+        sum[0] = 0;
+        sum2[0] = 0;
+        for (int i = 0; i < n; i++) {
+            double d = v[i] - shift;
+            sum[i + 1] = sum[i] + d;
+            sum2[i + 1] = sum2[i] + d * d;
+        }
+
+        int positions = n - m + 1;
+        double[] dist = ws.dist;
+        for (int i = 0; i < positions; i++) {
+            double mean = (sum[i + m] - sum[i]) / m;
+            double var = (sum2[i + m] - sum2[i]) / m - mean * mean;
+            double std = Math.sqrt(Math.max(var, 0));
+            // 값이 (거의) 일정한 구간은 모양이 없으므로 제외
+            if (std == 0 || std <= 1e-9 * Math.abs(mean + shift)) {
+                dist[i] = Double.POSITIVE_INFINITY;
+                continue;
+            }
+            // 상관계수 = Σ qz·(v - mean) / (m·std)
+            double corr = dot[i + m - 1] / (m * std);
+            dist[i] = Math.max(0.0, 2.0 * m * (1.0 - corr));
+        }
+        if (series.self) {
+            // 기준 구간과 겹치는 위치 제외
+            int queryAt = q.position - series.first;
+            int lo = Math.max(0, queryAt - m + 1);
+            int hi = Math.min(positions - 1, queryAt + m - 1);
+            for (int i = lo; i <= hi; i++) dist[i] = Double.POSITIVE_INFINITY;
+        }
+
+        int exclusion = Math.max(1, m / 2);
+        for (int r = 0; r < perSymbol; r++) {
+            int best = -1;
+            double bestDist = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < positions; i++) {
+                if (dist[i] < bestDist) {
+                    bestDist = dist[i];
+                    best = i;
+                }
+            }
+            if (best < 0 || !top.offer(-bestDist, series.rowStart + series.first + best)) return;
+            int lo = Math.max(0, best - exclusion);
+            int hi = Math.min(positions - 1, best + exclusion);
+            for (int i = lo; i <= hi; i++) dist[i] = Double.POSITIVE_INFINITY;
+        }
+    }
+
+    private List<SubsequenceMatchDto> toDtos(List<PriceSlice> slices, int[] starts, TopK top, int m) {
+        int[] ids = top.sortedIds();
+        double[] scores = top.sortedScores();
+        List<SubsequenceMatchDto> results = new ArrayList<>(ids.length);
+        for (int r = 0; r < ids.length; r++) {
+            int s = Arrays.binarySearch(starts, ids[r]);
+            // 같은 시작 행이 여러 개면(빈 종목) 마지막 것이 실제 종목
+            if (s < 0) s = -s - 2;
+            while (s + 1 < starts.length && starts[s + 1] == ids[r]) s++;
+            PriceSlice slice = slices.get(s);
+            int offset = ids[r] - starts[s];
+            double d2 = -scores[r];
+
+            SubsequenceMatchDto dto = new SubsequenceMatchDto();
+            dto.setTicker(slice.getSymbol());
+            String name = store.getName(slice.getSymbol());
+            dto.setName(name == null || name.isEmpty() ? "알 수 없음" : name);
+            dto.setStartDate(slice.date(offset).toString());
+            dto.setEndDate(slice.date(offset + m - 1).toString());
+            dto.setOffset(offset);
+            dto.setDistance(Math.sqrt(d2));
+            dto.setCorrelation(1.0 - d2 / (2.0 * m));
+            results.add(dto);
+        }
+        return results;
+    }
+
+    /**
+     * z-정규화한 기준 구간과 FFT 크기별 스펙트럼 (질의 하나 동안만 사용)
+     */
+    private static final class Query {
+        final int m;
+        /** 기준 종목 전체 시세에서 기준 구간 시작 위치 */
+        final int position;
+        final double[] reversed;
+        final Map<Integer, double[][]> spectra = new ConcurrentHashMap<>();
+
+        private Query(int m, int position, double[] reversed) {
+            this.m = m;
+            this.position = position;
+            this.reversed = reversed;
+        }
+
+        static Query of(PriceSlice window, PriceSlice full, int maxLength) {
+            int m = window.length();
+            if (m < MIN_LENGTH) {
+                throw new IllegalArgumentException(window.getSymbol() + " 기준 구간 데이터가 부족합니다. (" + m + "일)");
+            }
+            if (m > maxLength) {
+                throw new IllegalArgumentException("기준 구간이 너무 깁니다. (" + m + "일, 최대 " + maxLength + "일)");
+            }
+            double[] q = window.closes();
+            if (!SimilarityEngine.interpolate(q, m)) {
+                throw new IllegalArgumentException(window.getSymbol() + " 기준 구간 첫 종가가 없습니다.");
+            }
+            double mean = 0;
+            for (double v : q) mean += v;
+            mean /= m;
+            double var = 0;
+            for (double v : q) var += (v - mean) * (v - mean);
+            double std = Math.sqrt(var / m);
+            if (std == 0) {
+                throw new IllegalArgumentException(window.getSymbol() + " 기준 구간 종가가 일정해 모양을 비교할 수 없습니다.");
+            }
+            double[] reversed = new double[m];
+            for (int j = 0; j < m; j++) reversed[m - 1 - j] = (q[j] - mean) / std;
+
+            int position = 0;
+            int firstDay = window.epochDay(0);
+            while (position < full.length() && full.epochDay(position) < firstDay) position++;
+            return new Query(m, position, reversed);
+        }
+
+        double[][] spectrum(int size) {
+            return spectra.computeIfAbsent(size, n -> {
+                double[] re = new double[n];
+                double[] im = new double[n];
+                System.arraycopy(reversed, 0, re, 0, m);
+                Fft.forward(re, im, n);
+                return new double[][]{re, im};
+            });
+        }
+    }
+
+    /**
+     * 종목 하나의 종가 (앞쪽 NaN 을 건너뛰고 보간한 값)
+     */
+    private static final class Series {
+        double[] values = new double[0];
+        int n;
+        /** 종목 시세에서 values[0] 의 위치 */
+        int first;
+        int rowStart;
+        boolean self;
+
+        void load(PriceSlice slice, boolean self, int rowStart) {
+            int total = slice.length();
+            // 앞쪽 NaN 은 보간할 수 없으므로 첫 유효 종가부터 사용
+            int f = 0;
+            while (f < total && Double.isNaN(slice.close(f))) f++;
+            this.first = f;
+            this.n = total - f;
+            this.self = self;
+            this.rowStart = rowStart;
+            if (values.length < n) values = new double[n];
+            for (int i = 0; i < n; i++) values[i] = slice.close(f + i);
+            if (n > 0) SimilarityEngine.interpolate(values, n);
+        }
+
+        void clear() {
+            n = 0;
+        }
+
+        /** FFT 입력 (첫 값을 뺀 값, 뒤는 0). 구간보다 짧으면 전부 0 */
+        void fillShifted(double[] out, int size, int m) {
+            int len = n >= m ? n : 0;
+            double shift = len > 0 ? values[0] : 0;
+            for (int i = 0; i < len; i++) out[i] = values[i] - shift;
+            Arrays.fill(out, len, size, 0.0);
+        }
+    }
+
+    /**
+     * 스레드별 버퍼 (종목 길이가 늘어날 때만 다시 할당)
+     */
+    private static final class Workspace {
+        final Series a = new Series();
+        final Series b = new Series();
+        double[] sum = new double[1];
+        double[] sum2 = new double[1];
+        double[] dist = new double[0];
+        double[] re = new double[0];
+        double[] im = new double[0];
+
+        void ensureFft(int size) {
+            if (re.length < size) {
+                re = new double[size];
+                im = new double[size];
+                sum = new double[size + 1];
+                sum2 = new double[size + 1];
+                dist = new double[size];
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.mybaselink.app.stock.similarity;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API(jdk.incubator.vector) 커널.
+ * <p>
+ * {@link SimilarityKernel#create(boolean)} 가 모듈이 있을 때만 리플렉션으로 로드하므로
+ * 다른 클래스에서 직접 참조하지 않습니다.
+ */
+final class VectorSimilarityKernel extends SimilarityKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    void accumulate(double[] b, double[] bCentered, double[] gb, double[] c, int n, double[] out) {
+        DoubleVector vSumC = DoubleVector.zero(SPECIES);
+        DoubleVector vSumC2 = DoubleVector.zero(SPECIES);
+        DoubleVector vSumBC = DoubleVector.zero(SPECIES);
+        DoubleVector vSumDiff2 = DoubleVector.zero(SPECIES);
+        DoubleVector vSumGrad = DoubleVector.zero(SPECIES);
+
+        // 내부 구간 [1, n - 1): c[i - 1], c[i + 1] 을 함께 읽어 기울기까지 한 번에 계산
+        int lanes = SPECIES.length();
+        int i = 1;
+        for (; i + lanes <= n - 1; i += lanes) {
+            DoubleVector vc = DoubleVector.fromArray(SPECIES, c, i);
+            DoubleVector vPrev = DoubleVector.fromArray(SPECIES, c, i - 1);
+            DoubleVector vNext = DoubleVector.fromArray(SPECIES, c, i + 1);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES, b, i);
+            DoubleVector vbc = DoubleVector.fromArray(SPECIES, bCentered, i);
+            DoubleVector vgb = DoubleVector.fromArray(SPECIES, gb, i);
+
+            DoubleVector d = vb.sub(vc);
+            DoubleVector gc = vNext.sub(vPrev).mul(0.5);
+            vSumC = vSumC.add(vc);
+            vSumC2 = vc.fma(vc, vSumC2);
+            vSumBC = vbc.fma(vc, vSumBC);
+            vSumDiff2 = d.fma(d, vSumDiff2);
+            vSumGrad = vSumGrad.add(vgb.sub(gc).abs());
+        }
+
+        double sumC = vSumC.reduceLanes(VectorOperators.ADD);
+        double sumC2 = vSumC2.reduceLanes(VectorOperators.ADD);
+        double sumBC = vSumBC.reduceLanes(VectorOperators.ADD);
+        double sumDiff2 = vSumDiff2.reduceLanes(VectorOperators.ADD);
+        double sumGrad = vSumGrad.reduceLanes(VectorOperators.ADD);
+
+        for (; i < n - 1; i++) {
+            double ci = c[i];
+            double d = b[i] - ci;
+            double gc = (c[i + 1] - c[i - 1]) * 0.5;
+            sumC += ci;
+            sumC2 += ci * ci;
+            sumBC += bCentered[i] * ci;
+            sumDiff2 += d * d;
+            sumGrad += Math.abs(gb[i] - gc);
+        }
+
+        out[SUM_C] = sumC;
+        out[SUM_C2] = sumC2;
+        out[SUM_BC] = sumBC;
+        out[SUM_DIFF2] = sumDiff2;
+        out[SUM_GRAD] = sumGrad;
+        accumulateEdges(b, bCentered, gb, c, n, out);
+    }
+
+    @Override
+    String name() {
+        return "vector(" + SPECIES.length() + " lanes)";
+    }
+}
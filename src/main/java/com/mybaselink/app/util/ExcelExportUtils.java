@@ -0,0 +1,137 @@
+package com.mybaselink.app.util;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+/**
+ * 엑셀(XLSX) 다운로드 공용 유틸 (SXSSF 스트리밍)
+ * <p>
+ * - 행은 ROW_WINDOW 개만 메모리에 두고 나머지는 압축 임시 파일로 내보냄 → 행 수와 관계없이 메모리 일정
+ * - 문자열은 공유 문자열 표 없이 셀에 바로 기록
+ * - 열 너비는 행을 쓰면서 글자 폭(한글 2칸)의 최댓값으로 계산 (autoSizeColumn 처럼 셀을 다시 재지 않음)
+ * - 워크북을 byte[] 로 모으지 않고 응답 스트림에 바로 씀
+ */
+public class ExcelExportUtils {
+
+    public static final String CONTENT_TYPE =
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet; charset=UTF-8";
+
+    /** 메모리에 남겨 둘 행 수 */
+    private static final int ROW_WINDOW = 200;
+    /** 열 너비 상한 (글자 수) */
+    private static final int MAX_COLUMN_CHARS = 60;
+
+    /**
+     * 행을 스트리밍으로 써 내려가는 다운로드 응답
+     *
+     * @param filename  내려받을 파일 이름 (.xlsx 포함)
+     * @param sheetName 시트 이름
+     * @param headers   머리글
+     * @param rows      데이터 (응답을 쓰는 동안 다른 스레드에서 읽으므로 바뀌지 않는 목록을 넘길 것)
+     * @param toCells   한 행의 셀 값 (Number 는 숫자 셀, 그 밖에는 문자열, null 은 빈 문자열)
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> download(String filename, String sheetName, String[] headers,
+                                                                     Iterable<T> rows, Function<T, Object[]> toCells) {
+        StreamingResponseBody body = out -> write(out, sheetName, headers, rows, toCells);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition(filename))
+                .header(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE)
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate")
+                .header(HttpHeaders.PRAGMA, "no-cache")
+                .header(HttpHeaders.EXPIRES, "0")
+                .body(body);
+    }
+
+    /**
+     * 워크북 하나를 out 에 씀 (out 은 닫지 않음)
+     */
+    public static <T> void write(OutputStream out, String sheetName, String[] headers,
+                                 Iterable<T> rows, Function<T, Object[]> toCells) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            Sheet sheet = workbook.createSheet(sheetName);
+
+            // 헤더 스타일
+            CellStyle headerStyle = workbook.createCellStyle();
+            Font headerFont = workbook.createFont();
+            headerFont.setBold(true);
+            headerStyle.setFont(headerFont);
+            headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            headerStyle.setAlignment(HorizontalAlignment.CENTER);
+
+            // 헤더 작성
+            int[] widths = new int[headers.length];
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < headers.length; i++) {
+                Cell cell = headerRow.createCell(i);
+                cell.setCellValue(headers[i]);
+                cell.setCellStyle(headerStyle);
+                widths[i] = displayWidth(headers[i]);
+            }
+
+            // 데이터 행 작성
+            int rowIdx = 1;
+            for (T item : rows) {
+                Object[] values = toCells.apply(item);
+                Row row = sheet.createRow(rowIdx++);
+                for (int i = 0; i < values.length; i++) {
+                    Object value = values[i];
+                    Cell cell = row.createCell(i);
+                    String text;
+                    if (value instanceof Number number) {
+                        cell.setCellValue(number.doubleValue());
+                        text = number.toString();
+                    } else {
+                        text = value != null ? value.toString() : "";
+                        cell.setCellValue(text);
+                    }
+                    if (i < widths.length) widths[i] = Math.max(widths[i], displayWidth(text));
+                }
+            }
+
+            // 열 너비 (1/256 글자 단위, 여백 2칸)
+            for (int i = 0; i < widths.length; i++) {
+                sheet.setColumnWidth(i, Math.min(MAX_COLUMN_CHARS, widths[i] + 2) * 256);
+            }
+
+            workbook.write(out);
+            out.flush();
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    /** 첨부 파일 이름 (한글 이름은 filename* 로) */
+    public static String contentDisposition(String filename) {
+        String encodedFilename = URLEncoder.encode(filename, StandardCharsets.UTF_8).replaceAll("\\+", "%20");
+        return "attachment; filename=\"" + filename + "\"; filename*=UTF-8''" + encodedFilename;
+    }
+
+    /** 표시 폭 (한글·전각 문자는 2칸) */
+    private static int displayWidth(String text) {
+        int width = 0;
+        for (int i = 0; i < text.length(); i++) {
+            width += text.charAt(i) >= 0x1100 ? 2 : 1;
+        }
+        return width;
+    }
+}
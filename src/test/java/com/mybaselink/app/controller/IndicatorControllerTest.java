@@ -0,0 +1,51 @@
+package com.mybaselink.app.controller;
+
+import com.mybaselink.app.service.IndicatorService;
+import com.mybaselink.app.stock.indicator.IndicatorEngine;
+import com.mybaselink.app.stock.indicator.IndicatorSpec;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * IndicatorController 가 잘못된 요청(지표·기간·날짜)을 400 으로 돌려주고 서비스까지 넘기지 않는지 확인합니다.
+ */
+class IndicatorControllerTest {
+
+    private final IndicatorService service = mock(IndicatorService.class);
+    private final IndicatorController controller = new IndicatorController(service, mock(IndicatorEngine.class));
+
+    @Test
+    void badDateIsBadRequest() {
+        for (String date : new String[]{"2024/05/02", "2024-13-01", "yesterday"}) {
+            ResponseEntity<Map<String, Object>> res = controller.getIndicator("rsi", null, date, null, 0);
+            assertEquals(HttpStatus.BAD_REQUEST, res.getStatusCode(), date);
+            assertTrue(String.valueOf(res.getBody().get("error")).contains(date), date);
+        }
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void badIndicatorOrPeriodIsBadRequest() {
+        assertEquals(HttpStatus.BAD_REQUEST, controller.getIndicator("vwap", null, null, null, 0).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, controller.getIndicator("sma", 1, null, null, 0).getStatusCode());
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void dateIsParsedBeforeCallingService() {
+        when(service.fetchIndicator(any(), any(), any(), anyInt())).thenReturn(List.of());
+        assertEquals(HttpStatus.OK, controller.getIndicator("rsi", 14, " 2024-05-02 ", "asc", 10).getStatusCode());
+        assertEquals(HttpStatus.OK, controller.getIndicator("rsi", 14, "", "asc", 10).getStatusCode());
+        verify(service).fetchIndicator(IndicatorSpec.of("rsi", 14), LocalDate.of(2024, 5, 2), "asc", 10);
+        verify(service).fetchIndicator(IndicatorSpec.of("rsi", 14), null, "asc", 10);
+    }
+}
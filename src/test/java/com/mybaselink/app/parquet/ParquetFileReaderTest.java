@@ -0,0 +1,148 @@
+package com.mybaselink.app.parquet;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ParquetFileReader 를 src/test/resources/parquet 의 작은 파일로 확인합니다.
+ * <p>
+ * 파일은 make_fixtures.py 로 만들었고, 값은 행 번호로 정해지므로 여기서 같은 식으로 다시 계산해 비교합니다.
+ * (코덱만 다른 세 파일, row group 2 개, v1/v2 page, PLAIN/사전 인코딩, null 구간)
+ */
+class ParquetFileReaderTest {
+
+    private static final String[] FIXTURES = {
+            "prices_uncompressed.parquet", "prices_snappy.parquet", "prices_gzip.parquet"
+    };
+    private static final int ROWS = 1000;
+    private static final int[][] ROW_GROUPS = {{0, 400}, {400, 1000}};
+    private static final int FIRST_DAY = 18262; // 2020-01-01
+    private static final long NULL = -1;
+
+    @Test
+    void readsEveryCodecToKnownValues() throws Exception {
+        for (String fixture : FIXTURES) {
+            try (ParquetFileReader reader = ParquetFileReader.open(fixture(fixture))) {
+                assertEquals(ROWS, reader.getNumRows(), fixture);
+                assertEquals(ROW_GROUPS.length, reader.getRowGroupCount(), fixture);
+                assertEquals(Set.of("Date", "Open", "High", "Low", "Close", "Volume"), reader.getColumnNames(), fixture);
+                assertTrue(reader.isTimeColumn("Date"));
+                assertFalse(reader.isTimeColumn("Close"));
+
+                for (int rg = 0; rg < ROW_GROUPS.length; rg++) {
+                    int lo = ROW_GROUPS[rg][0];
+                    int hi = ROW_GROUPS[rg][1];
+                    int n = hi - lo;
+                    String at = fixture + " rowGroup=" + rg;
+                    assertEquals(n, reader.getRowGroupNumRows(rg), at);
+                    assertArrayEquals(new int[]{FIRST_DAY + lo, FIRST_DAY + hi - 1}, reader.getEpochDayRange(rg, "Date"), at);
+                    assertRange(reader, rg, lo, 0, n, at);
+                }
+            }
+        }
+    }
+
+    @Test
+    void readsPartialRangesAcrossPages() throws Exception {
+        Random random = new Random(7);
+        for (String fixture : FIXTURES) {
+            try (ParquetFileReader reader = ParquetFileReader.open(fixture(fixture))) {
+                for (int t = 0; t < 60; t++) {
+                    int rg = t % ROW_GROUPS.length;
+                    int lo = ROW_GROUPS[rg][0];
+                    int n = ROW_GROUPS[rg][1] - lo;
+                    int from = random.nextInt(n);
+                    int to = from + random.nextInt(n - from + 1);
+                    assertRange(reader, rg, lo, from, to, fixture + " rowGroup=" + rg + " [" + from + ", " + to + ")");
+                }
+                assertEquals(0, reader.readDoubles(0, "Close", 10, 10).length);
+                assertThrows(IndexOutOfBoundsException.class, () -> reader.readDoubles(0, "Close", 0, 401));
+                assertThrows(IOException.class, () -> reader.readDoubles(0, "Missing", 0, 1));
+                assertThrows(IOException.class, () -> reader.readEpochDays(0, "Close", 0, 1));
+            }
+        }
+    }
+
+    /** parquet 문서(Encodings.md)의 예: bit width 3, 값 0~7 bit-packed → 03 88 C6 FA */
+    @Test
+    void decodesBitPackedAndRleRuns() throws IOException {
+        int[] out = new int[8];
+        RleBitPackedDecoder.decode(buffer(0x03, 0x88, 0xC6, 0xFA), 4, 3, out, 8);
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6, 7}, out);
+
+        // RLE run 5 × 300 (bit width 9 → 값 2 바이트) + bit-packed 1 묶음 중 3 개만 사용
+        out = new int[8];
+        RleBitPackedDecoder.decode(buffer(0x0A, 0x2C, 0x01, 0x03, 0x01, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00),
+                13, 9, out, 8);
+        assertArrayEquals(new int[]{300, 300, 300, 300, 300, 1, 0, 0}, out);
+
+        assertThrows(IOException.class, () -> RleBitPackedDecoder.decode(buffer(0x04, 0x01), 2, 1, new int[4], 4));
+    }
+
+    @Test
+    void decompressesSnappyLiteralsAndCopies() throws IOException {
+        // "ab" literal + 겹치는 copy(offset 2, 길이 10) + "xyz" literal + copy(offset 15, 길이 4, 2 바이트 offset)
+        byte[] block = {
+                19,                   // 해제 길이
+                (byte) (1 << 2), 'a', 'b',
+                (byte) (((10 - 4) << 2) | 1), 2,
+                (byte) (2 << 2), 'x', 'y', 'z',
+                (byte) (((4 - 1) << 2) | 2), 15, 0
+        };
+        byte[] out = Snappy.decompress(ByteBuffer.wrap(block), 19);
+        assertEquals("ababababababxyzabab", new String(out, java.nio.charset.StandardCharsets.US_ASCII));
+
+        // 앞에 없는 곳을 가리키는 copy
+        assertThrows(IOException.class, () -> Snappy.decompress(ByteBuffer.wrap(new byte[]{4, 1, (byte) 5, 9}), 4));
+        // 해제 길이가 page header 와 다름
+        assertThrows(IOException.class, () -> Snappy.decompress(ByteBuffer.wrap(new byte[]{1, 0, 'a'}), 2));
+    }
+
+    private static void assertRange(ParquetFileReader reader, int rg, int lo, int from, int to, String at) throws IOException {
+        int[] days = reader.readEpochDays(rg, "Date", from, to);
+        double[] open = reader.readDoubles(rg, "Open", from, to);
+        double[] high = reader.readDoubles(rg, "High", from, to);
+        double[] low = reader.readDoubles(rg, "Low", from, to);
+        double[] close = reader.readDoubles(rg, "Close", from, to);
+        long[] volume = reader.readLongs(rg, "Volume", from, to, NULL);
+        double[] volumeAsDouble = reader.readDoubles(rg, "Volume", from, to);
+        long[] closeAsLong = reader.readLongs(rg, "Close", from, to, NULL);
+
+        for (int k = 0; k < to - from; k++) {
+            int i = lo + from + k;
+            String row = at + " row=" + i;
+            assertEquals(FIRST_DAY + i, days[k], row);
+            assertEquals(1000 + i * 0.25, open[k], row);
+            assertEquals(1000 + i * 0.25 + 1.5, high[k], row);
+            assertEquals(i >= 250 && i < 270 ? Double.NaN : 1000 + i * 0.25 - 1.5, low[k], row);
+
+            boolean closeNull = i == 3 || (i >= 50 && i < 80);
+            double expectedClose = 100 + (i / 10) % 37;
+            assertEquals(closeNull ? Double.NaN : expectedClose, close[k], row);
+            assertEquals(closeNull ? NULL : (long) expectedClose, closeAsLong[k], row);
+
+            boolean volumeNull = i == 5 || i == 17 || i == 500 || (i >= 600 && i < 700);
+            assertEquals(volumeNull ? NULL : i * 10L, volume[k], row);
+            assertEquals(volumeNull ? Double.NaN : i * 10.0, volumeAsDouble[k], row);
+        }
+    }
+
+    private static ByteBuffer buffer(int... bytes) {
+        ByteBuffer buf = ByteBuffer.allocate(bytes.length).order(ByteOrder.LITTLE_ENDIAN);
+        for (int b : bytes) buf.put((byte) b);
+        return buf.flip();
+    }
+
+    private static Path fixture(String name) throws URISyntaxException {
+        return Path.of(ParquetFileReaderTest.class.getResource("/parquet/" + name).toURI());
+    }
+}
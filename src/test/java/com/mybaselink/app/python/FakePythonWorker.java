@@ -0,0 +1,104 @@
+package com.mybaselink.app.python;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 테스트용 가짜 워커: python_worker.py 와 같은 프로토콜(요청 한 줄 → 헤더 한 줄 + length 바이트 본문)을 말하는 JVM 프로세스.
+ * <p>
+ * 스크립트 경로의 파일 이름으로 동작을 고릅니다.
+ * <ul>
+ *   <li>echo: {"pid", "jobs", "args"} 를 돌려줌</li>
+ *   <li>fail: 종료 코드 1, 본문은 오류 출력</li>
+ *   <li>sleep: args[0] 밀리초 쉰 뒤 echo</li>
+ *   <li>crash: 응답 없이 프로세스 종료</li>
+ *   <li>malformed: 종료 코드 0, 프레임은 맞지만 본문이 깨진 JSON</li>
+ * </ul>
+ */
+public final class FakePythonWorker {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private FakePythonWorker() {
+    }
+
+    /** 이 클래스를 워커로 띄우는 명령 (java -cp ... FakePythonWorker) */
+    static List<String> command() {
+        List<String> classpath = new ArrayList<>();
+        for (Class<?> c : new Class<?>[]{FakePythonWorker.class, ObjectMapper.class, JsonParser.class, JsonProperty.class}) {
+            try {
+                classpath.add(Paths.get(c.getProtectionDomain().getCodeSource().getLocation().toURI()).toString());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        return List.of(java, "-cp", String.join(File.pathSeparator, classpath), FakePythonWorker.class.getName());
+    }
+
+    public static void main(String[] argv) throws Exception {
+        long pid = ProcessHandle.current().pid();
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(FileDescriptor.out));
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        send(out, Map.of("op", "ready", "pid", pid), null);
+
+        int jobs = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            JsonNode req = MAPPER.readTree(line);
+            String op = req.path("op").asText();
+            if (op.equals("shutdown")) break;
+            if (op.equals("ping")) {
+                send(out, Map.of("id", req.path("id").asLong(), "op", "pong", "pid", pid), null);
+                continue;
+            }
+
+            jobs++;
+            String script = Paths.get(req.path("script").asText()).getFileName().toString();
+            List<String> args = new ArrayList<>();
+            req.path("args").forEach(a -> args.add(a.asText()));
+            Map<String, Object> header = new LinkedHashMap<>();
+            header.put("id", req.path("id").asLong());
+            switch (script) {
+                case "crash" -> System.exit(3);
+                case "malformed" -> {
+                    header.put("exit_code", 0);
+                    send(out, header, "{\"pid\": , \"pad\": \"" + "x".repeat(16 * 1024) + "\"}");
+                }
+                case "fail" -> {
+                    header.put("exit_code", 1);
+                    send(out, header, "boom: " + String.join(" ", args));
+                }
+                default -> {
+                    if (script.equals("sleep")) Thread.sleep(Long.parseLong(args.get(0)));
+                    header.put("exit_code", 0);
+                    Map<String, Object> body = new LinkedHashMap<>();
+                    body.put("pid", pid);
+                    body.put("jobs", jobs);
+                    body.put("args", args);
+                    send(out, header, MAPPER.writeValueAsString(body));
+                }
+            }
+        }
+    }
+
+    private static void send(OutputStream out, Map<String, Object> header, String body) throws IOException {
+        byte[] payload = body == null ? null : body.getBytes(StandardCharsets.UTF_8);
+        Map<String, Object> h = new LinkedHashMap<>(header);
+        if (payload != null) h.put("length", payload.length);
+        out.write(MAPPER.writeValueAsBytes(h));
+        out.write('\n');
+        if (payload != null) out.write(payload);
+        out.flush();
+    }
+}
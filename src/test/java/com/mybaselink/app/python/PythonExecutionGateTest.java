@@ -0,0 +1,148 @@
+package com.mybaselink.app.python;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PythonExecutionGate 의 permit 제한·weight 자르기, 대기열 거절, 대기 기한, 도착 순서(FIFO) 보장을 확인합니다.
+ * 순서 테스트는 앞선 대기자가 실제로 세마포어에 줄을 선 뒤에 다음 대기자를 출발시킵니다.
+ */
+class PythonExecutionGateTest {
+
+    private static final Duration LONG = Duration.ofSeconds(30);
+
+    @Test
+    void limitsConcurrentPermits() throws Exception {
+        PythonExecutionGate gate = openGate(2, 8, 60);
+        try (PythonExecutionGate.Permit a = gate.acquire(1, LONG);
+             PythonExecutionGate.Permit b = gate.acquire(1, LONG)) {
+            assertEquals(0, gate.getStats().get("availablePermits"));
+            assertThrows(TimeoutException.class, () -> gate.acquire(1, Duration.ofMillis(100)));
+        }
+        assertEquals(2, gate.getStats().get("availablePermits"));
+        assertEquals(2L, gate.getStats().get("admitted"));
+        assertEquals(1L, gate.getStats().get("timedOut"));
+    }
+
+    @Test
+    void weightIsClippedToPermits() throws Exception {
+        PythonExecutionGate gate = openGate(3, 8, 60);
+        try (PythonExecutionGate.Permit all = gate.acquire(PythonExecutionGate.ALL_PERMITS, LONG)) {
+            assertEquals(3, all.getCount());
+            assertEquals(0, gate.getStats().get("availablePermits"));
+        }
+        try (PythonExecutionGate.Permit none = gate.acquire(0, LONG)) {
+            assertEquals(1, none.getCount());
+        }
+        PythonExecutionGate.Permit p = gate.acquire(2, LONG);
+        p.close();
+        p.close();
+        assertEquals(3, gate.getStats().get("availablePermits"), "두 번 close 해도 한 번만 반납");
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() throws Exception {
+        PythonExecutionGate gate = openGate(1, 1, 60);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        try (PythonExecutionGate.Permit held = gate.acquire(1, LONG)) {
+            Thread waiter = startWaiter(gate, 1, "a", order);
+            awaitQueued(gate, waiter, 1);
+
+            assertThrows(IllegalStateException.class, () -> gate.acquire(1, LONG));
+            assertEquals(1L, gate.getStats().get("rejected"));
+            assertEquals(1, gate.getStats().get("waiting"));
+        }
+        awaitCount(order, 1);
+        assertEquals(List.of("a"), order);
+    }
+
+    @Test
+    void waitIsCappedByMaxWaitSeconds() throws Exception {
+        PythonExecutionGate gate = openGate(1, 8, 1);
+        try (PythonExecutionGate.Permit held = gate.acquire(1, LONG)) {
+            long start = System.nanoTime();
+            assertThrows(TimeoutException.class, () -> gate.acquire(1, Duration.ofSeconds(60)));
+            long tookMillis = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(tookMillis >= 900 && tookMillis < 10_000, "took " + tookMillis + "ms");
+        }
+        assertEquals(0, gate.getStats().get("waiting"));
+    }
+
+    @Test
+    void waitersAreAdmittedInArrivalOrder() throws Exception {
+        PythonExecutionGate gate = openGate(1, 16, 60);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<String> expected = new ArrayList<>();
+        try (PythonExecutionGate.Permit held = gate.acquire(1, LONG)) {
+            for (int i = 0; i < 6; i++) {
+                String name = "w" + i;
+                expected.add(name);
+                awaitQueued(gate, startWaiter(gate, 1, name, order), i + 1);
+            }
+        }
+        awaitCount(order, expected.size());
+        assertEquals(expected, order);
+    }
+
+    @Test
+    void heavyWaiterIsNotOvertakenByLaterLightRequest() throws Exception {
+        PythonExecutionGate gate = openGate(2, 16, 60);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        try (PythonExecutionGate.Permit held = gate.acquire(1, LONG)) {
+            // permit 하나가 남아 있지만 heavy(2개)가 먼저 줄을 섰으므로 light 도 그 뒤에 서야 함
+            awaitQueued(gate, startWaiter(gate, 2, "heavy", order), 1);
+            awaitQueued(gate, startWaiter(gate, 1, "light", order), 2);
+            assertTrue(order.isEmpty(), "light 가 heavy 를 앞질렀음: " + order);
+        }
+        awaitCount(order, 2);
+        assertEquals(List.of("heavy", "light"), order);
+    }
+
+    private static PythonExecutionGate openGate(int permits, int maxQueue, long maxWaitSeconds) {
+        PythonExecutionGate gate = new PythonExecutionGate();
+        ReflectionTestUtils.setField(gate, "permits", permits);
+        ReflectionTestUtils.setField(gate, "maxQueue", maxQueue);
+        ReflectionTestUtils.setField(gate, "maxWaitSeconds", maxWaitSeconds);
+        gate.init();
+        return gate;
+    }
+
+    /** permit 을 얻으면 이름을 기록하고 곧바로 반납하는 대기자 */
+    private static Thread startWaiter(PythonExecutionGate gate, int weight, String name, List<String> order) {
+        Thread t = new Thread(() -> {
+            try (PythonExecutionGate.Permit p = gate.acquire(weight, LONG)) {
+                order.add(name);
+            } catch (Exception e) {
+                order.add(name + ":" + e);
+            }
+        }, name);
+        t.setDaemon(true);
+        t.start();
+        return t;
+    }
+
+    /** 대기자가 세마포어에 줄을 서서 잠들 때까지 기다림 */
+    private static void awaitQueued(PythonExecutionGate gate, Thread waiter, int waiting) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!((int) gate.getStats().get("waiting") == waiting && waiter.getState() == Thread.State.TIMED_WAITING)) {
+            assertTrue(System.nanoTime() < deadline, waiter.getName() + " 이 대기열에 들어가지 않음");
+            Thread.sleep(5);
+        }
+    }
+
+    private static void awaitCount(List<String> order, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (order.size() < count) {
+            assertTrue(System.nanoTime() < deadline, "대기자가 끝나지 않음: " + order);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.mybaselink.app.python;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 응답 프레임 하나의 본문을 읽지 못해도(깨진 JSON, 타입 불일치) 그 프레임을 끝까지 건너뛰어
+ * 같은 스트림의 다음 프레임을 정상으로 읽는지 확인합니다.
+ */
+class PythonResultReaderTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void malformedBodyIsSkippedUpToNextFrame() throws Exception {
+        InputStream in = frames(
+                "{\"rows\": [1, 2, , 3], \"pad\": \"" + "x".repeat(20_000) + "\"}",
+                "{\"rows\": [4, 5]}");
+
+        assertThrows(PythonScriptException.class, () -> readNext(in, JsonNode.class));
+        JsonNode good = readNext(in, JsonNode.class);
+        assertEquals("[4,5]", good.path("rows").toString());
+        assertNull(PythonResultReader.readHeader(mapper, in));
+    }
+
+    @Test
+    void typeMismatchIsSkippedUpToNextFrame() throws Exception {
+        InputStream in = frames("{\"symbol\": \"005930\", \"rows\": [1, 2, 3]}", "[\"a\", \"b\"]");
+
+        PythonScriptException e = assertThrows(PythonScriptException.class, () -> readNext(in, Integer.class));
+        assertEquals(0, e.getExitCode());
+        assertEquals(List.of("a", "b"), readNext(in, List.class));
+    }
+
+    @Test
+    void errorObjectForListIsReportedAndSkipped() throws Exception {
+        InputStream in = frames("{\"error\": \"데이터 없음\"}", "[1]");
+
+        PythonScriptException e = assertThrows(PythonScriptException.class, () -> readNext(in, List.class));
+        assertEquals("데이터 없음", e.getMessage());
+        assertEquals(List.of(1), readNext(in, List.class));
+    }
+
+    private <T> T readNext(InputStream in, Class<T> type) throws Exception {
+        JsonNode header = PythonResultReader.readHeader(mapper, in);
+        assertNotNull(header);
+        return PythonResultReader.readBody(mapper, in, header.path("length").asLong(),
+                TypeFactory.defaultInstance().constructType(type));
+    }
+
+    private InputStream frames(String... bodies) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long id = 1;
+        for (String body : bodies) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            out.write(mapper.writeValueAsBytes(Map.of("id", id++, "exit_code", 0, "length", bytes.length)));
+            out.write('\n');
+            out.write(bytes);
+        }
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+}
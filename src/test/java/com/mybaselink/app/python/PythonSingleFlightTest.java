@@ -0,0 +1,47 @@
+package com.mybaselink.app.python;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PythonSingleFlight 실행 키가 argv 를 그대로 구분하는지 확인합니다.
+ */
+class PythonSingleFlightTest {
+
+    private static final String SCRIPT = "python/stock/similarity.py";
+
+    @Test
+    void sameArgvSharesKey() {
+        assertEquals(PythonSingleFlight.key(SCRIPT, List.of("--symbol", "005930", "--top", "10")),
+                PythonSingleFlight.key("python/stock/../stock/similarity.py", List.of("--symbol", "005930", "--top", "10")));
+    }
+
+    @Test
+    void differentArgvGetsDifferentKeys() {
+        List<List<String>> argvs = List.of(
+                List.of("--symbol", "005930"),
+                List.of("--symbol", " 005930"),
+                List.of("--symbol", "005930 "),
+                List.of("--symbol=005930"),
+                // 값이 없는 플래그 뒤의 위치 인자
+                List.of("--parallel", "foo"),
+                List.of("foo", "--parallel"),
+                List.of("--parallel"),
+                List.of("--a", "1", "--b", "2"),
+                List.of("--b", "2", "--a", "1"),
+                List.of("a\u0000b"),
+                List.of("a", "b"),
+                List.of("1:a"),
+                List.of(""),
+                List.of());
+        for (int i = 0; i < argvs.size(); i++) {
+            for (int j = i + 1; j < argvs.size(); j++) {
+                assertNotEquals(PythonSingleFlight.key(SCRIPT, argvs.get(i)), PythonSingleFlight.key(SCRIPT, argvs.get(j)),
+                        argvs.get(i) + " vs " + argvs.get(j));
+            }
+        }
+    }
+}
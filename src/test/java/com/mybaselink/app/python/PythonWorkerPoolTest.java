@@ -0,0 +1,212 @@
+package com.mybaselink.app.python;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PythonWorkerPool 을 가짜 워커 프로세스({@link FakePythonWorker})로 돌려
+ * 프로토콜 왕복, 워커 재사용·교체(max-jobs, 스크립트 실패, 프로세스 종료, 시간 초과)와 풀 크기 제한을 확인합니다.
+ */
+class PythonWorkerPoolTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @TempDir
+    Path tempDir;
+
+    private PythonWorkerPool pool;
+
+    @AfterEach
+    void shutdown() {
+        if (pool != null) pool.shutdown();
+    }
+
+    @Test
+    void reusesWorkerAcrossJobs() throws Exception {
+        pool = openPool(1, 50);
+        JsonNode first = pool.run("echo", List.of("--base_symbol", "005930"), TIMEOUT);
+        JsonNode second = pool.run("echo", List.of("--n", "2"), TIMEOUT);
+
+        assertEquals(List.of("--base_symbol", "005930"), texts(first.path("args")));
+        assertEquals(first.path("pid").asLong(), second.path("pid").asLong());
+        assertEquals(1, first.path("jobs").asInt());
+        assertEquals(2, second.path("jobs").asInt());
+        assertEquals(1L, pool.getStats().get("startedWorkers"));
+        assertEquals(2L, pool.getStats().get("completedJobs"));
+    }
+
+    @Test
+    void recyclesWorkerAfterMaxJobs() throws Exception {
+        pool = openPool(1, 2);
+        long a = pid(pool.run("echo", List.of(), TIMEOUT));
+        long b = pid(pool.run("echo", List.of(), TIMEOUT));
+        long c = pid(pool.run("echo", List.of(), TIMEOUT));
+
+        assertEquals(a, b);
+        assertNotEquals(b, c);
+        assertEquals(1L, pool.getStats().get("recycledWorkers"));
+    }
+
+    @Test
+    void scriptFailureKeepsWorker() throws Exception {
+        pool = openPool(1, 50);
+        long before = pid(pool.run("echo", List.of(), TIMEOUT));
+
+        PythonScriptException e = assertThrows(PythonScriptException.class,
+                () -> pool.run("fail", List.of("x"), TIMEOUT));
+        assertEquals(1, e.getExitCode());
+        assertTrue(e.getMessage().contains("boom: x"), e.getMessage());
+
+        assertEquals(before, pid(pool.run("echo", List.of(), TIMEOUT)));
+        assertEquals(1L, pool.getStats().get("failedJobs"));
+    }
+
+    @Test
+    void unreadableResultKeepsWorker() throws Exception {
+        pool = openPool(1, 50);
+        long before = pid(pool.run("echo", List.of(), TIMEOUT));
+
+        // 깨진 JSON 본문 뒤에 오는 정상 프레임을 같은 워커가 그대로 읽어야 함
+        assertThrows(PythonScriptException.class, () -> pool.run("malformed", List.of(), TIMEOUT));
+        JsonNode next = pool.run("echo", List.of("after"), TIMEOUT);
+        assertEquals(before, pid(next));
+        assertEquals(List.of("after"), texts(next.path("args")));
+
+        // JSON 은 멀쩡하지만 요청한 타입으로 읽을 수 없는 경우도 마찬가지
+        assertThrows(PythonScriptException.class, () -> pool.run("echo", List.of(), TIMEOUT, Integer.class));
+        assertEquals(before, pid(pool.run("echo", List.of(), TIMEOUT)));
+        assertEquals(1L, pool.getStats().get("startedWorkers"));
+    }
+
+    @Test
+    void crashedWorkerIsReplaced() throws Exception {
+        pool = openPool(1, 50);
+        long before = pid(pool.run("echo", List.of(), TIMEOUT));
+
+        IOException e = assertThrows(IOException.class, () -> pool.run("crash", List.of(), TIMEOUT));
+        assertFalse(e instanceof PythonScriptException, e.toString());
+
+        long after = pid(pool.run("echo", List.of(), TIMEOUT));
+        assertNotEquals(before, after);
+        assertEquals(1, pool.getStats().get("liveWorkers"));
+    }
+
+    @Test
+    void timeoutKillsAndReplacesWorker() throws Exception {
+        pool = openPool(1, 50);
+        long before = pid(pool.run("echo", List.of(), TIMEOUT));
+
+        assertThrows(TimeoutException.class, () -> pool.run("sleep", List.of("60000"), Duration.ofMillis(1_500)));
+        assertFalse(ProcessHandle.of(before).map(ProcessHandle::isAlive).orElse(false), "시간 초과한 워커가 살아 있음");
+
+        assertNotEquals(before, pid(pool.run("echo", List.of(), TIMEOUT)));
+        assertEquals(1L, pool.getStats().get("timedOutJobs"));
+    }
+
+    @Test
+    void poolSizeBoundsConcurrentWorkers() throws Exception {
+        pool = openPool(2, 50);
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<JsonNode>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                futures.add(callers.submit(() -> pool.run("sleep", List.of("300"), TIMEOUT)));
+            }
+            Set<Long> pids = new HashSet<>();
+            for (Future<JsonNode> f : futures) pids.add(pid(f.get(60, TimeUnit.SECONDS)));
+            assertTrue(pids.size() <= 2, "워커 수가 풀 크기를 넘음: " + pids);
+            assertEquals(6L, pool.getStats().get("completedJobs"));
+            assertTrue((int) pool.getStats().get("liveWorkers") <= 2);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void coalescedCallersGetTheirOwnResultCopy() throws Exception {
+        pool = openPool(2, 50, true);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            List<String> args = List.of("800");
+            Future<EchoResult> leader = callers.submit(() -> pool.run("sleep", args, TIMEOUT, EchoResult.class));
+            long deadline = System.nanoTime() + TIMEOUT.toNanos();
+            while ((int) pool.getCoalescingStats().get("inFlight") == 0) {
+                assertTrue(System.nanoTime() < deadline, "대표 실행이 시작되지 않음");
+                Thread.sleep(5);
+            }
+            Future<EchoResult> follower = callers.submit(() -> pool.run("sleep", args, TIMEOUT, EchoResult.class));
+
+            EchoResult a = leader.get(60, TimeUnit.SECONDS);
+            EchoResult b = follower.get(60, TimeUnit.SECONDS);
+            assertEquals(1L, pool.getCoalescingStats().get("executions"));
+            assertEquals(1L, pool.getCoalescingStats().get("attached"));
+            assertEquals(a.pid, b.pid);
+            assertEquals(a.args, b.args);
+
+            // 한쪽이 결과를 바꿔도 다른 쪽에는 보이지 않아야 함
+            assertNotSame(a, b);
+            assertNotSame(a.args, b.args);
+            a.args.add("changed");
+            assertEquals(List.of("800"), b.args);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    /** echo 결과 DTO */
+    static class EchoResult {
+        public long pid;
+        public int jobs;
+        public List<String> args;
+    }
+
+    private PythonWorkerPool openPool(int size, int maxJobs) {
+        return openPool(size, maxJobs, false);
+    }
+
+    private PythonWorkerPool openPool(int size, int maxJobs, boolean coalesce) {
+        PythonExecutionGate gate = new PythonExecutionGate();
+        ReflectionTestUtils.setField(gate, "permits", 8);
+        ReflectionTestUtils.setField(gate, "maxQueue", 64);
+        ReflectionTestUtils.setField(gate, "maxWaitSeconds", 60L);
+        gate.init();
+
+        PythonWorkerPool p = new PythonWorkerPool(gate) {
+            @Override
+            List<String> workerCommand() {
+                return FakePythonWorker.command();
+            }
+        };
+        ReflectionTestUtils.setField(p, "pythonWorkingDir", tempDir.toString());
+        ReflectionTestUtils.setField(p, "poolSize", size);
+        ReflectionTestUtils.setField(p, "prestart", false);
+        ReflectionTestUtils.setField(p, "maxJobsPerWorker", maxJobs);
+        ReflectionTestUtils.setField(p, "healthCheckSeconds", 0L);
+        ReflectionTestUtils.setField(p, "startupTimeoutSeconds", 30L);
+        ReflectionTestUtils.setField(p, "defaultJobTimeoutSeconds", 30L);
+        ReflectionTestUtils.setField(p, "coalesce", coalesce);
+        p.init();
+        return p;
+    }
+
+    private static long pid(JsonNode result) {
+        return result.path("pid").asLong();
+    }
+
+    private static List<String> texts(JsonNode array) {
+        List<String> list = new ArrayList<>();
+        array.forEach(n -> list.add(n.asText()));
+        return list;
+    }
+}
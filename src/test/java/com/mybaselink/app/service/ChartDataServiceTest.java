@@ -0,0 +1,123 @@
+package com.mybaselink.app.service;
+
+import com.mybaselink.app.dto.ChartDataDto;
+import com.mybaselink.app.stock.MarketPriceStore;
+import com.mybaselink.app.stock.StockParquetLoader;
+import com.mybaselink.app.stock.StockPriceSeries;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ChartDataService 다운샘플링이 거래일이 아주 적은 종목(n ≤ 3)에서도 깨지지 않는지 확인합니다.
+ */
+class ChartDataServiceTest {
+
+    private static final int FIRST_DAY = (int) LocalDate.of(2020, 1, 2).toEpochDay();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void widthNeverExceedsTradingDays() throws Exception {
+        Map<String, StockPriceSeries> data = new LinkedHashMap<>();
+        data.put("000001", series("000001", new double[]{100}));
+        data.put("000002", series("000002", new double[]{100, 101}));
+        data.put("000003", series("000003", new double[]{100, 103, 99}));
+        // 종가가 있는 날은 둘뿐인 종목
+        data.put("000004", series("000004", new double[]{Double.NaN, 100, Double.NaN, Double.NaN, 104, Double.NaN}));
+        data.put("000005", series("000005", new double[]{100, 102, 98, 105, 101, 99, 103}));
+        ChartDataService service = new ChartDataService(openStore(data));
+
+        for (StockPriceSeries series : data.values()) {
+            int n = 0;
+            for (double c : series.getClose()) if (!Double.isNaN(c)) n++;
+            for (int width = 1; width <= n + 1; width++) {
+                for (boolean ohlc : new boolean[]{false, true}) {
+                    ChartDataDto dto = service.fetchChartData(series.getSymbol(), null, null, width, ohlc);
+                    int expected = width >= n ? n : Math.min(n, Math.max(3, width));
+                    String at = series.getSymbol() + " width=" + width + " ohlc=" + ohlc;
+
+                    assertEquals(n, dto.getTotal(), at);
+                    assertEquals(expected < n, dto.isSampled(), at);
+                    assertEquals(expected, dto.getDays().length, at);
+                    assertEquals(expected, dto.getClose().length, at);
+                    assertFinite(dto.getClose(), at);
+                    if (ohlc) {
+                        assertFinite(dto.getOpen(), at);
+                        assertFinite(dto.getHigh(), at);
+                        assertFinite(dto.getLow(), at);
+                        for (int b = 0; b < expected; b++) {
+                            assertTrue(dto.getLow()[b] <= dto.getHigh()[b], at);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void ohlcBucketsCoverEveryTradingDay() throws Exception {
+        double[] close = {100, 102, 98, 105, 101, 99, 103};
+        ChartDataService service = new ChartDataService(openStore(Map.of("000005", series("000005", close))));
+
+        // 7 일 → 3 구간: [0,2) [2,4) [4,7)
+        ChartDataDto dto = service.fetchChartData("000005", null, null, 2, true);
+        assertTrue(dto.isSampled());
+        assertArrayEquals(new float[]{100, 98, 101}, dto.getOpen());
+        assertArrayEquals(new float[]{102, 105, 103}, dto.getHigh());
+        assertArrayEquals(new float[]{100, 98, 99}, dto.getLow());
+        assertArrayEquals(new float[]{102, 105, 103}, dto.getClose());
+        assertArrayEquals(new int[]{FIRST_DAY, 2, 2}, dto.getDays());
+    }
+
+    private static void assertFinite(float[] values, String at) {
+        for (float v : values) assertTrue(Float.isFinite(v), at + " value=" + v);
+    }
+
+    private MarketPriceStore openStore(Map<String, StockPriceSeries> data) throws Exception {
+        StockParquetLoader loader = new StockParquetLoader() {
+            @Override
+            public boolean exists(String symbol) {
+                return data.containsKey(symbol);
+            }
+
+            @Override
+            public StockPriceSeries load(String symbol) {
+                return data.get(symbol);
+            }
+        };
+        ReflectionTestUtils.setField(loader, "stockDataDir", tempDir.resolve("stock_data").toString());
+        StockListService listService = new StockListService() {
+            @Override
+            public List<Map<String, Object>> getStockList() {
+                List<Map<String, Object>> list = new ArrayList<>();
+                for (String symbol : data.keySet()) list.add(Map.of("Code", symbol, "Name", "종목" + symbol));
+                return list;
+            }
+        };
+
+        MarketPriceStore store = new MarketPriceStore(loader, listService);
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "storeDir", tempDir.resolve("store").toString());
+        ReflectionTestUtils.invokeMethod(store, "init");
+        store.refreshAsync("test").get(30, TimeUnit.SECONDS);
+        assertTrue(store.isReady());
+        return store;
+    }
+
+    private static StockPriceSeries series(String symbol, double[] close) {
+        int n = close.length;
+        int[] days = new int[n];
+        long[] volume = new long[n];
+        for (int i = 0; i < n; i++) days[i] = FIRST_DAY + i;
+        return new StockPriceSeries(symbol, n, days, close.clone(), close.clone(), close.clone(), close, volume);
+    }
+}
@@ -0,0 +1,124 @@
+package com.mybaselink.app.service;
+
+import com.mybaselink.app.dto.ChartImageDto;
+import com.mybaselink.app.python.PythonWorkerPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ChartImageService 의 --image_out 경로 주고받기를 확인합니다.
+ * 파이썬 워커 풀은 mock 으로, 스크립트 대신 요청받은 --image_out 경로에 PNG 바이트를 쓰고 결과 DTO 를 돌려줍니다.
+ */
+class ChartImageServiceTest {
+
+    private static final String SCRIPT = "python/chart.py";
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 1, 2, 3};
+
+    @TempDir
+    Path tempDir;
+
+    private PythonWorkerPool pool;
+    private ChartImageService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pool = mock(PythonWorkerPool.class);
+        service = new ChartImageService(pool);
+        ReflectionTestUtils.setField(service, "tmpDir", tempDir.resolve("charts").toString());
+        ReflectionTestUtils.setField(service, "cacheMaxMb", 1L);
+        ReflectionTestUtils.setField(service, "cacheTtlMinutes", 30L);
+        ReflectionTestUtils.invokeMethod(service, "init");
+    }
+
+    @Test
+    void readsPngFromRequestedPathAndDeletesIt() throws Exception {
+        when(pool.run(eq(SCRIPT), anyList(), any(Duration.class), eq(ChartImageDto.class))).thenAnswer(inv -> {
+            Path out = imageOut(inv.getArgument(1));
+            Files.write(out, PNG);
+            return pathResult(out.toString());
+        });
+
+        assertArrayEquals(PNG, service.render(SCRIPT, List.of("--base_symbol", "005930"), TIMEOUT));
+        assertEquals(0, countFiles(), "임시 PNG 가 남아 있음");
+
+        // 같은 차트는 캐시에서
+        assertArrayEquals(PNG, service.render(SCRIPT, List.of("--base_symbol", "005930"), TIMEOUT));
+        verify(pool, times(1)).run(eq(SCRIPT), anyList(), any(Duration.class), eq(ChartImageDto.class));
+        assertEquals(1, service.getStats().get("entries"));
+    }
+
+    @Test
+    void rejectsImagePathOtherThanRequested() throws Exception {
+        Path other = tempDir.resolve("other.png");
+        Files.write(other, PNG);
+        when(pool.run(eq(SCRIPT), anyList(), any(Duration.class), eq(ChartImageDto.class))).thenAnswer(inv -> {
+            Files.write(imageOut(inv.getArgument(1)), PNG);
+            return pathResult(other.toString());
+        });
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> service.render(SCRIPT, List.of("--base_symbol", "000660"), TIMEOUT));
+        assertTrue(e.getMessage().contains(other.toString()), e.getMessage());
+        assertTrue(Files.exists(other), "요청하지 않은 경로의 파일을 지웠음");
+        assertEquals(0, countFiles(), "요청한 임시 PNG 가 남아 있음");
+        assertEquals(0, service.getStats().get("entries"));
+    }
+
+    @Test
+    void acceptsLegacyBase64Result() throws Exception {
+        ChartImageDto legacy = new ChartImageDto();
+        legacy.setImageData(Base64.getEncoder().encodeToString(PNG));
+        when(pool.run(eq(SCRIPT), anyList(), any(Duration.class), eq(ChartImageDto.class))).thenReturn(legacy);
+
+        assertArrayEquals(PNG, service.render(SCRIPT, List.of("--base_symbol", "035420"), TIMEOUT));
+    }
+
+    @Test
+    void scriptErrorIsReported() throws Exception {
+        ChartImageDto error = new ChartImageDto();
+        error.setError("데이터가 없습니다.");
+        when(pool.run(eq(SCRIPT), anyList(), any(Duration.class), eq(ChartImageDto.class))).thenReturn(error);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> service.render(SCRIPT, List.of("--base_symbol", "999999"), TIMEOUT));
+        assertEquals("데이터가 없습니다.", e.getMessage());
+        assertEquals(0, countFiles());
+    }
+
+    /** 인자 목록에서 --image_out 다음 값을 꺼내고, 그 경로가 서비스 임시 디렉터리 안인지 확인 */
+    private Path imageOut(List<String> args) {
+        int i = args.indexOf("--image_out");
+        assertTrue(i >= 0 && i + 1 < args.size(), "--image_out 인자가 없음: " + args);
+        Path out = Paths.get(args.get(i + 1));
+        assertEquals(tempDir.resolve("charts"), out.getParent());
+        return out;
+    }
+
+    private static ChartImageDto pathResult(String path) {
+        ChartImageDto dto = new ChartImageDto();
+        dto.setImagePath(path);
+        dto.setImageSize(PNG.length);
+        return dto;
+    }
+
+    private long countFiles() throws Exception {
+        try (Stream<Path> files = Files.list(tempDir.resolve("charts"))) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.mybaselink.app.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybaselink.app.stock.StockListing;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StockListService 가 stock_listing.json 의 알려지지 않은 키를 버리지 않고 응답에 그대로 내보내는지,
+ * 감시 중인 파일을 다시 쓰면 WatchService 알림으로 새 스냅샷으로 바뀌는지 확인합니다.
+ */
+class StockListServiceTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    private StockListService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) service.shutdown();
+    }
+
+    @Test
+    void unknownPropertiesAreKept() throws Exception {
+        Path file = tempDir.resolve("stock_listing.json");
+        Map<String, Object> row = listing("005930", "삼성전자");
+        row.put("Sector", "반도체");
+        row.put("ListingDate", "1975-06-11");
+        row.put("Extra", Map.of("per", 12.5));
+        write(file, List.of(row, listing("000660", "SK하이닉스")));
+        service = open(file);
+
+        StockListing first = service.getListings().get(0);
+        assertEquals("005930", first.code());
+        assertEquals(Set.of("Sector", "ListingDate", "Extra"), first.extra().keySet());
+        assertEquals(Map.of("per", 12.5), first.extra().get("Extra"));
+        assertTrue(service.getListings().get(1).extra().isEmpty());
+
+        // 예전 Map 모양: 원래 키 뒤, id 앞
+        List<String> keys = new ArrayList<>(service.getStockList().get(0).keySet());
+        assertEquals("Date", keys.get(keys.size() - 5));
+        assertEquals(Set.of("Sector", "ListingDate", "Extra"), new HashSet<>(keys.subList(keys.size() - 4, keys.size() - 1)));
+        assertEquals("id", keys.get(keys.size() - 1));
+
+        // API 응답(레코드 직렬화)에도 최상위 키로 그대로
+        JsonNode json = MAPPER.valueToTree(first);
+        assertEquals("반도체", json.path("Sector").asText());
+        assertEquals(12.5, json.path("Extra").path("per").asDouble());
+        assertFalse(json.has("extra"), json.toString());
+        assertEquals(first, MAPPER.treeToValue(json, StockListing.class));
+    }
+
+    @Test
+    void rewrittenFileIsSwappedIn() throws Exception {
+        Path file = tempDir.resolve("stock_listing.json");
+        write(file, List.of(listing("005930", "삼성전자"), listing("000660", "SK하이닉스")));
+        service = open(file);
+        assertEquals(2, service.getListings().size());
+        assertEquals(Boolean.TRUE, service.getStats().get("watching"));
+
+        // 임시 파일에 쓰고 옮기는 방식과 제자리에 다시 쓰는 방식 모두
+        Path tmp = tempDir.resolve("stock_listing.json.tmp");
+        write(tmp, List.of(listing("005930", "삼성전자"), listing("000660", "SK하이닉스"), listing("035420", "NAVER")));
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        awaitListings(3);
+        assertEquals("NAVER", service.getListings().get(2).name());
+        assertEquals(List.of("035420"), codes(service.suggest("0354", 5)));
+
+        write(file, List.of(listing("373220", "LG에너지솔루션")));
+        awaitListings(1);
+        assertEquals(List.of("373220"), codes(service.search("에너지")));
+        assertEquals(3L, service.getStats().get("reloads"));
+        assertEquals(0L, service.getStats().get("failures"));
+    }
+
+    private StockListService open(Path file) {
+        StockListService s = new StockListService();
+        ReflectionTestUtils.setField(s, "localPath", file.toString());
+        s.init();
+        return s;
+    }
+
+    private void awaitListings(int size) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (service.getListings().size() != size) {
+            assertTrue(System.nanoTime() < deadline, "새 목록으로 바뀌지 않음: " + service.getStats());
+            Thread.sleep(20);
+        }
+    }
+
+    private static List<String> codes(List<StockListing> listings) {
+        return listings.stream().map(StockListing::code).toList();
+    }
+
+    private static Map<String, Object> listing(String code, String name) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("Code", code);
+        row.put("ISU_CD", "KR7" + code + "003");
+        row.put("Name", name);
+        row.put("Market", "KOSPI");
+        row.put("Dept", "");
+        row.put("Close", "70000");
+        row.put("ChangeCode", "1");
+        row.put("Changes", 500);
+        row.put("ChagesRatio", 0.72);
+        row.put("Open", 69500);
+        row.put("High", 70200);
+        row.put("Low", 69300);
+        row.put("Volume", 1_000_000);
+        row.put("Amount", 70_000_000_000L);
+        row.put("Marcap", 400_000_000_000_000L);
+        row.put("Stocks", 5_969_782_550L);
+        row.put("MarketId", "STK");
+        row.put("Date", "2026-10-16");
+        return row;
+    }
+
+    private static void write(Path file, List<Map<String, Object>> rows) throws Exception {
+        Files.write(file, MAPPER.writeValueAsBytes(rows));
+    }
+}
@@ -0,0 +1,212 @@
+package com.mybaselink.app.stock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DeclineStreakIndex 를 무작위 시계열로 여러 세대에 걸쳐 갱신하면서
+ * 이어서 계산한 상태가 종목 전체를 다시 센 {@link DeclineStreak#of} 와 같은지,
+ * top() 이 답할 때는 구간을 잘라 다시 센 전수 순위와 같고 같지 않을 수 있는 구간·세대에서는 null 인지 확인합니다.
+ */
+class DeclineStreakIndexTest {
+
+    private static final int FIRST_DAY = (int) LocalDate.of(2024, 1, 2).toEpochDay();
+    private static final int SYMBOLS = 60;
+
+    @TempDir
+    Path tempDir;
+
+    private MarketPriceStore store;
+    private DeclineStreakIndex index;
+
+    @AfterEach
+    void tearDown() {
+        if (index != null) index.shutdown();
+        if (store != null) store.shutdown();
+    }
+
+    @Test
+    void incrementalUpdatesMatchFullRecompute() throws Exception {
+        Random random = new Random(17);
+        Map<String, List<Double>> closes = new TreeMap<>();
+        Map<String, Integer> firstDays = new HashMap<>();
+        for (int s = 0; s < SYMBOLS; s++) {
+            String symbol = String.format("%06d", s);
+            closes.put(symbol, new ArrayList<>(List.of(10_000.0)));
+            firstDays.put(symbol, FIRST_DAY + (s % 7 == 0 ? 5 : 0)); // 일부는 늦게 상장
+            append(closes.get(symbol), 20 + random.nextInt(10), random);
+        }
+        Map<String, StockPriceSeries> data = new TreeMap<>();
+        fill(data, closes, firstDays);
+        open(data);
+
+        long extended = 0;
+        long recomputed = 0;
+        for (int round = 0; round < 12; round++) {
+            for (Map.Entry<String, List<Double>> e : closes.entrySet()) {
+                append(e.getValue(), random.nextInt(4), random); // 0 이면 이번 세대에 새 거래일 없음
+            }
+            // 수정주가처럼 과거 종가가 바뀐 종목은 다시 계산되어야 함
+            List<Double> adjusted = closes.get(String.format("%06d", random.nextInt(SYMBOLS)));
+            adjusted.replaceAll(c -> c * 0.5);
+            if (round == 5) closes.put("900000", new ArrayList<>(List.of(5_000.0, 4_900.0, 4_800.0))); // 신규 종목
+            if (round == 5) firstDays.put("900000", FIRST_DAY + 40);
+
+            fill(data, closes, firstDays);
+            refresh();
+
+            for (String symbol : closes.keySet()) {
+                assertEquals(DeclineStreak.of(store.slice(symbol)), index.get(symbol), symbol + " (round " + round + ")");
+            }
+            extended += ((Number) index.getStats().get("extended")).longValue();
+            recomputed += ((Number) index.getStats().get("recomputed")).longValue();
+        }
+        assertTrue(extended > recomputed, "이어서 계산한 종목이 너무 적음: " + extended + " / " + recomputed);
+        assertTrue(recomputed >= 12, "과거가 바뀐 종목을 다시 계산하지 않음: " + recomputed);
+    }
+
+    @Test
+    void topMatchesBruteForceScanOrReturnsNull() throws Exception {
+        Random random = new Random(23);
+        Map<String, List<Double>> closes = new TreeMap<>();
+        Map<String, Integer> firstDays = new HashMap<>();
+        for (int s = 0; s < SYMBOLS; s++) {
+            String symbol = String.format("%06d", s);
+            closes.put(symbol, new ArrayList<>(List.of(10_000.0)));
+            firstDays.put(symbol, FIRST_DAY);
+            append(closes.get(symbol), 40 + (s % 5 == 0 ? 0 : 3), random); // 일부는 마지막 며칠 거래 없음
+        }
+        Map<String, StockPriceSeries> data = new TreeMap<>();
+        fill(data, closes, firstDays);
+        open(data);
+
+        int lastDay = FIRST_DAY + 43;
+        int hits = 0;
+        int misses = 0;
+        for (int q = 0; q < 300; q++) {
+            LocalDate from = LocalDate.ofEpochDay(FIRST_DAY + random.nextInt(45));
+            LocalDate to = LocalDate.ofEpochDay(lastDay - 3 + random.nextInt(8));
+            int topN = 1 + random.nextInt(SYMBOLS);
+            List<DeclineStreakIndex.Ranked> ranked = index.top(from, to, topN);
+            if (to.toEpochDay() < lastDay) assertNull(ranked, "마지막 거래일 전에 끝나는 구간: " + to);
+            if (ranked == null) {
+                misses++;
+                continue;
+            }
+            hits++;
+            assertEquals(bruteForce(from, to, topN), ranked, from + " ~ " + to + " top " + topN);
+        }
+        assertTrue(hits > 0 && misses > 0, "hits=" + hits + ", misses=" + misses);
+
+        // 처음부터 마지막 거래일까지면 항상 인덱스로 답함
+        LocalDate all = LocalDate.ofEpochDay(FIRST_DAY);
+        LocalDate end = LocalDate.ofEpochDay(lastDay);
+        assertEquals(bruteForce(all, end, SYMBOLS), index.top(all, end, SYMBOLS));
+    }
+
+    @Test
+    void topReturnsNullUntilIndexCatchesUpWithStore() throws Exception {
+        Random random = new Random(29);
+        Map<String, List<Double>> closes = new TreeMap<>();
+        Map<String, Integer> firstDays = new HashMap<>();
+        for (int s = 0; s < SYMBOLS; s++) {
+            String symbol = String.format("%06d", s);
+            closes.put(symbol, new ArrayList<>(List.of(10_000.0)));
+            firstDays.put(symbol, FIRST_DAY);
+            append(closes.get(symbol), 30, random);
+        }
+        Map<String, StockPriceSeries> data = new TreeMap<>();
+        fill(data, closes, firstDays);
+        open(data);
+        LocalDate from = LocalDate.ofEpochDay(FIRST_DAY);
+        LocalDate to = LocalDate.ofEpochDay(FIRST_DAY + 100);
+        assertNotNull(index.top(from, to, 10));
+
+        // 갱신 스레드를 막아 둔 채 저장소만 새 세대로 바꿈
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService updater = (ExecutorService) ReflectionTestUtils.getField(index, "updater");
+        updater.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        for (List<Double> c : closes.values()) append(c, 2, random);
+        fill(data, closes, firstDays);
+        store.refreshAsync("test").get(30, TimeUnit.SECONDS);
+
+        assertNotEquals(indexVersion(), store.getVersion());
+        assertNull(index.top(from, to, 10), "지난 세대 순위를 돌려줌");
+
+        release.countDown();
+        awaitIndex();
+        assertEquals(bruteForce(from, to, 10), index.top(from, to, 10));
+    }
+
+    private void open(Map<String, StockPriceSeries> data) throws Exception {
+        store = PriceStoreFixture.open(tempDir, data);
+        index = new DeclineStreakIndex(store);
+        index.init();
+        awaitIndex();
+    }
+
+    private void refresh() throws Exception {
+        store.refreshAsync("test").get(30, TimeUnit.SECONDS);
+        awaitIndex();
+    }
+
+    private void awaitIndex() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (indexVersion() != store.getVersion()) {
+            assertTrue(System.nanoTime() < deadline, "인덱스가 갱신되지 않음");
+            Thread.sleep(5);
+        }
+    }
+
+    private long indexVersion() {
+        return ((Number) index.getStats().get("storeVersion")).longValue();
+    }
+
+    /** 구간을 잘라 종목마다 다시 센 뒤 순위대로 정렬 (점수가 같으면 종목 목록 순서) */
+    private List<DeclineStreakIndex.Ranked> bruteForce(LocalDate from, LocalDate to, int topN) {
+        List<DeclineStreakIndex.Ranked> all = new ArrayList<>();
+        for (PriceSlice slice : store.sliceAll(from, to)) {
+            DeclineStreak streak = DeclineStreak.of(slice);
+            if (streak != null && streak.days() > 0) all.add(new DeclineStreakIndex.Ranked(slice.getSymbol(), streak));
+        }
+        all.sort(Comparator.comparingDouble((DeclineStreakIndex.Ranked r) -> r.streak().rankScore()).reversed());
+        return all.subList(0, Math.min(topN, all.size()));
+    }
+
+    /** 하락이 잦은 무작위 종가 (보합 포함) */
+    private static void append(List<Double> closes, int days, Random random) {
+        double last = closes.get(closes.size() - 1);
+        for (int i = 0; i < days; i++) {
+            int move = random.nextInt(10);
+            if (move < 6) last *= 1 - 0.001 * (1 + random.nextInt(30));
+            else if (move < 9) last *= 1 + 0.001 * (1 + random.nextInt(30));
+            closes.add(last);
+        }
+    }
+
+    private static void fill(Map<String, StockPriceSeries> data, Map<String, List<Double>> closes,
+                             Map<String, Integer> firstDays) {
+        for (Map.Entry<String, List<Double>> e : closes.entrySet()) {
+            double[] close = e.getValue().stream().mapToDouble(Double::doubleValue).toArray();
+            data.put(e.getKey(), PriceStoreFixture.series(e.getKey(), firstDays.get(e.getKey()), close));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.mybaselink.app.stock;
+
+import com.mybaselink.app.service.StockListService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MarketPriceStore 종가 누적합(closeStats)을 단순 계산과 비교하고, 다시 만들어야 하는지(isStale) 판단을 확인합니다.
+ */
+class MarketPriceStoreTest {
+
+    private static final int FIRST_DAY = (int) LocalDate.of(2015, 1, 2).toEpochDay();
+
+    @TempDir
+    Path tempDir;
+
+    /** 가격 수준 → 변동폭 (고가주·저변동 종목에서 자릿수 손실이 없는지) */
+    private static final double[][] PROFILES = {
+            {1_000, 0.03}, {50_000, 0.02}, {1_200_000, 0.0005}, {3_000_000, 0.00001}
+    };
+
+    @Test
+    void closeStatsMatchesNaiveComputation() throws Exception {
+        Map<String, StockPriceSeries> data = new LinkedHashMap<>();
+        Random random = new Random(42);
+        for (int s = 0; s < PROFILES.length * 3; s++) {
+            String symbol = String.format("%06d", s);
+            data.put(symbol, randomSeries(symbol, 1_500 + random.nextInt(1_000), PROFILES[s % PROFILES.length], random));
+        }
+        MarketPriceStore store = openStore(data);
+
+        for (StockPriceSeries series : data.values()) {
+            int n = series.length();
+            for (int t = 0; t < 200; t++) {
+                int from = t == 0 ? 0 : random.nextInt(n);
+                int to = t == 1 ? n - 1 : from + random.nextInt(n - from);
+                PriceSlice slice = store.slice(series.getSymbol(), series.dateAt(from), series.dateAt(to));
+                assertEquals(to - from + 1, slice.length());
+                assertStats(series.getClose(), from, to + 1, slice.closeStats());
+            }
+        }
+    }
+
+    @Test
+    void closeStatsOfEmptyAndConstantWindows() throws Exception {
+        int n = 30;
+        double[] close = new double[n];
+        Arrays.fill(close, 12_345.0);
+        close[0] = 10_000.0;
+        MarketPriceStore store = openStore(Map.of("000001", series("000001", close)));
+
+        CloseStats flat = store.slice("000001", LocalDate.ofEpochDay(FIRST_DAY + 1), LocalDate.ofEpochDay(FIRST_DAY + n)).closeStats();
+        assertEquals(n - 1, flat.count());
+        assertEquals(12_345.0, flat.mean(), 1e-9);
+        assertEquals(0.0, flat.variance(), 1e-9);
+
+        CloseStats empty = store.slice("000001", LocalDate.ofEpochDay(FIRST_DAY + n + 10), null).closeStats();
+        assertEquals(0, empty.count());
+        assertTrue(Double.isNaN(empty.mean()));
+    }
+
+    @Test
+    void staleWhenListingOrParquetIsNewerThanGeneration() throws Exception {
+        MarketPriceStore store = openStore(Map.of("000001", series("000001", new double[]{1, 2, 3})));
+        long builtAt = (long) store.getStats().get("builtAt");
+        Path listing = tempDir.resolve("stock_listing.json");
+        assertFalse(isStale(store));
+
+        // 종목 목록만 새로 써도 다시 만들어야 함
+        Files.setLastModifiedTime(listing, FileTime.fromMillis(builtAt + 60_000));
+        assertTrue(isStale(store));
+
+        Files.setLastModifiedTime(listing, FileTime.fromMillis(builtAt - 60_000));
+        Path parquet = Files.createDirectories(tempDir.resolve("stock_data")).resolve("000001.parquet");
+        Files.write(parquet, new byte[0]);
+        Files.setLastModifiedTime(parquet, FileTime.fromMillis(builtAt - 60_000));
+        assertFalse(isStale(store));
+
+        Files.setLastModifiedTime(parquet, FileTime.fromMillis(builtAt + 60_000));
+        assertTrue(isStale(store));
+    }
+
+    private static boolean isStale(MarketPriceStore store) {
+        return ReflectionTestUtils.invokeMethod(store, "isStale", ReflectionTestUtils.getField(store, "snapshot"));
+    }
+
+    private static void assertStats(double[] close, int from, int to, CloseStats actual) {
+        int count = 0;
+        double mean = 0;
+        for (int i = from; i < to; i++) {
+            if (Double.isNaN(close[i])) continue;
+            count++;
+            mean += close[i];
+        }
+        mean /= count;
+        double variance = 0;
+        for (int i = from; i < to; i++) {
+            if (Double.isNaN(close[i])) continue;
+            double d = close[i] - mean;
+            variance += d * d;
+        }
+        variance /= count;
+
+        assertEquals(count, actual.count());
+        assertEquals(mean, actual.mean(), Math.abs(mean) * 1e-12);
+        assertEquals(variance, actual.variance(), variance * 1e-6 + mean * mean * 1e-15);
+    }
+
+    private MarketPriceStore openStore(Map<String, StockPriceSeries> data) throws Exception {
+        StockParquetLoader loader = new StockParquetLoader() {
+            @Override
+            public boolean exists(String symbol) {
+                return data.containsKey(symbol);
+            }
+
+            @Override
+            public StockPriceSeries load(String symbol) {
+                return data.get(symbol);
+            }
+        };
+        ReflectionTestUtils.setField(loader, "stockDataDir", tempDir.resolve("stock_data").toString());
+        Path listing = Files.writeString(tempDir.resolve("stock_listing.json"), "[]");
+        Files.setLastModifiedTime(listing, FileTime.fromMillis(System.currentTimeMillis() - 3_600_000));
+        StockListService listService = new StockListService() {
+            @Override
+            public List<Map<String, Object>> getStockList() {
+                List<Map<String, Object>> list = new ArrayList<>();
+                for (String symbol : data.keySet()) list.add(Map.of("Code", symbol, "Name", "종목" + symbol));
+                return list;
+            }
+
+            @Override
+            public Path getListingFile() {
+                return listing;
+            }
+        };
+
+        MarketPriceStore store = new MarketPriceStore(loader, listService);
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "storeDir", tempDir.resolve("store").toString());
+        store.init();
+        store.refreshAsync("test").get(30, TimeUnit.SECONDS);
+        assertTrue(store.isReady());
+        return store;
+    }
+
+    private static StockPriceSeries randomSeries(String symbol, int n, double[] profile, Random random) {
+        double[] close = new double[n];
+        double price = profile[0];
+        for (int i = 0; i < n; i++) {
+            price *= 1 + random.nextGaussian() * profile[1];
+            close[i] = random.nextInt(100) == 0 ? Double.NaN : Math.rint(price);
+        }
+        return series(symbol, close);
+    }
+
+    private static StockPriceSeries series(String symbol, double[] close) {
+        int n = close.length;
+        int[] days = new int[n];
+        long[] volume = new long[n];
+        for (int i = 0; i < n; i++) days[i] = FIRST_DAY + i;
+        return new StockPriceSeries(symbol, n, days, close.clone(), close.clone(), close.clone(), close, volume);
+    }
+}
@@ -0,0 +1,62 @@
+package com.mybaselink.app.stock;
+
+import com.mybaselink.app.service.StockListService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 테스트용 시세 저장소: 메모리의 종목 시계열로 MarketPriceStore 를 채워 엽니다.
+ */
+public final class PriceStoreFixture {
+
+    private PriceStoreFixture() {
+    }
+
+    /**
+     * data 의 종목들로 채운 준비된 저장소 (저장 파일은 dir 아래에 씀)
+     */
+    public static MarketPriceStore open(Path dir, Map<String, StockPriceSeries> data) throws Exception {
+        StockParquetLoader loader = new StockParquetLoader() {
+            @Override
+            public boolean exists(String symbol) {
+                return data.containsKey(symbol);
+            }
+
+            @Override
+            public StockPriceSeries load(String symbol) {
+                return data.get(symbol);
+            }
+        };
+        ReflectionTestUtils.setField(loader, "stockDataDir", dir.resolve("stock_data").toString());
+        StockListService listService = new StockListService() {
+            @Override
+            public List<Map<String, Object>> getStockList() {
+                List<Map<String, Object>> list = new ArrayList<>();
+                for (String symbol : data.keySet()) list.add(Map.of("Code", symbol, "Name", "종목" + symbol));
+                return list;
+            }
+        };
+
+        MarketPriceStore store = new MarketPriceStore(loader, listService);
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "storeDir", dir.resolve("store").toString());
+        store.init();
+        store.refreshAsync("test").get(30, TimeUnit.SECONDS);
+        if (!store.isReady()) throw new IllegalStateException("시세 저장소가 준비되지 않았습니다.");
+        return store;
+    }
+
+    /**
+     * firstDay 부터 하루씩 이어지는 종가 시계열 (시가·고가·저가 = 종가)
+     */
+    public static StockPriceSeries series(String symbol, int firstDay, double[] close) {
+        int n = close.length;
+        int[] days = new int[n];
+        long[] volume = new long[n];
+        for (int i = 0; i < n; i++) days[i] = firstDay + i;
+        return new StockPriceSeries(symbol, n, days, close.clone(), close.clone(), close.clone(), close.clone(), volume);
+    }
+}
@@ -0,0 +1,164 @@
+package com.mybaselink.app.stock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StockListTable(미리 정렬한 컬럼 순서를 걷는 조회)을 목록을 통째로 거르고 정렬하는 단순 계산과 비교합니다.
+ */
+class StockListTableTest {
+
+    private static final StockListTable.Column[] COLUMNS = StockListTable.Column.values();
+
+    @Test
+    void queryMatchesNaiveFilterAndSort() {
+        Random random = new Random(24);
+        List<StockListing> listings = StockListingFixture.random(600, random);
+        StockListTable table = new StockListTable(listings);
+        StockSearchIndex index = new StockSearchIndex(listings, StockSearchIndex.Rank.MARCAP);
+        String[] queries = {"", "ㅅ", "코스닥", "kosdaq", "전", "00", "zzz"};
+
+        for (int t = 0; t < 1_500; t++) {
+            List<StockListing> matches = index.search(queries[random.nextInt(queries.length)]);
+
+            List<StockListTable.SortKey> sort = new ArrayList<>();
+            int keys = random.nextInt(4);
+            for (int k = 0; k < keys; k++) {
+                sort.add(new StockListTable.SortKey(COLUMNS[random.nextInt(COLUMNS.length)], random.nextBoolean()));
+            }
+            List<StockListTable.Range> ranges = new ArrayList<>();
+            int conditions = random.nextInt(3);
+            for (int k = 0; k < conditions; k++) ranges.add(randomRange(listings, random));
+
+            int offset = random.nextInt(5) == 0 ? 0 : random.nextInt(700);
+            int limit = random.nextInt(5) == 0 ? 1_000 : random.nextInt(60);
+
+            StockListTable.Page page = table.query(matches, sort, ranges, offset, limit);
+            List<StockListing> expected = naive(matches, sort, ranges);
+            String at = "t=" + t + " sort=" + sort + " ranges=" + ranges + " offset=" + offset + " limit=" + limit;
+            assertEquals(expected.size(), page.total(), at);
+            List<StockListing> window = expected.subList(Math.min(offset, expected.size()),
+                    Math.min(offset + limit, expected.size()));
+            assertEquals(ids(window), ids(page.content()), at);
+        }
+    }
+
+    @Test
+    void parseSortAndRanges() {
+        assertEquals(List.of(new StockListTable.SortKey(StockListTable.Column.MARCAP, true),
+                        new StockListTable.SortKey(StockListTable.Column.RATIO, false),
+                        new StockListTable.SortKey(StockListTable.Column.NAME, false)),
+                StockListTable.parseSort(List.of("Marcap:desc, ChagesRatio:asc", "name")));
+        assertThrows(IllegalArgumentException.class, () -> StockListTable.parseSort(List.of("Marcap:down")));
+        assertThrows(IllegalArgumentException.class, () -> StockListTable.parseSort(List.of("Nope")));
+
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("marcapMin", "1e12");
+        params.put("ratioBetween", "-3,3");
+        params.put("volumeMax", "500");
+        params.put("volumeBetween", "100,");
+        params.put("closeMin", " ");
+        assertEquals(List.of(new StockListTable.Range(StockListTable.Column.RATIO, -3, 3),
+                        new StockListTable.Range(StockListTable.Column.VOLUME, 100, 500),
+                        new StockListTable.Range(StockListTable.Column.MARCAP, 1e12, Double.POSITIVE_INFINITY)),
+                StockListTable.parseRanges(params));
+        assertThrows(IllegalArgumentException.class, () -> StockListTable.parseRanges(Map.of("marcapMin", "many")));
+        assertThrows(IllegalArgumentException.class, () -> StockListTable.parseRanges(Map.of("ratioBetween", "1")));
+        assertThrows(IllegalArgumentException.class, () -> StockListTable.parseRanges(Map.of("closeBetween", "5,1")));
+
+        // 숫자 컬럼 이름으로 시작하지 않는 파라미터는 범위 조건이 아님
+        Map<String, String> other = new LinkedHashMap<>();
+        other.put("pageMin", "3");
+        other.put("sizeMax", "x");
+        other.put("nameBetween", "a,b");
+        other.put("Min", "1");
+        other.put("volumeMax", "500");
+        assertIterableEquals(List.of(new StockListTable.Range(StockListTable.Column.VOLUME, Double.NEGATIVE_INFINITY, 500)),
+                StockListTable.parseRanges(other));
+        for (String bad : new String[]{"NaN", "Infinity", "-Infinity", "1e400"}) {
+            assertThrows(IllegalArgumentException.class, () -> StockListTable.parseRanges(Map.of("marcapMin", bad)), bad);
+            assertThrows(IllegalArgumentException.class, () -> StockListTable.parseRanges(Map.of("ratioBetween", bad + ",3")), bad);
+        }
+    }
+
+    /** 값이 있는 종목의 값 두 개로 만든 범위 (한쪽이 열린 범위 포함) */
+    private static StockListTable.Range randomRange(List<StockListing> listings, Random random) {
+        StockListTable.Column column;
+        do {
+            column = COLUMNS[random.nextInt(COLUMNS.length)];
+        } while (!column.isNumeric());
+        double a = numeric(column, listings.get(random.nextInt(listings.size())));
+        double b = numeric(column, listings.get(random.nextInt(listings.size())));
+        if (Double.isNaN(a)) a = Double.NEGATIVE_INFINITY;
+        if (Double.isNaN(b)) b = Double.POSITIVE_INFINITY;
+        return new StockListTable.Range(column, Math.min(a, b), Math.max(a, b));
+    }
+
+    private static List<StockListing> naive(List<StockListing> matches, List<StockListTable.SortKey> sort,
+                                            List<StockListTable.Range> ranges) {
+        List<StockListing> result = new ArrayList<>();
+        for (StockListing s : matches) {
+            boolean ok = true;
+            for (StockListTable.Range range : ranges) {
+                double v = numeric(range.column(), s);
+                ok &= v >= range.min() && v <= range.max();
+            }
+            if (ok) result.add(s);
+        }
+        if (sort.isEmpty()) return result;
+
+        Comparator<StockListing> cmp = null;
+        for (StockListTable.SortKey key : sort) {
+            Comparator<StockListing> byValue = key.column().isNumeric()
+                    ? Comparator.comparingDouble(s -> numeric(key.column(), s))
+                    : Comparator.comparing(s -> text(key.column(), s), Comparator.nullsLast(Comparator.naturalOrder()));
+            if (key.descending()) byValue = byValue.reversed();
+            // 값이 없으면 방향과 관계없이 뒤
+            Comparator<StockListing> c = Comparator.<StockListing, Boolean>comparing(s -> missing(key.column(), s))
+                    .thenComparing(byValue);
+            cmp = cmp == null ? c : cmp.thenComparing(c);
+        }
+        result.sort(cmp.thenComparingInt(StockListing::id));
+        return result;
+    }
+
+    private static boolean missing(StockListTable.Column column, StockListing s) {
+        return column.isNumeric() ? Double.isNaN(numeric(column, s)) : text(column, s) == null;
+    }
+
+    private static double numeric(StockListTable.Column column, StockListing s) {
+        Object v = switch (column) {
+            case CLOSE -> s.close();
+            case CHANGES -> s.changes();
+            case RATIO -> s.changesRatio();
+            case OPEN -> s.open();
+            case HIGH -> s.high();
+            case LOW -> s.low();
+            case VOLUME -> s.volume();
+            case AMOUNT -> s.amount();
+            case MARCAP -> s.marcap();
+            case STOCKS -> s.stocks();
+            default -> throw new IllegalArgumentException(column.name());
+        };
+        if (v == null) return Double.NaN;
+        return v instanceof Number n ? n.doubleValue() : Double.parseDouble(v.toString());
+    }
+
+    private static String text(StockListTable.Column column, StockListing s) {
+        String v = switch (column) {
+            case CODE -> s.code();
+            case NAME -> s.name();
+            case MARKET -> s.market();
+            case DEPT -> s.dept();
+            default -> throw new IllegalArgumentException(column.name());
+        };
+        return v == null || v.isEmpty() ? null : v;
+    }
+
+    private static List<Integer> ids(List<StockListing> listings) {
+        return listings.stream().map(StockListing::id).toList();
+    }
+}
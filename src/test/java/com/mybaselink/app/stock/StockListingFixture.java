@@ -0,0 +1,61 @@
+package com.mybaselink.app.stock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 테스트용 무작위 종목 목록 (한글·영문 회사명, 빈 숫자 칸, 같은 값이 많은 칸 포함)
+ */
+public final class StockListingFixture {
+
+    private static final String[] SYLLABLES = {
+            "삼", "성", "전", "자", "에", "스", "케", "이", "하", "닉", "현", "대", "차", "기", "아", "엘", "지",
+            "화", "학", "카", "오", "네", "버", "셀", "트", "리", "온", "바", "이", "오", "로", "직", "스", "한"
+    };
+    private static final String[] WORDS = {"SK", "LG", "KB", "CJ", "NAVER", "Holdings", "Bio", "Tech", "ENM", "&"};
+    private static final String[] MARKETS = {"KOSPI", "KOSDAQ", "KOSDAQ GLOBAL", "KONEX"};
+    private static final String[] DEPTS = {"우량기업부", "중견기업부", "벤처기업부", "기술성장기업부", "", null};
+
+    private StockListingFixture() {
+    }
+
+    public static List<StockListing> random(int count, Random random) {
+        List<StockListing> listings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder name = new StringBuilder();
+            if (random.nextInt(3) == 0) name.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextBoolean() ? " " : "");
+            int syllables = 1 + random.nextInt(5);
+            for (int s = 0; s < syllables; s++) name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            if (random.nextInt(6) == 0) name.append(WORDS[random.nextInt(WORDS.length)]);
+
+            String code = String.format("%06d", random.nextInt(1_000_000));
+            Long close = random.nextInt(30) == 0 ? null : (long) (100 + random.nextInt(500) * 50);
+            listings.add(new StockListing(
+                    random.nextInt(40) == 0 ? null : code,
+                    "KR7" + code + "003",
+                    random.nextInt(50) == 0 ? null : name.toString(),
+                    MARKETS[random.nextInt(MARKETS.length)],
+                    DEPTS[random.nextInt(DEPTS.length)],
+                    close == null ? null : close.toString(),
+                    String.valueOf(1 + random.nextInt(3)),
+                    maybe(random, (long) (random.nextInt(2_001) - 1_000)),
+                    random.nextInt(20) == 0 ? null : Math.round(random.nextGaussian() * 500) / 100.0,
+                    maybe(random, close), maybe(random, close), maybe(random, close),
+                    maybe(random, (long) random.nextInt(5) * 1_000),
+                    maybe(random, (long) random.nextInt(1_000_000) * 1_000),
+                    maybe(random, (long) random.nextInt(100_000) * 100_000_000L),
+                    maybe(random, (long) random.nextInt(10_000_000)),
+                    "STK",
+                    "2026-10-16",
+                    i + 1,
+                    Map.of()));
+        }
+        return listings;
+    }
+
+    private static Long maybe(Random random, Long value) {
+        return value == null || random.nextInt(15) == 0 ? null : value;
+    }
+}
@@ -0,0 +1,81 @@
+package com.mybaselink.app.stock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StockSearchIndex(글자 조각·초성 비트셋)를 목록 전체를 훑는 단순 필터와 비교합니다.
+ */
+class StockSearchIndexTest {
+
+    @Test
+    void matchesNaiveFilterForEveryRank() {
+        Random random = new Random(22);
+        List<StockListing> listings = StockListingFixture.random(700, random);
+        List<String> queries = queries(listings, random);
+
+        for (StockSearchIndex.Rank rank : StockSearchIndex.Rank.values()) {
+            StockSearchIndex index = new StockSearchIndex(listings, rank);
+            assertEquals(listings.size(), index.size());
+            for (String query : queries) {
+                assertEquals(naive(listings, query, rank), index.search(query), rank + " query=\"" + query + "\"");
+            }
+        }
+    }
+
+    @Test
+    void chosungOfHangulSyllables() {
+        assertEquals("ㅅㅅㅈㅈ", StockSearchIndex.chosung("삼성전자"));
+        assertEquals("sk ㅎㅇㄴㅅ", StockSearchIndex.chosung("sk 하이닉스"));
+        assertEquals("ㄲㄸㅃㅆㅉ", StockSearchIndex.chosung("까따빠싸짜"));
+        assertEquals("ㄱㅎ", StockSearchIndex.chosung("가힣"));
+        assertEquals(StockSearchIndex.Rank.MARCAP, StockSearchIndex.Rank.of(" Marcap "));
+    }
+
+    /** 회사명 조각, 초성, 코드 앞뒤, 시장·업종 이름, 대소문자 바꾼 것, 없는 글자, 빈 검색어 */
+    private static List<String> queries(List<StockListing> listings, Random random) {
+        List<String> queries = new ArrayList<>(Arrays.asList(null, "", "  ", "zzz", "ㅋㅋㅋ", "kosdaq", "KOSPI", "부",
+                "sk ㅎ", "&", "1", "00"));
+        for (int i = 0; i < 600; i++) {
+            StockListing s = listings.get(random.nextInt(listings.size()));
+            String source = switch (random.nextInt(5)) {
+                case 0 -> s.code();
+                case 1, 2 -> s.name();
+                case 3 -> s.name() == null ? null : StockSearchIndex.chosung(s.name());
+                default -> s.dept();
+            };
+            if (source == null || source.isEmpty()) continue;
+            int from = random.nextInt(source.length());
+            int to = from + 1 + random.nextInt(Math.min(4, source.length() - from));
+            String q = source.substring(from, to);
+            if (random.nextInt(4) == 0) q = q.toUpperCase(Locale.ROOT);
+            queries.add(q);
+        }
+        return queries;
+    }
+
+    private static List<StockListing> naive(List<StockListing> listings, String query, StockSearchIndex.Rank rank) {
+        List<StockListing> result = new ArrayList<>();
+        if (query == null || query.isBlank()) {
+            result.addAll(listings);
+        } else {
+            String q = query.toLowerCase(Locale.ROOT);
+            boolean chosungOnly = q.chars().noneMatch(c -> c >= '가' && c <= '힣') && q.chars().anyMatch(c -> c >= 'ㄱ' && c <= 'ㅎ');
+            for (StockListing s : listings) {
+                boolean hit = lower(s.code()).contains(q) || lower(s.name()).contains(q)
+                        || lower(s.dept()).contains(q) || lower(s.market()).contains(q)
+                        || (chosungOnly && StockSearchIndex.chosung(lower(s.name())).contains(q));
+                if (hit) result.add(s);
+            }
+        }
+        result.sort(rank.comparator());
+        return result;
+    }
+
+    private static String lower(String s) {
+        return s == null ? "" : s.toLowerCase(Locale.ROOT);
+    }
+}
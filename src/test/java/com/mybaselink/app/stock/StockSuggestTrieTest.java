@@ -0,0 +1,116 @@
+package com.mybaselink.app.stock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StockSuggestTrie 결과를 종목 전체에 접두사 조건을 걸고 시가총액 순으로 정렬한 결과와 비교합니다.
+ * 검색어는 종목코드·회사명·초성의 앞부분, 대소문자·공백이 섞인 입력, 마지막 음절을 초성만 친 입력(삼ㅅ, ㅅㅅㅈ)을 섞어 씁니다.
+ */
+class StockSuggestTrieTest {
+
+    @Test
+    void matchesNaivePrefixFilter() {
+        Random random = new Random(11);
+        List<StockListing> listings = StockListingFixture.random(3_000, random);
+        for (int k : new int[]{1, 5, 20}) {
+            StockSuggestTrie trie = new StockSuggestTrie(listings, k);
+            for (int q = 0; q < 1_000; q++) {
+                String query = randomQuery(listings, random);
+                int limit = random.nextInt(k + 3) - 1;
+                assertEquals(naive(listings, query, limit, k), trie.suggest(query, limit), "'" + query + "' limit " + limit + " k " + k);
+            }
+        }
+    }
+
+    @Test
+    void partialLastSyllable() {
+        List<StockListing> listings = List.of(
+                listing(1, "005930", "삼성전자", 400_000_000_000_000L),
+                listing(2, "006400", "삼성SDI", 20_000_000_000_000L),
+                listing(3, "004690", "삼천리", 300_000_000_000L),
+                listing(4, "003230", "삼양식품", 5_000_000_000_000L),
+                listing(5, "000660", "SK하이닉스", 100_000_000_000_000L),
+                listing(6, "028260", "삼성물산", 30_000_000_000_000L));
+        StockSuggestTrie trie = new StockSuggestTrie(listings, 10);
+
+        assertEquals(List.of("삼성전자", "삼성물산", "삼성SDI"), names(trie.suggest("삼ㅅ", 10)));
+        assertEquals(List.of("삼성전자"), names(trie.suggest("삼성ㅈ", 10)));
+        assertEquals(List.of("삼성물산"), names(trie.suggest("삼성ㅁ", 10)));
+        assertEquals(List.of("삼천리"), names(trie.suggest("삼ㅊ", 10)));
+        // 초성만 친 검색어
+        assertEquals(List.of("삼성전자", "삼성물산", "삼성SDI"), names(trie.suggest("ㅅㅅ", 10)));
+        assertEquals(List.of("삼성전자"), names(trie.suggest("ㅅㅅㅈ", 10)));
+        assertEquals(List.of("삼양식품"), names(trie.suggest("ㅅㅇ", 10)));
+        // 영문·코드·대소문자
+        assertEquals(List.of("SK하이닉스"), names(trie.suggest(" sk하ㅇ ", 10)));
+        assertEquals(List.of("삼성SDI"), names(trie.suggest("삼성s", 10)));
+        assertEquals(List.of("삼성전자", "SK하이닉스"), names(trie.suggest("00", 2)));
+        assertEquals(List.of(), trie.suggest("삼ㅂ", 10));
+        assertEquals(List.of(), trie.suggest("", 10));
+        assertEquals(List.of(), trie.suggest(null, 10));
+    }
+
+    /** 종목 전체에서 키(코드·회사명·초성) 중 하나가 검색어로 시작하는 종목, 마지막이 자음이면 그 자리 음절의 초성으로 비교 */
+    private static List<StockListing> naive(List<StockListing> listings, String query, int limit, int k) {
+        if (query == null) return List.of();
+        String q = query.strip().toLowerCase(Locale.ROOT);
+        if (q.isEmpty()) return List.of();
+        char last = q.charAt(q.length() - 1);
+        boolean partial = q.length() > 1 && last >= 'ㄱ' && last <= 'ㅎ';
+        List<StockListing> hits = new ArrayList<>();
+        for (StockListing s : listings) {
+            String name = s.name() == null ? "" : s.name().toLowerCase(Locale.ROOT);
+            String code = s.code() == null ? "" : s.code().toLowerCase(Locale.ROOT);
+            for (String key : new String[]{code, name, StockSearchIndex.chosung(name)}) {
+                boolean match = partial
+                        ? key.length() >= q.length() && key.startsWith(q.substring(0, q.length() - 1))
+                          && StockSearchIndex.chosung(key.charAt(q.length() - 1)) == last
+                        : key.startsWith(q);
+                if (match) {
+                    hits.add(s);
+                    break;
+                }
+            }
+        }
+        hits.sort(StockSearchIndex.Rank.MARCAP.comparator());
+        return hits.subList(0, Math.min(hits.size(), Math.min(Math.max(1, limit), k)));
+    }
+
+    private static String randomQuery(List<StockListing> listings, Random random) {
+        StockListing s = listings.get(random.nextInt(listings.size()));
+        String name = s.name() == null ? "" : s.name();
+        String key = switch (random.nextInt(4)) {
+            case 0 -> s.code() == null ? "" : s.code();
+            case 1 -> StockSearchIndex.chosung(name);
+            default -> name;
+        };
+        if (key.isEmpty()) return random.nextBoolean() ? "" : "없는종목";
+        int len = 1 + random.nextInt(Math.min(key.length(), 6));
+        StringBuilder q = new StringBuilder(key.substring(0, len));
+        int mode = random.nextInt(6);
+        if (mode == 0) {
+            // 마지막 음절을 초성만 친 상태
+            q.setCharAt(len - 1, StockSearchIndex.chosung(q.charAt(len - 1)));
+        } else if (mode == 1) {
+            q.insert(0, "  ").append(' ');
+        } else if (mode == 2) {
+            return q.toString().toUpperCase(Locale.ROOT);
+        } else if (mode == 3) {
+            q.append((char) ('ㄱ' + random.nextInt('ㅎ' - 'ㄱ' + 1))); // 다음 음절을 치기 시작한 상태
+        }
+        return q.toString();
+    }
+
+    private static List<String> names(List<StockListing> listings) {
+        return listings.stream().map(StockListing::name).toList();
+    }
+
+    private static StockListing listing(int id, String code, String name, long marcap) {
+        return new StockListing(code, "KR7" + code + "003", name, "KOSPI", "", "10000", "1", 0L, 0.0,
+                10_000L, 10_000L, 10_000L, 0L, 0L, marcap, 0L, "STK", "2026-10-16", id, Map.of());
+    }
+}
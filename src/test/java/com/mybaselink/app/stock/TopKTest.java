@@ -0,0 +1,102 @@
+package com.mybaselink.app.stock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TopK 를 전체 정렬과 비교합니다. 입력을 어떻게 나눠 합쳐도 (점수 내림차순, 동점은 id 오름차순) 결과가 같아야 합니다.
+ */
+class TopKTest {
+
+    @Test
+    void mergeOfAnySplitMatchesFullSort() {
+        Random random = new Random(3);
+        for (int t = 0; t < 2_000; t++) {
+            int n = random.nextInt(300);
+            int k = random.nextInt(40);
+            // 점수 종류를 적게 두어 동점이 많이 생기게
+            int levels = 1 + random.nextInt(12);
+            double[] scores = new double[n];
+            for (int i = 0; i < n; i++) {
+                scores[i] = random.nextInt(50) == 0 ? Double.NaN : random.nextInt(levels) - levels / 2.0;
+            }
+            int[] ids = IntStream.range(0, n).toArray();
+            shuffle(ids, random);
+
+            // 무작위 경계로 나눠 조각마다 TopK, 무작위 순서로 합침
+            List<TopK> parts = new ArrayList<>();
+            int from = 0;
+            while (from < n) {
+                int to = Math.min(n, from + 1 + random.nextInt(64));
+                TopK part = new TopK(k);
+                for (int i = from; i < to; i++) part.offer(scores[ids[i]], ids[i]);
+                parts.add(part);
+                from = to;
+            }
+            Collections.shuffle(parts, random);
+            TopK merged = parts.stream().reduce(TopK::merge).orElseGet(() -> new TopK(k));
+
+            TopK single = new TopK(k);
+            for (int i = 0; i < n; i++) single.offer(scores[ids[i]], ids[i]);
+
+            int[] expected = IntStream.range(0, n)
+                    .filter(i -> !Double.isNaN(scores[i]))
+                    .boxed()
+                    .sorted(Comparator.<Integer>comparingDouble(i -> -scores[i]).thenComparingInt(i -> i))
+                    .limit(k)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            double[] expectedScores = Arrays.stream(expected).mapToDouble(i -> scores[i]).toArray();
+
+            String at = "t=" + t + " n=" + n + " k=" + k;
+            assertArrayEquals(expected, merged.sortedIds(), at);
+            assertArrayEquals(expectedScores, merged.sortedScores());
+            assertArrayEquals(expected, single.sortedIds(), at);
+            assertEquals(expected.length, merged.size(), at);
+            assertEquals(expected.length == k, merged.isFull(), at);
+        }
+    }
+
+    @Test
+    void thresholdAndEdgeCases() {
+        TopK empty = new TopK(0);
+        assertFalse(empty.offer(1.0, 1));
+        assertEquals(Double.POSITIVE_INFINITY, empty.threshold());
+        assertEquals(0, empty.sortedIds().length);
+
+        TopK top = new TopK(3);
+        assertEquals(Double.NEGATIVE_INFINITY, top.threshold());
+        assertFalse(top.offer(Double.NaN, 0));
+        assertTrue(top.offer(1.0, 5));
+        assertTrue(top.offer(2.0, 4));
+        assertTrue(top.offer(1.0, 3));
+        assertEquals(1.0, top.threshold());
+        // 동점이면 id 가 작은 쪽만 들어감
+        assertFalse(top.offer(1.0, 7));
+        assertTrue(top.offer(1.0, 1));
+        assertArrayEquals(new int[]{4, 1, 3}, top.sortedIds());
+
+        // merge 는 자신을 돌려주고 other 는 바꾸지 않음
+        TopK other = new TopK(2);
+        other.offer(3.0, 9);
+        other.offer(1.0, 0);
+        assertSame(top, top.merge(other));
+        assertArrayEquals(new int[]{9, 4, 0}, top.sortedIds());
+        assertArrayEquals(new int[]{9, 0}, other.sortedIds());
+
+        assertThrows(IllegalArgumentException.class, () -> new TopK(-1));
+    }
+
+    private static void shuffle(int[] a, Random random) {
+        for (int i = a.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int x = a[i];
+            a[i] = a[j];
+            a[j] = x;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.mybaselink.app.stock.chart;
+
+import com.mybaselink.app.stock.MarketPriceStore;
+import com.mybaselink.app.stock.PriceStoreFixture;
+import com.mybaselink.app.stock.StockPriceSeries;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ChartRenderer 가 만든 선·캔들·겹침 차트 PNG 를 {@link PngEncoderTest#decode} 로 풀어
+ * 형식(시그니처, CRC, IDAT)과 크기를 확인하고, 구간 안 시세가 없는 종목이면 파이썬 스크립트처럼 오류인지 봅니다.
+ */
+class ChartRendererTest {
+
+    private static final int FIRST_DAY = (int) LocalDate.of(2024, 1, 2).toEpochDay();
+    private static final String START = "2024-01-02";
+    private static final String END = "2024-06-30";
+
+    @TempDir
+    Path tempDir;
+
+    private MarketPriceStore store;
+    private ChartRenderer renderer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Random random = new Random(3);
+        Map<String, StockPriceSeries> data = new LinkedHashMap<>();
+        data.put("005930", PriceStoreFixture.series("005930", FIRST_DAY, walk(150, random)));
+        data.put("000660", PriceStoreFixture.series("000660", FIRST_DAY, walk(150, random)));
+        // 구간이 끝난 뒤에 상장한 종목
+        data.put("999990", PriceStoreFixture.series("999990", FIRST_DAY + 400, walk(30, random)));
+        store = PriceStoreFixture.open(tempDir, data);
+        renderer = new ChartRenderer(store);
+        ReflectionTestUtils.setField(renderer, "enabled", true);
+        ReflectionTestUtils.setField(renderer, "fontName", "Malgun Gothic");
+        renderer.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) ReflectionTestUtils.invokeMethod(store, "shutdown");
+    }
+
+    @Test
+    void chartsAreValidPngsOfExpectedSize() throws Exception {
+        assertSize(renderer.closeChart("005930", START, END), 1000, 500);
+        assertSize(renderer.candleChart("005930", START, END), 1000, 500);
+        assertSize(renderer.compareChart("005930", "000660", START, END), 1500, 800);
+        assertSize(renderer.compareChart("005930", null, START, END), 1500, 800);
+    }
+
+    @Test
+    void concurrentRendersStayValid() throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors() * 2 + 2; // 풀 크기보다 많게
+        ExecutorService callers = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<byte[]>> futures = new ArrayList<>();
+            for (int i = 0; i < threads * 3; i++) {
+                futures.add(callers.submit(() -> renderer.compareChart("005930", "000660", START, END)));
+            }
+            byte[] first = null;
+            for (Future<byte[]> f : futures) {
+                byte[] png = f.get(60, TimeUnit.SECONDS);
+                assertSize(png, 1500, 800);
+                if (first == null) first = png;
+                else assertArrayEquals(first, png, "같은 차트가 다르게 그려짐");
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        assertTrue((int) renderer.getStats().get("pooledEncoders") <= Runtime.getRuntime().availableProcessors());
+    }
+
+    @Test
+    void compareSymbolWithoutRowsInRangeIsAnError() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> renderer.compareChart("005930", "999990", START, END));
+        assertTrue(e.getMessage().contains("999990"), e.getMessage());
+        assertThrows(IllegalStateException.class, () -> renderer.compareChart("999990", "005930", START, END));
+        assertThrows(IllegalStateException.class, () -> renderer.compareChart("999990", null, START, END));
+    }
+
+    private static void assertSize(byte[] png, int width, int height) throws Exception {
+        PngEncoderTest.Png decoded = PngEncoderTest.decode(png);
+        assertEquals(width, decoded.width());
+        assertEquals(height, decoded.height());
+        assertTrue(Arrays.stream(decoded.rgb()).distinct().count() > 2, "그림이 비어 있음");
+    }
+
+    private static double[] walk(int n, Random random) {
+        double[] close = new double[n];
+        double price = 10_000;
+        for (int i = 0; i < n; i++) {
+            price *= 1 + random.nextGaussian() * 0.02;
+            close[i] = Math.round(price);
+        }
+        return close;
+    }
+}
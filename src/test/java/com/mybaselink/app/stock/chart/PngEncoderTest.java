@@ -0,0 +1,182 @@
+package com.mybaselink.app.stock.chart;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PngEncoder 출력을 직접 풀어 시그니처, 청크 CRC, IHDR 크기, IDAT 압축 해제 길이와 필터를 되돌린 픽셀을 확인합니다.
+ * 같은 인코더를 크기가 다른 이미지에 이어 써도 앞 결과가 섞이지 않는지 봅니다.
+ */
+class PngEncoderTest {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    /** 풀어 낸 PNG */
+    record Png(int width, int height, int[] rgb, List<String> chunks) { }
+
+    @Test
+    void encodedPixelsRoundTrip() throws Exception {
+        Random random = new Random(7);
+        PngEncoder encoder = new PngEncoder(1);
+        try {
+            for (int[] size : new int[][]{{1, 1}, {37, 5}, {300, 200}, {5, 64}, {1500, 800}}) {
+                int w = size[0];
+                int h = size[1];
+                int[] rgb = chartLike(w, h, random);
+                byte[] png = encoder.encode(rgb, w, h);
+
+                Png decoded = decode(png);
+                assertEquals(w, decoded.width());
+                assertEquals(h, decoded.height());
+                assertArrayEquals(rgb, decoded.rgb(), w + "x" + h);
+                assertEquals("IHDR", decoded.chunks().get(0));
+                assertEquals("IEND", decoded.chunks().get(decoded.chunks().size() - 1));
+
+                // 표준 디코더로도 같은 그림
+                BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+                assertEquals(w, image.getWidth());
+                assertEquals(h, image.getHeight());
+                for (int i = 0; i < rgb.length; i += 97) {
+                    assertEquals(rgb[i], image.getRGB(i % w, i / w) & 0xFFFFFF, "pixel " + i);
+                }
+            }
+        } finally {
+            encoder.close();
+        }
+    }
+
+    @Test
+    void closedEncoderCannotBeUsed() {
+        PngEncoder encoder = new PngEncoder(1);
+        encoder.close();
+        assertThrows(RuntimeException.class, () -> encoder.encode(new int[4], 2, 2));
+    }
+
+    /** 배경 위에 격자와 선이 있는, 윗행과 같은 행이 많은 그림 (상위 8비트는 0) */
+    private static int[] chartLike(int w, int h, Random random) {
+        int[] rgb = new int[w * h];
+        Arrays.fill(rgb, 0xFFFFFF);
+        for (int y = 0; y < h; y += 20) Arrays.fill(rgb, y * w, (y + 1) * w, 0xB0B0B0);
+        for (int x = 0; x < w; x++) {
+            int y = random.nextInt(h);
+            rgb[y * w + x] = random.nextInt(0x1000000);
+        }
+        return rgb;
+    }
+
+    /**
+     * 24비트 RGB PNG 를 풀어 냄. 형식이 틀리면 assertion 실패
+     */
+    static Png decode(byte[] png) throws Exception {
+        assertArrayEquals(SIGNATURE, Arrays.copyOf(png, SIGNATURE.length), "PNG 시그니처");
+        ByteBuffer in = ByteBuffer.wrap(png, SIGNATURE.length, png.length - SIGNATURE.length);
+        List<String> chunks = new ArrayList<>();
+        ByteArrayOutputStream idat = new ByteArrayOutputStream();
+        int width = -1;
+        int height = -1;
+        while (in.hasRemaining()) {
+            int length = in.getInt();
+            byte[] type = new byte[4];
+            in.get(type);
+            byte[] data = new byte[length];
+            in.get(data);
+            int stored = in.getInt();
+            CRC32 crc = new CRC32();
+            crc.update(type);
+            crc.update(data);
+            String name = new String(type, StandardCharsets.US_ASCII);
+            assertEquals((int) crc.getValue(), stored, name + " CRC");
+            if (name.equals("IDAT") && !chunks.isEmpty() && chunks.get(chunks.size() - 1).equals("IDAT")) {
+                idat.write(data); // 이어진 IDAT 는 하나로 봄
+                continue;
+            }
+            chunks.add(name);
+            switch (name) {
+                case "IHDR" -> {
+                    ByteBuffer header = ByteBuffer.wrap(data);
+                    width = header.getInt();
+                    height = header.getInt();
+                    assertEquals(8, data[8], "비트 깊이");
+                    assertEquals(2, data[9], "색 형식 (RGB)");
+                    assertEquals(0, data[12], "인터레이스");
+                }
+                case "IDAT" -> idat.write(data);
+                case "IEND" -> assertEquals(0, length);
+                default -> { }
+            }
+        }
+        assertEquals("IHDR", chunks.get(0));
+        assertEquals("IEND", chunks.get(chunks.size() - 1));
+        assertEquals(1, chunks.stream().filter("IDAT"::equals).count(), "IDAT 청크는 한 덩어리로 이어져야 함: " + chunks);
+
+        int rowLength = width * 3 + 1;
+        byte[] raw = new byte[rowLength * height];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(idat.toByteArray());
+            int n = 0;
+            while (n < raw.length && !inflater.finished()) {
+                int read = inflater.inflate(raw, n, raw.length - n);
+                if (read == 0 && inflater.needsInput()) break;
+                n += read;
+            }
+            assertEquals(raw.length, n, "IDAT 압축 해제 길이");
+            assertTrue(inflater.finished(), "IDAT 스트림이 끝나지 않음");
+            assertEquals(0, inflater.getRemaining(), "IDAT 뒤에 남은 바이트");
+        } finally {
+            inflater.end();
+        }
+
+        // 필터 되돌리기 (bpp = 3)
+        byte[] prev = new byte[rowLength - 1];
+        byte[] cur = new byte[rowLength - 1];
+        int[] rgb = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            int filter = raw[y * rowLength];
+            for (int i = 0; i < cur.length; i++) {
+                int x = raw[y * rowLength + 1 + i] & 0xFF;
+                int a = i >= 3 ? cur[i - 3] & 0xFF : 0;
+                int b = prev[i] & 0xFF;
+                int c = i >= 3 ? prev[i - 3] & 0xFF : 0;
+                int v = switch (filter) {
+                    case 0 -> x;
+                    case 1 -> x + a;
+                    case 2 -> x + b;
+                    case 3 -> x + (a + b) / 2;
+                    case 4 -> x + paeth(a, b, c);
+                    default -> throw new AssertionError("알 수 없는 필터: " + filter);
+                };
+                cur[i] = (byte) v;
+            }
+            for (int px = 0; px < width; px++) {
+                rgb[y * width + px] = (cur[px * 3] & 0xFF) << 16 | (cur[px * 3 + 1] & 0xFF) << 8 | (cur[px * 3 + 2] & 0xFF);
+            }
+            byte[] t = prev;
+            prev = cur;
+            cur = t;
+        }
+        return new Png(width, height, rgb, chunks);
+    }
+
+    private static int paeth(int a, int b, int c) {
+        int p = a + b - c;
+        int pa = Math.abs(p - a);
+        int pb = Math.abs(p - b);
+        int pc = Math.abs(p - c);
+        return pa <= pb && pa <= pc ? a : pb <= pc ? b : c;
+    }
+}
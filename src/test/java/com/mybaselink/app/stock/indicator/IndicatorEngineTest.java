@@ -0,0 +1,240 @@
+package com.mybaselink.app.stock.indicator;
+
+import com.mybaselink.app.stock.MarketPriceStore;
+import com.mybaselink.app.stock.PriceStoreFixture;
+import com.mybaselink.app.stock.StockPriceSeries;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * IndicatorEngine 의 종목별 누적 상태(SMA/EMA/RSI Wilder/MACD/볼린저)를 여러 세대에 걸쳐 이어서 갱신한 값과,
+ * 과거 날짜·등록하지 않은 지표의 재계산 값이 종가 배열 전체로 교과서식 계산을 한 값과 같은지 확인합니다.
+ * 오래전에 거래가 끊긴 종목이 결과에서 빠지는지도 봅니다.
+ */
+class IndicatorEngineTest {
+
+    private static final int FIRST_DAY = (int) LocalDate.of(2024, 1, 2).toEpochDay();
+    private static final String[] SPECS = {"sma20", "sma5", "ema12", "ema26", "rsi14", "rsi3", "macd", "bb20", "bb5"};
+
+    @TempDir
+    Path tempDir;
+
+    private MarketPriceStore store;
+    private IndicatorEngine engine;
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) engine.shutdown();
+        if (store != null) ReflectionTestUtils.invokeMethod(store, "shutdown");
+    }
+
+    @Test
+    void incrementalStatesMatchBulkComputation() throws Exception {
+        Random random = new Random(41);
+        Map<String, List<Double>> closes = new TreeMap<>();
+        for (int s = 0; s < 80; s++) {
+            List<Double> c = new ArrayList<>(List.of(1_000.0 + 100 * s));
+            append(c, s % 9 == 0 ? 10 : 30 + random.nextInt(20), random); // 일부는 기간보다 짧음
+            closes.put(String.format("%06d", s), c);
+        }
+        Map<String, StockPriceSeries> data = new TreeMap<>();
+        fill(data, closes);
+        open(data, 0);
+
+        for (int round = 0; round < 10; round++) {
+            for (List<Double> c : closes.values()) append(c, random.nextInt(4), random);
+            // 과거 종가가 바뀐 종목 (수정주가) 은 처음부터 다시 계산되어야 함
+            closes.get(String.format("%06d", random.nextInt(80))).replaceAll(x -> x * 2);
+            fill(data, closes);
+            store.refreshAsync("test").get(30, TimeUnit.SECONDS);
+            awaitEngine();
+
+            for (String key : SPECS) {
+                IndicatorSpec spec = IndicatorSpec.parse(key);
+                assertMatches(expected(spec, closes, Integer.MAX_VALUE), engine.valuesAt(spec, null), key + " round " + round);
+            }
+        }
+        assertTrue(((Number) engine.getStats().get("advanced")).longValue() > 0);
+
+        // 과거 날짜와 등록하지 않은 지표는 종목 시세를 처음부터 다시 돌림
+        int pastDay = FIRST_DAY + 35;
+        for (String key : SPECS) {
+            IndicatorSpec spec = IndicatorSpec.parse(key);
+            assertMatches(expected(spec, closes, pastDay), engine.valuesAt(spec, LocalDate.ofEpochDay(pastDay)), key + " past");
+        }
+        IndicatorSpec unregistered = IndicatorSpec.parse("ema7");
+        assertMatches(expected(unregistered, closes, Integer.MAX_VALUE), engine.valuesAt(unregistered, null), "ema7");
+        assertTrue(((Number) engine.getStats().get("replays")).longValue() > 0);
+    }
+
+    @Test
+    void longInactiveSymbolsAreExcluded() throws Exception {
+        Random random = new Random(43);
+        Map<String, List<Double>> closes = new TreeMap<>();
+        for (int s = 0; s < 20; s++) {
+            List<Double> c = new ArrayList<>(List.of(5_000.0));
+            // 000000 ~ 000004: 마지막 거래일이 한 달 전, 000005: 열흘 전
+            append(c, s < 5 ? 60 : s == 5 ? 80 : 90, random);
+            closes.put(String.format("%06d", s), c);
+        }
+        Map<String, StockPriceSeries> data = new TreeMap<>();
+        fill(data, closes);
+        open(data, 14);
+
+        for (String key : new String[]{"sma20", "sma7"}) { // 누적 상태 / 재계산
+            Set<String> symbols = new HashSet<>();
+            for (IndicatorEngine.IndicatorValue v : engine.valuesAt(IndicatorSpec.parse(key), null)) symbols.add(v.symbol());
+            assertEquals(15, symbols.size(), key + ": " + symbols);
+            assertTrue(symbols.contains("000005"), key);
+            assertFalse(symbols.contains("000000"), key);
+        }
+        // 과거 날짜면 그 시점 기준으로 판단
+        Set<String> past = new HashSet<>();
+        LocalDate at = LocalDate.ofEpochDay(FIRST_DAY + 60);
+        for (IndicatorEngine.IndicatorValue v : engine.valuesAt(IndicatorSpec.parse("sma20"), at)) past.add(v.symbol());
+        assertEquals(20, past.size());
+
+        ReflectionTestUtils.setField(engine, "maxStaleDays", 0);
+        assertEquals(20, engine.valuesAt(IndicatorSpec.parse("sma20"), null).size());
+    }
+
+    private void open(Map<String, StockPriceSeries> data, int maxStaleDays) throws Exception {
+        store = PriceStoreFixture.open(tempDir, data);
+        engine = new IndicatorEngine(store);
+        ReflectionTestUtils.setField(engine, "enabled", true);
+        ReflectionTestUtils.setField(engine, "specNames", SPECS);
+        ReflectionTestUtils.setField(engine, "parallelism", 2);
+        ReflectionTestUtils.setField(engine, "maxStaleDays", maxStaleDays);
+        engine.init();
+        awaitEngine();
+    }
+
+    private void awaitEngine() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (((Number) engine.getStats().get("storeVersion")).longValue() != store.getVersion()) {
+            assertTrue(System.nanoTime() < deadline, "지표 상태가 갱신되지 않음");
+            Thread.sleep(5);
+        }
+    }
+
+    private static void assertMatches(Map<String, double[]> expected, List<IndicatorEngine.IndicatorValue> actual,
+                                      String label) {
+        Map<String, double[]> got = new TreeMap<>();
+        for (IndicatorEngine.IndicatorValue v : actual) got.put(v.symbol(), v.values());
+        assertEquals(expected.keySet(), got.keySet(), label);
+        for (Map.Entry<String, double[]> e : expected.entrySet()) {
+            double[] want = e.getValue();
+            double[] have = got.get(e.getKey());
+            for (int i = 0; i < want.length; i++) {
+                assertEquals(want[i], have[i], 1e-9 * Math.max(1.0, Math.abs(want[i])), label + " " + e.getKey() + "[" + i + "]");
+            }
+        }
+    }
+
+    /** 종목마다 lastDay 까지의 종가(NaN 제외)로 한 번에 계산한 값. 값이 없으면 빠짐 */
+    private static Map<String, double[]> expected(IndicatorSpec spec, Map<String, List<Double>> closes, int lastDay) {
+        Map<String, double[]> out = new TreeMap<>();
+        for (Map.Entry<String, List<Double>> e : closes.entrySet()) {
+            List<Double> c = e.getValue();
+            int n = Math.min(c.size(), lastDay - FIRST_DAY + 1);
+            double[] x = c.subList(0, Math.max(n, 0)).stream().mapToDouble(Double::doubleValue)
+                    .filter(v -> !Double.isNaN(v)).toArray();
+            double[] values = switch (spec.type()) {
+                case SMA -> x.length < spec.period() ? null : new double[]{mean(x, x.length - spec.period(), x.length)};
+                case EMA -> {
+                    double[] ema = ema(x, spec.period());
+                    yield ema.length == 0 ? null : new double[]{ema[ema.length - 1]};
+                }
+                case RSI -> rsi(x, spec.period());
+                case MACD -> macd(x);
+                case BOLLINGER -> {
+                    if (x.length < spec.period()) yield null;
+                    int from = x.length - spec.period();
+                    double m = mean(x, from, x.length);
+                    double var = 0;
+                    for (int i = from; i < x.length; i++) var += (x[i] - m) * (x[i] - m);
+                    double band = 2 * Math.sqrt(var / spec.period());
+                    yield new double[]{m, m + band, m - band};
+                }
+            };
+            if (values != null) out.put(e.getKey(), values);
+        }
+        return out;
+    }
+
+    private static double mean(double[] x, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) sum += x[i];
+        return sum / (to - from);
+    }
+
+    /** 처음 p 개 평균에서 시작하는 EMA. 결과[k] 는 x[p - 1 + k] 시점 값 */
+    private static double[] ema(double[] x, int p) {
+        if (x.length < p) return new double[0];
+        double[] out = new double[x.length - p + 1];
+        double alpha = 2.0 / (p + 1);
+        out[0] = mean(x, 0, p);
+        for (int i = p; i < x.length; i++) out[i - p + 1] = out[i - p] + alpha * (x[i] - out[i - p]);
+        return out;
+    }
+
+    private static double[] rsi(double[] x, int p) {
+        if (x.length - 1 < p) return null;
+        double gain = 0;
+        double loss = 0;
+        for (int i = 1; i <= p; i++) {
+            gain += Math.max(x[i] - x[i - 1], 0);
+            loss += Math.max(x[i - 1] - x[i], 0);
+        }
+        gain /= p;
+        loss /= p;
+        for (int i = p + 1; i < x.length; i++) {
+            gain = (gain * (p - 1) + Math.max(x[i] - x[i - 1], 0)) / p;
+            loss = (loss * (p - 1) + Math.max(x[i - 1] - x[i], 0)) / p;
+        }
+        return new double[]{loss == 0 ? (gain == 0 ? 50 : 100) : 100 - 100 / (1 + gain / loss)};
+    }
+
+    private static double[] macd(double[] x) {
+        double[] fast = ema(x, 12);
+        double[] slow = ema(x, 26);
+        if (slow.length == 0) return null;
+        double[] line = new double[slow.length];
+        for (int k = 0; k < slow.length; k++) line[k] = fast[k + 14] - slow[k];
+        double[] signal = ema(line, 9);
+        if (signal.length == 0) return null;
+        double m = line[line.length - 1];
+        double sig = signal[signal.length - 1];
+        return new double[]{m, sig, m - sig};
+    }
+
+    /** 등락이 섞인 무작위 종가 (가끔 종가가 빈 날 포함) */
+    private static void append(List<Double> closes, int days, Random random) {
+        double last = closes.stream().filter(c -> !Double.isNaN(c)).reduce((a, b) -> b).orElseThrow();
+        for (int i = 0; i < days; i++) {
+            if (random.nextInt(25) == 0) {
+                closes.add(Double.NaN);
+                continue;
+            }
+            last *= 1 + (random.nextGaussian() * 0.02);
+            closes.add(last);
+        }
+    }
+
+    private static void fill(Map<String, StockPriceSeries> data, Map<String, List<Double>> closes) {
+        for (Map.Entry<String, List<Double>> e : closes.entrySet()) {
+            double[] close = e.getValue().stream().mapToDouble(Double::doubleValue).toArray();
+            data.put(e.getKey(), PriceStoreFixture.series(e.getKey(), FIRST_DAY, close));
+        }
+    }
+}
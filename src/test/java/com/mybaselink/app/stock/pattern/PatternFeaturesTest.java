@@ -0,0 +1,92 @@
+package com.mybaselink.app.stock.pattern;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PatternFeatures 의 봉우리·골짜기가 find_chart_patterns.py 의 find_peaks 인자로 구한 값과 같은지,
+ * 최근 구간 최고·최저가 단순 계산과 같은지 확인합니다.
+ */
+class PatternFeaturesTest {
+
+    @Test
+    void extremaUseScriptFindPeaksArguments() {
+        // find_peaks(x, distance=10, prominence=max(x)*0.02) 와 find_peaks(-x, ...) 를 손으로 따라간 값
+        double[] x = new double[60];
+        for (int i = 0; i < x.length; i++) x[i] = 100;
+        x[5] = 110;  // 돌출도 10
+        x[9] = 105;  // 5 보다 낮고 간격 4 → 거리 조건에서 빠짐
+        x[30] = 101; // 돌출도 1 < 2.2 → 돌출도 조건에서 빠짐
+        x[45] = 120;
+        x[20] = 90;  // 골짜기
+        x[52] = 80;
+        // -x 에서는 5·9 사이 평탄면(6~8)도 양옆보다 높아 골짜기 7 이 됨 (돌출도 5).
+        // 30·45 사이 평탄면(31~44)은 돌출도 1 이라 빠짐
+        PatternFeatures f = new PatternFeatures();
+        f.load(x, x.length);
+
+        assertEquals(2, f.peakCount());
+        assertEquals(5, f.peak(0));
+        assertEquals(45, f.peak(1));
+        assertEquals(3, f.troughCount());
+        assertEquals(7, f.trough(0));
+        assertEquals(20, f.trough(1));
+        assertEquals(52, f.trough(2));
+        assertEquals(1, f.firstExtremumFrom(false, 6));
+        assertEquals(2, f.firstExtremumFrom(true, 21));
+        assertEquals(3, f.firstExtremumFrom(true, 53));
+    }
+
+    @Test
+    void matchesPeakFinderAndNaiveRollingWindows() {
+        Random random = new Random(16);
+        PatternFeatures f = new PatternFeatures();
+        PeakFinder finder = new PeakFinder();
+        for (int t = 0; t < 300; t++) {
+            // 길이가 줄었다 늘었다 해도 이전 종목 값이 남지 않아야 함
+            int n = 1 + random.nextInt(t % 3 == 0 ? 30 : 500);
+            double[] x = new double[n];
+            double v = 10_000;
+            for (int i = 0; i < n; i++) {
+                v *= 1 + random.nextGaussian() * 0.02;
+                x[i] = Math.rint(v);
+            }
+            f.load(x, n);
+            String at = "t=" + t + " n=" + n;
+
+            double max = Double.NEGATIVE_INFINITY;
+            double min = Double.POSITIVE_INFINITY;
+            for (double c : x) {
+                max = Math.max(max, c);
+                min = Math.min(min, c);
+            }
+            assertEquals(max, f.max(), at);
+            assertEquals(min, f.min(), at);
+
+            int peaks = finder.find(x, n, PatternFeatures.PEAK_DISTANCE, max * PatternFeatures.PROMINENCE_RATIO);
+            assertEquals(peaks, f.peakCount(), at);
+            for (int i = 0; i < peaks; i++) assertEquals(finder.peak(i), f.peak(i), at);
+
+            double[] negated = new double[n];
+            for (int i = 0; i < n; i++) negated[i] = -x[i];
+            int troughs = finder.find(negated, n, PatternFeatures.PEAK_DISTANCE, max * PatternFeatures.PROMINENCE_RATIO);
+            assertEquals(troughs, f.troughCount(), at);
+            for (int i = 0; i < troughs; i++) assertEquals(finder.peak(i), f.trough(i), at);
+
+            for (int i = 0; i < n; i++) {
+                double hi = Double.NEGATIVE_INFINITY;
+                double lo = Double.POSITIVE_INFINITY;
+                for (int k = Math.max(0, i - PatternFeatures.ROLLING_WINDOW + 1); k <= i; k++) {
+                    hi = Math.max(hi, x[k]);
+                    lo = Math.min(lo, x[k]);
+                }
+                assertEquals(hi, f.rollingMax(i), at + " i=" + i);
+                assertEquals(lo, f.rollingMin(i), at + " i=" + i);
+                assertEquals(i == 0 ? 0.0 : x[i] / x[i - 1] - 1.0, f.dailyReturn(i), at + " i=" + i);
+            }
+        }
+    }
+}
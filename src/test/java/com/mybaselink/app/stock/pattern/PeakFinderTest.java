@@ -0,0 +1,158 @@
+package com.mybaselink.app.stock.pattern;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PeakFinder 를 scipy.signal.find_peaks / peak_prominences 의 알려진 결과와 비교합니다.
+ */
+class PeakFinderTest {
+
+    /**
+     * scipy peak_prominences 문서 예제:
+     * x = sin(t) + 0.6·sin(2.6·t), t = linspace(0, 6π, 1000)
+     */
+    @Test
+    void matchesScipyProminenceExample() {
+        int n = 1000;
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            double t = 6 * Math.PI * i / (n - 1);
+            x[i] = Math.sin(t) + 0.6 * Math.sin(2.6 * t);
+        }
+        PeakFinder finder = new PeakFinder();
+        assertArrayEquals(new int[]{42, 147, 299, 416, 533, 685, 791, 933}, peaks(finder, x, n, 0, Double.NaN));
+        double[] expected = {1.24159486, 0.47840168, 0.28470524, 3.10716793, 0.284603, 0.47822491, 2.48340261, 0.47822491};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], PeakFinder.prominence(x, n, finder.peak(i)), 5e-9, "peak " + finder.peak(i));
+        }
+        // find_peaks(x, prominence=1)
+        assertArrayEquals(new int[]{42, 416, 791}, peaks(finder, x, n, 0, 1.0));
+    }
+
+    /** 손으로 따라간 find_peaks 결과 (scipy 의 거르는 순서·평탄한 꼭대기·동점 규칙) */
+    @Test
+    void matchesScipyOnSmallCases() {
+        PeakFinder finder = new PeakFinder();
+        double[] saw = {0, 1, 0, 2, 0, 3, 0, 2, 0, 1, 0};
+        assertArrayEquals(new int[]{1, 3, 5, 7, 9}, peaks(finder, saw, 0, Double.NaN));
+        assertArrayEquals(new int[]{1, 5, 9}, peaks(finder, saw, 3, Double.NaN));
+        assertArrayEquals(new int[]{5}, peaks(finder, saw, 5, Double.NaN));
+        assertArrayEquals(new int[]{3, 5, 7}, peaks(finder, saw, 0, 2.0));
+        // 거리 조건을 먼저 적용하고 남은 것에서 돌출도로 거름
+        assertArrayEquals(new int[]{5}, peaks(finder, saw, 3, 2.0));
+
+        // 평탄한 꼭대기는 가운데(왼쪽으로 내림), 끝에 닿은 평탄면은 봉우리 아님
+        assertArrayEquals(new int[]{1}, peaks(finder, new double[]{0, 1, 1, 0}, 0, Double.NaN));
+        assertArrayEquals(new int[]{2}, peaks(finder, new double[]{0, 1, 1, 1, 0}, 0, Double.NaN));
+        assertArrayEquals(new int[]{2}, peaks(finder, new double[]{0, 2, 2, 2, 2, 0}, 0, Double.NaN));
+        assertArrayEquals(new int[]{}, peaks(finder, new double[]{0, 1, 1}, 0, Double.NaN));
+        assertArrayEquals(new int[]{}, peaks(finder, new double[]{1, 1, 0}, 0, Double.NaN));
+        assertArrayEquals(new int[]{}, peaks(finder, new double[]{0, 1, 1, 2}, 0, Double.NaN));
+        assertArrayEquals(new int[]{}, peaks(finder, new double[]{3, 1}, 0, Double.NaN));
+
+        // 같은 높이끼리 거리 조건에 걸리면 뒤쪽이 남음
+        assertArrayEquals(new int[]{3}, peaks(finder, new double[]{0, 1, 0, 1, 0}, 3, Double.NaN));
+        assertArrayEquals(new int[]{1, 5}, peaks(finder, new double[]{0, 1, 0, 1, 0, 1, 0}, 3, Double.NaN));
+
+        // peak_prominences([0, 5, 1, 3, 1, 4, 0], [1, 3, 5]) = [5, 2, 3]
+        double[] hills = {0, 5, 1, 3, 1, 4, 0};
+        assertEquals(5.0, PeakFinder.prominence(hills, hills.length, 1));
+        assertEquals(2.0, PeakFinder.prominence(hills, hills.length, 3));
+        assertEquals(3.0, PeakFinder.prominence(hills, hills.length, 5));
+        assertArrayEquals(new int[]{1, 5}, peaks(finder, hills, 0, 2.5));
+    }
+
+    /** 무작위 입력에서 scipy 알고리즘을 그대로 옮긴 단순 구현과 비교 (버퍼 재사용 포함) */
+    @Test
+    void matchesReferenceOnRandomSeries() {
+        Random random = new Random(15);
+        PeakFinder finder = new PeakFinder();
+        for (int t = 0; t < 3_000; t++) {
+            int n = random.nextInt(400);
+            double[] x = new double[n + 5];
+            double v = 100;
+            for (int i = 0; i < n; i++) {
+                // 반올림해 평탄한 꼭대기도 생기게
+                v += random.nextGaussian();
+                x[i] = t % 2 == 0 ? Math.rint(v) : v;
+            }
+            Arrays.fill(x, n, x.length, 1e9); // n 뒤의 값은 보지 않아야 함
+            int distance = random.nextInt(12);
+            double prominence = random.nextInt(3) == 0 ? Double.NaN : random.nextDouble() * 5;
+            // 높이 동점이 있으면 numpy argsort(quicksort)가 안정 정렬이 아니므로, 연속값에서만 거리 조건 비교
+            if (t % 2 == 0) distance = 0;
+
+            int[] expected = reference(x, n, distance, prominence);
+            assertArrayEquals(expected, peaks(finder, x, n, distance, prominence),
+                    "t=" + t + " n=" + n + " distance=" + distance + " prominence=" + prominence);
+        }
+    }
+
+    private static int[] peaks(PeakFinder finder, double[] x, int distance, double prominence) {
+        return peaks(finder, x, x.length, distance, prominence);
+    }
+
+    private static int[] peaks(PeakFinder finder, double[] x, int n, int distance, double prominence) {
+        int m = finder.find(x, n, distance, prominence);
+        assertEquals(m, finder.count());
+        int[] out = new int[m];
+        for (int i = 0; i < m; i++) out[i] = finder.peak(i);
+        return out;
+    }
+
+    /**
+     * scipy _local_maxima_1d → _select_by_peak_distance → peak_prominences 순서 그대로
+     */
+    private static int[] reference(double[] x, int n, int distance, double minProminence) {
+        List<Integer> peaks = new ArrayList<>();
+        int i = 1;
+        int iMax = n - 1;
+        while (i < iMax) {
+            if (x[i - 1] < x[i]) {
+                int ahead = i + 1;
+                while (ahead < iMax && x[ahead] == x[i]) ahead++;
+                if (x[ahead] < x[i]) {
+                    int left = i;
+                    int right = ahead - 1;
+                    peaks.add((left + right) / 2);
+                    i = ahead;
+                }
+            }
+            i++;
+        }
+
+        if (distance > 1) {
+            int m = peaks.size();
+            boolean[] keep = new boolean[m];
+            Arrays.fill(keep, true);
+            Integer[] order = new Integer[m];
+            for (int k = 0; k < m; k++) order[k] = k;
+            Arrays.sort(order, Comparator.comparingDouble(k -> x[peaks.get(k)]));
+            for (int r = m - 1; r >= 0; r--) {
+                int j = order[r];
+                if (!keep[j]) continue;
+                for (int k = j - 1; k >= 0 && peaks.get(j) - peaks.get(k) < distance; k--) keep[k] = false;
+                for (int k = j + 1; k < m && peaks.get(k) - peaks.get(j) < distance; k++) keep[k] = false;
+            }
+            List<Integer> kept = new ArrayList<>();
+            for (int k = 0; k < m; k++) if (keep[k]) kept.add(peaks.get(k));
+            peaks.clear();
+            peaks.addAll(kept);
+        }
+
+        if (!Double.isNaN(minProminence)) {
+            peaks.removeIf(p -> {
+                double leftMin = x[p];
+                for (int k = p; k >= 0 && x[k] <= x[p]; k--) leftMin = Math.min(leftMin, x[k]);
+                double rightMin = x[p];
+                for (int k = p; k < n && x[k] <= x[p]; k++) rightMin = Math.min(rightMin, x[k]);
+                return x[p] - Math.max(leftMin, rightMin) < minProminence;
+            });
+        }
+        return peaks.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,203 @@
+package com.mybaselink.app.stock.similarity;
+
+import com.mybaselink.app.dto.SimilarStockDto;
+import com.mybaselink.app.stock.MarketPriceStore;
+import com.mybaselink.app.stock.PriceSlice;
+import com.mybaselink.app.stock.PriceStoreFixture;
+import com.mybaselink.app.stock.StockPriceSeries;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DTW 하한(LB_Kim, LB_Keogh)과 조기 중단이 결과를 바꾸지 않는지, 가지치기 없는 밴드 DTW 와 비교합니다.
+ */
+class DtwTest {
+
+    private static final int FIRST_DAY = (int) LocalDate.of(2021, 1, 4).toEpochDay();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void distanceMatchesNaiveBandedDtw() {
+        Random random = new Random(1);
+        Dtw.Workspace ws = new Dtw.Workspace();
+        for (int t = 0; t < 500; t++) {
+            int n = 3 + random.nextInt(60);
+            int w = Dtw.window(n, new double[]{0.0, 0.05, 0.1, 0.3, 1.0}[t % 5]);
+            double[] q = randomWalk(n, random);
+            double[] c = randomWalk(n, random);
+            ws.ensure(n);
+
+            double expected = naive(q, c, n, w);
+            double actual = Dtw.distanceSquared(q, c, n, w, Dtw.INF, null, ws);
+            assertEquals(expected, actual, expected * 1e-12, "n=" + n + " w=" + w);
+
+            double[] upper = new double[n];
+            double[] lower = new double[n];
+            Dtw.envelope(q, n, w, upper, lower);
+            assertTrue(Dtw.lbKim(q, c, n) <= actual * (1 + 1e-12), "LB_Kim n=" + n);
+            assertTrue(Dtw.lbKeogh(c, n, upper, lower, Dtw.INF, ws.tail) <= actual * (1 + 1e-12), "LB_Keogh n=" + n);
+            // 조기 중단: 기준이 실제 거리 이상이면 같은 값, 미만이면 실제 거리나 INF (어느 쪽이든 기준보다 큼)
+            assertEquals(actual, Dtw.distanceSquared(q, c, n, w, actual, ws.tail, ws));
+            if (actual > 0) {
+                double below = actual * 0.999;
+                double abandoned = Dtw.distanceSquared(q, c, n, w, below, ws.tail, ws);
+                assertTrue(abandoned == actual || abandoned == Dtw.INF, "n=" + n + " w=" + w);
+            }
+        }
+    }
+
+    @Test
+    void unbandedDistanceMatchesFullMatrixDtw() {
+        // 기본값 window-ratio=1.0 은 밴드 없이 전체 행렬을 채우는 고전 DTW 와 같아야 함 (dtaidistance 기본 동작)
+        Random random = new Random(3);
+        Dtw.Workspace ws = new Dtw.Workspace();
+        for (int t = 0; t < 300; t++) {
+            int n = 3 + random.nextInt(90);
+            double[] q = randomWalk(n, random);
+            double[] c = randomWalk(n, random);
+            ws.ensure(n);
+
+            int w = Dtw.window(n, 1.0);
+            assertTrue(w >= n - 1, "ratio 1.0 인데 밴드가 걸림: n=" + n + " w=" + w);
+            double expected = fullMatrix(q, c);
+            assertEquals(expected, Dtw.distanceSquared(q, c, n, w, Dtw.INF, null, ws), expected * 1e-12, "n=" + n);
+        }
+    }
+
+    @Test
+    void prunedTopKMatchesUnprunedDtw() throws Exception {
+        Random random = new Random(9);
+        int days = 80;
+        Map<String, StockPriceSeries> data = new LinkedHashMap<>();
+        List<double[]> distinct = new ArrayList<>();
+        for (int s = 0; s < 360; s++) {
+            double[] close;
+            if (s >= 40 && random.nextInt(4) == 0) {
+                // 같은 시계열을 다른 종목으로 (거리 동점)
+                close = distinct.get(random.nextInt(distinct.size())).clone();
+            } else {
+                close = randomWalk(days, random);
+                for (int i = 1; i < days; i++) if (random.nextInt(40) == 0) close[i] = Double.NaN;
+                if (s % 50 == 7) close[0] = Double.NaN; // 첫날 값이 없어 후보에서 빠짐
+                distinct.add(close);
+            }
+            String symbol = String.format("%06d", s);
+            data.put(symbol, PriceStoreFixture.series(symbol, FIRST_DAY, close));
+        }
+        MarketPriceStore store = PriceStoreFixture.open(tempDir, data);
+
+        for (double ratio : new double[]{0.1, 1.0}) {
+            SimilarityEngine engine = engine(store, ratio);
+            LocalDate start = LocalDate.ofEpochDay(FIRST_DAY + 5);
+            LocalDate end = LocalDate.ofEpochDay(FIRST_DAY + 64);
+            for (String base : List.of("000000", "000001", "000013", "000200")) {
+                for (int topN : new int[]{1, 3, 10, 50, 400}) {
+                    List<SimilarStockDto> actual = engine.findSimilar(base, start, end, SimilarityMethod.DTW, topN);
+                    List<Object[]> expected = bruteForce(store, base, start, end, ratio, topN);
+                    String at = "ratio=" + ratio + " base=" + base + " topN=" + topN;
+                    assertEquals(expected.size(), actual.size(), at);
+                    for (int r = 0; r < expected.size(); r++) {
+                        assertEquals(expected.get(r)[0], actual.get(r).getTicker(), at + " rank=" + r);
+                        assertEquals((double) expected.get(r)[1], actual.get(r).getSimilarity().doubleValue(), at + " rank=" + r);
+                    }
+                }
+            }
+            Map<String, Object> stats = engine.getStats();
+            long pruned = (long) stats.get("dtwPrunedKim") + (long) stats.get("dtwPrunedKeogh") + (long) stats.get("dtwAbandoned");
+            assertTrue(pruned > 0, "가지치기가 한 번도 일어나지 않음: " + stats);
+            ReflectionTestUtils.invokeMethod(engine, "shutdown");
+        }
+    }
+
+    /** 모든 후보의 밴드 DTW 거리를 구해 (거리, 후보 순서) 로 정렬한 앞 topN 개 {종목, 유사도} */
+    private static List<Object[]> bruteForce(MarketPriceStore store, String baseSymbol, LocalDate start, LocalDate end,
+                                             double ratio, int topN) {
+        List<PriceSlice> slices = store.sliceAll(start, end);
+        PriceSlice base = store.slice(baseSymbol, start, end);
+        int n = base.length();
+        int[] days = base.epochDays();
+        double[] q = base.closes();
+        assertTrue(SimilarityEngine.interpolate(q, n));
+        int w = Dtw.window(n, ratio);
+        Dtw.Workspace ws = new Dtw.Workspace().ensure(n);
+
+        List<double[]> scored = new ArrayList<>();
+        double[] c = new double[n];
+        for (int i = 0; i < slices.size(); i++) {
+            if (slices.get(i).getSymbol().equals(baseSymbol)) continue;
+            if (SimilarityEngine.align(days, n, slices.get(i), c) < 0) continue;
+            scored.add(new double[]{naive(q, c, n, w), i});
+        }
+        scored.sort(Comparator.<double[]>comparingDouble(e -> e[0]).thenComparingDouble(e -> e[1]));
+        List<Object[]> top = new ArrayList<>();
+        for (int r = 0; r < Math.min(topN, scored.size()); r++) {
+            double[] e = scored.get(r);
+            top.add(new Object[]{slices.get((int) e[1]).getSymbol(), 1.0 / (1.0 + Math.sqrt(e[0]))});
+        }
+        return top;
+    }
+
+    /** 전체 행렬로 계산하는 밴드 DTW 제곱 거리 (|i - j| ≤ w) */
+    private static double naive(double[] q, double[] c, int n, int w) {
+        double[][] d = new double[n][n];
+        for (double[] row : d) Arrays.fill(row, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < n; i++) {
+            for (int j = Math.max(0, i - w); j <= Math.min(n - 1, i + w); j++) {
+                double cost = (q[i] - c[j]) * (q[i] - c[j]);
+                if (i == 0 && j == 0) {
+                    d[i][j] = cost;
+                    continue;
+                }
+                double best = Double.POSITIVE_INFINITY;
+                if (i > 0) best = Math.min(best, d[i - 1][j]);
+                if (j > 0) best = Math.min(best, d[i][j - 1]);
+                if (i > 0 && j > 0) best = Math.min(best, d[i - 1][j - 1]);
+                d[i][j] = cost + best;
+            }
+        }
+        return d[n - 1][n - 1];
+    }
+
+    /** 밴드 없이 n×n 행렬 전체를 채우는 DTW 제곱 거리 */
+    private static double fullMatrix(double[] q, double[] c) {
+        int n = q.length, m = c.length;
+        double[][] d = new double[n + 1][m + 1];
+        for (double[] row : d) Arrays.fill(row, Double.POSITIVE_INFINITY);
+        d[0][0] = 0;
+        for (int i = 1; i <= n; i++) {
+            for (int j = 1; j <= m; j++) {
+                double cost = (q[i - 1] - c[j - 1]) * (q[i - 1] - c[j - 1]);
+                d[i][j] = cost + Math.min(d[i - 1][j - 1], Math.min(d[i - 1][j], d[i][j - 1]));
+            }
+        }
+        return d[n][m];
+    }
+
+    private static SimilarityEngine engine(MarketPriceStore store, double windowRatio) {
+        SimilarityEngine engine = new SimilarityEngine(store);
+        ReflectionTestUtils.setField(engine, "preferVector", false);
+        ReflectionTestUtils.setField(engine, "parallelism", 4);
+        ReflectionTestUtils.setField(engine, "dtwWindowRatio", windowRatio);
+        ReflectionTestUtils.invokeMethod(engine, "init");
+        return engine;
+    }
+
+    private static double[] randomWalk(int n, Random random) {
+        double[] x = new double[n];
+        double price = 1_000 + random.nextInt(50_000);
+        for (int i = 0; i < n; i++) {
+            price *= 1 + random.nextGaussian() * 0.02;
+            x[i] = Math.rint(price);
+        }
+        return x;
+    }
+}
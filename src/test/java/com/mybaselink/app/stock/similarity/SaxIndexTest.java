@@ -0,0 +1,182 @@
+package com.mybaselink.app.stock.similarity;
+
+import com.mybaselink.app.dto.SimilarStockDto;
+import com.mybaselink.app.stock.MarketPriceStore;
+import com.mybaselink.app.stock.PriceSlice;
+import com.mybaselink.app.stock.PriceStoreFixture;
+import com.mybaselink.app.stock.StockPriceSeries;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SAX 인덱스 후보 + 정확한 재정렬(fast 모드)을 전 종목 정확 계산(exact)과 비교해 재현율을 확인합니다.
+ * 인덱스 길이(60)·인덱스 거래일 안의 구간과, 인덱스에 없는 길이(45)·거래일 밖의 구간(누적합 PAA 경로)을 모두 보며,
+ * 후보 수는 topN 의 5배(전 종목의 1/12)입니다.
+ */
+class SaxIndexTest {
+
+    private static final int FIRST_DAY = (int) LocalDate.of(2022, 1, 3).toEpochDay();
+    private static final int DAYS = 320;
+    private static final int TOP_N = 10;
+    private static final int CANDIDATES = 50;
+
+    @TempDir
+    Path tempDir;
+
+    private MarketPriceStore store;
+    private SaxIndex index;
+    private SimilarityEngine engine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Random random = new Random(5);
+        Map<String, StockPriceSeries> data = new LinkedHashMap<>();
+        // 모양이 비슷한 종목 묶음 + 잡음, 일부는 늦게 상장하거나 중간에 빈 날이 있음
+        double[][] shapes = new double[120][];
+        for (int f = 0; f < shapes.length; f++) shapes[f] = walk(DAYS, random, 0.02);
+        for (int s = 0; s < 600; s++) {
+            double[] shape = shapes[s % shapes.length];
+            double scale = 500 + random.nextInt(100_000);
+            double[] close = new double[DAYS];
+            double drift = 1;
+            for (int i = 0; i < DAYS; i++) {
+                drift *= 1 + random.nextGaussian() * 0.006;
+                close[i] = Math.rint(scale * shape[i] * drift);
+            }
+            if (s % 17 == 3) Arrays.fill(close, 0, 40 + random.nextInt(200), Double.NaN);
+            if (s % 11 == 5) for (int k = 0; k < 5; k++) close[1 + random.nextInt(DAYS - 1)] = Double.NaN;
+            String symbol = String.format("%06d", s);
+            data.put(symbol, PriceStoreFixture.series(symbol, FIRST_DAY, close));
+        }
+        store = PriceStoreFixture.open(tempDir, data);
+
+        index = new SaxIndex(store);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "lengths", new int[]{20, 60, 120, 250});
+        ReflectionTestUtils.setField(index, "days", 250);
+        ReflectionTestUtils.setField(index, "indexFile", tempDir.resolve("sax_index.bin").toString());
+        index.init();
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (!index.isReady()) {
+            assertTrue(System.nanoTime() < deadline, "SaxIndex 가 만들어지지 않음");
+            Thread.sleep(10);
+        }
+
+        engine = new SimilarityEngine(store);
+        ReflectionTestUtils.setField(engine, "preferVector", false);
+        ReflectionTestUtils.setField(engine, "parallelism", 2);
+        ReflectionTestUtils.setField(engine, "dtwWindowRatio", 1.0);
+        ReflectionTestUtils.invokeMethod(engine, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (index != null) index.shutdown();
+        if (engine != null) ReflectionTestUtils.invokeMethod(engine, "shutdown");
+    }
+
+    @Test
+    void indexedLengthRecallAgainstExactScan() {
+        // 길이 60, 마지막 날이 인덱스 거래일 안
+        double recall = recall(DAYS - 60, DAYS - 1);
+        assertEquals(20L, index.getStats().get("indexedQueries"));
+        assertEquals(0L, index.getStats().get("derivedQueries"));
+        assertTrue(recall >= 0.9, "재현율 " + recall);
+    }
+
+    @Test
+    void arbitraryLengthUsesDerivedPaaWithRecall() {
+        // 길이 45 는 인덱스에 없음 → 누적합 PAA 경로 (예전에는 null 을 돌려 조용히 exact 로 돌았음)
+        double recall = recall(DAYS - 80, DAYS - 36);
+        assertEquals(0L, index.getStats().get("indexedQueries"));
+        assertEquals(20L, index.getStats().get("derivedQueries"));
+        assertTrue(recall >= 0.9, "재현율 " + recall);
+    }
+
+    @Test
+    void indexedLengthOutsideIndexedDaysUsesDerivedPaa() {
+        // 길이 60 이지만 마지막 날이 인덱스 거래일(최근 250일)보다 앞
+        double recall = recall(5, 64);
+        assertEquals(20L, index.getStats().get("derivedQueries"));
+        assertTrue(recall >= 0.9, "재현율 " + recall);
+    }
+
+    @Test
+    void storePrefixPaaMatchesDirectPaa() {
+        double[] fromPrefix = new double[SaxIndex.SEGMENTS];
+        double[] direct = new double[SaxIndex.SEGMENTS];
+        int checked = 0;
+        for (PriceSlice slice : store.sliceAll(null, null)) {
+            double[] close = slice.closes();
+            for (int len : new int[]{16, 45, 60, 250}) {
+                int from = slice.length() - len - 7;
+                if (from < 0 || hasNaN(close, from, len)) continue;
+                assertEquals(SaxIndex.paa(close, from, len, direct), SaxIndex.paa(slice, from, len, fromPrefix));
+                for (int s = 0; s < SaxIndex.SEGMENTS; s++) {
+                    assertEquals(direct[s], fromPrefix[s], 1e-7, slice.getSymbol() + " len=" + len + " seg=" + s);
+                }
+                checked++;
+            }
+        }
+        assertTrue(checked > 1000, "비교한 구간 수 " + checked);
+    }
+
+    @Test
+    void tooShortWindowIsNotAnswered() {
+        LocalDate start = LocalDate.ofEpochDay(FIRST_DAY + DAYS - 10);
+        LocalDate end = LocalDate.ofEpochDay(FIRST_DAY + DAYS - 1);
+        assertNull(index.candidates("000000", start, end, CANDIDATES));
+    }
+
+    /** 기준 종목 20개의 fast / exact 상위 TOP_N 겹침 비율 평균 */
+    private double recall(int fromRow, int toRow) {
+        LocalDate start = LocalDate.ofEpochDay(FIRST_DAY + fromRow);
+        LocalDate end = LocalDate.ofEpochDay(FIRST_DAY + toRow);
+        int hits = 0, total = 0;
+        for (int b = 0, s = 0; b < 20; s += 7) {
+            if (s % 17 == 3 || s % 11 == 5) continue; // 기준 구간 첫날 종가가 없을 수 있는 종목
+            b++;
+            String base = String.format("%06d", s);
+            List<String> candidates = index.candidates(base, start, end, CANDIDATES);
+            assertNotNull(candidates, base);
+            assertEquals(CANDIDATES, candidates.size());
+            assertFalse(candidates.contains(base));
+            assertEquals(candidates.size(), new HashSet<>(candidates).size());
+
+            List<SimilarStockDto> exact = engine.findSimilar(base, start, end, SimilarityMethod.COSINE, TOP_N);
+            List<SimilarStockDto> fast = engine.findSimilar(base, start, end, SimilarityMethod.COSINE, TOP_N, candidates);
+            Map<String, Double> exactScores = new HashMap<>();
+            for (SimilarStockDto dto : exact) exactScores.put(dto.getTicker(), dto.getSimilarity().doubleValue());
+            for (SimilarStockDto dto : fast) {
+                Double score = exactScores.get(dto.getTicker());
+                if (score != null) {
+                    hits++;
+                    assertEquals(score, dto.getSimilarity().doubleValue(), 1e-12, "재정렬 점수가 exact 와 다름");
+                }
+            }
+            total += exact.size();
+        }
+        return (double) hits / total;
+    }
+
+    private static boolean hasNaN(double[] x, int from, int len) {
+        for (int i = from; i < from + len; i++) if (Double.isNaN(x[i])) return true;
+        return false;
+    }
+
+    private static double[] walk(int n, Random random, double sigma) {
+        double[] x = new double[n];
+        x[0] = 1;
+        for (int i = 1; i < n; i++) x[i] = x[i - 1] * (1 + random.nextGaussian() * sigma);
+        return x;
+    }
+}
@@ -0,0 +1,145 @@
+package com.mybaselink.app.stock.similarity;
+
+import com.mybaselink.app.dto.SimilarStockDto;
+import com.mybaselink.app.stock.MarketPriceStore;
+import com.mybaselink.app.stock.PriceStoreFixture;
+import com.mybaselink.app.stock.StockPriceSeries;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * findSimilarBatch 결과가 기준 종목마다 findSimilar(코사인) 단건 결과와 같은지 확인합니다.
+ * 거래일이 모두 있는 종목, 거래 정지일이 있는(날짜가 빠진) 종목, 구간 중간에 상장한 종목,
+ * 종가가 빈 날이 있는 종목, 첫날 종가가 없는 종목을 기준으로 섞어 씁니다.
+ */
+class SimilarityEngineBatchTest {
+
+    private static final int FIRST_DAY = (int) LocalDate.of(2023, 1, 2).toEpochDay();
+    private static final int DAYS = 200;
+
+    @TempDir
+    Path tempDir;
+
+    private SimilarityEngine engine;
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) ReflectionTestUtils.invokeMethod(engine, "shutdown");
+    }
+
+    @Test
+    void batchMatchesSingleQueries() throws Exception {
+        Random random = new Random(21);
+        Map<String, StockPriceSeries> data = new LinkedHashMap<>();
+        for (int s = 0; s < 300; s++) {
+            double[] close = walk(DAYS, random);
+            boolean[] traded = new boolean[DAYS];
+            Arrays.fill(traded, true);
+            switch (s % 10) {
+                case 1 -> { // 거래 정지일 (날짜 자체가 없음)
+                    for (int k = 0; k < 6; k++) traded[20 + random.nextInt(DAYS - 40)] = false;
+                }
+                case 2 -> Arrays.fill(traded, 0, 30 + random.nextInt(80), false); // 구간 중간 상장
+                case 3 -> { // 날짜는 있지만 종가가 빈 날
+                    for (int k = 0; k < 4; k++) close[1 + random.nextInt(DAYS - 1)] = Double.NaN;
+                }
+                case 4 -> close[10] = Double.NaN; // 구간 첫날(10) 종가 없음
+                case 5 -> { // 거래 정지 + 마지막 며칠 없음
+                    traded[50] = traded[51] = false;
+                    Arrays.fill(traded, DAYS - 3, DAYS, false);
+                }
+                default -> { }
+            }
+            if (s == 7) Arrays.fill(close, 12_340); // 값이 일정
+            String symbol = String.format("%06d", s);
+            data.put(symbol, series(symbol, close, traded));
+        }
+        MarketPriceStore store = PriceStoreFixture.open(tempDir, data);
+        engine = new SimilarityEngine(store);
+        ReflectionTestUtils.setField(engine, "preferVector", false);
+        ReflectionTestUtils.setField(engine, "parallelism", 4);
+        ReflectionTestUtils.setField(engine, "dtwWindowRatio", 1.0);
+        ReflectionTestUtils.invokeMethod(engine, "init");
+
+        LocalDate start = LocalDate.ofEpochDay(FIRST_DAY + 10);
+        LocalDate end = LocalDate.ofEpochDay(FIRST_DAY + 179);
+        List<String> bases = new ArrayList<>();
+        for (int s = 0; s < 60; s++) bases.add(String.format("%06d", s));
+        bases.add("999999");
+
+        Map<String, List<SimilarStockDto>> results = new HashMap<>();
+        Map<String, String> errors = new HashMap<>();
+        List<String> order = new ArrayList<>();
+        engine.findSimilarBatch(bases, start, end, 15, new SimilarityEngine.BatchListener() {
+            @Override
+            public void onResult(String baseSymbol, List<SimilarStockDto> list) {
+                order.add(baseSymbol);
+                results.put(baseSymbol, list);
+            }
+
+            @Override
+            public void onError(String baseSymbol, String message) {
+                order.add(baseSymbol);
+                errors.put(baseSymbol, message);
+            }
+        });
+        assertEquals(new HashSet<>(bases), new HashSet<>(order), "기준 종목마다 한 번씩 응답");
+        assertEquals(bases.size(), order.size());
+
+        for (String base : bases) {
+            List<SimilarStockDto> expected;
+            try {
+                expected = engine.findSimilar(base, start, end, SimilarityMethod.COSINE, 15);
+            } catch (IllegalArgumentException e) {
+                assertEquals(e.getMessage(), errors.get(base), base);
+                continue;
+            }
+            List<SimilarStockDto> actual = results.get(base);
+            assertNotNull(actual, base + " error=" + errors.get(base));
+            assertEquals(expected.size(), actual.size(), base);
+            for (int r = 0; r < expected.size(); r++) {
+                assertEquals(expected.get(r).getTicker(), actual.get(r).getTicker(), base + " rank=" + r);
+                assertEquals(expected.get(r).getSimilarity().doubleValue(), actual.get(r).getSimilarity().doubleValue(),
+                        1e-9, base + " rank=" + r);
+            }
+        }
+        // 늦게 상장한 기준 종목(2), 거래 정지일이 있는 기준 종목(1, 5)도 단건과 같은 결과를 받음
+        for (String base : List.of("000001", "000002", "000005", "000012", "000015")) {
+            assertFalse(results.get(base).isEmpty(), base);
+        }
+        assertTrue(errors.containsKey("000004"), "첫날 종가 없음");
+        assertTrue(errors.containsKey("999999"), "저장소에 없는 종목");
+    }
+
+    private static StockPriceSeries series(String symbol, double[] close, boolean[] traded) {
+        int n = 0;
+        for (boolean t : traded) if (t) n++;
+        int[] days = new int[n];
+        double[] c = new double[n];
+        long[] volume = new long[n];
+        for (int i = 0, k = 0; i < traded.length; i++) {
+            if (!traded[i]) continue;
+            days[k] = FIRST_DAY + i;
+            c[k++] = close[i];
+        }
+        return new StockPriceSeries(symbol, n, days, c.clone(), c.clone(), c.clone(), c, volume);
+    }
+
+    private static double[] walk(int n, Random random) {
+        double[] x = new double[n];
+        double price = 1_000 + random.nextInt(50_000);
+        for (int i = 0; i < n; i++) {
+            price *= 1 + random.nextGaussian() * 0.02;
+            x[i] = Math.rint(price);
+        }
+        return x;
+    }
+}
@@ -0,0 +1,172 @@
+package com.mybaselink.app.stock.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 한 번의 루프로 합계를 모으는 유사도 커널을 항목별로 따로 계산한 값과 비교합니다.
+ * 스칼라 커널과 {@link SimilarityKernel#create(boolean)} 가 고른 커널(-Pvector-api 빌드에서는 Vector API 판)을 모두 확인하며,
+ * 길이는 SIMD 레인 배수와 나머지 꼬리가 모두 나오도록 3 부터 고릅니다.
+ */
+class SimilarityKernelTest {
+
+    @Test
+    void sumsMatchNaiveCalculation() {
+        for (SimilarityKernel kernel : kernels()) {
+            Random random = new Random(7);
+            for (int t = 0; t < 400; t++) {
+                int n = 3 + random.nextInt(t < 100 ? 20 : 300);
+                double[] b = randomWalk(n, random);
+                double[] c = randomWalk(n, random);
+
+                double[] sums = accumulate(kernel, b, c);
+                Naive naive = new Naive(b, c);
+                String at = kernel.name() + " n=" + n;
+                assertClose(naive.sumC, sums[SimilarityKernel.SUM_C], at + " Σc");
+                assertClose(naive.sumC2, sums[SimilarityKernel.SUM_C2], at + " Σc²");
+                assertClose(naive.sumBC, sums[SimilarityKernel.SUM_BC], at + " Σ(b-mean)c");
+                assertClose(naive.sumDiff2, sums[SimilarityKernel.SUM_DIFF2], at + " Σ(b-c)²");
+                assertClose(naive.sumGrad, sums[SimilarityKernel.SUM_GRAD], at + " Σ|Δgradient|");
+            }
+        }
+    }
+
+    @Test
+    void scoresFromSumsMatchTextbookFormulas() {
+        for (SimilarityKernel kernel : kernels()) {
+            Random random = new Random(11);
+            for (int t = 0; t < 200; t++) {
+                int n = 3 + random.nextInt(250);
+                double[] b = randomWalk(n, random);
+                double[] c = randomWalk(n, random);
+                double[] sums = accumulate(kernel, b, c);
+                Naive naive = new Naive(b, c);
+
+                // 엔진과 같은 방식으로 합계에서 점수를 만든다
+                double meanC = sums[SimilarityKernel.SUM_C] / n;
+                double varC = sums[SimilarityKernel.SUM_C2] - n * meanC * meanC;
+                double pearson = sums[SimilarityKernel.SUM_BC] / (naive.bNorm * Math.sqrt(varC));
+                double euclidean = 1.0 / (1.0 + Math.sqrt(sums[SimilarityKernel.SUM_DIFF2]));
+                double slope = 1.0 / (1.0 + sums[SimilarityKernel.SUM_GRAD] / n);
+
+                String at = kernel.name() + " n=" + n;
+                assertEquals(naive.pearson(), pearson, 1e-9, at + " pearson");
+                assertEquals(naive.zCosine(), pearson, 1e-9, at + " cosine(z)");
+                assertEquals(1.0 / (1.0 + Math.sqrt(naive.sumDiff2)), euclidean, 1e-12, at + " euclidean");
+                assertEquals(1.0 / (1.0 + naive.sumGrad / n), slope, 1e-12, at + " slope");
+            }
+        }
+    }
+
+    @Test
+    void defaultBuildUsesScalarKernelWithoutVectorModule() {
+        SimilarityKernel kernel = SimilarityKernel.create(true);
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            assertEquals("scalar", kernel.name());
+        }
+        assertEquals("scalar", SimilarityKernel.create(false).name());
+    }
+
+    private static List<SimilarityKernel> kernels() {
+        return List.of(new SimilarityKernel.Scalar(), SimilarityKernel.create(true));
+    }
+
+    private static double[] accumulate(SimilarityKernel kernel, double[] b, double[] c) {
+        int n = b.length;
+        double mean = 0;
+        for (double v : b) mean += v;
+        mean /= n;
+        double[] centered = new double[n];
+        for (int i = 0; i < n; i++) centered[i] = b[i] - mean;
+        double[] gb = new double[n];
+        SimilarityKernel.gradient(b, n, gb);
+        double[] out = new double[SimilarityKernel.SUMS];
+        kernel.accumulate(b, centered, gb, c, n, out);
+        return out;
+    }
+
+    /** 항목마다 따로 도는 단순 계산 */
+    private static final class Naive {
+        final double[] b, c;
+        final double sumC, sumC2, sumBC, sumDiff2, sumGrad, bNorm;
+
+        Naive(double[] b, double[] c) {
+            this.b = b;
+            this.c = c;
+            int n = b.length;
+            double mb = mean(b);
+            double s1 = 0, s2 = 0, s3 = 0, s4 = 0, s5 = 0, nb = 0;
+            for (int i = 0; i < n; i++) s1 += c[i];
+            for (int i = 0; i < n; i++) s2 += c[i] * c[i];
+            for (int i = 0; i < n; i++) s3 += (b[i] - mb) * c[i];
+            for (int i = 0; i < n; i++) s4 += (b[i] - c[i]) * (b[i] - c[i]);
+            for (int i = 0; i < n; i++) s5 += Math.abs(npGradient(b, i) - npGradient(c, i));
+            for (int i = 0; i < n; i++) nb += (b[i] - mb) * (b[i] - mb);
+            sumC = s1;
+            sumC2 = s2;
+            sumBC = s3;
+            sumDiff2 = s4;
+            sumGrad = s5;
+            bNorm = Math.sqrt(nb);
+        }
+
+        double pearson() {
+            double mb = mean(b), mc = mean(c), sxy = 0, sxx = 0, syy = 0;
+            for (int i = 0; i < b.length; i++) {
+                sxy += (b[i] - mb) * (c[i] - mc);
+                sxx += (b[i] - mb) * (b[i] - mb);
+                syy += (c[i] - mc) * (c[i] - mc);
+            }
+            return sxy / Math.sqrt(sxx * syy);
+        }
+
+        /** z-정규화한 두 벡터의 코사인 유사도 */
+        double zCosine() {
+            double[] zb = zNormalize(b), zc = zNormalize(c);
+            double dot = 0, nb = 0, nc = 0;
+            for (int i = 0; i < zb.length; i++) {
+                dot += zb[i] * zc[i];
+                nb += zb[i] * zb[i];
+                nc += zc[i] * zc[i];
+            }
+            return dot / Math.sqrt(nb * nc);
+        }
+
+        private static double[] zNormalize(double[] x) {
+            double m = mean(x), var = 0;
+            for (double v : x) var += (v - m) * (v - m);
+            double sd = Math.sqrt(var / x.length);
+            double[] z = new double[x.length];
+            for (int i = 0; i < x.length; i++) z[i] = (x[i] - m) / sd;
+            return z;
+        }
+
+        private static double npGradient(double[] x, int i) {
+            int n = x.length;
+            if (i == 0) return x[1] - x[0];
+            if (i == n - 1) return x[n - 1] - x[n - 2];
+            return (x[i + 1] - x[i - 1]) / 2.0;
+        }
+
+        private static double mean(double[] x) {
+            double s = 0;
+            for (double v : x) s += v;
+            return s / x.length;
+        }
+    }
+
+    private static void assertClose(double expected, double actual, String message) {
+        assertEquals(expected, actual, 1e-9 * Math.max(1.0, Math.abs(expected)), message);
+    }
+
+    private static double[] randomWalk(int n, Random random) {
+        double[] x = new double[n];
+        x[0] = 0.5 + random.nextDouble();
+        for (int i = 1; i < n; i++) x[i] = x[i - 1] * (1 + 0.03 * random.nextGaussian());
+        return x;
+    }
+}
@@ -0,0 +1,181 @@
+package com.mybaselink.app.stock.similarity;
+
+import com.mybaselink.app.dto.SubsequenceMatchDto;
+import com.mybaselink.app.stock.MarketPriceStore;
+import com.mybaselink.app.stock.PriceSlice;
+import com.mybaselink.app.stock.PriceStoreFixture;
+import com.mybaselink.app.stock.StockPriceSeries;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SubsequenceSearchEngine(MASS, FFT 내적)을 구간마다 직접 z-정규화해 거리를 재는 단순 계산과 비교합니다.
+ */
+class SubsequenceSearchEngineTest {
+
+    private static final int FIRST_DAY = (int) LocalDate.of(2016, 1, 4).toEpochDay();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void matchesNaiveSlidingZNormalizedDistance() throws Exception {
+        Random random = new Random(12);
+        Map<String, StockPriceSeries> data = new LinkedHashMap<>();
+        for (int s = 0; s < 45; s++) {
+            int n = s % 9 == 4 ? 20 + random.nextInt(30) : 300 + random.nextInt(900);
+            double[] close = randomWalk(n, random);
+            // 상장 전(앞쪽 NaN), 거래 정지(중간 NaN), 값이 일정한 구간
+            if (s % 5 == 1) Arrays.fill(close, 0, Math.min(n, 1 + random.nextInt(60)), Double.NaN);
+            for (int i = 1; i < n; i++) if (random.nextInt(100) == 0) close[i] = Double.NaN;
+            if (s % 7 == 3 && n > 200) Arrays.fill(close, 100, 190, close[99]);
+            String symbol = String.format("%06d", s);
+            data.put(symbol, PriceStoreFixture.series(symbol, FIRST_DAY + random.nextInt(30), close));
+        }
+        // 기준 구간을 a·x + b 로 옮겨 심은 종목 (거리 0 으로 찾아야 함)
+        double[] base = data.get("000000").getClose().clone();
+        SimilarityEngine.interpolate(base, base.length);
+        double[] planted = randomWalk(400, random);
+        for (int j = 0; j < 60; j++) planted[200 + j] = 3.5 * base[150 + j] + 1_000;
+        data.put("999999", PriceStoreFixture.series("999999", FIRST_DAY, planted));
+
+        MarketPriceStore store = PriceStoreFixture.open(tempDir, data);
+        SubsequenceSearchEngine engine = new SubsequenceSearchEngine(store);
+        ReflectionTestUtils.setField(engine, "parallelism", 3);
+        ReflectionTestUtils.setField(engine, "maxLength", 500);
+        ReflectionTestUtils.invokeMethod(engine, "init");
+
+        PriceSlice full = store.slice("000000");
+        LocalDate start = full.date(150);
+        LocalDate end = full.date(209);
+        List<SubsequenceMatchDto> top = engine.findMatches("000000", start, end, 5, 1);
+        assertEquals("999999", top.get(0).getTicker());
+        assertEquals(200, top.get(0).getOffset());
+        assertEquals(0.0, top.get(0).getDistance(), 1e-5);
+
+        int[][] cases = {{150, 209, 10, 1}, {150, 209, 25, 3}, {10, 13, 15, 2}, {40, 239, 30, 4}, {0, 99, 500, 2}};
+        for (int[] c : cases) {
+            start = full.date(c[0]);
+            end = full.date(c[1]);
+            List<SubsequenceMatchDto> actual = engine.findMatches("000000", start, end, c[2], c[3]);
+            List<Object[]> expected = naive(store, "000000", start, end, c[2], c[3]);
+            String at = "window=[" + c[0] + ", " + c[1] + "] topN=" + c[2] + " perSymbol=" + c[3];
+            assertEquals(expected.size(), actual.size(), at);
+            int m = c[1] - c[0] + 1;
+            for (int r = 0; r < expected.size(); r++) {
+                SubsequenceMatchDto dto = actual.get(r);
+                String rank = at + " rank=" + r;
+                assertEquals(expected.get(r)[0], dto.getTicker(), rank);
+                assertEquals(expected.get(r)[1], dto.getOffset(), rank);
+                double d2 = (double) expected.get(r)[2];
+                assertEquals(Math.sqrt(d2), dto.getDistance(), 1e-6 * Math.sqrt(m), rank);
+                assertEquals(1.0 - d2 / (2.0 * m), dto.getCorrelation(), 1e-9, rank);
+                PriceSlice slice = store.slice(dto.getTicker());
+                assertEquals(slice.date(dto.getOffset()).toString(), dto.getStartDate(), rank);
+                assertEquals(slice.date(dto.getOffset() + m - 1).toString(), dto.getEndDate(), rank);
+            }
+        }
+
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.findMatches("000000", full.date(10), full.date(12), 5, 1));
+        ReflectionTestUtils.invokeMethod(engine, "shutdown");
+    }
+
+    /**
+     * 모든 종목·시작 위치에서 구간을 직접 z-정규화해 제곱 거리를 구하고,
+     * 종목마다 m/2 이내를 제외하며 perSymbol 개를 고른 뒤 (거리, 전체 행 위치) 순 앞 topN 개 {종목, 위치, 제곱 거리}
+     */
+    private static List<Object[]> naive(MarketPriceStore store, String baseSymbol, LocalDate start, LocalDate end,
+                                        int topN, int perSymbol) {
+        PriceSlice window = store.slice(baseSymbol, start, end);
+        int m = window.length();
+        double[] closes = window.closes();
+        SimilarityEngine.interpolate(closes, m);
+        double[] q = zNormalize(closes, 0, m);
+
+        List<PriceSlice> slices = store.sliceAll(null, null);
+        List<double[]> found = new ArrayList<>();
+        int rowStart = 0;
+        for (PriceSlice slice : slices) {
+            int total = slice.length();
+            int first = 0;
+            while (first < total && Double.isNaN(slice.close(first))) first++;
+            int n = total - first;
+            double[] v = new double[Math.max(n, 0)];
+            for (int i = 0; i < n; i++) v[i] = slice.close(first + i);
+            if (n > 0) SimilarityEngine.interpolate(v, n);
+
+            int positions = n - m + 1;
+            double[] dist = new double[Math.max(positions, 0)];
+            for (int i = 0; i < positions; i++) {
+                double[] w = zNormalize(v, i, m);
+                if (w == null) {
+                    dist[i] = Double.POSITIVE_INFINITY;
+                    continue;
+                }
+                double d2 = 0;
+                for (int j = 0; j < m; j++) d2 += (q[j] - w[j]) * (q[j] - w[j]);
+                dist[i] = d2;
+            }
+            if (slice.getSymbol().equals(baseSymbol)) {
+                int queryAt = 0;
+                while (slice.epochDay(queryAt) < window.epochDay(0)) queryAt++;
+                queryAt -= first;
+                for (int i = Math.max(0, queryAt - m + 1); i <= Math.min(positions - 1, queryAt + m - 1); i++) {
+                    dist[i] = Double.POSITIVE_INFINITY;
+                }
+            }
+            int exclusion = Math.max(1, m / 2);
+            for (int r = 0; r < perSymbol; r++) {
+                int best = -1;
+                for (int i = 0; i < positions; i++) {
+                    if (dist[i] < (best < 0 ? Double.POSITIVE_INFINITY : dist[best])) best = i;
+                }
+                if (best < 0) break;
+                found.add(new double[]{dist[best], rowStart + first + best, slices.indexOf(slice), first + best});
+                for (int i = Math.max(0, best - exclusion); i <= Math.min(positions - 1, best + exclusion); i++) {
+                    dist[i] = Double.POSITIVE_INFINITY;
+                }
+            }
+            rowStart += total;
+        }
+        found.sort(Comparator.<double[]>comparingDouble(e -> e[0]).thenComparingDouble(e -> e[1]));
+        List<Object[]> top = new ArrayList<>();
+        for (int r = 0; r < Math.min(topN, found.size()); r++) {
+            double[] e = found.get(r);
+            top.add(new Object[]{slices.get((int) e[2]).getSymbol(), (int) e[3], e[0]});
+        }
+        return top;
+    }
+
+    /** x[from, from + m) 의 z-정규화 (모집단 표준편차). 값이 (거의) 일정하면 null */
+    private static double[] zNormalize(double[] x, int from, int m) {
+        double mean = 0;
+        for (int j = 0; j < m; j++) mean += x[from + j];
+        mean /= m;
+        double var = 0;
+        for (int j = 0; j < m; j++) var += (x[from + j] - mean) * (x[from + j] - mean);
+        double std = Math.sqrt(var / m);
+        if (std == 0 || std <= 1e-9 * Math.abs(mean)) return null;
+        double[] z = new double[m];
+        for (int j = 0; j < m; j++) z[j] = (x[from + j] - mean) / std;
+        return z;
+    }
+
+    private static double[] randomWalk(int n, Random random) {
+        double[] x = new double[n];
+        double price = 1_000 + random.nextInt(200_000);
+        for (int i = 0; i < n; i++) {
+            price *= 1 + random.nextGaussian() * 0.02;
+            x[i] = Math.rint(price);
+        }
+        return x;
+    }
+}
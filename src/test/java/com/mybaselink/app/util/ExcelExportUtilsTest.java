@@ -0,0 +1,106 @@
+package com.mybaselink.app.util;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.util.DefaultTempFileCreationStrategy;
+import org.apache.poi.util.TempFile;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ExcelExportUtils 로 몇백 행을 바이트 스트림에 쓰고 XSSFWorkbook 으로 다시 읽어 머리글·셀·열 너비를 확인합니다.
+ * SXSSF 임시 파일은 tempDir 에 만들게 해 두고, 쓰는 동안 생겼다가 끝나면 지워지는지도 봅니다.
+ */
+class ExcelExportUtilsTest {
+
+    private static final String[] HEADERS = {"번호", "종목명", "Close", "비고"};
+    private static final int ROWS = 300;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writtenWorkbookReadsBackWithXssf() throws IOException {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            String note = i % 7 == 0 ? null : "memo-" + i;
+            if (i == 123) note = "x".repeat(100);
+            rows.add(new Object[]{i, "종목" + i, 1000 + i * 0.5, note});
+        }
+
+        TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy(tempDir.toFile()));
+        boolean[] spilled = {false};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ExcelExportUtils.write(out, "목록", HEADERS, rows, r -> {
+                // 창(200행)을 넘긴 뒤에는 앞선 행들이 압축 임시 파일로 나가 있어야 함
+                if ((int) r[0] == 250) spilled[0] = countTempFiles() > 0;
+                return r;
+            });
+        } finally {
+            TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy());
+        }
+        assertTrue(spilled[0], "쓰는 도중 임시 파일이 없음");
+        assertEquals(0, countTempFiles(), "dispose 뒤에도 임시 파일이 남음");
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("목록");
+            assertNotNull(sheet);
+            assertEquals(ROWS, sheet.getLastRowNum());
+
+            Row header = sheet.getRow(0);
+            for (int c = 0; c < HEADERS.length; c++) {
+                Cell cell = header.getCell(c);
+                assertEquals(HEADERS[c], cell.getStringCellValue());
+                assertTrue(workbook.getFontAt(cell.getCellStyle().getFontIndex()).getBold());
+            }
+
+            for (int i = 0; i < ROWS; i++) {
+                Object[] expected = rows.get(i);
+                Row row = sheet.getRow(i + 1);
+                assertEquals(CellType.NUMERIC, row.getCell(0).getCellType());
+                assertEquals(i, row.getCell(0).getNumericCellValue());
+                assertEquals(CellType.STRING, row.getCell(1).getCellType());
+                assertEquals(expected[1], row.getCell(1).getStringCellValue());
+                assertEquals(CellType.NUMERIC, row.getCell(2).getCellType());
+                assertEquals(((Number) expected[2]).doubleValue(), row.getCell(2).getNumericCellValue());
+                assertEquals(CellType.STRING, row.getCell(3).getCellType());
+                assertEquals(expected[3] == null ? "" : expected[3], row.getCell(3).getStringCellValue());
+            }
+
+            // 번호 "번호"(4) / 종목명 "종목299"(7) / Close "1149.5"(6) / 비고 100자 → 상한 60
+            int[] chars = {4 + 2, 7 + 2, 6 + 2, 60};
+            for (int c = 0; c < chars.length; c++) {
+                assertEquals(chars[c] * 256, sheet.getColumnWidth(c), "column " + c);
+            }
+        }
+    }
+
+    @Test
+    void contentDispositionEncodesKoreanFilename() {
+        assertEquals("attachment; filename=\"종목 목록.xlsx\"; filename*=UTF-8''%EC%A2%85%EB%AA%A9%20%EB%AA%A9%EB%A1%9D.xlsx",
+                ExcelExportUtils.contentDisposition("종목 목록.xlsx"));
+    }
+
+    private long countTempFiles() {
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            return files.filter(Files::isRegularFile).count();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,379 @@
+"""
+ParquetFileReaderTest 용 작은 parquet 파일 생성기 (표준 라이브러리만 사용).
+
+    python make_fixtures.py      # 이 폴더에 prices_{uncompressed,snappy,gzip}.parquet 생성
+
+세 파일은 코덱만 다르고 내용은 같음. 값은 행 번호 i 로 정해지며 테스트가 같은 식으로 다시 계산해 비교함.
+  - 1,000 행, row group 2 개 (0~399, 400~999), data page 는 128 행씩
+  - Date   INT64 TIMESTAMP(NANOS)  PLAIN, row group 통계(min/max) 포함        = 2020-01-01 + i 일
+  - Open   DOUBLE PLAIN (v1 page)                                              = 1000 + i * 0.25
+  - High   DOUBLE PLAIN (v2 page)                                              = Open + 1.5
+  - Low    DOUBLE PLAIN (v1 page), 250~269 행 null (page 경계를 걸침)          = Open - 1.5
+  - Close  DOUBLE 사전 인코딩, 3 행과 50~79 행 null                            = 100 + (i // 10) % 37
+  - Volume INT64 PLAIN, 5·17·500 행과 600~699 행 null                          = i * 10
+definition level 과 사전 인덱스는 RLE run 과 bit-packed run 을 섞어 씀.
+snappy 는 literal·copy(1/2 바이트 offset, 겹치는 복사 포함)를 모두 쓰는 간단한 압축기로 만듦.
+"""
+import gzip
+import os
+import struct
+
+N = 1000
+ROW_GROUPS = [(0, 400), (400, 1000)]
+PAGE = 128
+FIRST_DAY = 18262  # 2020-01-01
+NANOS_PER_DAY = 86400 * 10 ** 9
+
+CODEC_UNCOMPRESSED, CODEC_SNAPPY, CODEC_GZIP = 0, 1, 2
+TYPE_INT64, TYPE_DOUBLE = 2, 5
+ENC_PLAIN, ENC_RLE, ENC_RLE_DICTIONARY = 0, 3, 8
+
+
+def varint(n):
+    out = bytearray()
+    while True:
+        b = n & 0x7F
+        n >>= 7
+        if n:
+            out.append(b | 0x80)
+        else:
+            out.append(b)
+            return bytes(out)
+
+
+def zigzag(n):
+    return (n << 1) ^ (n >> 63)
+
+
+# ---------------------------------------------------------------- thrift compact
+
+class Thrift:
+    def __init__(self):
+        self.b = bytearray()
+        self.last = [0]
+
+    def field(self, fid, t):
+        d = fid - self.last[-1]
+        if 0 < d <= 15:
+            self.b.append((d << 4) | t)
+        else:
+            self.b.append(t)
+            self.b += varint(zigzag(fid))
+        self.last[-1] = fid
+
+    def i32(self, fid, v):
+        self.field(fid, 5)
+        self.b += varint(zigzag(v))
+
+    def i64(self, fid, v):
+        self.field(fid, 6)
+        self.b += varint(zigzag(v))
+
+    def binary(self, fid, v):
+        if isinstance(v, str):
+            v = v.encode()
+        self.field(fid, 8)
+        self.b += varint(len(v)) + v
+
+    def boolean(self, fid, v):
+        self.field(fid, 1 if v else 2)
+
+    def begin(self, fid):
+        self.field(fid, 12)
+        self.last.append(0)
+
+    def end(self):
+        self.b.append(0)
+        self.last.pop()
+
+    def list_begin(self, fid, elem_type, n):
+        self.field(fid, 9)
+        self.b.append((n << 4) | elem_type if n < 15 else 0xF0 | elem_type)
+        if n >= 15:
+            self.b += varint(n)
+        self.last.append(0)
+
+    def list_end(self):
+        self.last.pop()
+
+    def element_begin(self):
+        self.last[-1] = 0
+
+    def stop(self):
+        self.b.append(0)
+
+
+# ---------------------------------------------------------------- RLE / bit-packing hybrid
+
+def hybrid(values, bit_width):
+    """같은 값이 8 개 이상 이어지면 RLE run, 나머지는 8 개 묶음 bit-packed run"""
+    out = bytearray()
+    byte_width = (bit_width + 7) // 8
+    n = len(values)
+
+    def run_at(i):
+        j = i
+        while j < n and values[j] == values[i]:
+            j += 1
+        return j - i
+
+    i = 0
+    while i < n:
+        r = run_at(i)
+        if r >= 8:
+            out += varint(r << 1) + values[i].to_bytes(byte_width, 'little')
+            i += r
+            continue
+        packed = []
+        while i < n and (not packed or run_at(i) < 8):
+            packed += values[i:i + 8]
+            i += 8
+        groups = (len(packed) + 7) // 8
+        packed += [0] * (groups * 8 - len(packed))
+        out += varint((groups << 1) | 1)
+        acc = bits = 0
+        for v in packed:
+            acc |= v << bits
+            bits += bit_width
+            while bits >= 8:
+                out.append(acc & 0xFF)
+                acc >>= 8
+                bits -= 8
+    return bytes(out)
+
+
+# ---------------------------------------------------------------- snappy (raw block)
+
+def snappy(data):
+    out = bytearray(varint(len(data)))
+    table = {}
+    pos = lit = 0
+
+    def literal(end):
+        start = lit
+        while start < end:
+            chunk = data[start:min(end, start + 65536)]
+            k = len(chunk) - 1
+            if k < 60:
+                out.append(k << 2)
+            elif k < 256:
+                out.append(60 << 2)
+                out.append(k)
+            else:
+                out.append(61 << 2)
+                out.extend(k.to_bytes(2, 'little'))
+            out.extend(chunk)
+            start += len(chunk)
+
+    while pos + 4 <= len(data):
+        key = data[pos:pos + 4]
+        cand = table.get(key)
+        table[key] = pos
+        if cand is None or pos - cand > 0xFFFF:
+            pos += 1
+            continue
+        length = 4
+        while pos + length < len(data) and data[cand + length] == data[pos + length]:
+            length += 1
+        literal(pos)
+        offset = pos - cand
+        remaining = length
+        while remaining > 0:
+            n = min(remaining, 64)
+            if remaining - n in (1, 2, 3):  # 남은 조각이 4 바이트 미만이 되지 않게
+                n = remaining - 4
+            if 4 <= n <= 11 and offset < 2048:
+                out.append(((offset >> 8) << 5) | ((n - 4) << 2) | 1)
+                out.append(offset & 0xFF)
+            else:
+                out.append(((n - 1) << 2) | 2)
+                out += offset.to_bytes(2, 'little')
+            remaining -= n
+        pos += length
+        lit = pos
+    lit_end = len(data)
+    if lit < lit_end:
+        literal(lit_end)
+    return bytes(out)
+
+
+# ---------------------------------------------------------------- 데이터
+
+def date(i):
+    return (FIRST_DAY + i) * NANOS_PER_DAY
+
+
+def open_(i):
+    return 1000 + i * 0.25
+
+
+COLUMNS = [
+    # name, physical type, struct fmt, value(i), null rows, dictionary, v2 pages
+    ('Date', TYPE_INT64, 'q', date, set(), False, False),
+    ('Open', TYPE_DOUBLE, 'd', open_, set(), False, False),
+    ('High', TYPE_DOUBLE, 'd', lambda i: open_(i) + 1.5, set(), False, True),
+    ('Low', TYPE_DOUBLE, 'd', lambda i: open_(i) - 1.5, set(range(250, 270)), False, False),
+    ('Close', TYPE_DOUBLE, 'd', lambda i: 100.0 + (i // 10) % 37, {3} | set(range(50, 80)), True, False),
+    ('Volume', TYPE_INT64, 'q', lambda i: i * 10, {5, 17, 500} | set(range(600, 700)), False, False),
+]
+
+
+def compress(codec, body):
+    if codec == CODEC_SNAPPY:
+        return snappy(body)
+    if codec == CODEC_GZIP:
+        return gzip.compress(body, mtime=0)
+    return body
+
+
+def page_header(page_type, uncompressed, compressed, write_sub):
+    t = Thrift()
+    t.i32(1, page_type)
+    t.i32(2, uncompressed)
+    t.i32(3, compressed)
+    write_sub(t)
+    t.stop()
+    return bytes(t.b)
+
+
+def write_chunk(out, codec, column, lo, hi):
+    name, ptype, fmt, value, nulls, dictionary, v2 = column
+    start = len(out)
+    dict_offset = None
+    ids = None
+    if dictionary:
+        uniq = sorted({value(i) for i in range(lo, hi) if i not in nulls})
+        ids = {v: k for k, v in enumerate(uniq)}
+        body = b''.join(struct.pack('<' + fmt, v) for v in uniq)
+        c = compress(codec, body)
+        dict_offset = len(out)
+
+        def dict_header(t):
+            t.begin(7)
+            t.i32(1, len(uniq))
+            t.i32(2, ENC_PLAIN)
+            t.end()
+        out += page_header(2, len(body), len(c), dict_header) + c
+    data_offset = len(out)
+
+    for p in range(lo, hi, PAGE):
+        rows = range(p, min(hi, p + PAGE))
+        defs = hybrid([0 if i in nulls else 1 for i in rows], 1)
+        present = [value(i) for i in rows if i not in nulls]
+        if dictionary:
+            bw = max(1, (len(ids) - 1).bit_length())
+            values = bytes([bw]) + hybrid([ids[v] for v in present], bw)
+            encoding = ENC_RLE_DICTIONARY
+        else:
+            values = b''.join(struct.pack('<' + fmt, v) for v in present)
+            encoding = ENC_PLAIN
+
+        if v2:
+            c = compress(codec, values)
+
+            def v2_header(t, n=len(rows), nn=len(rows) - len(present)):
+                t.begin(8)
+                t.i32(1, n)
+                t.i32(2, nn)
+                t.i32(3, n)
+                t.i32(4, encoding)
+                t.i32(5, len(defs))
+                t.i32(6, 0)
+                t.boolean(7, codec != CODEC_UNCOMPRESSED)
+                t.end()
+            out += page_header(3, len(defs) + len(values), len(defs) + len(c), v2_header) + defs + c
+        else:
+            body = struct.pack('<i', len(defs)) + defs + values
+            c = compress(codec, body)
+
+            def v1_header(t, n=len(rows)):
+                t.begin(5)
+                t.i32(1, n)
+                t.i32(2, encoding)
+                t.i32(3, ENC_RLE)
+                t.i32(4, ENC_RLE)
+                t.end()
+            out += page_header(0, len(body), len(c), v1_header) + c
+
+    return dict(name=name, type=ptype, start=start, data_offset=data_offset, dict_offset=dict_offset,
+                size=len(out) - start, rows=hi - lo)
+
+
+def write_file(path, codec):
+    out = bytearray(b'PAR1')
+    groups = []
+    for lo, hi in ROW_GROUPS:
+        chunks = [write_chunk(out, codec, column, lo, hi) for column in COLUMNS]
+        chunks[0]['stats'] = (date(lo), date(hi - 1))
+        groups.append((lo, hi, chunks))
+
+    m = Thrift()
+    m.i32(1, 1)
+    m.list_begin(2, 12, len(COLUMNS) + 1)
+    m.element_begin()
+    m.binary(4, 'schema')
+    m.i32(5, len(COLUMNS))
+    m.stop()
+    for name, ptype, *_ in COLUMNS:
+        m.element_begin()
+        m.i32(1, ptype)
+        m.i32(3, 1)  # OPTIONAL
+        m.binary(4, name)
+        if name == 'Date':
+            m.begin(10)      # LogicalType
+            m.begin(8)       # TIMESTAMP
+            m.boolean(1, False)
+            m.begin(2)       # unit
+            m.begin(3)       # NANOS
+            m.end()
+            m.end()
+            m.end()
+            m.end()
+        m.stop()
+    m.list_end()
+    m.i64(3, N)
+    m.list_begin(4, 12, len(groups))
+    for lo, hi, chunks in groups:
+        m.element_begin()
+        m.list_begin(1, 12, len(chunks))
+        for ch in chunks:
+            m.element_begin()
+            m.i64(2, ch['start'])
+            m.begin(3)       # ColumnMetaData
+            m.i32(1, ch['type'])
+            m.list_begin(2, 5, 1)
+            m.b += varint(zigzag(ENC_PLAIN))
+            m.list_end()
+            m.list_begin(3, 8, 1)
+            m.b += varint(len(ch['name'])) + ch['name'].encode()
+            m.list_end()
+            m.i32(4, codec)
+            m.i64(5, ch['rows'])
+            m.i64(6, ch['size'])
+            m.i64(7, ch['size'])
+            m.i64(9, ch['data_offset'])
+            if ch['dict_offset'] is not None:
+                m.i64(11, ch['dict_offset'])
+            if 'stats' in ch:
+                m.begin(12)
+                m.binary(5, struct.pack('<q', ch['stats'][1]))
+                m.binary(6, struct.pack('<q', ch['stats'][0]))
+                m.end()
+            m.end()
+            m.stop()
+        m.list_end()
+        m.i64(2, sum(ch['size'] for ch in chunks))
+        m.i64(3, hi - lo)
+        m.stop()
+    m.list_end()
+    m.binary(6, 'make_fixtures.py')
+    m.stop()
+    out += m.b + struct.pack('<i', len(m.b)) + b'PAR1'
+    with open(path, 'wb') as f:
+        f.write(out)
+
+
+if __name__ == '__main__':
+    here = os.path.dirname(os.path.abspath(__file__))
+    for codec, suffix in [(CODEC_UNCOMPRESSED, 'uncompressed'), (CODEC_SNAPPY, 'snappy'), (CODEC_GZIP, 'gzip')]:
+        write_file(os.path.join(here, 'prices_' + suffix + '.parquet'), codec)